@@ -221,6 +221,10 @@ public abstract class ApplicationService implements Service {
         return persistenceService.readAllPersisted();
     }
 
+    public CompletableFuture<Boolean> readAllDeferredPersisted() {
+        return persistenceService.readAllDeferredPersisted();
+    }
+
     public CompletableFuture<Boolean> initialize() {
         CompletableFuture<Boolean> completableFuture = migrationService.orElseThrow().initialize();
         migrationService = Optional.empty();
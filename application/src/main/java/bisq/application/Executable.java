@@ -85,7 +85,14 @@ public abstract class Executable<T extends ApplicationService> implements ShutDo
     }
 
     protected void onApplicationLaunched() {
-        applicationService.initialize()
+        // Stores not required for launching the application are read in the background, but must be applied before
+        // the services get initialized.
+        long ts = System.currentTimeMillis();
+        applicationService.readAllDeferredPersisted()
+                .thenCompose(result -> {
+                    log.info("Waiting for readAllDeferredPersisted took {} ms", System.currentTimeMillis() - ts);
+                    return applicationService.initialize();
+                })
                 .whenComplete(this::onApplicationServiceInitialized);
     }
 
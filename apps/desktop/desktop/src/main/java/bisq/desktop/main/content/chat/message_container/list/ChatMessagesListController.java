@@ -225,7 +225,7 @@ public class ChatMessagesListController implements Controller {
 
         model.getChatMessages().forEach(ChatMessageListItem::dispose);
         model.getChatMessages().clear();
-        model.getChatMessageIds().clear();
+        model.getChatMessageItemById().clear();
     }
 
     private void selectedChannelChanged(ChatChannel<? extends ChatMessage> channel) {
@@ -240,7 +240,7 @@ public class ChatMessagesListController implements Controller {
             // Clear and call dispose on the current messages when we change the channel.
             model.getChatMessages().forEach(ChatMessageListItem::dispose);
             model.getChatMessages().clear();
-            model.getChatMessageIds().clear();
+            model.getChatMessageItemById().clear();
             model.setAutoScrollToBottom(true);
 
             if (channel instanceof BisqEasyOfferbookChannel bisqEasyOfferbookChannel) {
@@ -705,10 +705,8 @@ public class ChatMessagesListController implements Controller {
                         authorizedBondedRolesService))
                 .collect(Collectors.toCollection(LinkedHashSet::new)); // preserve insertion order
         model.getChatMessages().addAll(items);
-        model.getChatMessageIds().clear();
-        model.getChatMessageIds().addAll(items.stream()
-                .map(e -> e.getChatMessage().getId())
-                .collect(Collectors.toSet()));
+        model.getChatMessageItemById().clear();
+        items.forEach(item -> model.getChatMessageItemById().put(item.getChatMessage().getId(), item));
 
         boolean shouldShowWarningMessageForNoneMediator = dontShowAgainService.showAgain(DONT_SHOW_CHAT_RULES_WARNING_KEY)
                 && !(channel instanceof BisqEasyOpenTradeChannel bisqEasyOpenTradeChannel
@@ -725,7 +723,7 @@ public class ChatMessagesListController implements Controller {
             public void add(M chatMessage) {
                 UIThread.run(() -> {
                     // Avoid to add already existing items
-                    if (model.getChatMessageIds().contains(chatMessage.getId())) {
+                    if (model.getChatMessageItemById().containsKey(chatMessage.getId())) {
                         return;
                     }
                     if (chatMessage.getChatMessageType() == TAKE_BISQ_EASY_OFFER) {
@@ -747,7 +745,7 @@ public class ChatMessagesListController implements Controller {
                             resendMessageService,
                             authorizedBondedRolesService);
                     model.getChatMessages().add(item);
-                    model.getChatMessageIds().add(chatMessage.getId());
+                    model.getChatMessageItemById().put(chatMessage.getId(), item);
                     maybeScrollDownOnNewItemAdded();
                 });
             }
@@ -756,15 +754,12 @@ public class ChatMessagesListController implements Controller {
             public void remove(Object element) {
                 UIThread.run(() -> {
                     if (element instanceof ChatMessage chatMessage) {
-                        Optional<ChatMessageListItem<? extends ChatMessage, ? extends ChatChannel<? extends ChatMessage>>> toRemove =
-                                model.getChatMessages().stream()
-                                        .filter(item -> item.getChatMessage().getId().equals(chatMessage.getId()))
-                                        .findAny();
-                        toRemove.ifPresent(item -> {
-                            item.dispose();
-                            model.getChatMessages().remove(item);
-                            model.getChatMessageIds().remove(item.getChatMessage().getId());
-                        });
+                        ChatMessageListItem<? extends ChatMessage, ? extends ChatChannel<? extends ChatMessage>> toRemove =
+                                model.getChatMessageItemById().remove(chatMessage.getId());
+                        if (toRemove != null) {
+                            toRemove.dispose();
+                            model.getChatMessages().remove(toRemove);
+                        }
                     }
                 });
             }
@@ -774,7 +769,7 @@ public class ChatMessagesListController implements Controller {
                 UIThread.run(() -> {
                     model.getChatMessages().forEach(ChatMessageListItem::dispose);
                     model.getChatMessages().clear();
-                    model.getChatMessageIds().clear();
+                    model.getChatMessageItemById().clear();
                 });
             }
         });
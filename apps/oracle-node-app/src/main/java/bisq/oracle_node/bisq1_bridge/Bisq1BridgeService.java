@@ -30,11 +30,11 @@ import bisq.common.encoding.Hex;
 import bisq.common.platform.MemoryReportService;
 import bisq.common.threading.ThreadName;
 import bisq.common.timer.Scheduler;
-import bisq.common.util.CompletableFutureUtils;
 import bisq.identity.Identity;
 import bisq.network.NetworkService;
 import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.services.confidential.ConfidentialMessageService;
+import bisq.network.p2p.services.data.BroadcastResult;
 import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedData;
 import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedDistributedData;
 import bisq.oracle_node.bisq1_bridge.dto.BondedReputationDto;
@@ -67,7 +67,6 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
@@ -230,7 +229,7 @@ public class Bisq1BridgeService implements Service, ConfidentialMessageService.L
         memoryReportService.logReport();
         log.info("Completed republishAuthorizedBondedRoles");
         log.info("Start request and publish DaoData");
-        requestDaoData().join(); // takes about 6 minutes for 500 items
+        requestDaoData().join();
         memoryReportService.logReport();
         log.info("Completed request and publish DaoData");
         periodicRequestDoaDataScheduler = Scheduler.run(this::periodicRepublish)
@@ -264,19 +263,16 @@ public class Bisq1BridgeService implements Service, ConfidentialMessageService.L
         return CompletableFuture.supplyAsync(() -> {
             ThreadName.set(this, "publishProofOfBurnDtoSet");
             log.info("publishProofOfBurnDtoSet: proofOfBurnList={}", proofOfBurnList);
-            Stream<AuthorizedProofOfBurnData> stream = proofOfBurnList.stream()
+            List<AuthorizedProofOfBurnData> list = proofOfBurnList.stream()
                     .map(dto -> new AuthorizedProofOfBurnData(
                             dto.getBlockTime(),
                             dto.getAmount(),
                             Hex.decode(dto.getHash()),
                             dto.getBlockHeight(),
                             dto.getTxId(),
-                            staticPublicKeysProvided));
-            return CompletableFutureUtils.allOf(stream
-                            .map(this::publishAuthorizedData)
-                            .collect(Collectors.toList()))
-                    .thenApply(results -> !results.contains(false))
-                    .join();
+                            staticPublicKeysProvided))
+                    .collect(Collectors.toList());
+            return publishAuthorizedDataBatch(list).join();
         }, NetworkService.NETWORK_IO_POOL);
     }
 
@@ -284,7 +280,7 @@ public class Bisq1BridgeService implements Service, ConfidentialMessageService.L
         return CompletableFuture.supplyAsync(() -> {
             ThreadName.set(this, "publishBondedReputationDtoSet");
             log.info("publishBondedReputationDtoSet: bondedReputationList={}", bondedReputationList);
-            Stream<AuthorizedBondedReputationData> stream = bondedReputationList.stream()
+            List<AuthorizedBondedReputationData> list = bondedReputationList.stream()
                     .map(dto -> new AuthorizedBondedReputationData(
                             dto.getBlockTime(),
                             dto.getAmount(),
@@ -292,12 +288,9 @@ public class Bisq1BridgeService implements Service, ConfidentialMessageService.L
                             dto.getLockTime(),
                             dto.getBlockHeight(),
                             dto.getTxId(),
-                            staticPublicKeysProvided));
-            return CompletableFutureUtils.allOf(stream
-                            .map(this::publishAuthorizedData)
-                            .collect(Collectors.toList()))
-                    .thenApply(results -> !results.contains(false))
-                    .join();
+                            staticPublicKeysProvided))
+                    .collect(Collectors.toList());
+            return publishAuthorizedDataBatch(list).join();
         }, NetworkService.NETWORK_IO_POOL);
     }
 
@@ -306,19 +299,29 @@ public class Bisq1BridgeService implements Service, ConfidentialMessageService.L
                         identity.getNetworkIdWithKeyPair().getKeyPair(),
                         authorizedPrivateKey,
                         authorizedPublicKey)
-                .thenApply(broadCastDataResult -> {
-                    int numSuccess = broadCastDataResult.stream()
-                            .mapToInt(e -> {
-                                try {
-                                    e.join();
-                                    return 1;
-                                } catch (Exception ex) {
-                                    return 0;
-                                }
-                            })
-                            .sum();
-                    return numSuccess == broadCastDataResult.size();
-                });
+                .thenApply(this::isBroadcastSuccess);
+    }
+
+    private CompletableFuture<Boolean> publishAuthorizedDataBatch(List<? extends AuthorizedDistributedData> list) {
+        return networkService.publishAuthorizedDataBatch(list,
+                        identity.getNetworkIdWithKeyPair().getKeyPair(),
+                        authorizedPrivateKey,
+                        authorizedPublicKey)
+                .thenApply(this::isBroadcastSuccess);
+    }
+
+    private boolean isBroadcastSuccess(BroadcastResult broadCastDataResult) {
+        int numSuccess = broadCastDataResult.stream()
+                .mapToInt(e -> {
+                    try {
+                        e.join();
+                        return 1;
+                    } catch (Exception ex) {
+                        return 0;
+                    }
+                })
+                .sum();
+        return numSuccess == broadCastDataResult.size();
     }
 
     private CompletableFuture<Boolean> removeAuthorizedData(AuthorizedDistributedData authorizedDistributedData) {
@@ -0,0 +1,40 @@
+plugins {
+    id("bisq.java-library")
+    id("bisq.jmh")
+}
+
+dependencies {
+    implementation(project(":persistence"))
+    implementation(project(":security"))
+    implementation(project(":user"))
+    implementation(project(":http-api"))
+    implementation(project(":chat"))
+
+    implementation("network:network:$version")
+
+    implementation(libs.protobuf.java)
+    implementation(libs.bundles.jackson)
+    implementation(libs.bundles.rest.api.libs)
+
+    // Stubs for the services which are not part of the measured code paths
+    "jmhImplementation"(libs.mockito)
+}
+
+// Compares the results of a JMH run with a baseline exported from an earlier run (e.g. of the last release):
+// ./gradlew :benchmarks:jmhCompare -Pjmh.baseline=benchmarks/baselines/2.1.7.json
+tasks.register<JavaExec>("jmhCompare") {
+    description = "Compares the JMH results with a baseline."
+    group = "verification"
+
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("bisq.benchmarks.JmhResultComparator")
+
+    val baselineFile = providers.gradleProperty("jmh.baseline").map { rootProject.file(it) }
+    val resultsFile = providers.gradleProperty("jmh.results")
+        .map { rootProject.file(it) }
+        .orElse(layout.buildDirectory.file("reports/jmh/results.json").map { it.asFile })
+
+    doFirst {
+        args(baselineFile.get().absolutePath, resultsFile.get().absolutePath)
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.benchmarks;
+
+import bisq.common.proto.ProtoResolver;
+import bisq.common.proto.UnresolvableProtobufMessageException;
+import bisq.network.p2p.services.data.storage.DistributedData;
+import bisq.network.p2p.services.data.storage.DistributedDataResolver;
+import bisq.network.p2p.services.data.storage.MetaData;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * DistributedData with an opaque payload, standing in for offers, chat messages or user profiles in the fixtures.
+ * The priority is derived from the payload, so that it survives the serialization round trip.
+ */
+@EqualsAndHashCode
+public final class BenchmarkData implements DistributedData {
+    private static final String PROTO_TYPE_NAME = "common.ByteArray";
+
+    public static void registerResolver() {
+        DistributedDataResolver.addResolver(PROTO_TYPE_NAME, getResolver());
+    }
+
+    @Getter
+    private final byte[] payload;
+    @EqualsAndHashCode.Exclude
+    private final MetaData metaData;
+
+    public BenchmarkData(byte[] payload) {
+        this.payload = payload;
+        int priority = payload.length == 0 ? MetaData.DEFAULT_PRIORITY : Math.floorMod(payload[0], 3) - 1;
+        metaData = new MetaData(MetaData.TTL_10_DAYS, priority, getClass().getSimpleName(), MetaData.MAX_MAP_SIZE_10_000);
+    }
+
+    @Override
+    public bisq.common.protobuf.ByteArray.Builder getBuilder(boolean serializeForHash) {
+        return bisq.common.protobuf.ByteArray.newBuilder().setBytes(ByteString.copyFrom(payload));
+    }
+
+    @Override
+    public bisq.common.protobuf.ByteArray toProto(boolean serializeForHash) {
+        return resolveProto(serializeForHash);
+    }
+
+    public static ProtoResolver<DistributedData> getResolver() {
+        return any -> {
+            try {
+                return new BenchmarkData(any.unpack(bisq.common.protobuf.ByteArray.class).getBytes().toByteArray());
+            } catch (InvalidProtocolBufferException e) {
+                throw new UnresolvableProtobufMessageException(e);
+            }
+        };
+    }
+
+    @Override
+    public void verify() {
+    }
+
+    @Override
+    public MetaData getMetaData() {
+        return metaData;
+    }
+
+    @Override
+    public boolean isDataInvalid(byte[] pubKeyHash) {
+        return false;
+    }
+
+    @Override
+    public double getCostFactor() {
+        return 0.5;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks;
+
+import bisq.chat.ChatChannelDomain;
+import bisq.chat.common.CommonPublicChatChannel;
+import bisq.chat.common.CommonPublicChatChannelService;
+import bisq.chat.common.CommonPublicChatChannelStore;
+import bisq.chat.common.CommonPublicChatMessage;
+import bisq.chat.reactions.CommonPublicChatMessageReaction;
+import bisq.chat.reactions.Reaction;
+import bisq.common.util.StringUtils;
+import bisq.network.NetworkService;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedData;
+import bisq.network.p2p.services.data.storage.auth.DefaultAuthenticatedData;
+import bisq.persistence.DbSubDirectory;
+import bisq.persistence.Persistence;
+import bisq.persistence.PersistenceService;
+import bisq.user.UserService;
+import bisq.user.banned.BannedUserService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static bisq.chat.common.SubDomain.DISCUSSION_BISQ;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Replay of the chat data of the initial inventory into a public chat channel service, as it happens at startup.
+ * The channel holds numMessages messages, which is in the range of a full offerbook channel plus its chat, and each
+ * message has one reaction. The inventory is in random order, so about half of the reactions arrive before their
+ * message and are kept as pending reactions until the message arrives.
+ * Persistence and user services are stubs without invocation recording, so the score covers the message and reaction
+ * handling of the service. Use -prof gc for the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatInventoryReplayBenchmark {
+    private static final String USER_PROFILE_ID = "a".repeat(40);
+
+    @Param({"1000", "10000"})
+    private int numMessages;
+
+    private final List<AuthenticatedData> inventory = new ArrayList<>();
+    private PersistenceService persistenceService;
+    private UserService userService;
+    private NetworkService networkService;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        Persistence<CommonPublicChatChannelStore> persistence = mock(Persistence.class, withSettings().stubOnly());
+        when(persistence.persistAsync(any())).thenReturn(CompletableFuture.completedFuture(null));
+        persistenceService = mock(PersistenceService.class, withSettings().stubOnly());
+        doReturn(persistence).when(persistenceService)
+                .<CommonPublicChatChannelStore>getOrCreatePersistence(any(), any(DbSubDirectory.class), anyString(), any());
+        userService = mock(UserService.class, withSettings().stubOnly());
+        when(userService.getBannedUserService()).thenReturn(mock(BannedUserService.class, withSettings().stubOnly()));
+        networkService = mock(NetworkService.class, withSettings().stubOnly());
+
+        String channelId = new CommonPublicChatChannel(ChatChannelDomain.DISCUSSION, DISCUSSION_BISQ).getId();
+        long date = System.currentTimeMillis();
+        for (int i = 0; i < numMessages; i++) {
+            CommonPublicChatMessage message = new CommonPublicChatMessage(ChatChannelDomain.DISCUSSION,
+                    channelId,
+                    USER_PROFILE_ID,
+                    "text " + i,
+                    Optional.empty(),
+                    date + i,
+                    false);
+            CommonPublicChatMessageReaction reaction = new CommonPublicChatMessageReaction(StringUtils.createUid(),
+                    USER_PROFILE_ID,
+                    channelId,
+                    ChatChannelDomain.DISCUSSION,
+                    message.getId(),
+                    Reaction.THUMBS_UP.ordinal(),
+                    date + i);
+            inventory.add(new DefaultAuthenticatedData(message));
+            inventory.add(new DefaultAuthenticatedData(reaction));
+        }
+        Collections.shuffle(inventory, new Random(42));
+    }
+
+    @Benchmark
+    public int replayInventory() {
+        CommonPublicChatChannel channel = new CommonPublicChatChannel(ChatChannelDomain.DISCUSSION, DISCUSSION_BISQ);
+        CommonPublicChatChannelService service = new CommonPublicChatChannelService(persistenceService,
+                networkService,
+                userService,
+                ChatChannelDomain.DISCUSSION,
+                List.of(channel));
+        service.getChannels().add(channel);
+        inventory.forEach(service::onAuthenticatedDataAdded);
+        return channel.getChatMessages().size();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.benchmarks;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.storage.DataStore;
+import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedSequentialData;
+import bisq.network.p2p.services.data.storage.auth.DefaultAuthenticatedData;
+import bisq.security.DigestUtil;
+import bisq.security.SignatureUtil;
+import bisq.security.keys.KeyGeneration;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Creates synthetic AddAuthenticatedDataRequests as they are found in the authenticated data stores. The payload
+ * sizes are spread between 500 bytes and 3 KB (a user profile to an offer with many payment methods).
+ * To keep the setup fast, a few key pairs are used and each request carries a signature created once per key pair.
+ * The signatures are not verified at the benchmarked code paths, only their size matters.
+ */
+public class DataRequestFixtures {
+    private static final int NUM_KEY_PAIRS = 20;
+    private static final int MIN_PAYLOAD_SIZE = 500;
+    private static final int MAX_PAYLOAD_SIZE = 3000;
+
+    static {
+        BenchmarkData.registerResolver();
+    }
+
+    public static Map<ByteArray, AuthenticatedDataRequest> createAddAuthenticatedDataRequests(int numRequests) {
+        try {
+            Random random = new Random(42);
+            KeyPair[] keyPairs = new KeyPair[NUM_KEY_PAIRS];
+            byte[][] pubKeyHashes = new byte[NUM_KEY_PAIRS][];
+            byte[][] signatures = new byte[NUM_KEY_PAIRS][];
+            for (int i = 0; i < NUM_KEY_PAIRS; i++) {
+                keyPairs[i] = KeyGeneration.generateKeyPair();
+                pubKeyHashes[i] = DigestUtil.hash(keyPairs[i].getPublic().getEncoded());
+                signatures[i] = SignatureUtil.sign(pubKeyHashes[i], keyPairs[i].getPrivate());
+            }
+
+            long now = System.currentTimeMillis();
+            Map<ByteArray, AuthenticatedDataRequest> map = new HashMap<>(numRequests * 2);
+            for (int i = 0; i < numRequests; i++) {
+                byte[] payload = new byte[MIN_PAYLOAD_SIZE + random.nextInt(MAX_PAYLOAD_SIZE - MIN_PAYLOAD_SIZE)];
+                random.nextBytes(payload);
+                int keyIndex = i % NUM_KEY_PAIRS;
+                DefaultAuthenticatedData authenticatedData = new DefaultAuthenticatedData(new BenchmarkData(payload));
+                AuthenticatedSequentialData sequentialData = new AuthenticatedSequentialData(authenticatedData,
+                        1 + random.nextInt(5),
+                        pubKeyHashes[keyIndex],
+                        now - random.nextInt(1_000_000));
+                AddAuthenticatedDataRequest request = new AddAuthenticatedDataRequest(sequentialData,
+                        signatures[keyIndex],
+                        keyPairs[keyIndex].getPublic());
+                map.put(new ByteArray(authenticatedData.getHash(DigestUtil::hash)), request);
+            }
+            return map;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // The DataStore constructor is package-private, thus we create it from its proto, as it is done when reading
+    // the persisted store.
+    public static DataStore<AuthenticatedDataRequest> createDataStore(Map<ByteArray, AuthenticatedDataRequest> map) {
+        var builder = bisq.network.protobuf.DataStore.newBuilder();
+        map.forEach((key, request) -> builder.addMapEntries(bisq.network.protobuf.DataStore.MapEntry.newBuilder()
+                .setKey(key.toProto(false))
+                .setValue(request.toProto(false).getDataRequest())));
+        //noinspection unchecked
+        return (DataStore<AuthenticatedDataRequest>) DataStore.fromProto(builder.build());
+    }
+}
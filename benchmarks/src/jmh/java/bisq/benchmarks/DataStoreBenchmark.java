@@ -0,0 +1,64 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.benchmarks;
+
+import bisq.network.p2p.services.data.storage.DataStore;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataRequest;
+import bisq.persistence.PersistableStore;
+import bisq.persistence.PersistableStoreResolver;
+import com.google.protobuf.Any;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the authenticated data store as it is done before writing it to disk, and deserialization as it
+ * is done at startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataStoreBenchmark {
+    @Param({"10000", "100000"})
+    private int numRequests;
+
+    private DataStore<AuthenticatedDataRequest> dataStore;
+    private byte[] serializedDataStore;
+
+    @Setup
+    public void setup() {
+        dataStore = DataRequestFixtures.createDataStore(DataRequestFixtures.createAddAuthenticatedDataRequests(numRequests));
+        PersistableStoreResolver.addResolver(dataStore.getResolver());
+        serializedDataStore = dataStore.toAny().toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return dataStore.toAny().toByteArray();
+    }
+
+    @Benchmark
+    public PersistableStore<?> deserialize() throws InvalidProtocolBufferException {
+        return PersistableStore.fromAny(Any.parseFrom(serializedDataStore));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.benchmarks;
+
+import bisq.common.data.ByteArray;
+import bisq.common.data.ByteUnit;
+import bisq.common.file.FileUtils;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.network.p2p.services.data.inventory.Inventory;
+import bisq.network.p2p.services.data.inventory.filter.FilterService;
+import bisq.network.p2p.services.data.inventory.filter.InventoryFilter;
+import bisq.network.p2p.services.data.inventory.filter.InventoryFilterType;
+import bisq.network.p2p.services.data.inventory.filter.hash_set.HashSetFilterService;
+import bisq.network.p2p.services.data.inventory.filter.mini_sketch.MiniSketchFilterService;
+import bisq.network.p2p.services.data.storage.StorageService;
+import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.mailbox.MailboxRequest;
+import bisq.persistence.PersistenceService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * FilterService.createInventory at the responder of an inventory request and FilterService.getFilter at the
+ * requester. The requester misses 100 of the responder's data requests, which is in the range of the changes between
+ * the periodic inventory requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryBenchmark {
+    private static final int NUM_MISSING = 100;
+    // Default of the maxSizeInKb config value
+    private static final int MAX_SIZE = (int) Math.round(ByteUnit.KB.toBytes(2000));
+
+    @Param({"10000", "100000"})
+    private int numRequests;
+
+    @Param({"HASH_SET", "MINI_SKETCH"})
+    private InventoryFilterType filterType;
+
+    private Path baseDir;
+    private FixtureStorageService respondersStorageService;
+    private FixtureStorageService requestersStorageService;
+    private FilterService<?> respondersFilterService;
+    private FilterService<?> requestersFilterService;
+    private InventoryFilter filter;
+
+    @Setup
+    public void setup() throws IOException {
+        baseDir = Files.createTempDirectory("bisq-benchmarks");
+        PersistenceService persistenceService = new PersistenceService(baseDir.toString());
+
+        Map<ByteArray, AuthenticatedDataRequest> respondersMap = DataRequestFixtures.createAddAuthenticatedDataRequests(numRequests);
+        Map<ByteArray, AuthenticatedDataRequest> requestersMap = new HashMap<>(respondersMap);
+        Iterator<ByteArray> iterator = requestersMap.keySet().iterator();
+        for (int i = 0; i < NUM_MISSING; i++) {
+            iterator.next();
+            iterator.remove();
+        }
+
+        respondersStorageService = new FixtureStorageService(persistenceService, respondersMap);
+        requestersStorageService = new FixtureStorageService(persistenceService, requestersMap);
+        respondersFilterService = createFilterService(respondersStorageService);
+        requestersFilterService = createFilterService(requestersStorageService);
+        filter = requestersFilterService.getFilter();
+        Inventory.setMaxSize(MAX_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        respondersStorageService.shutdown();
+        requestersStorageService.shutdown();
+        FileUtils.deleteFileOrDirectory(baseDir);
+    }
+
+    @Benchmark
+    public Inventory createInventory() {
+        return respondersFilterService.createInventory(filter, version -> true);
+    }
+
+    @Benchmark
+    public InventoryFilter getFilter() {
+        return requestersFilterService.getFilter();
+    }
+
+    private FilterService<?> createFilterService(StorageService storageService) {
+        return switch (filterType) {
+            case HASH_SET -> new HashSetFilterService(storageService, MAX_SIZE);
+            case MINI_SKETCH -> new MiniSketchFilterService(storageService, MAX_SIZE);
+        };
+    }
+
+    // Provides the fixture as the authenticated data store. As the StorageService does, we return copies of the maps.
+    private static class FixtureStorageService extends StorageService {
+        private final Map<ByteArray, AuthenticatedDataRequest> map;
+
+        private FixtureStorageService(PersistenceService persistenceService, Map<ByteArray, AuthenticatedDataRequest> map) {
+            super(persistenceService);
+            this.map = map;
+        }
+
+        @Override
+        public Stream<Map<ByteArray, AuthenticatedDataRequest>> getAuthenticatedDataStoreMaps() {
+            return Stream.of(new HashMap<>(map));
+        }
+
+        @Override
+        public Stream<Map<ByteArray, MailboxRequest>> getMailboxStoreMaps() {
+            return Stream.empty();
+        }
+
+        @Override
+        public Stream<Map<ByteArray, AddAppendOnlyDataRequest>> getAddAppendOnlyDataStoreMaps() {
+            return Stream.empty();
+        }
+
+        @Override
+        public Stream<Map.Entry<ByteArray, ? extends DataRequest>> getAllDataRequestMapEntries() {
+            return new HashMap<>(map).entrySet().stream().map(entry -> entry);
+        }
+    }
+}
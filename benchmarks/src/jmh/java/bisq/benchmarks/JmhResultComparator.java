@@ -0,0 +1,94 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares the JSON results of a JMH run with a baseline (e.g. the results of the last release).
+ * A change is reported as regression or improvement if the difference of the scores exceeds the sum of their errors.
+ * <p>
+ * Arguments: baseline JSON file, results JSON file.
+ */
+public class JmhResultComparator {
+    private record Result(double score, double scoreError, String unit, boolean isThroughput) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: JmhResultComparator <baseline.json> <results.json>");
+            System.exit(1);
+        }
+        Map<String, Result> baseline = readResults(new File(args[0]));
+        Map<String, Result> results = readResults(new File(args[1]));
+
+        System.out.printf("%-90s %15s %15s %10s%n", "Benchmark", "Baseline", "Current", "Change");
+        results.forEach((key, result) -> {
+            Result baselineResult = baseline.get(key);
+            if (baselineResult == null) {
+                System.out.printf("%-90s %15s %15.3f %10s  %s%n", key, "-", result.score(), "-", result.unit());
+                return;
+            }
+            double change = (result.score() - baselineResult.score()) / baselineResult.score() * 100;
+            boolean isSignificant = Math.abs(result.score() - baselineResult.score()) >
+                    result.scoreError() + baselineResult.scoreError();
+            // For throughput a higher score is better, for the other modes (time per operation) a lower one
+            boolean isImprovement = result.isThroughput() == result.score() > baselineResult.score();
+            String assessment = isSignificant ? (isImprovement ? "improvement" : "REGRESSION") : "";
+            System.out.printf("%-90s %15.3f %15.3f %9.1f%%  %s %s%n",
+                    key, baselineResult.score(), result.score(), change, result.unit(), assessment);
+        });
+        baseline.keySet().stream()
+                .filter(key -> !results.containsKey(key))
+                .forEach(key -> System.out.printf("%-90s %15.3f %15s%n", key, baseline.get(key).score(), "-"));
+    }
+
+    private static Map<String, Result> readResults(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode node : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(node.get("benchmark").asText());
+            JsonNode params = node.get("params");
+            if (params != null) {
+                // Sort the params so that the keys do not depend on the order in the JSON file
+                Map<String, String> sortedParams = new TreeMap<>();
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    sortedParams.put(field.getKey(), field.getValue().asText());
+                }
+                key.append(sortedParams);
+            }
+            JsonNode primaryMetric = node.get("primaryMetric");
+            double scoreError = primaryMetric.get("scoreError").asDouble();
+            results.put(key.toString(), new Result(primaryMetric.get("score").asDouble(),
+                    Double.isNaN(scoreError) ? 0 : scoreError,
+                    primaryMetric.get("scoreUnit").asText(),
+                    "thrpt".equals(node.get("mode").asText())));
+        }
+        return results;
+    }
+}
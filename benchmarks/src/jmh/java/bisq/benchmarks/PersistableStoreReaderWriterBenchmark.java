@@ -0,0 +1,77 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.benchmarks;
+
+import bisq.common.file.FileUtils;
+import bisq.network.p2p.services.data.storage.DataStore;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataRequest;
+import bisq.persistence.PersistableStoreFileManager;
+import bisq.persistence.PersistableStoreReaderWriter;
+import bisq.persistence.PersistableStoreResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing and reading the authenticated data store file, including the temp file and the rename.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistableStoreReaderWriterBenchmark {
+    @Param({"10000", "100000"})
+    private int numRequests;
+
+    private Path dataDir;
+    private DataStore<AuthenticatedDataRequest> dataStore;
+    private PersistableStoreReaderWriter<DataStore<AuthenticatedDataRequest>> readerWriter;
+
+    @Setup
+    public void setup() throws IOException {
+        dataStore = DataRequestFixtures.createDataStore(DataRequestFixtures.createAddAuthenticatedDataRequests(numRequests));
+        PersistableStoreResolver.addResolver(dataStore.getResolver());
+
+        dataDir = Files.createTempDirectory("bisq-benchmarks");
+        Path storeFilePath = dataDir.resolve("db").resolve("network").resolve("AuthenticatedDataStore.protobuf");
+        readerWriter = new PersistableStoreReaderWriter<>(new PersistableStoreFileManager(storeFilePath));
+        readerWriter.write(dataStore);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteFileOrDirectory(dataDir);
+    }
+
+    @Benchmark
+    public boolean write() {
+        return readerWriter.write(dataStore);
+    }
+
+    @Benchmark
+    public Optional<DataStore<AuthenticatedDataRequest>> read() {
+        return readerWriter.read();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.benchmarks;
+
+import bisq.security.pow.ProofOfWork;
+import bisq.security.pow.equihash.EquihashProofOfWorkService;
+import bisq.security.pow.hashcash.HashCashProofOfWorkService;
+import com.google.common.primitives.Ints;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minting of the proof of work used for the authorization tokens. The payload changes at each invocation, so that
+ * the average covers the variance of the number of iterations.
+ * The HashCash difficulties are the MIN_DIFFICULTY and TARGET_DIFFICULTY of the HashCashTokenService.
+ * Verifying an Equihash solution is measured as well, as it is done for each received token.
+ * Use -prof gc for the memory: the Equihash solver allocates its tables at each mint, so the allocated bytes per
+ * operation of mintEquihash are an upper bound of its peak memory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProofOfWorkBenchmark {
+    @State(Scope.Thread)
+    public static class HashCashState {
+        @Param({"128", "65536"})
+        private double difficulty;
+
+        private final HashCashProofOfWorkService service = new HashCashProofOfWorkService();
+        private final byte[] challenge = new byte[32];
+        private final byte[] payload = new byte[1000];
+        private int invocation;
+
+        @Setup
+        public void setup() {
+            new Random(42).nextBytes(challenge);
+            new Random(43).nextBytes(payload);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class EquihashState {
+        @Param({"65536"})
+        private double difficulty;
+
+        private final EquihashProofOfWorkService service = new EquihashProofOfWorkService();
+        private final byte[] challenge = new byte[32];
+        private final byte[] payload = new byte[1000];
+        private int invocation;
+        private ProofOfWork proofOfWork;
+
+        @Setup
+        public void setup() {
+            new Random(42).nextBytes(challenge);
+            new Random(43).nextBytes(payload);
+            // The payload is changed by mintEquihash, so the verified proof of work gets its own copy
+            proofOfWork = service.mint(payload.clone(), challenge, difficulty);
+        }
+    }
+
+    @Benchmark
+    public ProofOfWork mintHashCash(HashCashState state) {
+        System.arraycopy(Ints.toByteArray(state.invocation++), 0, state.payload, 0, 4);
+        return state.service.mint(state.payload, state.challenge, state.difficulty);
+    }
+
+    @Benchmark
+    public ProofOfWork mintEquihash(EquihashState state) {
+        System.arraycopy(Ints.toByteArray(state.invocation++), 0, state.payload, 0, 4);
+        return state.service.mint(state.payload, state.challenge, state.difficulty);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean verifyEquihash(EquihashState state) {
+        return state.service.verify(state.proofOfWork);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.benchmarks;
+
+import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedSequentialData;
+import bisq.network.p2p.services.data.storage.auth.DefaultAuthenticatedData;
+import bisq.security.DigestUtil;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Proto.serialize of an AddAuthenticatedDataRequest with a new instance (as after receiving or creating it) and with
+ * the memoized instance, the hash used as the store map key, and the deserialization.
+ * The receive path benchmarks do the calls of the connection metrics, the inventory filter, the store map and the
+ * signature verification on a received request. Use -prof gc to compare the allocated bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProtoBenchmark {
+    private AddAuthenticatedDataRequest request;
+    private byte[] serializedRequest;
+
+    @Setup
+    public void setup() {
+        request = (AddAuthenticatedDataRequest) DataRequestFixtures.createAddAuthenticatedDataRequests(1)
+                .values().iterator().next();
+        serializedRequest = request.toProto(false).getDataRequest().getAddAuthenticatedDataRequest().toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return newRequest().serialize();
+    }
+
+    @Benchmark
+    public byte[] serializeMemoized() {
+        return request.serialize();
+    }
+
+    @Benchmark
+    public byte[] hashForStoreMap() {
+        return newRequest().getAuthenticatedSequentialData().getAuthenticatedData().getHash(DigestUtil::hash);
+    }
+
+    @Benchmark
+    public long receivePath() {
+        return receivePath(this::newRequest);
+    }
+
+    @Benchmark
+    public long receivePathMemoized() {
+        return receivePath(() -> request);
+    }
+
+    @Benchmark
+    public AddAuthenticatedDataRequest deserialize() throws InvalidProtocolBufferException {
+        return AddAuthenticatedDataRequest.fromProto(
+                bisq.network.protobuf.AddAuthenticatedDataRequest.parseFrom(serializedRequest));
+    }
+
+    // Without memoization each call works on a new instance, which is what happened before for each call
+    private static long receivePath(Supplier<AddAuthenticatedDataRequest> requestSupplier) {
+        long sum = requestSupplier.get().getSerializedSize();
+        sum += requestSupplier.get().getSerializedSize();
+        AuthenticatedSequentialData data = requestSupplier.get().getAuthenticatedSequentialData();
+        sum += data.getAuthenticatedData().getHash(DigestUtil::hash).length;
+        sum += data.serializeForHash().length;
+        return sum;
+    }
+
+    private AddAuthenticatedDataRequest newRequest() {
+        AuthenticatedSequentialData data = request.getAuthenticatedSequentialData();
+        BenchmarkData benchmarkData = (BenchmarkData) data.getAuthenticatedData().getDistributedData();
+        return new AddAuthenticatedDataRequest(new AuthenticatedSequentialData(
+                new DefaultAuthenticatedData(new BenchmarkData(benchmarkData.getPayload())),
+                data.getSequenceNumber(),
+                data.getPubKeyHash(),
+                data.getCreated()),
+                request.getSignature(),
+                request.getOwnerPublicKey());
+    }
+}
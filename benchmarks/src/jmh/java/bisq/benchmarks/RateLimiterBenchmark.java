@@ -0,0 +1,71 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks;
+
+import bisq.common.timer.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit checks for many distinct user profiles, each sending messages with dates spread over the last day as
+ * it happens at the inventory replay. The limits are not reached, so all checks take the same path.
+ * Use -prof gc for the allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+    private static final int NUM_MESSAGES_PER_PROFILE = 20;
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final long NOW = 10 * DAY;
+
+    @Param({"1000", "100000"})
+    private int numProfiles;
+
+    private String[] userProfileIds;
+    private RateLimiter rateLimiter;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        userProfileIds = new String[numProfiles];
+        for (int i = 0; i < numProfiles; i++) {
+            userProfileIds[i] = "userProfileId" + i;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void createRateLimiter() {
+        // A fixed clock, so that the message dates stay within the last day for all iterations
+        rateLimiter = new RateLimiter(() -> NOW,
+                Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        invocation = 0;
+    }
+
+    @Benchmark
+    public boolean exceedsLimit() {
+        int profileIndex = invocation % numProfiles;
+        int messageIndex = (invocation / numProfiles) % NUM_MESSAGES_PER_PROFILE;
+        invocation++;
+        long messageDate = NOW - DAY + messageIndex * DAY / NUM_MESSAGES_PER_PROFILE + profileIndex;
+        return rateLimiter.exceedsLimit(userProfileIds[profileIndex], messageDate);
+    }
+}
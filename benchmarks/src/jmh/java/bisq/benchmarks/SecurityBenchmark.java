@@ -0,0 +1,95 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.benchmarks;
+
+import bisq.security.ConfidentialData;
+import bisq.security.DigestUtil;
+import bisq.security.HybridEncryption;
+import bisq.security.SharedSecretCache;
+import bisq.security.SignatureUtil;
+import bisq.security.keys.KeyGeneration;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashing, signing and hybrid encryption of messages in the size range of typical network messages.
+ * The decryption is measured for a known sender, which hits the SharedSecretCache, and with the cache cleared before
+ * each message, which requires the public key decoding and the full key agreement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityBenchmark {
+    @Param({"256", "10240"})
+    private int messageSize;
+
+    private byte[] message;
+    private KeyPair senderKeyPair;
+    private KeyPair receiverKeyPair;
+    private byte[] signature;
+    private ConfidentialData confidentialData;
+
+    @Setup
+    public void setup() throws GeneralSecurityException {
+        message = new byte[messageSize];
+        new Random(42).nextBytes(message);
+        senderKeyPair = KeyGeneration.generateKeyPair();
+        receiverKeyPair = KeyGeneration.generateKeyPair();
+        signature = SignatureUtil.sign(message, senderKeyPair.getPrivate());
+        confidentialData = HybridEncryption.encryptAndSign(message, receiverKeyPair.getPublic(), senderKeyPair);
+    }
+
+    @Benchmark
+    public byte[] hash() {
+        return DigestUtil.hash(message);
+    }
+
+    @Benchmark
+    public byte[] sign() throws GeneralSecurityException {
+        return SignatureUtil.sign(message, senderKeyPair.getPrivate());
+    }
+
+    @Benchmark
+    public boolean verify() throws GeneralSecurityException {
+        return SignatureUtil.verify(message, signature, senderKeyPair.getPublic());
+    }
+
+    @Benchmark
+    public ConfidentialData encryptAndSign() throws GeneralSecurityException {
+        return HybridEncryption.encryptAndSign(message, receiverKeyPair.getPublic(), senderKeyPair);
+    }
+
+    @Benchmark
+    public byte[] decryptAndVerify() throws GeneralSecurityException {
+        return HybridEncryption.decryptAndVerify(confidentialData, receiverKeyPair);
+    }
+
+    @Benchmark
+    public byte[] decryptAndVerifyWithoutCache() throws GeneralSecurityException {
+        SharedSecretCache.clear();
+        return HybridEncryption.decryptAndVerify(confidentialData, receiverKeyPair);
+    }
+}
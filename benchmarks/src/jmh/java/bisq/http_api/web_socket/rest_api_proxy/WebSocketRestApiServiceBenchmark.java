@@ -0,0 +1,120 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.http_api.web_socket.rest_api_proxy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.ApplicationPath;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second of REST requests tunnelled over the WebSocket and dispatched in-process to a Jersey resource.
+ * Each benchmark thread acts as a WebSocket client with NUM_IN_FLIGHT requests in flight, and the score is reported
+ * per request. The resource returns a small JSON string, so the result shows the overhead of the request parsing,
+ * the Jersey dispatch and the response correlation.
+ * Use -prof gc for the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebSocketRestApiServiceBenchmark {
+    private static final int NUM_IN_FLIGHT = 64;
+    private static final int NUM_REQUESTS = 10_000;
+
+    @ApplicationPath("/api/v1")
+    public static class BenchmarkResourceConfig extends ResourceConfig {
+        public BenchmarkResourceConfig() {
+            register(BenchmarkRestApi.class);
+        }
+    }
+
+    @Path("/benchmark")
+    public static class BenchmarkRestApi {
+        @GET
+        @Path("/{id}")
+        @Produces(MediaType.APPLICATION_JSON)
+        public String get(@PathParam("id") String id) {
+            return "{\"id\":\"" + id + "\"}";
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        private final List<CompletableFuture<WebSocketRestApiResponse>> inFlight = new ArrayList<>(NUM_IN_FLIGHT);
+        private int requestIndex;
+    }
+
+    @Param({"false", "true"})
+    private boolean parseJson;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private WebSocketRestApiService service;
+    private String[] requestJsons;
+    private WebSocketRestApiRequest[] requests;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        service = new WebSocketRestApiService(objectMapper,
+                "http://localhost:8090",
+                new BenchmarkResourceConfig(),
+                true);
+        service.initialize().join();
+        requestJsons = new String[NUM_REQUESTS];
+        requests = new WebSocketRestApiRequest[NUM_REQUESTS];
+        for (int i = 0; i < NUM_REQUESTS; i++) {
+            requestJsons[i] = "{\"requestId\":\"" + i + "\",\"path\":\"/api/v1/benchmark/" + i + "\",\"method\":\"GET\",\"body\":\"\"}";
+            requests[i] = WebSocketRestApiRequest.fromJson(objectMapper, requestJsons[i]).orElseThrow();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.shutdown().join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_IN_FLIGHT)
+    public int dispatch(Client client) {
+        List<CompletableFuture<WebSocketRestApiResponse>> inFlight = client.inFlight;
+        inFlight.clear();
+        for (int i = 0; i < NUM_IN_FLIGHT; i++) {
+            int index = client.requestIndex++ % NUM_REQUESTS;
+            WebSocketRestApiRequest request = parseJson
+                    ? WebSocketRestApiRequest.fromJson(objectMapper, requestJsons[index]).orElseThrow()
+                    : requests[index];
+            inFlight.add(service.dispatch(request));
+        }
+        int sumOfStatusCodes = 0;
+        for (CompletableFuture<WebSocketRestApiResponse> future : inFlight) {
+            sumOfStatusCodes += future.join().getStatusCode();
+        }
+        return sumOfStatusCodes;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.security.pow.hashcash;
+
+import com.google.common.primitives.Ints;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single threaded and the parallel HashCash search at several difficulties. A numWorkers of 1 uses the
+ * sequential search. The challenge changes at each invocation, so that the average covers the variance of the number
+ * of iterations.
+ * It is in the package of the HashCashMinter as the mint methods with a given number of workers are package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HashCashMinterBenchmark {
+    @Param({"8", "12", "16", "20"})
+    private int log2Difficulty;
+
+    @Param({"1", "2", "4", "8"})
+    private int numWorkers;
+
+    private final byte[] payload = new byte[1000];
+    private final byte[] challenge = new byte[32];
+    private int invocation;
+
+    @Setup
+    public void setup() {
+        new Random(42).nextBytes(payload);
+        new Random(43).nextBytes(challenge);
+    }
+
+    @Benchmark
+    public long mint() {
+        System.arraycopy(Ints.toByteArray(invocation++), 0, challenge, 0, 4);
+        if (numWorkers == 1) {
+            return HashCashMinter.mintSequential(payload, challenge, log2Difficulty);
+        } else {
+            return HashCashMinter.mintParallel(payload, challenge, log2Difficulty, numWorkers);
+        }
+    }
+}
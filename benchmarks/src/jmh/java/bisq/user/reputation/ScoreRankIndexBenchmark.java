@@ -0,0 +1,84 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.user.reputation;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the rank lookup in the ScoreRankIndex with the lookup by sorting all scores, and measures the score
+ * updates of the index.
+ * It is in the package of the ScoreRankIndex as the index is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoreRankIndexBenchmark {
+    private static final int NUM_CANDIDATES = 1024;
+    private static final int MAX_SCORE = 200_000;
+
+    @Param({"50000"})
+    private int numUserProfiles;
+
+    private final Random random = new Random(42);
+    private final Map<String, Long> scoreByUserProfileId = new HashMap<>();
+    private final long[] candidates = new long[NUM_CANDIDATES];
+    private ScoreRankIndex index;
+    private int invocation;
+
+    @Setup
+    public void setup() {
+        index = new ScoreRankIndex();
+        for (int i = 0; i < numUserProfiles; i++) {
+            long score = random.nextInt(MAX_SCORE);
+            index.put("id" + i, score);
+            scoreByUserProfileId.put("id" + i, score);
+        }
+        for (int i = 0; i < NUM_CANDIDATES; i++) {
+            candidates[i] = scoreByUserProfileId.get("id" + random.nextInt(numUserProfiles));
+        }
+    }
+
+    @Benchmark
+    public int getRank() {
+        return index.getRank(nextCandidate());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int getRankBySorting() {
+        return scoreByUserProfileId.size() - ReputationService.getIndex(nextCandidate(), scoreByUserProfileId.values());
+    }
+
+    @Benchmark
+    public void put() {
+        index.put("id" + random.nextInt(numUserProfiles), random.nextInt(MAX_SCORE));
+    }
+
+    private long nextCandidate() {
+        return candidates[invocation++ & (NUM_CANDIDATES - 1)];
+    }
+}
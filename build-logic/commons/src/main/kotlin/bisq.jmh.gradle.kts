@@ -0,0 +1,76 @@
+plugins {
+    java
+}
+
+sourceSets {
+    create("jmh") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
+val jmhImplementation by configurations.getting {
+    extendsFrom(configurations.implementation.get())
+}
+
+val jmhRuntimeOnly by configurations.getting
+configurations["jmhRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
+val versionCatalog = extensions.getByType<VersionCatalogsExtension>().named("libs")
+dependencies {
+    versionCatalog.findLibrary("jmh-core").ifPresent {
+        "jmhImplementation"(it)
+    }
+    versionCatalog.findLibrary("jmh-generator-annprocess").ifPresent {
+        "jmhAnnotationProcessor"(it)
+    }
+
+    versionCatalog.findLibrary("lombok").ifPresent {
+        "jmhAnnotationProcessor"(it)
+        "jmhCompileOnly"(it)
+    }
+
+    versionCatalog.findLibrary("slf4j-api").ifPresent {
+        "jmhImplementation"(it)
+    }
+
+    versionCatalog.findLibrary("logback-core").ifPresent {
+        "jmhImplementation"(it)
+    }
+    versionCatalog.findLibrary("logback-classic").ifPresent {
+        "jmhImplementation"(it)
+    }
+}
+
+// We only compile the benchmarks at check, so that they are kept in sync with the code they measure.
+tasks.named("check") {
+    dependsOn("jmhClasses")
+}
+
+// Usage:
+// ./gradlew :benchmarks:jmh
+// ./gradlew :benchmarks:jmh -Pjmh.include=DataStoreBenchmark -Pjmh.args="-f 1 -wi 2 -i 3"
+// ./gradlew :benchmarks:jmh -Pjmh.results=benchmarks/baselines/2.1.7.json
+// The results are written as JSON to build/reports/jmh/results.json unless jmh.results is set.
+tasks.register<JavaExec>("jmh") {
+    description = "Runs the JMH benchmarks."
+    group = "verification"
+
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+
+    val resultsFile = providers.gradleProperty("jmh.results")
+        .map { rootProject.file(it) }
+        .orElse(layout.buildDirectory.file("reports/jmh/results.json").map { it.asFile })
+    val include = providers.gradleProperty("jmh.include")
+    val extraArgs = providers.gradleProperty("jmh.args")
+
+    outputs.upToDateWhen { false }
+    doFirst {
+        val file = resultsFile.get()
+        file.parentFile.mkdirs()
+        args(listOfNotNull(include.orNull) +
+                listOf("-rf", "json", "-rff", file.absolutePath) +
+                (extraArgs.orNull?.split(" ")?.filter { it.isNotBlank() } ?: emptyList()))
+    }
+}
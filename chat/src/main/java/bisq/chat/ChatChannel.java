@@ -27,6 +27,7 @@ import bisq.common.observable.Observable;
 import bisq.common.observable.collection.ObservableSet;
 import bisq.common.proto.PersistableProto;
 import bisq.common.proto.UnresolvableProtobufMessageException;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -35,7 +36,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @ToString
@@ -51,6 +54,9 @@ public abstract class ChatChannel<M extends ChatMessage> implements PersistableP
     protected final transient Map<String, AtomicInteger> numMessagesByAuthorId = new HashMap<>();
     @Getter
     protected final transient Set<String> userProfileIdsOfSendingLeaveMessage = new HashSet<>();
+    // Kept in sync with getChatMessages() by addChatMessage and removeChatMessage
+    @Getter(AccessLevel.NONE)
+    protected final transient Map<String, M> chatMessageById = new ConcurrentHashMap<>();
 
     public ChatChannel(String id,
                        ChatChannelDomain chatChannelDomain,
@@ -95,6 +101,7 @@ public abstract class ChatChannel<M extends ChatMessage> implements PersistableP
     public boolean addChatMessage(M chatMessage) {
         boolean changed = getChatMessages().add(chatMessage);
         if (changed) {
+            chatMessageById.put(chatMessage.getId(), chatMessage);
             String authorUserProfileId = chatMessage.getAuthorUserProfileId();
             numMessagesByAuthorId.putIfAbsent(authorUserProfileId, new AtomicInteger());
             numMessagesByAuthorId.get(authorUserProfileId).incrementAndGet();
@@ -105,6 +112,8 @@ public abstract class ChatChannel<M extends ChatMessage> implements PersistableP
     public boolean removeChatMessage(M chatMessage) {
         boolean changed = getChatMessages().remove(chatMessage);
         if (changed) {
+            // An edited message might have been added with the same ID before the original got removed
+            chatMessageById.remove(chatMessage.getId(), chatMessage);
             String authorUserProfileId = chatMessage.getAuthorUserProfileId();
             if (numMessagesByAuthorId.containsKey(authorUserProfileId)) {
                 AtomicInteger numMessages = numMessagesByAuthorId.get(authorUserProfileId);
@@ -121,6 +130,10 @@ public abstract class ChatChannel<M extends ChatMessage> implements PersistableP
         messages.forEach(this::removeChatMessage);
     }
 
+    public Optional<M> findChatMessage(String chatMessageId) {
+        return Optional.ofNullable(chatMessageById.get(chatMessageId));
+    }
+
     public abstract String getDisplayString();
 
     public abstract ObservableSet<M> getChatMessages();
@@ -220,9 +220,7 @@ public abstract class PrivateChatChannelService<
 
     protected void processMessageReaction(R messageReaction) {
         findChannel(messageReaction.getChatChannelId())
-                .flatMap(channel -> channel.getChatMessages().stream()
-                        .filter(message -> message.getId().equals(messageReaction.getChatMessageId()))
-                        .findFirst())
+                .flatMap(channel -> channel.findChatMessage(messageReaction.getChatMessageId()))
                 .ifPresentOrElse(
                         message -> addMessageReaction(messageReaction, message),
                         () -> unprocessedReactions.add(messageReaction));
@@ -41,19 +41,25 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.security.KeyPair;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
 @Slf4j
 public abstract class PublicChatChannelService<M extends PublicChatMessage, C extends PublicChatChannel<M>,
         S extends PersistableStore<S>, R extends ChatMessageReaction> extends ChatChannelService<M, C, S> implements DataService.Listener {
+    private static final int MAX_NUM_PENDING_REACTION_MESSAGE_IDS = 10_000;
 
     private boolean initialized = false;
     private boolean allInventoryDataReceived = false;
     private final Set<Pin> allInventoryDataReceivedPins = new HashSet<>();
+    // Reactions can arrive before the message they refer to (e.g. at inventory processing). We keep them until the
+    // message gets added.
+    private final Map<String, Set<R>> pendingReactionsByChatMessageId = new ConcurrentHashMap<>();
 
     public PublicChatChannelService(NetworkService networkService,
                                     UserService userService,
@@ -103,6 +109,7 @@ public abstract class PublicChatChannelService<M extends PublicChatMessage, C ex
         allInventoryDataReceived = false;
         allInventoryDataReceivedPins.forEach(Pin::unbind);
         allInventoryDataReceivedPins.clear();
+        pendingReactionsByChatMessageId.clear();
         networkService.removeDataServiceListener(this);
         return CompletableFuture.completedFuture(true);
     }
@@ -176,6 +183,24 @@ public abstract class PublicChatChannelService<M extends PublicChatMessage, C ex
         return networkService.removeAuthenticatedData((DistributedData) chatMessageReaction, networkIdWithKeyPair.getKeyPair());
     }
 
+    @Override
+    public void addMessage(M message, C channel) {
+        super.addMessage(message, channel);
+
+        Optional<M> addedMessage;
+        Set<R> pendingReactions;
+        synchronized (getPersistableStore()) {
+            addedMessage = channel.findChatMessage(message.getId());
+            pendingReactions = addedMessage.isPresent()
+                    ? pendingReactionsByChatMessageId.remove(message.getId())
+                    : null;
+        }
+        if (pendingReactions != null) {
+            addedMessage.ifPresent(chatMessage ->
+                    pendingReactions.forEach(reaction -> addMessageReaction(reaction, chatMessage)));
+        }
+    }
+
     @Override
     public String getChannelTitlePostFix(ChatChannel<? extends ChatMessage> chatChannel) {
         return "";
@@ -217,19 +242,29 @@ public abstract class PublicChatChannelService<M extends PublicChatMessage, C ex
     protected abstract void maybeAddDefaultChannels();
 
     protected void processAddedReaction(R chatMessageReaction) {
-        findChannel(chatMessageReaction.getChatChannelId())
-                .flatMap(channel -> channel.getChatMessages().stream()
-                        .filter(message -> message.getId().equals(chatMessageReaction.getChatMessageId()))
-                        .findFirst())
-                .ifPresent(message -> addMessageReaction(chatMessageReaction, message));
+        findChannel(chatMessageReaction.getChatChannelId()).ifPresent(channel -> {
+            Optional<M> message;
+            synchronized (getPersistableStore()) {
+                message = channel.findChatMessage(chatMessageReaction.getChatMessageId());
+                if (message.isEmpty()) {
+                    addPendingReaction(chatMessageReaction);
+                }
+            }
+            message.ifPresent(chatMessage -> addMessageReaction(chatMessageReaction, chatMessage));
+        });
     }
 
     protected void processRemovedReaction(R chatMessageReaction) {
-        findChannel(chatMessageReaction.getChatChannelId())
-                .flatMap(channel -> channel.getChatMessages().stream()
-                        .filter(message -> message.getId().equals(chatMessageReaction.getChatMessageId()))
-                        .findFirst())
-                .ifPresent(message -> removeMessageReaction(chatMessageReaction, message));
+        findChannel(chatMessageReaction.getChatChannelId()).ifPresent(channel -> {
+            Optional<M> message;
+            synchronized (getPersistableStore()) {
+                message = channel.findChatMessage(chatMessageReaction.getChatMessageId());
+                if (message.isEmpty()) {
+                    removePendingReaction(chatMessageReaction);
+                }
+            }
+            message.ifPresent(chatMessage -> removeMessageReaction(chatMessageReaction, chatMessage));
+        });
     }
 
     protected abstract R createChatMessageReaction(M message, Reaction reaction, UserIdentity userIdentity);
@@ -242,4 +277,41 @@ public abstract class PublicChatChannelService<M extends PublicChatMessage, C ex
         long timestamp = allInventoryDataReceived && initialized ? System.currentTimeMillis() : messageDate;
         bannedUserService.checkRateLimit(authorUserProfileId, timestamp);
     }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private void addPendingReaction(R chatMessageReaction) {
+        String chatMessageId = chatMessageReaction.getChatMessageId();
+        if (!pendingReactionsByChatMessageId.containsKey(chatMessageId) &&
+                pendingReactionsByChatMessageId.size() >= MAX_NUM_PENDING_REACTION_MESSAGE_IDS) {
+            removeExpiredPendingReactions();
+            if (pendingReactionsByChatMessageId.size() >= MAX_NUM_PENDING_REACTION_MESSAGE_IDS) {
+                log.warn("Too many pending reactions. We ignore the reaction for chat message {}", chatMessageId);
+                return;
+            }
+        }
+        pendingReactionsByChatMessageId.computeIfAbsent(chatMessageId, key -> new HashSet<>()).add(chatMessageReaction);
+    }
+
+    private void removePendingReaction(R chatMessageReaction) {
+        pendingReactionsByChatMessageId.computeIfPresent(chatMessageReaction.getChatMessageId(), (key, reactions) -> {
+            reactions.remove(chatMessageReaction);
+            return reactions.isEmpty() ? null : reactions;
+        });
+    }
+
+    private void removeExpiredPendingReactions() {
+        long now = System.currentTimeMillis();
+        pendingReactionsByChatMessageId.values().forEach(reactions ->
+                reactions.removeIf(reaction -> isExpired(reaction, now)));
+        pendingReactionsByChatMessageId.values().removeIf(Set::isEmpty);
+    }
+
+    private static boolean isExpired(ChatMessageReaction chatMessageReaction, long now) {
+        return chatMessageReaction instanceof DistributedData distributedData &&
+                now - chatMessageReaction.getDate() >= distributedData.getMetaData().getTtl();
+    }
 }
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.chat;
+
+import bisq.chat.common.CommonPublicChatChannel;
+import bisq.chat.common.CommonPublicChatMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static bisq.chat.common.SubDomain.DISCUSSION_BISQ;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChatChannelTest {
+    private static final String AUTHOR_USER_PROFILE_ID = "a".repeat(40);
+
+    private final CommonPublicChatChannel channel = new CommonPublicChatChannel(ChatChannelDomain.DISCUSSION, DISCUSSION_BISQ);
+
+    @Test
+    void findAddedChatMessage() {
+        CommonPublicChatMessage message = createChatMessage("text");
+        assertThat(channel.findChatMessage(message.getId())).isEmpty();
+
+        assertThat(channel.addChatMessage(message)).isTrue();
+        assertThat(channel.findChatMessage(message.getId())).containsSame(message);
+
+        assertThat(channel.removeChatMessage(message)).isTrue();
+        assertThat(channel.findChatMessage(message.getId())).isEmpty();
+    }
+
+    @Test
+    void keepIndexAtFailedRemoval() {
+        CommonPublicChatMessage message = createChatMessage("text");
+        channel.addChatMessage(message);
+        CommonPublicChatMessage notAdded = createChatMessage("other text");
+
+        assertThat(channel.removeChatMessage(notAdded)).isFalse();
+        assertThat(channel.findChatMessage(message.getId())).containsSame(message);
+    }
+
+    @Test
+    void keepEditedChatMessageAtRemovalOfOriginal() {
+        CommonPublicChatMessage original = createChatMessage("text");
+        CommonPublicChatMessage edited = CommonPublicChatMessage.fromProto(original.toProto(false).toBuilder()
+                .setText("edited text")
+                .setWasEdited(true)
+                .build());
+        assertThat(edited.getId()).isEqualTo(original.getId());
+
+        channel.addChatMessage(original);
+        channel.addChatMessage(edited);
+        assertThat(channel.findChatMessage(original.getId())).containsSame(edited);
+
+        channel.removeChatMessage(original);
+        assertThat(channel.findChatMessage(original.getId())).containsSame(edited);
+
+        channel.removeChatMessage(edited);
+        assertThat(channel.findChatMessage(original.getId())).isEmpty();
+    }
+
+    private CommonPublicChatMessage createChatMessage(String text) {
+        return new CommonPublicChatMessage(ChatChannelDomain.DISCUSSION,
+                channel.getId(),
+                AUTHOR_USER_PROFILE_ID,
+                text,
+                Optional.empty(),
+                System.currentTimeMillis(),
+                false);
+    }
+}
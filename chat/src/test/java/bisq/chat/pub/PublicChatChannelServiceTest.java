@@ -0,0 +1,191 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.chat.pub;
+
+import bisq.chat.ChatChannelDomain;
+import bisq.chat.common.CommonPublicChatChannel;
+import bisq.chat.common.CommonPublicChatChannelService;
+import bisq.chat.common.CommonPublicChatChannelStore;
+import bisq.chat.common.CommonPublicChatMessage;
+import bisq.chat.reactions.ChatMessageReaction;
+import bisq.chat.reactions.CommonPublicChatMessageReaction;
+import bisq.chat.reactions.Reaction;
+import bisq.common.util.StringUtils;
+import bisq.network.NetworkService;
+import bisq.network.p2p.services.data.storage.DistributedData;
+import bisq.network.p2p.services.data.storage.auth.DefaultAuthenticatedData;
+import bisq.persistence.DbSubDirectory;
+import bisq.persistence.Persistence;
+import bisq.persistence.PersistenceService;
+import bisq.user.UserService;
+import bisq.user.banned.BannedUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static bisq.chat.common.SubDomain.DISCUSSION_BISQ;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PublicChatChannelServiceTest {
+    private static final String USER_PROFILE_ID = "a".repeat(40);
+    // Must be in sync with PublicChatChannelService.MAX_NUM_PENDING_REACTION_MESSAGE_IDS
+    private static final int MAX_NUM_PENDING_REACTION_MESSAGE_IDS = 10_000;
+
+    private CommonPublicChatChannel channel;
+    private CommonPublicChatChannelService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        Persistence<CommonPublicChatChannelStore> persistence = mock(Persistence.class);
+        when(persistence.persistAsync(any())).thenReturn(CompletableFuture.completedFuture(null));
+        PersistenceService persistenceService = mock(PersistenceService.class);
+        doReturn(persistence).when(persistenceService)
+                .<CommonPublicChatChannelStore>getOrCreatePersistence(any(), any(DbSubDirectory.class), anyString(), any());
+        UserService userService = mock(UserService.class);
+        when(userService.getBannedUserService()).thenReturn(mock(BannedUserService.class));
+
+        channel = new CommonPublicChatChannel(ChatChannelDomain.DISCUSSION, DISCUSSION_BISQ);
+        service = new CommonPublicChatChannelService(persistenceService,
+                mock(NetworkService.class),
+                userService,
+                ChatChannelDomain.DISCUSSION,
+                List.of(channel));
+        service.getChannels().add(channel);
+    }
+
+    @Test
+    void applyReactionReceivedBeforeMessage() {
+        CommonPublicChatMessage message = createChatMessage();
+        CommonPublicChatMessageReaction reaction = createReaction(message.getId(), System.currentTimeMillis());
+
+        add(reaction);
+        assertThat(getReactions(message)).isEmpty();
+
+        add(message);
+        assertThat(getReactions(message)).containsExactly(reaction);
+    }
+
+    @Test
+    void applyReactionReceivedAfterMessage() {
+        CommonPublicChatMessage message = createChatMessage();
+        CommonPublicChatMessageReaction reaction = createReaction(message.getId(), System.currentTimeMillis());
+
+        add(message);
+        add(reaction);
+        assertThat(getReactions(message)).containsExactly(reaction);
+    }
+
+    @Test
+    void dropPendingReactionRemovedBeforeMessage() {
+        CommonPublicChatMessage message = createChatMessage();
+        CommonPublicChatMessageReaction reaction = createReaction(message.getId(), System.currentTimeMillis());
+        CommonPublicChatMessageReaction otherReaction = createReaction(message.getId(), System.currentTimeMillis());
+
+        add(reaction);
+        add(otherReaction);
+        remove(reaction);
+        add(message);
+
+        assertThat(getReactions(message)).containsExactly(otherReaction);
+    }
+
+    @Test
+    void removeExpiredPendingReactionsIfCapIsReached() {
+        long expiredDate = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(11);
+        CommonPublicChatMessage messageOfExpiredReaction = createChatMessage();
+        add(createReaction(messageOfExpiredReaction.getId(), expiredDate));
+        for (int i = 1; i < MAX_NUM_PENDING_REACTION_MESSAGE_IDS; i++) {
+            add(createReaction(StringUtils.createUid(), expiredDate));
+        }
+
+        CommonPublicChatMessage message = createChatMessage();
+        CommonPublicChatMessageReaction reaction = createReaction(message.getId(), System.currentTimeMillis());
+        add(reaction);
+
+        add(messageOfExpiredReaction);
+        add(message);
+        assertThat(getReactions(messageOfExpiredReaction)).isEmpty();
+        assertThat(getReactions(message)).containsExactly(reaction);
+    }
+
+    @Test
+    void dropReactionIfCapIsReached() {
+        long now = System.currentTimeMillis();
+        CommonPublicChatMessage messageOfFirstReaction = createChatMessage();
+        CommonPublicChatMessageReaction firstReaction = createReaction(messageOfFirstReaction.getId(), now);
+        add(firstReaction);
+        for (int i = 1; i < MAX_NUM_PENDING_REACTION_MESSAGE_IDS; i++) {
+            add(createReaction(StringUtils.createUid(), now));
+        }
+
+        CommonPublicChatMessage message = createChatMessage();
+        add(createReaction(message.getId(), now));
+        // Further reactions for an already pending message are still accepted
+        CommonPublicChatMessageReaction secondReaction = createReaction(messageOfFirstReaction.getId(), now);
+        add(secondReaction);
+
+        add(message);
+        add(messageOfFirstReaction);
+        assertThat(getReactions(message)).isEmpty();
+        assertThat(getReactions(messageOfFirstReaction)).containsExactlyInAnyOrder(firstReaction, secondReaction);
+    }
+
+    private void add(DistributedData distributedData) {
+        service.onAuthenticatedDataAdded(new DefaultAuthenticatedData(distributedData));
+    }
+
+    private void remove(DistributedData distributedData) {
+        service.onAuthenticatedDataRemoved(new DefaultAuthenticatedData(distributedData));
+    }
+
+    private CommonPublicChatMessage createChatMessage() {
+        return new CommonPublicChatMessage(ChatChannelDomain.DISCUSSION,
+                channel.getId(),
+                USER_PROFILE_ID,
+                "text",
+                Optional.empty(),
+                System.currentTimeMillis(),
+                false);
+    }
+
+    private CommonPublicChatMessageReaction createReaction(String chatMessageId, long date) {
+        return new CommonPublicChatMessageReaction(StringUtils.createUid(),
+                USER_PROFILE_ID,
+                channel.getId(),
+                ChatChannelDomain.DISCUSSION,
+                chatMessageId,
+                Reaction.THUMBS_UP.ordinal(),
+                date);
+    }
+
+    private static Set<ChatMessageReaction> getReactions(CommonPublicChatMessage message) {
+        return message.getChatMessageReactions();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.common.fsm;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates event handlers by their constructor with the given parameter types. The constructor lookup is done once
+ * per handler class and the resulting MethodHandle is cached, thus creating a handler for an event does not require
+ * reflection.
+ */
+public final class EventHandlerFactory {
+    private final Class<?>[] parameterTypes;
+    private final Map<Class<?>, MethodHandle> constructorByHandlerClass = new ConcurrentHashMap<>();
+
+    public EventHandlerFactory(Class<?>... parameterTypes) {
+        this.parameterTypes = parameterTypes.clone();
+    }
+
+    public <E extends Event> EventHandler<E> newEventHandler(Class<? extends EventHandler<E>> handlerClass,
+                                                             Object... args)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        MethodHandle constructor = getConstructor(handlerClass);
+        try {
+            return handlerClass.cast((Object) constructor.invokeExact(args));
+        } catch (Throwable throwable) {
+            throw new InvocationTargetException(throwable);
+        }
+    }
+
+    @VisibleForTesting
+    MethodHandle getConstructor(Class<?> handlerClass) throws NoSuchMethodException, IllegalAccessException {
+        MethodHandle constructor = constructorByHandlerClass.get(handlerClass);
+        if (constructor == null) {
+            constructor = MethodHandles.publicLookup()
+                    .unreflectConstructor(handlerClass.getDeclaredConstructor(parameterTypes))
+                    .asType(MethodType.genericMethodType(parameterTypes.length))
+                    .asSpreader(Object[].class, parameterTypes.length);
+            constructorByHandlerClass.putIfAbsent(handlerClass, constructor);
+        }
+        return constructor;
+    }
+}
@@ -17,16 +17,15 @@
 
 package bisq.common.fsm;
 
-import bisq.common.data.Pair;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -42,18 +41,30 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * <br/>
  * The Fsm does not allow cycle graphs or transitions to previous states. For determining the order of the states we
  * use getOrdinal() which returns in case of enums the ordinal.
+ * <br/>
+ * The transitions configured in configErrorHandling() and configTransitions() are compiled once per Fsm class into an
+ * immutable TransitionTable which is shared by all instances of that class. The configuration must therefore not
+ * depend on instance state. Transitions added after construction only apply to that instance.
  */
 @Slf4j
 public abstract class Fsm<M extends FsmModel> {
-    private final Map<Pair<State, Class<? extends Event>>, Transition> transitionMap = new HashMap<>();
+    private static final Map<Class<?>, TransitionTable> TRANSITION_TABLE_BY_FSM_CLASS = new ConcurrentHashMap<>();
+
+    private TransitionTable transitionTable = TransitionTable.EMPTY;
     @Getter
     protected final M model;
 
     protected Fsm(M model) {
         this.model = model;
 
-        configErrorHandling();
-        configTransitions();
+        TransitionTable sharedTransitionTable = TRANSITION_TABLE_BY_FSM_CLASS.get(getClass());
+        if (sharedTransitionTable != null) {
+            transitionTable = sharedTransitionTable;
+        } else {
+            configErrorHandling();
+            configTransitions();
+            TRANSITION_TABLE_BY_FSM_CLASS.putIfAbsent(getClass(), transitionTable);
+        }
     }
 
     abstract protected void configErrorHandling();
@@ -72,9 +83,8 @@ public abstract class Fsm<M extends FsmModel> {
                 }
                 log.info("Start transition from currentState {}", currentState);
                 Class<? extends Event> eventClass = event.getClass();
-                var transitionMapEntriesForEvent = findTransitionMapEntriesForEvent(eventClass);
-                checkArgument(!transitionMapEntriesForEvent.isEmpty(), "No transition found for given event " + event);
-                Optional<Transition> transition = findTransition(currentState, transitionMapEntriesForEvent);
+                checkArgument(transitionTable.hasTransitions(eventClass), "No transition found for given event " + event);
+                Optional<Transition> transition = transitionTable.findTransition(currentState, eventClass);
                 if (transition.isPresent()) {
                     State targetState = transition.get().getTargetState();
                     checkArgument(targetState.getOrdinal() > currentState.getOrdinal(),
@@ -97,12 +107,17 @@ public abstract class Fsm<M extends FsmModel> {
                         model.eventQueue.clear();
                     } else {
                         model.processedEvents.add(eventClass);
-                        // Apply all pending events to see if any of those match our current state.
+                        // Apply the pending events which match our current state.
                         // If an exception is thrown by the processed pending event it will get thrown to the
                         // caller. This would be a different triggering event as the event which cause
                         // the exception (the one from the queue).
-                        // Clone set to avoid ConcurrentModificationException
-                        new HashSet<>(model.getEventQueue()).forEach(this::handle);
+                        // Collect to a list to avoid ConcurrentModificationException
+                        if (!model.eventQueue.isEmpty()) {
+                            List<Event> pendingEvents = model.eventQueue.stream()
+                                    .filter(pendingEvent -> transitionTable.findTransition(targetState, pendingEvent.getClass()).isPresent())
+                                    .collect(Collectors.toList());
+                            pendingEvents.forEach(this::handle);
+                        }
                     }
                 } else {
                     log.info("We did not find a transition with state {} and event {}. " +
@@ -110,10 +125,9 @@ public abstract class Fsm<M extends FsmModel> {
                             currentState, eventClass.getSimpleName());
                     // In case we get an event which does not match our current state we add the event to our
                     // event queue if the event was not already processed.
-                    transitionMap.keySet().stream()
-                            .filter(key -> key.getSecond().equals(eventClass) &&
-                                    !model.processedEvents.contains(eventClass))
-                            .forEach(e -> model.eventQueue.add(event));
+                    if (!model.processedEvents.contains(eventClass)) {
+                        model.eventQueue.add(event);
+                    }
                 }
             } catch (Exception exception) {
                 log.error("Error at handling {}.", event, exception);
@@ -159,29 +173,9 @@ public abstract class Fsm<M extends FsmModel> {
     abstract protected <E extends Event> EventHandler<E> newEventHandlerFromClass(Class<? extends EventHandler<E>> handlerClass)
             throws NoSuchMethodException, InvocationTargetException, InstantiationException, IllegalAccessException;
 
-    private Set<Map.Entry<Pair<State, Class<? extends Event>>, Transition>> findTransitionMapEntriesForEvent(Class<? extends Event> eventClass) {
-        return transitionMap.entrySet().stream()
-                .filter(e -> e.getKey().getSecond().equals(eventClass))
-                .collect(Collectors.toSet());
-    }
-
-    private Optional<Transition> findTransition(State currentState,
-                                                Set<Map.Entry<Pair<State, Class<? extends Event>>, Transition>> transitionMapEntriesForEvent) {
-        return transitionMapEntriesForEvent.stream()
-                .filter(e -> e.getKey().getFirst().equals(currentState) || e.getKey().getFirst().isAnyState())
-                .map(Map.Entry::getValue)
-                .findAny();
-    }
-
     private void insertTransition(Transition transition) {
         try {
-            checkArgument(transition.isValid(), "Invalid transition. transition=%s", transition);
-            transition.getSourceStates().forEach(sourceState -> {
-                Pair<State, Class<? extends Event>> pair = new Pair<>(sourceState, transition.getEventClass());
-                checkArgument(!transitionMap.containsKey(pair),
-                        "A transition exists already with the state/event pair. pair=%s", pair);
-                transitionMap.put(pair, transition);
-            });
+            transitionTable = transitionTable.with(transition);
         } catch (IllegalArgumentException e) {
             throw new FsmConfigException(e);
         }
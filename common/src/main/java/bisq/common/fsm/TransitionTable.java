@@ -0,0 +1,74 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.common.fsm;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Immutable lookup of the transitions by event class and source state.
+ * As it is immutable it can be shared by all instances of a Fsm class.
+ */
+final class TransitionTable {
+    static final TransitionTable EMPTY = new TransitionTable(Map.of());
+
+    private final Map<Class<? extends Event>, Map<State, Transition>> transitionsByEventClass;
+
+    private TransitionTable(Map<Class<? extends Event>, Map<State, Transition>> transitionsByEventClass) {
+        this.transitionsByEventClass = transitionsByEventClass;
+    }
+
+    /**
+     * @return A new table containing the existing transitions and the given transition.
+     * @throws IllegalArgumentException if the transition is invalid or if a transition for any of its
+     *                                  state/event pairs exists already.
+     */
+    TransitionTable with(Transition transition) {
+        checkArgument(transition.isValid(), "Invalid transition. transition=%s", transition);
+        Class<? extends Event> eventClass = transition.getEventClass();
+        Map<State, Transition> transitionsByState = new HashMap<>(transitionsByEventClass.getOrDefault(eventClass, Map.of()));
+        transition.getSourceStates().forEach(sourceState -> {
+            checkArgument(!transitionsByState.containsKey(sourceState),
+                    "A transition exists already with the state/event pair. state=%s, event=%s", sourceState, eventClass);
+            transitionsByState.put(sourceState, transition);
+        });
+        Map<Class<? extends Event>, Map<State, Transition>> map = new HashMap<>(transitionsByEventClass);
+        map.put(eventClass, Map.copyOf(transitionsByState));
+        return new TransitionTable(Map.copyOf(map));
+    }
+
+    boolean hasTransitions(Class<? extends Event> eventClass) {
+        return transitionsByEventClass.containsKey(eventClass);
+    }
+
+    Optional<Transition> findTransition(State currentState, Class<? extends Event> eventClass) {
+        Map<State, Transition> transitionsByState = transitionsByEventClass.get(eventClass);
+        if (transitionsByState == null) {
+            return Optional.empty();
+        }
+        Transition transition = transitionsByState.get(currentState);
+        if (transition == null) {
+            transition = transitionsByState.get(State.FsmState.ANY);
+        }
+        return Optional.ofNullable(transition);
+    }
+}
@@ -19,11 +19,16 @@ package bisq.common.observable.collection;
 
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * Observer implementation which maps the changes of the source collection to the
@@ -31,18 +36,51 @@ import java.util.stream.Collectors;
  * executor (usually runs the runnable on the JavaFX Application Thread).
  * This is useful for mirroring changes of the source collection on the target collection while supporting
  * the UI frameworks constraints and mapping to different element types (usually ListItems).
+ * <p>
+ * Changes are queued and applied in batches: only one runnable is passed to the executor until the queued changes
+ * have been applied, and each batch results in at most one removeAll and one addAll on the target collection.
+ * Membership of target items is tracked in a hash set, so we avoid the linear contains calls on the target list.
+ * <p>
+ * Note that a change is only applied immediately if no batch is waiting at the executor. If a change from a
+ * background thread has scheduled a batch (e.g. with Platform.runLater), later changes are added to that batch even
+ * if they are made on the executor thread (e.g. the JavaFX Application Thread). In that case the target collection
+ * reflects the change only after the batch has been applied, not directly after the change of the source collection.
+ * The order of the changes is always preserved. Code which needs the current state right after a change has to
+ * read it from the source collection.
  *
  * @param <S> The type of the collection element of the source collection
  * @param <T> The type of the collection element of the target collection
  */
-@EqualsAndHashCode
-@ToString
+@Slf4j
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString(onlyExplicitlyIncluded = true)
 final class CollectionChangeMapper<S, T> implements CollectionObserver<S> {
+    private enum ChangeType {
+        ADD,
+        REMOVE,
+        CLEAR
+    }
+
+    private record Change(ChangeType changeType, Object sourceItem) {
+    }
+
+    @EqualsAndHashCode.Include
+    @ToString.Include
     private final Collection<T> targetCollection;
+    @EqualsAndHashCode.Include
     private final Function<S, Boolean> filterFunction;
+    @EqualsAndHashCode.Include
     private final Function<S, T> mapFunction;
+    @EqualsAndHashCode.Include
     private final Consumer<Runnable> executor;
 
+    private final Object lock = new Object();
+    // Guarded by lock
+    private List<Change> pendingChanges = new ArrayList<>();
+    private boolean batchScheduled;
+    // Only accessed from the executor
+    private final Set<T> targetItems = new HashSet<>();
+
     CollectionChangeMapper(Collection<T> targetCollection,
                            Function<S, Boolean> filterFunction,
                            Function<S, T> mapFunction,
@@ -55,61 +93,137 @@ final class CollectionChangeMapper<S, T> implements CollectionObserver<S> {
 
     @Override
     public void add(S sourceItem) {
-        executor.accept(() -> {
-            if (filterFunction.apply(sourceItem)) {
-                T item = mapFunction.apply(sourceItem);
-                if (!targetCollection.contains(item)) {
-                    targetCollection.add(item);
-                }
-            }
-        });
+        enqueue(List.of(new Change(ChangeType.ADD, sourceItem)));
     }
 
     @Override
     public void addAll(Collection<? extends S> sourceItems) {
-        executor.accept(() -> targetCollection.addAll(sourceItems.stream()
-                .filter(filterFunction::apply)
-                .map(mapFunction)
-                .filter(item -> !targetCollection.contains(item))
-                .toList()));
+        enqueue(sourceItems.stream()
+                .map(sourceItem -> new Change(ChangeType.ADD, sourceItem))
+                .toList());
     }
 
     @Override
     public void setAll(Collection<? extends S> sourceItems) {
-        executor.accept(() -> {
-            targetCollection.clear();
-            targetCollection.addAll(sourceItems.stream()
-                    .filter(filterFunction::apply)
-                    .map(mapFunction)
-                    .toList());
-        });
+        List<Change> changes = new ArrayList<>(sourceItems.size() + 1);
+        changes.add(new Change(ChangeType.CLEAR, null));
+        sourceItems.forEach(sourceItem -> changes.add(new Change(ChangeType.ADD, sourceItem)));
+        enqueue(changes);
     }
 
     @Override
     public void remove(Object sourceItem) {
-        executor.accept(() -> {
-            //noinspection unchecked
-            S sourceItemCasted = (S) sourceItem;
-            // We do not apply the filter at remove as the remove action could have impact on the filter
-            // predicate (e.g. if we close an item and set a flag used in the filter)
-            T item = mapFunction.apply(sourceItemCasted);
-            targetCollection.remove(item);
-        });
+        enqueue(List.of(new Change(ChangeType.REMOVE, sourceItem)));
     }
 
     @Override
     public void removeAll(Collection<?> sourceItems) {
-        executor.accept(() -> targetCollection.removeAll(sourceItems.stream()
-                .map(element -> {
-                    //noinspection unchecked
-                    return (S) element;
-                })
-                .map(mapFunction)
-                .collect(Collectors.toSet())));
+        enqueue(sourceItems.stream()
+                .map(sourceItem -> new Change(ChangeType.REMOVE, sourceItem))
+                .toList());
     }
 
     @Override
     public void clear() {
-        executor.accept(targetCollection::clear);
+        enqueue(List.of(new Change(ChangeType.CLEAR, null)));
+    }
+
+    private void enqueue(List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            pendingChanges.addAll(changes);
+            if (batchScheduled) {
+                return;
+            }
+            batchScheduled = true;
+        }
+        executor.accept(this::applyPendingChanges);
+    }
+
+    private void applyPendingChanges() {
+        while (true) {
+            List<Change> changes;
+            synchronized (lock) {
+                if (pendingChanges.isEmpty()) {
+                    batchScheduled = false;
+                    return;
+                }
+                changes = pendingChanges;
+                pendingChanges = new ArrayList<>();
+            }
+            try {
+                applyChanges(changes);
+            } catch (Exception e) {
+                log.error("Applying {} changes to target collection failed", changes.size(), e);
+            }
+        }
+    }
+
+    private void applyChanges(List<Change> changes) {
+        // The target collection might have been changed by other code, in which case we rebuild our index.
+        if (targetItems.size() != targetCollection.size()) {
+            targetItems.clear();
+            targetItems.addAll(targetCollection);
+        }
+
+        boolean clearTarget = false;
+        Set<T> itemsToAdd = new LinkedHashSet<>();
+        Set<T> itemsToRemove = new LinkedHashSet<>();
+        // Items which are in the target collection and got removed and added again in this batch. The target
+        // collection holds an equal but possibly stale instance, so we remove it and add the new instance.
+        Set<T> itemsToReplace = new LinkedHashSet<>();
+        for (Change change : changes) {
+            switch (change.changeType()) {
+                case ADD -> {
+                    //noinspection unchecked
+                    S sourceItem = (S) change.sourceItem();
+                    if (filterFunction.apply(sourceItem)) {
+                        T item = mapFunction.apply(sourceItem);
+                        if (targetItems.add(item)) {
+                            if (itemsToRemove.remove(item)) {
+                                itemsToReplace.add(item);
+                            }
+                            itemsToAdd.add(item);
+                        }
+                    }
+                }
+                case REMOVE -> {
+                    //noinspection unchecked
+                    S sourceItem = (S) change.sourceItem();
+                    // We do not apply the filter at remove as the remove action could have impact on the filter
+                    // predicate (e.g. if we close an item and set a flag used in the filter)
+                    T item = mapFunction.apply(sourceItem);
+                    if (targetItems.remove(item)) {
+                        // If the item got added in this batch, we only need to remove it from the target collection
+                        // if it replaced an item of the target collection.
+                        if (!itemsToAdd.remove(item) || itemsToReplace.remove(item)) {
+                            itemsToRemove.add(item);
+                        }
+                    }
+                }
+                case CLEAR -> {
+                    clearTarget = true;
+                    targetItems.clear();
+                    itemsToAdd.clear();
+                    itemsToRemove.clear();
+                    itemsToReplace.clear();
+                }
+            }
+        }
+
+        if (clearTarget) {
+            targetCollection.clear();
+        }
+        if (!itemsToReplace.isEmpty()) {
+            itemsToRemove.addAll(itemsToReplace);
+        }
+        if (!itemsToRemove.isEmpty()) {
+            targetCollection.removeAll(itemsToRemove);
+        }
+        if (!itemsToAdd.isEmpty()) {
+            targetCollection.addAll(itemsToAdd);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto;
+
+import bisq.common.annotation.ExcludeForHash;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Caches the names of the fields annotated with {@link ExcludeForHash} per class and version, to avoid the
+ * reflection at each {@link Proto#serializeForHash()} call.
+ */
+final class ExcludedFieldsCache {
+    private static final Map<Class<?>, Map<Integer, Set<String>>> EXCLUDED_FIELDS_BY_VERSION_BY_CLASS = new ConcurrentHashMap<>();
+
+    private ExcludedFieldsCache() {
+    }
+
+    static Set<String> getExcludedFields(Class<?> clazz, int version) {
+        return EXCLUDED_FIELDS_BY_VERSION_BY_CLASS.computeIfAbsent(clazz, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(version, key -> findExcludedFields(clazz, version));
+    }
+
+    private static Set<String> findExcludedFields(Class<?> clazz, int version) {
+        return Arrays.stream(clazz.getDeclaredFields())
+                .filter(field -> field.isAnnotationPresent(ExcludeForHash.class))
+                .filter(field -> {
+                    int[] excludeOnlyInVersions = field.getAnnotation(ExcludeForHash.class).excludeOnlyInVersions();
+                    return excludeOnlyInVersions.length == 0 ||
+                            Arrays.stream(excludeOnlyInVersions).anyMatch(excludedVersion -> excludedVersion == version);
+                })
+                .map(Field::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto;
+
+import com.google.protobuf.Message;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.Function;
+
+/**
+ * Opt-in for Proto objects which are deeply immutable, to serialize, hash and calculate the size only once.
+ * Implementations hold a transient {@link ProtoMemo} which must be excluded from equals, hashCode and toString.
+ * <p>
+ * The returned byte arrays are shared and must not be modified by the caller.
+ */
+public interface MemoizedProto extends Proto {
+    ProtoMemo getProtoMemo();
+
+    @Override
+    default byte[] serialize() {
+        return getProtoMemo().getSerialized(Proto.super::serialize);
+    }
+
+    @Override
+    default byte[] serializeForHash() {
+        return getProtoMemo().getSerializedForHash(Proto.super::serializeForHash);
+    }
+
+    @Override
+    default int getSerializedSize() {
+        return getProtoMemo().getSerializedSize(Proto.super::getSerializedSize);
+    }
+
+    @Override
+    default void writeDelimitedTo(OutputStream outputStream) throws IOException {
+        Message proto = completeProto();
+        getProtoMemo().setSerializedSize(proto.getSerializedSize());
+        proto.writeDelimitedTo(outputStream);
+    }
+
+    /**
+     * @param hashFunction The hash function applied to the result of {@link #serializeForHash()}. Callers must use
+     *                     always the same hash function for a given class.
+     */
+    default byte[] getHash(Function<byte[], byte[]> hashFunction) {
+        return getProtoMemo().getHash(() -> hashFunction.apply(serializeForHash()));
+    }
+}
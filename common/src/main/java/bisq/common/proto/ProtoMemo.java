@@ -0,0 +1,83 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto;
+
+import java.lang.ref.SoftReference;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Holds the memoized serialization results of an immutable {@link MemoizedProto}.
+ * The serialized size and the hash are small and kept for the lifetime of the object. The serialized byte arrays
+ * are held by soft references, so that they do not double the memory footprint of large data stores.
+ * Values might get computed more than once if accessed concurrently, which is fine as the results are the same.
+ */
+public final class ProtoMemo {
+    private volatile SoftReference<byte[]> serialized;
+    private volatile SoftReference<byte[]> serializedForHash;
+    private volatile int serializedSize = -1;
+    private volatile byte[] hash;
+
+    public byte[] getSerialized(Supplier<byte[]> supplier) {
+        byte[] result = get(serialized);
+        if (result == null) {
+            result = supplier.get();
+            serialized = new SoftReference<>(result);
+            serializedSize = result.length;
+        }
+        return result;
+    }
+
+    public byte[] getSerializedForHash(Supplier<byte[]> supplier) {
+        byte[] result = get(serializedForHash);
+        if (result == null) {
+            result = supplier.get();
+            serializedForHash = new SoftReference<>(result);
+        }
+        return result;
+    }
+
+    public int getSerializedSize(IntSupplier supplier) {
+        int result = serializedSize;
+        if (result < 0) {
+            result = supplier.getAsInt();
+            serializedSize = result;
+        }
+        return result;
+    }
+
+    /**
+     * Can be used if the size is known from the received proto, to avoid serializing it again.
+     */
+    public void setSerializedSize(int serializedSize) {
+        this.serializedSize = serializedSize;
+    }
+
+    public byte[] getHash(Supplier<byte[]> supplier) {
+        byte[] result = hash;
+        if (result == null) {
+            result = supplier.get();
+            hash = result;
+        }
+        return result;
+    }
+
+    private static byte[] get(SoftReference<byte[]> reference) {
+        return reference != null ? reference.get() : null;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.threading;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * Executes the submitted tasks one after another in the order they have been submitted, using the threads of the
+ * delegate executor. Allows to use a shared thread pool for tasks which need to be processed in order (e.g. the
+ * messages of one connection) while tasks of different SequentialExecutors run in parallel.
+ * No thread is held while the queue is empty.
+ */
+@Slf4j
+public class SequentialExecutor implements Executor {
+    private final Executor delegate;
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private boolean isRunning;
+
+    public SequentialExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        synchronized (tasks) {
+            tasks.add(task);
+            if (isRunning) {
+                return;
+            }
+            isRunning = true;
+        }
+        try {
+            delegate.execute(this::runTasks);
+        } catch (RuntimeException e) {
+            // E.g. RejectedExecutionException if delegate got shut down
+            synchronized (tasks) {
+                tasks.clear();
+                isRunning = false;
+            }
+            throw e;
+        }
+    }
+
+    public int getQueueSize() {
+        synchronized (tasks) {
+            return tasks.size();
+        }
+    }
+
+    private void runTasks() {
+        while (true) {
+            Runnable task;
+            synchronized (tasks) {
+                task = tasks.poll();
+                if (task == null) {
+                    isRunning = false;
+                    return;
+                }
+            }
+            try {
+                task.run();
+            } catch (Throwable throwable) {
+                log.error("Executing task failed", throwable);
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.timer;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Timer based on a hashed wheel (as used by Netty or Kafka). A single thread advances the wheel at each tick and
+ * hands the expired timeouts to the executor given at scheduling. Thus, the number of threads does not grow with the
+ * number of scheduled timeouts.
+ * <p>
+ * Adding and cancelling a timeout is O(1). Timeouts are executed with a precision of the tick duration.
+ */
+@Slf4j
+public class HashedWheelTimer {
+    // Limits the work at one tick in case of a flood of new timeouts
+    private static final int MAX_TIMEOUTS_TRANSFERRED_PER_TICK = 100_000;
+
+    public interface Timeout {
+        /**
+         * @return true if the timeout was cancelled before it expired.
+         */
+        boolean cancel();
+    }
+
+    @Getter
+    public static class Metrics {
+        private final AtomicInteger numLiveTimeouts = new AtomicInteger();
+        private final AtomicLong numExpiredTimeouts = new AtomicLong();
+        private final AtomicLong accumulatedLateness = new AtomicLong();
+        private final AtomicLong maxLateness = new AtomicLong();
+        private final AtomicLong numCallbacks = new AtomicLong();
+        private final AtomicLong accumulatedCallbackDuration = new AtomicLong();
+        private final AtomicLong maxCallbackDuration = new AtomicLong();
+
+        public long getAverageLateness() {
+            long numExpired = numExpiredTimeouts.get();
+            return numExpired > 0 ? accumulatedLateness.get() / numExpired : 0;
+        }
+
+        public long getAverageCallbackDuration() {
+            long numCalls = numCallbacks.get();
+            return numCalls > 0 ? accumulatedCallbackDuration.get() / numCalls : 0;
+        }
+
+        private void onExpired(long lateness) {
+            numLiveTimeouts.decrementAndGet();
+            numExpiredTimeouts.incrementAndGet();
+            accumulatedLateness.addAndGet(lateness);
+            maxLateness.accumulateAndGet(lateness, Math::max);
+        }
+
+        private void onCallbackCompleted(long duration) {
+            numCallbacks.incrementAndGet();
+            accumulatedCallbackDuration.addAndGet(duration);
+            maxCallbackDuration.accumulateAndGet(duration, Math::max);
+        }
+
+        @Override
+        public String toString() {
+            return "HashedWheelTimer.Metrics{" +
+                    "numLiveTimeouts=" + numLiveTimeouts.get() +
+                    ", numExpiredTimeouts=" + numExpiredTimeouts.get() +
+                    ", averageLateness=" + getAverageLateness() + " ms" +
+                    ", maxLateness=" + maxLateness.get() + " ms" +
+                    ", averageCallbackDuration=" + getAverageCallbackDuration() + " ms" +
+                    ", maxCallbackDuration=" + maxCallbackDuration.get() + " ms" +
+                    "}";
+        }
+    }
+
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_CANCELLED = 1;
+    private static final int STATE_EXPIRED = 2;
+
+    private final class WheelTimeout implements Timeout {
+        private final Runnable task;
+        private final Executor executor;
+        // Relative to startTime in nanoseconds
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(STATE_PENDING);
+        // Only accessed by the worker thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private WheelTimeout previous;
+        private WheelTimeout next;
+
+        private WheelTimeout(Runnable task, Executor executor, long deadline) {
+            this.task = task;
+            this.executor = executor;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(STATE_PENDING, STATE_CANCELLED)) {
+                return false;
+            }
+            metrics.numLiveTimeouts.decrementAndGet();
+            cancelledTimeouts.add(this);
+            return true;
+        }
+
+        private void expire(long now) {
+            if (!state.compareAndSet(STATE_PENDING, STATE_EXPIRED)) {
+                return;
+            }
+            metrics.onExpired(TimeUnit.NANOSECONDS.toMillis(now - deadline));
+            try {
+                executor.execute(() -> {
+                    long ts = System.currentTimeMillis();
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        log.error("Executing timer task failed", t);
+                    } finally {
+                        metrics.onCallbackCompleted(System.currentTimeMillis() - ts);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.warn("Executor rejected timer task. task={}", task, e);
+            }
+        }
+    }
+
+    // Doubly linked list of the timeouts of one wheel slot. Only accessed by the worker thread.
+    private static final class Bucket {
+        private WheelTimeout head;
+        private WheelTimeout tail;
+
+        private void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        private WheelTimeout remove(WheelTimeout timeout) {
+            WheelTimeout next = timeout.next;
+            if (timeout.previous != null) {
+                timeout.previous.next = next;
+            }
+            if (next != null) {
+                next.previous = timeout.previous;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            return next;
+        }
+
+        private void expireTimeouts(long now) {
+            WheelTimeout timeout = head;
+            while (timeout != null) {
+                if (timeout.remainingRounds <= 0) {
+                    WheelTimeout next = remove(timeout);
+                    timeout.expire(now);
+                    timeout = next;
+                } else {
+                    timeout.remainingRounds--;
+                    timeout = timeout.next;
+                }
+            }
+        }
+    }
+
+    private final String name;
+    private final long tickDuration;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<WheelTimeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    @Getter
+    private final Metrics metrics = new Metrics();
+    private final long startTime = System.nanoTime();
+    private volatile Thread workerThread;
+    private long tick;
+
+    /**
+     * @param tickDurationMs Precision of the timer
+     * @param wheelSize      Number of slots in the wheel. Gets rounded up to a power of 2.
+     */
+    public HashedWheelTimer(String name, long tickDurationMs, int wheelSize) {
+        this.name = name;
+        this.tickDuration = TimeUnit.MILLISECONDS.toNanos(tickDurationMs);
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        mask = size - 1;
+    }
+
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit timeUnit, Executor executor) {
+        maybeStartWorkerThread();
+        long deadline = System.nanoTime() - startTime + timeUnit.toNanos(Math.max(0, delay));
+        WheelTimeout timeout = new WheelTimeout(task, executor, deadline);
+        metrics.numLiveTimeouts.incrementAndGet();
+        newTimeouts.add(timeout);
+        return timeout;
+    }
+
+    private void maybeStartWorkerThread() {
+        if (workerThread == null) {
+            synchronized (this) {
+                if (workerThread == null) {
+                    Thread thread = new Thread(this::runWorker, name);
+                    thread.setDaemon(true);
+                    thread.start();
+                    workerThread = thread;
+                }
+            }
+        }
+    }
+
+    private void runWorker() {
+        //noinspection InfiniteLoopStatement
+        while (true) {
+            long now = waitForNextTick();
+            removeCancelledTimeouts();
+            transferNewTimeoutsToBuckets();
+            wheel[(int) (tick & mask)].expireTimeouts(now);
+            tick++;
+        }
+    }
+
+    private long waitForNextTick() {
+        long deadline = tickDuration * (tick + 1);
+        while (true) {
+            long now = System.nanoTime() - startTime;
+            long sleepTime = deadline - now;
+            if (sleepTime <= 0) {
+                return now;
+            }
+            LockSupport.parkNanos(this, sleepTime);
+        }
+    }
+
+    private void removeCancelledTimeouts() {
+        WheelTimeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            // If it is not in a bucket yet, it is still in newTimeouts and gets skipped at the transfer
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferNewTimeoutsToBuckets() {
+        for (int i = 0; i < MAX_TIMEOUTS_TRANSFERRED_PER_TICK; i++) {
+            WheelTimeout timeout = newTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() != STATE_PENDING) {
+                continue;
+            }
+            long ticks = timeout.deadline / tickDuration;
+            timeout.remainingRounds = (ticks - tick) / wheel.length;
+            // If the deadline is already in the past we add it to the current tick
+            long slot = Math.max(ticks, tick);
+            wheel[(int) (slot & mask)].add(timeout);
+        }
+    }
+}
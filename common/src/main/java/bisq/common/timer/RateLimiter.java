@@ -19,18 +19,27 @@ package bisq.common.timer;
 
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Limits the number of events per key for the last second, minute, hour and day.
+ * <p>
+ * Each key has one fixed-size ring of bucket counters per time window and a running sum, so memory per key is
+ * constant and a check is O(1) regardless of the number of past events. The oldest bucket of a window is counted
+ * completely, thus the limit might be applied up to one bucket duration longer than the exact window. This errs on
+ * the strict side.
+ * Keys which have not been used for longer than a day are evicted.
+ */
 @Slf4j
 public class RateLimiter {
     private final static long SECOND = 1000L;
     private final static long MINUTE = 60 * SECOND;
     private final static long HOUR = 60 * MINUTE;
     private final static long DAY = 24 * HOUR;
+    private final static long EVICTION_INTERVAL = MINUTE;
 
     public final static int DEFAULT_MAX_PER_SECOND = 3;
     public final static int DEFAULT_MAX_PER_MINUTE = 30;
@@ -43,7 +52,8 @@ public class RateLimiter {
     private final int maxPerHour;
     private final int maxPerDay;
 
-    private final Map<String, Deque<Long>> timestampsByUserProfileId = new ConcurrentHashMap<>();
+    private final Map<String, Counters> countersByUserProfileId = new ConcurrentHashMap<>();
+    private volatile long lastEvictionTime;
 
     public RateLimiter() {
         this(DEFAULT_MAX_PER_SECOND, DEFAULT_MAX_PER_MINUTE, DEFAULT_MAX_PER_HOUR, DEFAULT_MAX_PER_DAY);
@@ -59,6 +69,7 @@ public class RateLimiter {
         this.maxPerMinute = maxPerMinute;
         this.maxPerHour = maxPerHour;
         this.maxPerDay = maxPerDay;
+        lastEvictionTime = clock.now();
     }
 
     public boolean exceedsLimit(String userProfileId) {
@@ -74,20 +85,17 @@ public class RateLimiter {
     }
 
     public Optional<String> getExceedsLimitInfo(String userProfileId, long timeStamp) {
-        timestampsByUserProfileId.putIfAbsent(userProfileId, new ArrayDeque<>());
-        Deque<Long> timestamps = timestampsByUserProfileId.get(userProfileId);
-        synchronized (timestamps) {
-            timestamps.addLast(timeStamp);
+        long now = clock.now();
+        maybeEvictIdleKeys(now);
 
-            while (!timestamps.isEmpty() && timeStamp - timestamps.peekFirst() > DAY) {
-                timestamps.pollFirst();
-            }
+        Counters counters = countersByUserProfileId.computeIfAbsent(userProfileId, key -> new Counters(now));
+        synchronized (counters) {
+            counters.add(timeStamp, now);
 
-            long now = clock.now();
-            long countLastSecond = timestamps.stream().filter(t -> now - t <= SECOND).count();
-            long countLastMinute = timestamps.stream().filter(t -> now - t <= MINUTE).count();
-            long countLastHour = timestamps.stream().filter(t -> now - t <= HOUR).count();
-            long countLastDay = timestamps.stream().filter(t -> now - t <= DAY).count();
+            int countLastSecond = counters.lastSecond.getCount();
+            int countLastMinute = counters.lastMinute.getCount();
+            int countLastHour = counters.lastHour.getCount();
+            int countLastDay = counters.lastDay.getCount();
             if (countLastSecond > maxPerSecond ||
                     countLastMinute > maxPerMinute ||
                     countLastHour > maxPerHour ||
@@ -101,4 +109,99 @@ public class RateLimiter {
 
         return Optional.empty();
     }
+
+    int getNumKeys() {
+        return countersByUserProfileId.size();
+    }
+
+    private void maybeEvictIdleKeys(long now) {
+        if (now - lastEvictionTime < EVICTION_INTERVAL) {
+            return;
+        }
+        lastEvictionTime = now;
+        countersByUserProfileId.values().removeIf(counters -> {
+            synchronized (counters) {
+                return now - counters.lastActivity > DAY;
+            }
+        });
+    }
+
+    private static final class Counters {
+        // Bucket durations: 100 ms, 5 sec, 5 min and 1 hour
+        private final WindowCounter lastSecond = new WindowCounter(SECOND, 10);
+        private final WindowCounter lastMinute = new WindowCounter(MINUTE, 12);
+        private final WindowCounter lastHour = new WindowCounter(HOUR, 12);
+        private final WindowCounter lastDay = new WindowCounter(DAY, 24);
+        private long lastActivity;
+
+        private Counters(long now) {
+            lastActivity = now;
+        }
+
+        private void add(long timeStamp, long now) {
+            // The timeStamp might be set by the sender of a message. We count events from the future as events at
+            // now, as otherwise they would move the window ahead and clear the counts of the recent events.
+            long clampedTimeStamp = Math.min(timeStamp, now);
+            lastActivity = Math.max(lastActivity, now);
+            lastSecond.add(clampedTimeStamp, now);
+            lastMinute.add(clampedTimeStamp, now);
+            lastHour.add(clampedTimeStamp, now);
+            lastDay.add(clampedTimeStamp, now);
+        }
+    }
+
+    /**
+     * Ring of numBuckets + 1 counters covering the window ending with the bucket of now. Events older than the
+     * window are not counted. The timeStamp must not be after now.
+     */
+    private static final class WindowCounter {
+        private final long bucketDuration;
+        private final int[] counts;
+        private long headBucket = Long.MIN_VALUE;
+        private int sum;
+
+        private WindowCounter(long windowDuration, int numBuckets) {
+            bucketDuration = windowDuration / numBuckets;
+            counts = new int[numBuckets + 1];
+        }
+
+        private void add(long timeStamp, long now) {
+            advance(Math.floorDiv(now, bucketDuration));
+            long bucket = Math.floorDiv(timeStamp, bucketDuration);
+            if (headBucket - bucket >= counts.length) {
+                return;
+            }
+            counts[getIndex(bucket)]++;
+            sum++;
+        }
+
+        private int getCount() {
+            return sum;
+        }
+
+        private void advance(long bucket) {
+            if (headBucket == Long.MIN_VALUE) {
+                headBucket = bucket;
+                return;
+            }
+            if (bucket <= headBucket) {
+                return;
+            }
+            if (bucket - headBucket >= counts.length) {
+                Arrays.fill(counts, 0);
+                sum = 0;
+            } else {
+                for (long b = headBucket + 1; b <= bucket; b++) {
+                    int index = getIndex(b);
+                    sum -= counts[index];
+                    counts[index] = 0;
+                }
+            }
+            headBucket = bucket;
+        }
+
+        private int getIndex(long bucket) {
+            return (int) Math.floorMod(bucket, (long) counts.length);
+        }
+    }
 }
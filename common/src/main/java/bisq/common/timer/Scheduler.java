@@ -23,21 +23,33 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Optional;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
 public class Scheduler implements TaskScheduler {
-    // We do not use a ScheduledThreadPoolExecutor as the queue cannot be customized. It would cause undesired behaviour
-    // in case we would use a static executor for all Scheduler instances and multiple schedule calls would get 
-    // queued up instead of starting a new scheduler.
-    private Optional<ScheduledExecutorService> executor = Optional.empty();
+    // All Scheduler instances share one timer thread. The tasks are executed at the executor of the Scheduler, so
+    // that a long-running task does not delay other timers.
+    private static final HashedWheelTimer TIMER = new HashedWheelTimer("Scheduler.timer", 10, 512);
+    private static final Executor DEFAULT_EXECUTOR = ExecutorFactory.newCachedThreadPool("Scheduler",
+            1,
+            Integer.MAX_VALUE,
+            60);
+
+    public static HashedWheelTimer.Metrics getTimerMetrics() {
+        return TIMER.getMetrics();
+    }
+
     private final Runnable task;
     private volatile boolean stopped;
     @Getter
-    private long counter;
+    private volatile long counter;
     private Optional<String> runnableName = Optional.empty();
     private Optional<String> hostClassName = Optional.empty();
+    private Optional<Executor> executor = Optional.empty();
+    private volatile Optional<HashedWheelTimer.Timeout> timeout = Optional.empty();
+    private long delayMs;
+    private long cycles;
 
     private Scheduler(Runnable task) {
         this.task = task;
@@ -65,6 +77,11 @@ public class Scheduler implements TaskScheduler {
         return this;
     }
 
+    public Scheduler executor(Executor executor) {
+        this.executor = Optional.of(executor);
+        return this;
+    }
+
     @Override
     public Scheduler after(long delayMs) {
         return after(delayMs, TimeUnit.MILLISECONDS);
@@ -105,37 +122,46 @@ public class Scheduler implements TaskScheduler {
         if (stopped) {
             return this;
         }
-        if (cycles == 1) {
-            executor = Optional.of(ExecutorFactory.newSingleThreadScheduledExecutor(ExecutorFactory.getThreadFactory(getThreadName(false))));
-            executor.get().schedule(() -> {
-                if (stopped) {
-                    return;
-                }
-                try {
-                    task.run();
-                } finally {
-                    stop();
-                }
-            }, delay, timeUnit);
-        } else {
-            executor = Optional.of(ExecutorFactory.newSingleThreadScheduledExecutor(ExecutorFactory.getThreadFactory(getThreadName(true))));
-            executor.get().scheduleWithFixedDelay(() -> {
-                if (stopped) {
-                    return;
-                }
-                try {
-                    task.run();
-                } finally {
-                    counter++;
-                    if (counter >= cycles) {
-                        stop();
-                    }
-                }
-            }, initialDelay, delay, timeUnit);
-        }
+        this.delayMs = timeUnit.toMillis(delay);
+        this.cycles = cycles;
+        schedule(timeUnit.toMillis(initialDelay));
         return this;
     }
 
+    private void schedule(long delayMs) {
+        timeout = Optional.of(TIMER.newTimeout(this::execute,
+                delayMs,
+                TimeUnit.MILLISECONDS,
+                executor.orElse(DEFAULT_EXECUTOR)));
+        if (stopped) {
+            // stop was called concurrently
+            timeout.ifPresent(HashedWheelTimer.Timeout::cancel);
+        }
+    }
+
+    private void execute() {
+        if (stopped) {
+            return;
+        }
+        Thread thread = Thread.currentThread();
+        String previousThreadName = thread.getName();
+        thread.setName(getThreadName(cycles > 1));
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("Executing task {} failed", getThreadName(cycles > 1), e);
+        } finally {
+            thread.setName(previousThreadName);
+            counter++;
+            if (counter >= cycles) {
+                stop();
+            } else if (!stopped) {
+                // Like scheduleWithFixedDelay, the delay starts after the task has been completed
+                schedule(delayMs);
+            }
+        }
+    }
+
     private String getThreadName(boolean isPeriodic) {
         String name = isPeriodic ? "PeriodicScheduler" : "Scheduler";
         String host = hostClassName.map(hostClassName -> "." + hostClassName).orElse("");
@@ -146,7 +172,7 @@ public class Scheduler implements TaskScheduler {
     @Override
     public void stop() {
         stopped = true;
-        executor.ifPresent(ExecutorFactory::shutdownAndAwaitTermination);
-        executor = Optional.empty();
+        timeout.ifPresent(HashedWheelTimer.Timeout::cancel);
+        timeout = Optional.empty();
     }
 }
@@ -0,0 +1,125 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.fsm;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EventHandlerFactoryTest {
+    private final EventHandlerFactory factory = new EventHandlerFactory(StringBuilder.class, String.class);
+
+    @Test
+    void testNewEventHandler() throws Exception {
+        StringBuilder log = new StringBuilder();
+        EventHandler<Event> eventHandler = factory.newEventHandler(LoggingEventHandler.class, log, "handler1");
+        eventHandler.handle(new TestEvent());
+        assertEquals("handler1", log.toString());
+
+        // Each call creates a new handler with the given arguments
+        EventHandler<Event> otherEventHandler = factory.newEventHandler(LoggingEventHandler.class, log, "handler2");
+        assertNotSame(eventHandler, otherEventHandler);
+        otherEventHandler.handle(new TestEvent());
+        assertEquals("handler1handler2", log.toString());
+    }
+
+    @Test
+    void testConstructorIsCached() throws Exception {
+        MethodHandle constructor = factory.getConstructor(LoggingEventHandler.class);
+        assertSame(constructor, factory.getConstructor(LoggingEventHandler.class));
+        assertNotSame(constructor, factory.getConstructor(FailingEventHandler.class));
+
+        factory.newEventHandler(LoggingEventHandler.class, new StringBuilder(), "handler");
+        assertSame(constructor, factory.getConstructor(LoggingEventHandler.class));
+
+        // The cache is per factory as the factories can have different parameter types
+        EventHandlerFactory otherFactory = new EventHandlerFactory(StringBuilder.class, String.class);
+        assertNotSame(constructor, otherFactory.getConstructor(LoggingEventHandler.class));
+    }
+
+    @Test
+    void testConstructorException() {
+        InvocationTargetException exception = assertThrows(InvocationTargetException.class,
+                () -> factory.newEventHandler(FailingEventHandler.class, new StringBuilder(), "handler"));
+        assertEquals(IllegalStateException.class, exception.getCause().getClass());
+    }
+
+    @Test
+    void testMissingConstructor() {
+        assertThrows(NoSuchMethodException.class,
+                () -> factory.newEventHandler(NoArgsEventHandler.class, new StringBuilder(), "handler"));
+    }
+
+    @Test
+    void testNotPublicConstructor() {
+        assertThrows(IllegalAccessException.class,
+                () -> factory.newEventHandler(NotPublicEventHandler.class, new StringBuilder(), "handler"));
+    }
+
+    public static class TestEvent implements Event {
+    }
+
+    public static class LoggingEventHandler implements EventHandler<Event> {
+        private final StringBuilder log;
+        private final String name;
+
+        public LoggingEventHandler(StringBuilder log, String name) {
+            this.log = log;
+            this.name = name;
+        }
+
+        @Override
+        public void handle(Event event) {
+            log.append(name);
+        }
+    }
+
+    public static class FailingEventHandler implements EventHandler<Event> {
+        public FailingEventHandler(StringBuilder log, String name) {
+            throw new IllegalStateException("Failing constructor");
+        }
+
+        @Override
+        public void handle(Event event) {
+        }
+    }
+
+    public static class NoArgsEventHandler implements EventHandler<Event> {
+        public NoArgsEventHandler() {
+        }
+
+        @Override
+        public void handle(Event event) {
+        }
+    }
+
+    public static class NotPublicEventHandler implements EventHandler<Event> {
+        NotPublicEventHandler(StringBuilder log, String name) {
+        }
+
+        @Override
+        public void handle(Event event) {
+        }
+    }
+}
@@ -21,6 +21,8 @@ import lombok.Getter;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
@@ -360,6 +362,57 @@ public class FsmTest {
         assertNull((fsm1.getModel()).data);
     }
 
+    @Test
+    void testTransitionsAddedAfterConstructionAreNotShared() {
+        MockModel model1 = new MockModel(MockState.INIT);
+        Fsm<MockModel> fsm1 = new SimpleFsm<>(model1);
+        fsm1.addTransition()
+                .from(MockState.INIT)
+                .on(MockEvent1.class)
+                .to(MockState.S1);
+
+        // The second instance uses the shared transition table of SimpleFsm which only contains the error handling
+        MockModel model2 = new MockModel(MockState.INIT);
+        Fsm<MockModel> fsm2 = new SimpleFsm<>(model2);
+        fsm2.handle(new MockEvent1(model2, "test1"));
+        assertEquals(State.FsmState.ERROR, fsm2.getModel().getState());
+
+        fsm1.handle(new MockEvent1(model1, "test1"));
+        assertEquals(MockState.S1, fsm1.getModel().getState());
+    }
+
+    @Test
+    void testTransitionTableIsSharedWithoutSharingState() {
+        MockModel model1 = new MockModel(MockState.INIT);
+        ConfiguredFsm fsm1 = new ConfiguredFsm(model1);
+        MockModel model2 = new MockModel(MockState.INIT);
+        ConfiguredFsm fsm2 = new ConfiguredFsm(model2);
+        // The transitions are configured only by the first instance
+        assertEquals(1, ConfiguredFsm.NUM_CONFIG_TRANSITIONS_CALLS.get());
+
+        fsm1.handle(new MockEvent1(model1, "test1"));
+        assertEquals(MockState.S1, fsm1.getModel().getState());
+        assertEquals("test1", model1.data);
+        assertEquals(MockState.INIT, fsm2.getModel().getState());
+        assertNull(model2.data);
+
+        // The out-of-order event is only queued at the model of the second instance
+        fsm2.handle(new MockEvent2(model2, "test2"));
+        assertEquals(MockState.INIT, fsm2.getModel().getState());
+        assertEquals(1, model2.eventQueue.size());
+        assertEquals(0, model1.eventQueue.size());
+
+        fsm1.handle(new MockEvent2(model1, "test3"));
+        assertEquals(MockState.S2, fsm1.getModel().getState());
+        assertEquals("test3", model1.data);
+
+        fsm2.handle(new MockEvent1(model2, "test4"));
+        assertEquals(MockState.S2, fsm2.getModel().getState());
+        assertEquals("test2", model2.data);
+        assertEquals(0, model2.eventQueue.size());
+        assertEquals(1, ConfiguredFsm.NUM_CONFIG_TRANSITIONS_CALLS.get());
+    }
+
     @Test
     void testInvalidConfigs() {
         // fromStates empty
@@ -523,6 +576,29 @@ public class FsmTest {
 
 
     @Getter
+    private static class ConfiguredFsm extends SimpleFsm<MockModel> {
+        private static final AtomicInteger NUM_CONFIG_TRANSITIONS_CALLS = new AtomicInteger();
+
+        private ConfiguredFsm(MockModel model) {
+            super(model);
+        }
+
+        @Override
+        protected void configTransitions() {
+            NUM_CONFIG_TRANSITIONS_CALLS.incrementAndGet();
+            addTransition()
+                    .from(MockState.INIT)
+                    .on(MockEvent1.class)
+                    .run(MockEventHandler.class)
+                    .to(MockState.S1)
+                    .then()
+                    .from(MockState.S1)
+                    .on(MockEvent2.class)
+                    .run(MockEventHandler.class)
+                    .to(MockState.S2);
+        }
+    }
+
     public enum MockState implements State {
         INIT,
         S1,
@@ -0,0 +1,220 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.common.observable.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CollectionChangeMapperTest {
+    @Test
+    void changesAreAppliedInOneBatch() {
+        List<Runnable> queuedRunnables = new ArrayList<>();
+        CountingList<String> target = new CountingList<>();
+        ObservableSet<Integer> source = new ObservableSet<>();
+        source.addCollectionChangeMapper(target, e -> e % 10 != 0, e -> "item" + e, queuedRunnables::add);
+
+        for (int i = 1; i <= 100; i++) {
+            source.add(i);
+        }
+        source.remove(5);
+        source.add(5);
+        source.remove(99);
+
+        // setAll at registration and all later changes are coalesced into one runnable
+        assertEquals(1, queuedRunnables.size());
+        queuedRunnables.forEach(Runnable::run);
+        queuedRunnables.clear();
+
+        assertEquals(89, target.size());
+        assertEquals(1, target.numAddAllCalls);
+        assertEquals(0, target.numAddCalls);
+
+        source.remove(1);
+        source.add(101);
+        source.add(102);
+        assertEquals(1, queuedRunnables.size());
+        queuedRunnables.forEach(Runnable::run);
+        queuedRunnables.clear();
+
+        assertEquals(90, target.size());
+        assertEquals("item102", target.get(target.size() - 1));
+        assertEquals(2, target.numAddAllCalls);
+        assertEquals(1, target.numRemoveAllCalls);
+
+        source.clear();
+        source.add(7);
+        queuedRunnables.forEach(Runnable::run);
+        assertEquals(List.of("item7"), target);
+    }
+
+    @Test
+    void externalChangesOfTargetAreDetected() {
+        List<String> target = new ArrayList<>();
+        ObservableSet<Integer> source = new ObservableSet<>();
+        source.addCollectionChangeMapper(target, e -> true, e -> "item" + e, Runnable::run);
+
+        source.add(1);
+        target.clear();
+        source.remove(1);
+        source.add(1);
+        assertEquals(List.of("item1"), target);
+    }
+
+    @Test
+    void replaceInstanceIfRemoveAndAddOfEqualItemCancelOut() {
+        List<Runnable> queuedRunnables = new ArrayList<>();
+        CountingList<Item> target = new CountingList<>();
+        ObservableSet<Item> source = new ObservableSet<>();
+        source.addCollectionChangeMapper(target, e -> true, e -> e, queuedRunnables::add);
+        Item oldItem = new Item("1", "old");
+        Item otherItem = new Item("2", "other");
+        source.add(oldItem);
+        source.add(otherItem);
+        runAndClear(queuedRunnables);
+
+        Item newItem = new Item("1", "new");
+        source.remove(oldItem);
+        source.add(newItem);
+        runAndClear(queuedRunnables);
+
+        assertEquals(2, target.size());
+        assertSame(newItem, target.stream().filter(newItem::equals).findAny().orElseThrow());
+        assertSame(otherItem, target.stream().filter(otherItem::equals).findAny().orElseThrow());
+        assertEquals(2, target.numAddAllCalls);
+        assertEquals(1, target.numRemoveAllCalls);
+
+        // A replaced item which gets removed again in the same batch is removed from the target
+        Item newerItem = new Item("1", "newer");
+        source.remove(newItem);
+        source.add(newerItem);
+        source.remove(newerItem);
+        runAndClear(queuedRunnables);
+        assertEquals(List.of(otherItem), target);
+    }
+
+    @Test
+    void setAllAndClearInBatch() {
+        List<Runnable> queuedRunnables = new ArrayList<>();
+        CountingList<String> target = new CountingList<>();
+        ObservableSet<Integer> source = new ObservableSet<>();
+        source.addCollectionChangeMapper(target, e -> true, e -> "item" + e, queuedRunnables::add);
+        source.addAll(List.of(1, 2, 3));
+        runAndClear(queuedRunnables);
+
+        // Changes before setAll have no effect
+        source.add(4);
+        source.remove(1);
+        source.setAll(List.of(5, 6));
+        source.add(7);
+        source.remove(5);
+        runAndClear(queuedRunnables);
+        assertEquals(List.of("item6", "item7"), target);
+
+        // Changes after clear are applied
+        source.add(8);
+        source.clear();
+        source.add(9);
+        runAndClear(queuedRunnables);
+        assertEquals(List.of("item9"), target);
+
+        source.clear();
+        runAndClear(queuedRunnables);
+        assertTrue(target.isEmpty());
+    }
+
+    @Test
+    void changesAreAppliedWhenPendingBatchIsExecuted() {
+        List<Runnable> queuedRunnables = new ArrayList<>();
+        List<String> target = new ArrayList<>();
+        ObservableSet<Integer> source = new ObservableSet<>();
+        source.addCollectionChangeMapper(target, e -> true, e -> "item" + e, queuedRunnables::add);
+        runAndClear(queuedRunnables);
+
+        source.add(1);
+        assertEquals(1, queuedRunnables.size());
+        assertTrue(target.isEmpty());
+
+        // While a batch is pending, changes are added to that batch and not applied immediately, even if the
+        // change happens on the thread of the executor.
+        source.add(2);
+        source.remove(1);
+        source.add(3);
+        assertEquals(1, queuedRunnables.size());
+        assertTrue(target.isEmpty());
+
+        runAndClear(queuedRunnables);
+        assertEquals(List.of("item2", "item3"), target);
+
+        // Once the batch has been applied, the next change schedules a new batch
+        source.add(4);
+        assertEquals(1, queuedRunnables.size());
+        runAndClear(queuedRunnables);
+        assertEquals(List.of("item2", "item3", "item4"), target);
+    }
+
+    private static void runAndClear(List<Runnable> queuedRunnables) {
+        List<Runnable> runnables = new ArrayList<>(queuedRunnables);
+        queuedRunnables.clear();
+        runnables.forEach(Runnable::run);
+    }
+
+    // Equality is defined by the id only, so that we can distinguish equal items by their version
+    private record Item(String id, String version) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Item item && id.equals(item.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+    }
+
+    private static class CountingList<T> extends ArrayList<T> {
+        private int numAddCalls;
+        private int numAddAllCalls;
+        private int numRemoveAllCalls;
+
+        @Override
+        public boolean add(T t) {
+            numAddCalls++;
+            return super.add(t);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends T> c) {
+            numAddAllCalls++;
+            return super.addAll(c);
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            numRemoveAllCalls++;
+            return super.removeAll(c);
+        }
+    }
+}
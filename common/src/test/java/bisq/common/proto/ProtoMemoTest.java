@@ -0,0 +1,91 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.common.proto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProtoMemoTest {
+    @Test
+    void computeSerializedOnlyOnce() {
+        ProtoMemo protoMemo = new ProtoMemo();
+        AtomicInteger numCalls = new AtomicInteger();
+        byte[] serialized = protoMemo.getSerialized(() -> {
+            numCalls.incrementAndGet();
+            return new byte[]{1, 2, 3};
+        });
+
+        assertThat(protoMemo.getSerialized(() -> new byte[]{4})).isSameAs(serialized);
+        assertThat(numCalls).hasValue(1);
+    }
+
+    @Test
+    void serializedSetsSize() {
+        ProtoMemo protoMemo = new ProtoMemo();
+        protoMemo.getSerialized(() -> new byte[]{1, 2, 3});
+
+        assertThat(protoMemo.getSerializedSize(() -> {
+            throw new AssertionError("Size must not be computed again");
+        })).isEqualTo(3);
+    }
+
+    @Test
+    void useSizeSetFromReceivedProto() {
+        ProtoMemo protoMemo = new ProtoMemo();
+        protoMemo.setSerializedSize(42);
+
+        assertThat(protoMemo.getSerializedSize(() -> 1)).isEqualTo(42);
+    }
+
+    @Test
+    void computeSizeOnlyOnce() {
+        ProtoMemo protoMemo = new ProtoMemo();
+        AtomicInteger numCalls = new AtomicInteger();
+        assertThat(protoMemo.getSerializedSize(() -> 10 + numCalls.incrementAndGet())).isEqualTo(11);
+        assertThat(protoMemo.getSerializedSize(() -> 10 + numCalls.incrementAndGet())).isEqualTo(11);
+        assertThat(numCalls).hasValue(1);
+    }
+
+    @Test
+    void keepSerializedForHashApartFromSerialized() {
+        ProtoMemo protoMemo = new ProtoMemo();
+        byte[] serialized = protoMemo.getSerialized(() -> new byte[]{1, 2, 3});
+        byte[] serializedForHash = protoMemo.getSerializedForHash(() -> new byte[]{1, 2});
+
+        assertThat(serializedForHash).containsExactly(1, 2);
+        assertThat(protoMemo.getSerializedForHash(() -> new byte[]{4})).isSameAs(serializedForHash);
+        assertThat(protoMemo.getSerialized(() -> new byte[]{4})).isSameAs(serialized);
+    }
+
+    @Test
+    void computeHashOnlyOnce() {
+        ProtoMemo protoMemo = new ProtoMemo();
+        AtomicInteger numCalls = new AtomicInteger();
+        byte[] hash = protoMemo.getHash(() -> {
+            numCalls.incrementAndGet();
+            return new byte[]{7};
+        });
+
+        assertThat(protoMemo.getHash(() -> new byte[]{8})).isSameAs(hash);
+        assertThat(numCalls).hasValue(1);
+    }
+}
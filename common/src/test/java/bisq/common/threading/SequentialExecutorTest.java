@@ -0,0 +1,57 @@
+package bisq.common.threading;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SequentialExecutorTest {
+    @Test
+    public void testTasksAreExecutedInOrder() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        SequentialExecutor sequentialExecutor = new SequentialExecutor(pool);
+        List<Integer> result = new CopyOnWriteArrayList<>();
+        AtomicInteger numConcurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        int numTasks = 1000;
+        CountDownLatch latch = new CountDownLatch(numTasks);
+        for (int i = 0; i < numTasks; i++) {
+            int index = i;
+            sequentialExecutor.execute(() -> {
+                maxConcurrent.accumulateAndGet(numConcurrent.incrementAndGet(), Math::max);
+                result.add(index);
+                numConcurrent.decrementAndGet();
+                latch.countDown();
+            });
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(IntStream.range(0, numTasks).boxed().collect(Collectors.toList()), result);
+        assertEquals(1, maxConcurrent.get());
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testFailingTaskDoesNotBlockQueue() throws InterruptedException {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        SequentialExecutor sequentialExecutor = new SequentialExecutor(pool);
+        CountDownLatch latch = new CountDownLatch(1);
+        sequentialExecutor.execute(() -> {
+            throw new RuntimeException("Test");
+        });
+        sequentialExecutor.execute(latch::countDown);
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        pool.shutdownNow();
+    }
+}
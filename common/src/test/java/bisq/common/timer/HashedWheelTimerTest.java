@@ -0,0 +1,71 @@
+package bisq.common.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashedWheelTimerTest {
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    @Test
+    public void testTimeoutsExpireInOrder() throws InterruptedException {
+        // Small wheel so that the timeouts need multiple rounds
+        HashedWheelTimer timer = new HashedWheelTimer("test", 5, 4);
+        CountDownLatch latch = new CountDownLatch(3);
+        StringBuffer order = new StringBuffer();
+        long ts = System.currentTimeMillis();
+        timer.newTimeout(() -> {
+            order.append("c");
+            latch.countDown();
+        }, 120, TimeUnit.MILLISECONDS, DIRECT_EXECUTOR);
+        timer.newTimeout(() -> {
+            order.append("a");
+            latch.countDown();
+        }, 10, TimeUnit.MILLISECONDS, DIRECT_EXECUTOR);
+        timer.newTimeout(() -> {
+            order.append("b");
+            latch.countDown();
+        }, 60, TimeUnit.MILLISECONDS, DIRECT_EXECUTOR);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals("abc", order.toString());
+        assertTrue(System.currentTimeMillis() - ts >= 120);
+        assertEquals(0, timer.getMetrics().getNumLiveTimeouts().get());
+        assertEquals(3, timer.getMetrics().getNumExpiredTimeouts().get());
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer("test", 5, 8);
+        AtomicInteger numCalls = new AtomicInteger();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(numCalls::incrementAndGet, 50, TimeUnit.MILLISECONDS, DIRECT_EXECUTOR);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+
+        CountDownLatch latch = new CountDownLatch(1);
+        timer.newTimeout(latch::countDown, 100, TimeUnit.MILLISECONDS, DIRECT_EXECUTOR);
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(0, numCalls.get());
+        assertEquals(0, timer.getMetrics().getNumLiveTimeouts().get());
+    }
+
+    @Test
+    public void testSchedulerRepeated() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        Scheduler scheduler = Scheduler.run(latch::countDown).repeated(10, 3);
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(3, scheduler.getCounter());
+
+        AtomicInteger numCalls = new AtomicInteger();
+        scheduler = Scheduler.run(numCalls::incrementAndGet).after(50);
+        scheduler.stop();
+        Thread.sleep(150);
+        assertEquals(0, numCalls.get());
+    }
+}
@@ -91,4 +91,58 @@ public class RateLimiterTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testOldEventsAreNotCounted() {
+        MockClock clock = new MockClock();
+        clock.setTime(10 * 24 * 3600_000L);
+        RateLimiter rateLimiter = new RateLimiter(clock, 5, 20, 100, 300);
+        String userId = "user123";
+        // Events from more than a day ago (e.g. from inventory replay) do not count towards the limits
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(rateLimiter.exceedsLimit(userId, clock.now() - 2 * 24 * 3600_000L - i));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertFalse(rateLimiter.exceedsLimit(userId));
+        }
+        assertTrue(rateLimiter.exceedsLimit(userId));
+    }
+
+    @Test
+    public void testFutureEventsDoNotResetCounts() {
+        MockClock clock = new MockClock();
+        clock.setTime(10 * 24 * 3600_000L);
+        RateLimiter rateLimiter = new RateLimiter(clock, 3, 20, 100, 300);
+        String userId = "user123";
+        for (int i = 0; i < 3; i++) {
+            assertFalse(rateLimiter.exceedsLimit(userId));
+        }
+        // The date of a message is set by the sender. A date in the future is counted as now, so that it does not
+        // move the window ahead and clear the counts of the recent events.
+        assertTrue(rateLimiter.exceedsLimit(userId, clock.now() + 2 * 24 * 3600_000L));
+        assertTrue(rateLimiter.exceedsLimit(userId));
+
+        clock.advanceTime(1100);
+        assertFalse(rateLimiter.exceedsLimit(userId));
+    }
+
+    @Test
+    public void testIdleKeysAreEvicted() {
+        MockClock clock = new MockClock();
+        clock.setTime(0);
+        RateLimiter rateLimiter = new RateLimiter(clock, 5, 20, 100, 300);
+        for (int i = 0; i < 100; i++) {
+            assertFalse(rateLimiter.exceedsLimit("user" + i));
+        }
+        assertEquals(100, rateLimiter.getNumKeys());
+
+        clock.advanceTime(12 * 3600_000L);
+        assertFalse(rateLimiter.exceedsLimit("user0"));
+        assertEquals(100, rateLimiter.getNumKeys());
+
+        // After more than a day only user0 is still in use
+        clock.advanceTime(13 * 3600_000L);
+        assertFalse(rateLimiter.exceedsLimit("user0"));
+        assertEquals(1, rateLimiter.getNumKeys());
+    }
+}
@@ -157,9 +157,7 @@ public class TradeChatMessagesRestApi extends RestApiBase {
                     .collect(Collectors.toSet());
 
             boolean wasSent = bisqEasyOpenTradeChannelService.findChannel(channelId)
-                    .flatMap(channel -> channel.getChatMessages().stream()
-                            .filter(message -> message.getId().equals(messageId))
-                            .findFirst()
+                    .flatMap(channel -> channel.findChatMessage(messageId)
                             .map(message -> {
                                 if (!isRemoveRequest && message.getChatMessageReactions().stream().anyMatch(
                                         messageReaction -> !messageReaction.isRemoved() &&
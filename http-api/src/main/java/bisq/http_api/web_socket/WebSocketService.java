@@ -134,7 +134,10 @@ public class WebSocketService implements Service {
                 userService,
                 bisqEasyService,
                 openTradeItemsService);
-        webSocketRestApiService = new WebSocketRestApiService(objectMapper, restApiBaseAddress);
+        webSocketRestApiService = new WebSocketRestApiService(objectMapper,
+                restApiBaseAddress,
+                restApiResourceConfig,
+                config.isIncludeRestApi());
         webSocketConnectionHandler = new WebSocketConnectionHandler(subscriptionService, webSocketRestApiService);
 
         if (config.isEnabled() && config.isLocalhostOnly()) {
@@ -75,17 +75,26 @@ public abstract class BaseWebSocketService implements Service {
                         Set<Subscriber> subscribers,
                         Topic topic,
                         ModificationType modificationType) {
-        subscribers.forEach(subscriber -> send(json, subscriber, modificationType));
+        // We encode the payload only once for all subscribers
+        WebSocketEvent.encodePayload(objectMapper, json).ifPresent(encodedPayload ->
+                subscribers.forEach(subscriber -> send(encodedPayload, subscriber, modificationType)));
     }
 
     protected void send(String json,
                         Subscriber subscriber,
                         ModificationType modificationType) {
-        log.info("Sending json with modificationType {} to subscriber: {}. json={}", subscriber, modificationType, json);
+        WebSocketEvent.encodePayload(objectMapper, json).ifPresent(encodedPayload ->
+                send(encodedPayload, subscriber, modificationType));
+    }
+
+    private void send(WebSocketEvent.EncodedPayload encodedPayload,
+                      Subscriber subscriber,
+                      ModificationType modificationType) {
+        log.debug("Sending json with modificationType {} to subscriber: {}. json={}", modificationType, subscriber, encodedPayload.json());
         WebSocketEvent.toJson(objectMapper,
                         subscriber.getTopic(),
                         subscriber.getSubscriberId(),
-                        json,
+                        encodedPayload,
                         modificationType,
                         subscriber.incrementAndGetSequenceNumber())
                 .ifPresent(subscriber::send);
@@ -158,7 +158,7 @@ public class TradeChatMessagesWebSocketService extends BaseWebSocketService {
         // The payload is defined as a list to support batch data delivery at subscribe.
         subscriberRepository.findSubscribers(topic).ifPresent(subscribers -> {
             toJson(messages).ifPresent(json -> {
-                subscribers.forEach(subscriber -> send(json, subscriber, ModificationType.ADDED));
+                send(json, subscribers, topic, ModificationType.ADDED);
             });
         });
     }
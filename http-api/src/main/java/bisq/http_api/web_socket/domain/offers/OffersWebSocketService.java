@@ -29,6 +29,7 @@ import bisq.dto.presentation.offerbook.OfferItemPresentationDtoFactory;
 import bisq.dto.presentation.offerbook.OfferItemPresentationDto;
 import bisq.http_api.web_socket.domain.BaseWebSocketService;
 import bisq.http_api.web_socket.subscription.ModificationType;
+import bisq.http_api.web_socket.subscription.Subscriber;
 import bisq.http_api.web_socket.subscription.SubscriberRepository;
 import bisq.user.UserService;
 import bisq.user.identity.UserIdentityService;
@@ -40,6 +41,7 @@ import org.apache.commons.lang3.NotImplementedException;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -53,6 +55,7 @@ public class OffersWebSocketService extends BaseWebSocketService {
     private final UserIdentityService userIdentityService;
     private final MarketPriceService marketPriceService;
     private final Set<Pin> pins = new HashSet<>();
+    private final Map<String, OfferItemPresentationDto> offerItemDtoByMessageId = new ConcurrentHashMap<>();
 
     public OffersWebSocketService(ObjectMapper objectMapper,
                                   SubscriberRepository subscriberRepository,
@@ -103,6 +106,7 @@ public class OffersWebSocketService extends BaseWebSocketService {
     public CompletableFuture<Boolean> shutdown() {
         pins.forEach(Pin::unbind);
         pins.clear();
+        offerItemDtoByMessageId.clear();
         return CompletableFuture.completedFuture(true);
     }
 
@@ -132,14 +136,25 @@ public class OffersWebSocketService extends BaseWebSocketService {
     private void send(String quoteCurrencyCode,
                       BisqEasyOfferbookMessage bisqEasyOfferbookMessage,
                       ModificationType modificationType) {
-        OfferItemPresentationDto item = createOfferListItemDto(bisqEasyOfferbookMessage);
+        String messageId = bisqEasyOfferbookMessage.getId();
+        Optional<Set<Subscriber>> subscribers = subscriberRepository.findSubscribers(topic, quoteCurrencyCode);
+        if (subscribers.isEmpty()) {
+            offerItemDtoByMessageId.remove(messageId);
+            return;
+        }
+
+        OfferItemPresentationDto item;
+        if (modificationType == ModificationType.REMOVED) {
+            // For removal, we do not need to recreate the item with the current reputation and market price data
+            item = Optional.ofNullable(offerItemDtoByMessageId.remove(messageId))
+                    .orElseGet(() -> createOfferListItemDto(bisqEasyOfferbookMessage));
+        } else {
+            item = createOfferListItemDto(bisqEasyOfferbookMessage);
+            offerItemDtoByMessageId.put(messageId, item);
+        }
         // The payload is defined as a list to support batch data delivery at subscribe.
         ArrayList<OfferItemPresentationDto> payload = new ArrayList<>(List.of(item));
-        toJson(payload).ifPresent(json -> {
-            subscriberRepository.findSubscribers(topic, quoteCurrencyCode)
-                    .ifPresent(subscribers -> subscribers
-                            .forEach(subscriber -> send(json, subscriber, modificationType)));
-        });
+        toJson(payload).ifPresent(json -> send(json, subscribers.get(), topic, modificationType));
     }
 
     private OfferItemPresentationDto createOfferListItemDto(BisqEasyOfferbookMessage bisqEasyOfferbookMessage) {
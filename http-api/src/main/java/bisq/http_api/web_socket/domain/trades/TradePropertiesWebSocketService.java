@@ -224,8 +224,7 @@ public class TradePropertiesWebSocketService extends BaseWebSocketService {
         // The payload is defined as a list to support batch data delivery at subscribe.
         toJson(maps).ifPresent(json -> {
             subscriberRepository.findSubscribers(topic)
-                    .ifPresent(subscribers -> subscribers
-                            .forEach(subscriber -> send(json, subscriber, ModificationType.REPLACE)));
+                    .ifPresent(subscribers -> send(json, subscribers, topic, ModificationType.REPLACE));
         });
     }
 }
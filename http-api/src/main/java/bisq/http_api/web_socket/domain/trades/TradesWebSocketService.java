@@ -96,8 +96,7 @@ public class TradesWebSocketService extends BaseWebSocketService {
         // The payload is defined as a list to support batch data delivery at subscribe.
         toJson(items).ifPresent(json -> {
             subscriberRepository.findSubscribers(topic)
-                    .ifPresent(subscribers -> subscribers
-                            .forEach(subscriber -> send(json, subscriber, modificationType)));
+                    .ifPresent(subscribers -> send(json, subscribers, topic, modificationType));
         });
     }
 }
@@ -0,0 +1,111 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.http_api.web_socket.rest_api_proxy;
+
+import bisq.common.timer.Scheduler;
+import jakarta.ws.rs.core.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.glassfish.jersey.server.ContainerException;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.spi.ContainerResponseWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the response of a request dispatched in-process to the Jersey application and completes the future once
+ * Jersey commits the response. Supports suspended (async) resources including their timeouts.
+ */
+@Slf4j
+class InProcessResponseWriter implements ContainerResponseWriter {
+    private final String requestId;
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    private final CompletableFuture<WebSocketRestApiResponse> future = new CompletableFuture<>();
+    private volatile int statusCode = Response.Status.INTERNAL_SERVER_ERROR.getStatusCode();
+    private volatile TimeoutHandler timeoutHandler;
+    private volatile Optional<Scheduler> timeoutScheduler = Optional.empty();
+
+    InProcessResponseWriter(String requestId) {
+        this.requestId = requestId;
+    }
+
+    CompletableFuture<WebSocketRestApiResponse> getFuture() {
+        return future;
+    }
+
+    @Override
+    public OutputStream writeResponseStatusAndHeaders(long contentLength,
+                                                      ContainerResponse responseContext) throws ContainerException {
+        statusCode = responseContext.getStatus();
+        return outputStream;
+    }
+
+    @Override
+    public boolean suspend(long timeOut, TimeUnit timeUnit, TimeoutHandler timeoutHandler) {
+        if (future.isDone()) {
+            return false;
+        }
+        this.timeoutHandler = timeoutHandler;
+        setSuspendTimeout(timeOut, timeUnit);
+        return true;
+    }
+
+    @Override
+    public void setSuspendTimeout(long timeOut, TimeUnit timeUnit) throws IllegalStateException {
+        if (timeoutHandler == null) {
+            throw new IllegalStateException("Response has not been suspended");
+        }
+        stopTimeoutScheduler();
+        if (timeOut > 0) {
+            timeoutScheduler = Optional.of(Scheduler.run(() -> timeoutHandler.onTimeout(this))
+                    .host(this)
+                    .runnableName("onTimeout")
+                    .after(timeOut, timeUnit));
+        }
+    }
+
+    @Override
+    public void commit() {
+        stopTimeoutScheduler();
+        String body = outputStream.toString(StandardCharsets.UTF_8);
+        future.complete(new WebSocketRestApiResponse(requestId, statusCode, body));
+    }
+
+    @Override
+    public void failure(Throwable error) {
+        stopTimeoutScheduler();
+        String errorMessage = String.format("Error at processing request with ID '%s'. Error: %s", requestId, error.getMessage());
+        log.error(errorMessage, error);
+        future.complete(new WebSocketRestApiResponse(requestId, Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), errorMessage));
+    }
+
+    @Override
+    public boolean enableResponseBuffering() {
+        return true;
+    }
+
+    private void stopTimeoutScheduler() {
+        timeoutScheduler.ifPresent(Scheduler::stop);
+        timeoutScheduler = Optional.empty();
+    }
+}
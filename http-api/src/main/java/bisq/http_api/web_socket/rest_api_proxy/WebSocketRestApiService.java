@@ -20,43 +20,95 @@ package bisq.http_api.web_socket.rest_api_proxy;
 import bisq.common.application.Service;
 import bisq.http_api.web_socket.util.JsonUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.ApplicationPath;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.glassfish.grizzly.websockets.WebSocket;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ResourceConfig;
 
+import java.io.ByteArrayInputStream;
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
+/**
+ * Handles REST requests tunnelled over the WebSocket by dispatching them in-process to the Jersey application.
+ * This avoids the JSON round trip over a loopback HTTP connection and does not block a thread while a suspended
+ * resource is waiting for its result. Responses are correlated by the requestId and sent once completed, so a client
+ * can have many requests in flight.
+ * If the REST API is not included (includeRestApi in the WebSocketService config) we do not create the Jersey
+ * application and respond to all requests with 404.
+ */
 @Slf4j
 @Getter
 @EqualsAndHashCode
 @ToString
 public class WebSocketRestApiService implements Service {
+    private static final SecurityContext SECURITY_CONTEXT = new SecurityContext() {
+        @Override
+        public Principal getUserPrincipal() {
+            return null;
+        }
+
+        @Override
+        public boolean isUserInRole(String role) {
+            return false;
+        }
+
+        @Override
+        public boolean isSecure() {
+            return false;
+        }
+
+        @Override
+        public String getAuthenticationScheme() {
+            return null;
+        }
+    };
+
     private final ObjectMapper objectMapper;
     private final String restApiAddress;
-    private Optional<HttpClient> httpClient = Optional.empty();
+    private final ResourceConfig resourceConfig;
+    private final boolean includeRestApi;
+    private final String applicationPath;
+    private Optional<ApplicationHandler> applicationHandler = Optional.empty();
 
-    public WebSocketRestApiService(ObjectMapper objectMapper, String restApiAddress) {
+    public WebSocketRestApiService(ObjectMapper objectMapper,
+                                   String restApiAddress,
+                                   ResourceConfig resourceConfig,
+                                   boolean includeRestApi) {
         this.objectMapper = objectMapper;
         this.restApiAddress = restApiAddress;
+        this.resourceConfig = resourceConfig;
+        this.includeRestApi = includeRestApi;
+        applicationPath = Optional.ofNullable(resourceConfig.getClass().getAnnotation(ApplicationPath.class))
+                .map(ApplicationPath::value)
+                .orElse("");
     }
 
     @Override
     public CompletableFuture<Boolean> initialize() {
-        httpClient = Optional.of(HttpClient.newHttpClient());
+        if (includeRestApi) {
+            applicationHandler = Optional.of(new ApplicationHandler(resourceConfig));
+        }
         return CompletableFuture.completedFuture(true);
     }
 
     @Override
     public CompletableFuture<Boolean> shutdown() {
-        httpClient.ifPresent(HttpClient::close);
+        applicationHandler.ifPresent(handler -> handler.onShutdown(null));
+        applicationHandler = Optional.empty();
         return CompletableFuture.completedFuture(true);
     }
 
@@ -66,39 +118,55 @@ public class WebSocketRestApiService implements Service {
 
     public void onMessage(String json, WebSocket webSocket) {
         WebSocketRestApiRequest.fromJson(objectMapper, json)
-                .map(this::sendToRestApiServer)
-                .flatMap(response -> response.toJson(objectMapper))
-                .ifPresentOrElse(webSocket::send,
+                .ifPresentOrElse(request -> dispatch(request)
+                                .thenAccept(response -> response.toJson(objectMapper)
+                                        .ifPresentOrElse(webSocket::send,
+                                                () -> log.warn("Message was not sent to websocket." +
+                                                        "\nJson={}", json))),
                         () -> log.warn("Message was not sent to websocket." +
                                 "\nJson={}", json));
     }
 
-    private WebSocketRestApiResponse sendToRestApiServer(WebSocketRestApiRequest request) {
+    CompletableFuture<WebSocketRestApiResponse> dispatch(WebSocketRestApiRequest request) {
         String errorMessage = RequestValidation.validateRequest(request);
         if (errorMessage != null) {
             log.error(errorMessage);
-            return new WebSocketRestApiResponse(request.getRequestId(), Response.Status.BAD_REQUEST.getStatusCode(), errorMessage);
+            return CompletableFuture.completedFuture(new WebSocketRestApiResponse(request.getRequestId(), Response.Status.BAD_REQUEST.getStatusCode(), errorMessage));
         }
 
-        String url = restApiAddress + request.getPath();
+        String path = request.getPath();
         String method = request.getMethod();
         String body = request.getBody();
-        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("Content-Type", "application/json")
-                .header("Accept", "application/json")
-                .method(method, HttpRequest.BodyPublishers.ofString(body));
+        if (applicationHandler.isEmpty()) {
+            errorMessage = String.format("Cannot dispatch a '%s' request to '%s' as the REST API is not enabled", method, path);
+            log.warn(errorMessage);
+            return CompletableFuture.completedFuture(new WebSocketRestApiResponse(request.getRequestId(), Response.Status.NOT_FOUND.getStatusCode(), errorMessage));
+        }
         try {
-            HttpRequest httpRequest = requestBuilder.build();
-            log.info("Send {} httpRequest to {}. httpRequest={} ", method, url, httpRequest);
-            // Blocking send
-            HttpResponse<String> httpResponse = httpClient.orElseThrow().send(httpRequest, HttpResponse.BodyHandlers.ofString());
-            log.info("httpResponse {}", httpResponse);
-            return new WebSocketRestApiResponse( request.getRequestId(), httpResponse.statusCode(), httpResponse.body());
+            // Paths are expected to contain the application path (e.g. /api/v1/offerbook/markets) as when sent via HTTP.
+            String basePath = !applicationPath.isEmpty() && path.startsWith(applicationPath + "/")
+                    ? applicationPath + "/"
+                    : "/";
+            ContainerRequest containerRequest = new ContainerRequest(URI.create(restApiAddress + basePath),
+                    URI.create(restApiAddress + path),
+                    method,
+                    SECURITY_CONTEXT,
+                    new MapPropertiesDelegate(),
+                    resourceConfig);
+            containerRequest.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+            containerRequest.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON);
+            byte[] entity = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            containerRequest.setEntityStream(new ByteArrayInputStream(entity));
+
+            InProcessResponseWriter responseWriter = new InProcessResponseWriter(request.getRequestId());
+            containerRequest.setWriter(responseWriter);
+            log.debug("Dispatch {} request to {}", method, path);
+            applicationHandler.orElseThrow().handle(containerRequest);
+            return responseWriter.getFuture();
         } catch (Exception e) {
-            errorMessage = String.format("Error at sending a '%s' request to '%s' with body: '%s'. Error: %s", method, url, body, e.getMessage());
+            errorMessage = String.format("Error at dispatching a '%s' request to '%s' with body: '%s'. Error: %s", method, path, body, e.getMessage());
             log.error(errorMessage, e);
-            return new WebSocketRestApiResponse(request.getRequestId(), Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), errorMessage);
+            return CompletableFuture.completedFuture(new WebSocketRestApiResponse(request.getRequestId(), Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), errorMessage));
         }
     }
-}
\ No newline at end of file
+}
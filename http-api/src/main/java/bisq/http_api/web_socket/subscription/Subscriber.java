@@ -17,28 +17,44 @@
 
 package bisq.http_api.web_socket.subscription;
 
-import bisq.common.threading.ExecutorFactory;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.glassfish.grizzly.EmptyCompletionHandler;
+import org.glassfish.grizzly.GrizzlyFuture;
 import org.glassfish.grizzly.websockets.DataFrame;
 import org.glassfish.grizzly.websockets.WebSocket;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Getter
-@EqualsAndHashCode
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Subscriber {
+    // If the client does not consume the messages fast enough we drop the oldest. The client can detect the gap by
+    // the sequenceNumber.
+    private static final int MAX_PENDING_MESSAGES = 1000;
+
+    @EqualsAndHashCode.Include
     private final Topic topic;
+    @EqualsAndHashCode.Include
     private final Optional<String> parameter;
+    @EqualsAndHashCode.Include
     private final String subscriberId;
+    @EqualsAndHashCode.Include
     private final WebSocket webSocket;
     private final AtomicInteger sequenceNumber = new AtomicInteger(0); // sequenceNumber start with 0 at subscribe time and gets increased at each emitted WebSocketEvent
-    private final ExecutorService executorService;
+    @Getter(AccessLevel.NONE)
+    private final Deque<String> pendingMessages = new ArrayDeque<>();
+    // Guarded by pendingMessages
+    @Getter(AccessLevel.NONE)
+    private boolean sending;
+    @Getter(AccessLevel.NONE)
+    private int numDroppedMessages;
 
     public Subscriber(Topic topic,
                       Optional<String> parameter,
@@ -48,23 +64,82 @@ public class Subscriber {
         this.parameter = parameter;
         this.subscriberId = subscriberId;
         this.webSocket = webSocket;
-        executorService = ExecutorFactory.newSingleThreadExecutor("Subscriber-" + topic.name() + "-" + subscriberId);
     }
 
     public int incrementAndGetSequenceNumber() {
         return sequenceNumber.incrementAndGet();
     }
 
-    public CompletableFuture<Boolean> send(String json) {
-        log.info("Send json: {}", json);
-        return CompletableFuture.supplyAsync(() -> {
+    /**
+     * Queues the json for sending. We only have one pending write at the websocket, further messages are kept in a
+     * bounded queue and sent once the previous write has completed.
+     */
+    public void send(String json) {
+        log.debug("Send json: {}", json);
+        synchronized (pendingMessages) {
+            if (pendingMessages.size() >= MAX_PENDING_MESSAGES) {
+                pendingMessages.pollFirst();
+                numDroppedMessages++;
+                if (numDroppedMessages == 1 || numDroppedMessages % MAX_PENDING_MESSAGES == 0) {
+                    log.warn("Subscriber {} for topic {} is too slow. We dropped {} messages so far.",
+                            subscriberId, topic, numDroppedMessages);
+                }
+            }
+            pendingMessages.addLast(json);
+            if (sending) {
+                return;
+            }
+            sending = true;
+        }
+        sendPendingMessages();
+    }
+
+    private void sendPendingMessages() {
+        while (true) {
+            String json;
+            synchronized (pendingMessages) {
+                json = pendingMessages.pollFirst();
+                if (json == null) {
+                    sending = false;
+                    return;
+                }
+            }
+
+            GrizzlyFuture<DataFrame> future;
+            try {
+                future = webSocket.send(json);
+            } catch (Exception e) {
+                log.error("Sending webSocketEvent failed", e);
+                continue;
+            }
+
+            if (!future.isDone()) {
+                // Continue once the write has completed to not block the thread
+                future.addCompletionHandler(new EmptyCompletionHandler<>() {
+                    @Override
+                    public void completed(DataFrame result) {
+                        sendPendingMessages();
+                    }
+
+                    @Override
+                    public void failed(Throwable throwable) {
+                        log.error("Sending webSocketEvent failed", throwable);
+                        sendPendingMessages();
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        sendPendingMessages();
+                    }
+                });
+                return;
+            }
             try {
-                DataFrame dataFrame = webSocket.send(json).get();
-                return true;
+                // Already completed, so it does not block
+                future.get();
             } catch (Exception e) {
                 log.error("Sending webSocketEvent failed", e);
-                return false;
             }
-        }, executorService);
+        }
     }
 }
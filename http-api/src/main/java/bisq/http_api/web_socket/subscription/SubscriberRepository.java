@@ -17,20 +17,29 @@
 
 package bisq.http_api.web_socket.subscription;
 
-import bisq.common.observable.map.ObservableHashMap;
 import bisq.common.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.glassfish.grizzly.websockets.WebSocket;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Subscribers are indexed by topic, by topic and parameter and by WebSocket, so that lookups at event dispatch and at
+ * connection close do not require to scan all subscribers. Updates of the indexes are synchronized, lookups are not
+ * and return unmodifiable views of the concurrent sets.
+ */
 @Slf4j
 public class SubscriberRepository {
-    private final ObservableHashMap<Topic, Set<Subscriber>> subscribersByTopic = new ObservableHashMap<>();
-    private final Object subscribersByTopicLock = new Object();
+    private final Map<Topic, Set<Subscriber>> subscribersByTopic = new ConcurrentHashMap<>();
+    // Subscribers without parameter are stored with an empty parameter
+    private final Map<Topic, Map<String, Set<Subscriber>>> subscribersByParameterByTopic = new ConcurrentHashMap<>();
+    private final Map<WebSocket, Set<Subscriber>> subscribersByWebSocket = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
 
     public void onConnectionClosed(WebSocket webSocket) {
         findSubscribers(webSocket).forEach(this::remove);
@@ -40,53 +49,80 @@ public class SubscriberRepository {
         Topic topic = request.getTopic();
         Optional<String> parameter = StringUtils.toOptional(request.getParameter());
         Subscriber subscriber = new Subscriber(topic, parameter, request.getRequestId(), webSocket);
-        synchronized (subscribersByTopicLock) {
-            Set<Subscriber> subscribers = subscribersByTopic.computeIfAbsent(topic, key -> new HashSet<>());
-            subscribers.add(subscriber);
+        synchronized (lock) {
+            subscribersByTopic.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            subscribersByParameterByTopic.computeIfAbsent(topic, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(parameter.orElse(""), key -> ConcurrentHashMap.newKeySet())
+                    .add(subscriber);
+            subscribersByWebSocket.computeIfAbsent(webSocket, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
         }
     }
 
     public void remove(Subscriber subscriber) {
-        remove(subscriber.getTopic(), subscriber.getSubscriberId());
+        synchronized (lock) {
+            Topic topic = subscriber.getTopic();
+            removeFromIndex(subscribersByTopic, topic, subscriber);
+            Map<String, Set<Subscriber>> subscribersByParameter = subscribersByParameterByTopic.get(topic);
+            if (subscribersByParameter != null) {
+                removeFromIndex(subscribersByParameter, subscriber.getParameter().orElse(""), subscriber);
+                if (subscribersByParameter.isEmpty()) {
+                    subscribersByParameterByTopic.remove(topic);
+                }
+            }
+            removeFromIndex(subscribersByWebSocket, subscriber.getWebSocket(), subscriber);
+        }
     }
 
     public void remove(Topic topic, String subscriberId) {
-        synchronized (subscribersByTopicLock) {
-            Optional.ofNullable(subscribersByTopic.get(topic))
-                    .ifPresent(subscribers -> {
-                        subscribers.removeIf(subscriber ->
-                                subscriber.getSubscriberId().equals(subscriberId));
-                        if (subscribers.isEmpty()) {
-                            subscribersByTopic.remove(topic);
-                        }
-                    });
-        }
+        // Unsubscribe is rare, so we accept to iterate the subscribers of the topic
+        findSubscribers(topic).ifPresent(subscribers -> subscribers.stream()
+                .filter(subscriber -> subscriber.getSubscriberId().equals(subscriberId))
+                .toList()
+                .forEach(this::remove));
     }
 
     public Optional<Set<Subscriber>> findSubscribers(Topic topic) {
-        synchronized (subscribersByTopicLock) {
-            return Optional.ofNullable(subscribersByTopic.get(topic))
-                    .filter(subscribers -> !subscribers.isEmpty());
-        }
+        return Optional.ofNullable(subscribersByTopic.get(topic))
+                .filter(subscribers -> !subscribers.isEmpty())
+                .map(Collections::unmodifiableSet);
     }
 
+    /**
+     * @return The subscribers of the topic with the given parameter and the subscribers of the topic without parameter.
+     */
     public Optional<Set<Subscriber>> findSubscribers(Topic topic, String parameter) {
-        synchronized (subscribersByTopicLock) {
-            return findSubscribers(topic)
-                    .map(set -> set.stream()
-                            .filter(subscriber -> subscriber.getParameter()
-                                    .map(param -> param.equals(parameter))
-                                    .orElse(true))
-                            .collect(Collectors.toSet()));
+        Map<String, Set<Subscriber>> subscribersByParameter = subscribersByParameterByTopic.get(topic);
+        if (subscribersByParameter == null) {
+            return Optional.empty();
         }
+        Set<Subscriber> withParameter = subscribersByParameter.getOrDefault(parameter, Set.of());
+        Set<Subscriber> withoutParameter = subscribersByParameter.getOrDefault("", Set.of());
+        if (withoutParameter.isEmpty() || parameter.isEmpty()) {
+            return Optional.of(withParameter)
+                    .filter(subscribers -> !subscribers.isEmpty())
+                    .map(Collections::unmodifiableSet);
+        }
+        if (withParameter.isEmpty()) {
+            return Optional.of(Collections.unmodifiableSet(withoutParameter));
+        }
+        Set<Subscriber> subscribers = new HashSet<>(withParameter);
+        subscribers.addAll(withoutParameter);
+        return Optional.of(subscribers);
     }
 
     public Set<Subscriber> findSubscribers(WebSocket webSocket) {
-        synchronized (subscribersByTopicLock) {
-            return subscribersByTopic.values().stream()
-                    .flatMap(set -> set.stream()
-                            .filter(subscriber -> subscriber.getWebSocket().equals(webSocket)))
-                    .collect(Collectors.toSet());
+        return Optional.ofNullable(subscribersByWebSocket.get(webSocket))
+                .<Set<Subscriber>>map(HashSet::new)
+                .orElse(Set.of());
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<Subscriber>> index, K key, Subscriber subscriber) {
+        Set<Subscriber> subscribers = index.get(key);
+        if (subscribers != null) {
+            subscribers.remove(subscriber);
+            if (subscribers.isEmpty()) {
+                index.remove(key);
+            }
         }
     }
 }
@@ -67,4 +67,44 @@ public class WebSocketEvent implements WebSocketMessage {
         }
         return Optional.empty();
     }
+
+    /**
+     * Encodes the payload as JSON string value. Used with {@link #toJson(ObjectMapper, Topic, String, EncodedPayload,
+     * ModificationType, int)} to encode the payload only once if the same event is sent to many subscribers.
+     */
+    public static Optional<EncodedPayload> encodePayload(ObjectMapper objectMapper, String payload) {
+        try {
+            return Optional.of(new EncodedPayload(objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            log.error("Json serialisation failed", e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Produces the same JSON as {@link #toJson(ObjectMapper, Topic, String, String, ModificationType, int)}, but
+     * uses the already encoded payload.
+     */
+    public static Optional<String> toJson(ObjectMapper objectMapper,
+                                          Topic topic,
+                                          String subscriberId,
+                                          EncodedPayload encodedPayload,
+                                          ModificationType modificationType,
+                                          int sequenceNumber) {
+        try {
+            return Optional.of("{\"type\":\"" + WebSocketEvent.class.getSimpleName() + "\"" +
+                    ",\"topic\":" + objectMapper.writeValueAsString(topic) +
+                    ",\"subscriberId\":" + objectMapper.writeValueAsString(subscriberId) +
+                    ",\"payload\":" + encodedPayload.json() +
+                    ",\"modificationType\":" + objectMapper.writeValueAsString(modificationType) +
+                    ",\"sequenceNumber\":" + sequenceNumber +
+                    "}");
+        } catch (JsonProcessingException e) {
+            log.error("Json serialisation failed", e);
+        }
+        return Optional.empty();
+    }
+
+    public record EncodedPayload(String json) {
+    }
 }
\ No newline at end of file
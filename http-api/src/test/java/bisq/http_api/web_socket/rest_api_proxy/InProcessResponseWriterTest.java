@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.http_api.web_socket.rest_api_proxy;
+
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.spi.ContainerResponseWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InProcessResponseWriterTest {
+    @Test
+    void completeWithStatusAndBodyAtCommit() throws Exception {
+        InProcessResponseWriter writer = new InProcessResponseWriter("requestId");
+        ContainerResponse containerResponse = mock(ContainerResponse.class);
+        when(containerResponse.getStatus()).thenReturn(201);
+
+        OutputStream outputStream = writer.writeResponseStatusAndHeaders(-1, containerResponse);
+        outputStream.write("{\"id\":\"1\"}".getBytes(StandardCharsets.UTF_8));
+        assertFalse(writer.getFuture().isDone());
+
+        writer.commit();
+        assertEquals(new WebSocketRestApiResponse("requestId", 201, "{\"id\":\"1\"}"), writer.getFuture().get());
+    }
+
+    @Test
+    void completeWithInternalServerErrorAtFailure() throws Exception {
+        InProcessResponseWriter writer = new InProcessResponseWriter("requestId");
+        writer.failure(new RuntimeException("test"));
+
+        WebSocketRestApiResponse response = writer.getFuture().get();
+        assertEquals("requestId", response.getRequestId());
+        assertEquals(500, response.getStatusCode());
+    }
+
+    @Test
+    void rejectSuspendTimeoutIfNotSuspended() {
+        InProcessResponseWriter writer = new InProcessResponseWriter("requestId");
+        assertThrows(IllegalStateException.class, () -> writer.setSuspendTimeout(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void doNotSuspendCommittedResponse() {
+        InProcessResponseWriter writer = new InProcessResponseWriter("requestId");
+        writer.commit();
+        assertFalse(writer.suspend(1, TimeUnit.SECONDS, responseWriter -> {
+        }));
+    }
+
+    @Test
+    void callTimeoutHandlerAfterSuspendTimeout() throws InterruptedException {
+        InProcessResponseWriter writer = new InProcessResponseWriter("requestId");
+        CountDownLatch timeout = new CountDownLatch(1);
+        ContainerResponseWriter[] timedOutWriter = new ContainerResponseWriter[1];
+        assertTrue(writer.suspend(50, TimeUnit.MILLISECONDS, responseWriter -> {
+            timedOutWriter[0] = responseWriter;
+            timeout.countDown();
+        }));
+
+        assertTrue(timeout.await(5, TimeUnit.SECONDS));
+        assertSame(writer, timedOutWriter[0]);
+    }
+
+    @Test
+    void useTimeoutSetAfterSuspend() throws InterruptedException {
+        InProcessResponseWriter writer = new InProcessResponseWriter("requestId");
+        CountDownLatch timeout = new CountDownLatch(1);
+        // A timeout of 0 means no timeout
+        assertTrue(writer.suspend(0, TimeUnit.MILLISECONDS, responseWriter -> timeout.countDown()));
+        assertFalse(timeout.await(200, TimeUnit.MILLISECONDS));
+
+        writer.setSuspendTimeout(50, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void stopTimeoutAtCommit() throws InterruptedException {
+        InProcessResponseWriter writer = new InProcessResponseWriter("requestId");
+        CountDownLatch timeout = new CountDownLatch(1);
+        assertTrue(writer.suspend(100, TimeUnit.MILLISECONDS, responseWriter -> timeout.countDown()));
+
+        writer.commit();
+        assertFalse(timeout.await(300, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.http_api.web_socket.rest_api_proxy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.ApplicationPath;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.MediaType;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WebSocketRestApiServiceTest {
+    private static final int NUM_REQUESTS_IN_FLIGHT = 10;
+    // Jersey creates a new resource instance per request
+    private static final Map<String, AsyncResponse> ASYNC_RESPONSE_BY_ID = new ConcurrentHashMap<>();
+
+    @ApplicationPath("/api/v1")
+    public static class TestResourceConfig extends ResourceConfig {
+        public TestResourceConfig() {
+            register(TestRestApi.class);
+        }
+    }
+
+    @Path("/test")
+    public static class TestRestApi {
+        @GET
+        @Path("/{id}")
+        @Produces(MediaType.APPLICATION_JSON)
+        public String get(@PathParam("id") String id) {
+            return toJson(id);
+        }
+
+        @GET
+        @Path("/async/{id}")
+        @Produces(MediaType.APPLICATION_JSON)
+        public void getAsync(@PathParam("id") String id, @Suspended AsyncResponse asyncResponse) {
+            ASYNC_RESPONSE_BY_ID.put(id, asyncResponse);
+        }
+
+        @GET
+        @Path("/timeout")
+        @Produces(MediaType.APPLICATION_JSON)
+        public void getWithTimeout(@Suspended AsyncResponse asyncResponse) {
+            asyncResponse.setTimeout(50, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private WebSocketRestApiService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new WebSocketRestApiService(objectMapper, "http://localhost:8090", new TestResourceConfig(), true);
+        service.initialize().join();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown().join();
+        ASYNC_RESPONSE_BY_ID.clear();
+    }
+
+    @Test
+    void dispatchSynchronousRequest() throws Exception {
+        WebSocketRestApiResponse response = dispatch("requestId", "/api/v1/test/1");
+        assertEquals(new WebSocketRestApiResponse("requestId", 200, toJson("1")), response);
+    }
+
+    @Test
+    void dispatchRequestWithoutApplicationPath() throws Exception {
+        WebSocketRestApiResponse response = dispatch("requestId", "/test/1");
+        assertEquals(new WebSocketRestApiResponse("requestId", 200, toJson("1")), response);
+    }
+
+    @Test
+    void respondNotFoundForUnknownPath() throws Exception {
+        WebSocketRestApiResponse response = dispatch("requestId", "/api/v1/unknown");
+        assertEquals("requestId", response.getRequestId());
+        assertEquals(404, response.getStatusCode());
+    }
+
+    @Test
+    void respondBadRequestForInvalidPath() throws Exception {
+        WebSocketRestApiResponse response = dispatch("requestId", "/api/v1/../test/1");
+        assertEquals("requestId", response.getRequestId());
+        assertEquals(400, response.getStatusCode());
+    }
+
+    @Test
+    void correlateResponsesOfRequestsInFlight() throws Exception {
+        List<CompletableFuture<WebSocketRestApiResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < NUM_REQUESTS_IN_FLIGHT; i++) {
+            futures.add(service.dispatch(createRequest("requestId" + i, "/api/v1/test/async/" + i)));
+        }
+        futures.forEach(future -> assertFalse(future.isDone()));
+        assertEquals(NUM_REQUESTS_IN_FLIGHT, ASYNC_RESPONSE_BY_ID.size());
+
+        // Complete in reverse order
+        for (int i = NUM_REQUESTS_IN_FLIGHT - 1; i >= 0; i--) {
+            ASYNC_RESPONSE_BY_ID.get(String.valueOf(i)).resume(toJson(String.valueOf(i)));
+        }
+
+        for (int i = 0; i < NUM_REQUESTS_IN_FLIGHT; i++) {
+            WebSocketRestApiResponse response = futures.get(i).get(5, TimeUnit.SECONDS);
+            assertEquals(new WebSocketRestApiResponse("requestId" + i, 200, toJson(String.valueOf(i))), response);
+        }
+    }
+
+    @Test
+    void respondServiceUnavailableAtAsyncTimeout() throws Exception {
+        WebSocketRestApiResponse response = dispatch("requestId", "/api/v1/test/timeout");
+        assertEquals("requestId", response.getRequestId());
+        assertEquals(503, response.getStatusCode());
+    }
+
+    @Test
+    void respondNotFoundIfRestApiIsNotIncluded() throws Exception {
+        WebSocketRestApiService serviceWithoutRestApi = new WebSocketRestApiService(objectMapper,
+                "http://localhost:8090",
+                new TestResourceConfig(),
+                false);
+        serviceWithoutRestApi.initialize().join();
+        try {
+            assertTrue(serviceWithoutRestApi.getApplicationHandler().isEmpty());
+            WebSocketRestApiResponse response = serviceWithoutRestApi.dispatch(createRequest("requestId", "/api/v1/test/1"))
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals("requestId", response.getRequestId());
+            assertEquals(404, response.getStatusCode());
+        } finally {
+            serviceWithoutRestApi.shutdown().join();
+        }
+    }
+
+    private WebSocketRestApiResponse dispatch(String requestId, String path) throws Exception {
+        return service.dispatch(createRequest(requestId, path)).get(5, TimeUnit.SECONDS);
+    }
+
+    private WebSocketRestApiRequest createRequest(String requestId, String path) {
+        String json = "{\"requestId\":\"" + requestId + "\",\"path\":\"" + path + "\",\"method\":\"GET\",\"body\":\"\"}";
+        return WebSocketRestApiRequest.fromJson(objectMapper, json).orElseThrow();
+    }
+
+    private static String toJson(String id) {
+        return "{\"id\":\"" + id + "\"}";
+    }
+}
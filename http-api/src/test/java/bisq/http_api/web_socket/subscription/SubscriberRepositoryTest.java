@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.http_api.web_socket.subscription;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.glassfish.grizzly.websockets.WebSocket;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class SubscriberRepositoryTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SubscriberRepository repository = new SubscriberRepository();
+
+    @Test
+    void findSubscribersByParameterIncludesSubscribersWithoutParameter() {
+        WebSocket webSocket = mock(WebSocket.class);
+        subscribe("btcEur", Topic.OFFERS, "EUR", webSocket);
+        subscribe("btcUsd", Topic.OFFERS, "USD", webSocket);
+        subscribe("all", Topic.OFFERS, null, webSocket);
+        subscribe("trades", Topic.TRADES, "EUR", webSocket);
+
+        assertEquals(Set.of("btcEur", "all"), subscriberIds(repository.findSubscribers(Topic.OFFERS, "EUR")));
+        assertEquals(Set.of("btcUsd", "all"), subscriberIds(repository.findSubscribers(Topic.OFFERS, "USD")));
+        // Only the subscribers without parameter get events of other parameters
+        assertEquals(Set.of("all"), subscriberIds(repository.findSubscribers(Topic.OFFERS, "CHF")));
+        assertEquals(Set.of("trades"), subscriberIds(repository.findSubscribers(Topic.TRADES, "EUR")));
+        assertTrue(repository.findSubscribers(Topic.TRADES, "USD").isEmpty());
+        assertTrue(repository.findSubscribers(Topic.MARKET_PRICE, "EUR").isEmpty());
+        assertEquals(Set.of("btcEur", "btcUsd", "all"), subscriberIds(repository.findSubscribers(Topic.OFFERS)));
+    }
+
+    @Test
+    void findSubscribersWithOnlySubscribersWithoutParameter() {
+        WebSocket webSocket = mock(WebSocket.class);
+        subscribe("all", Topic.OFFERS, null, webSocket);
+
+        assertEquals(Set.of("all"), subscriberIds(repository.findSubscribers(Topic.OFFERS, "EUR")));
+        assertEquals(Set.of("all"), subscriberIds(repository.findSubscribers(Topic.OFFERS, "")));
+    }
+
+    @Test
+    void removeSubscribersAtConnectionClosed() {
+        WebSocket closedWebSocket = mock(WebSocket.class);
+        WebSocket otherWebSocket = mock(WebSocket.class);
+        subscribe("closedEur", Topic.OFFERS, "EUR", closedWebSocket);
+        subscribe("closedAll", Topic.OFFERS, null, closedWebSocket);
+        subscribe("closedTrades", Topic.TRADES, null, closedWebSocket);
+        subscribe("otherEur", Topic.OFFERS, "EUR", otherWebSocket);
+
+        repository.onConnectionClosed(closedWebSocket);
+
+        assertTrue(repository.findSubscribers(closedWebSocket).isEmpty());
+        assertEquals(Set.of("otherEur"), subscriberIds(repository.findSubscribers(otherWebSocket)));
+        assertEquals(Set.of("otherEur"), subscriberIds(repository.findSubscribers(Topic.OFFERS)));
+        assertEquals(Set.of("otherEur"), subscriberIds(repository.findSubscribers(Topic.OFFERS, "EUR")));
+        assertTrue(repository.findSubscribers(Topic.OFFERS, "USD").isEmpty());
+        assertTrue(repository.findSubscribers(Topic.TRADES).isEmpty());
+        assertTrue(repository.findSubscribers(Topic.TRADES, "EUR").isEmpty());
+    }
+
+    @Test
+    void removeSubscriberById() {
+        WebSocket webSocket = mock(WebSocket.class);
+        subscribe("eur", Topic.OFFERS, "EUR", webSocket);
+        subscribe("usd", Topic.OFFERS, "USD", webSocket);
+
+        repository.remove(Topic.OFFERS, "eur");
+
+        assertTrue(repository.findSubscribers(Topic.OFFERS, "EUR").isEmpty());
+        assertEquals(Set.of("usd"), subscriberIds(repository.findSubscribers(Topic.OFFERS)));
+        assertEquals(Set.of("usd"), subscriberIds(repository.findSubscribers(webSocket)));
+    }
+
+    private void subscribe(String requestId, Topic topic, String parameter, WebSocket webSocket) {
+        String json = parameter == null
+                ? String.format("{\"type\":\"SubscriptionRequest\",\"requestId\":\"%s\",\"topic\":\"%s\"}", requestId, topic)
+                : String.format("{\"type\":\"SubscriptionRequest\",\"requestId\":\"%s\",\"topic\":\"%s\",\"parameter\":\"%s\"}", requestId, topic, parameter);
+        repository.add(SubscriptionRequest.fromJson(objectMapper, json).orElseThrow(), webSocket);
+    }
+
+    private static Set<String> subscriberIds(Optional<Set<Subscriber>> subscribers) {
+        return subscriberIds(subscribers.orElseThrow());
+    }
+
+    private static Set<String> subscriberIds(Set<Subscriber> subscribers) {
+        return subscribers.stream()
+                .map(Subscriber::getSubscriberId)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.http_api.web_socket.subscription;
+
+import org.glassfish.grizzly.CompletionHandler;
+import org.glassfish.grizzly.GrizzlyFuture;
+import org.glassfish.grizzly.websockets.DataFrame;
+import org.glassfish.grizzly.websockets.WebSocket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SubscriberTest {
+    // Must be in sync with Subscriber.MAX_PENDING_MESSAGES
+    private static final int MAX_PENDING_MESSAGES = 1000;
+
+    private final List<String> sentMessages = new ArrayList<>();
+    private final Deque<CompletionHandler<DataFrame>> pendingWrites = new ArrayDeque<>();
+    private boolean completeWritesImmediately;
+    private Subscriber subscriber;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        WebSocket webSocket = mock(WebSocket.class);
+        when(webSocket.send(anyString())).thenAnswer(invocation -> {
+            sentMessages.add(invocation.getArgument(0));
+            GrizzlyFuture<DataFrame> future = mock(GrizzlyFuture.class);
+            when(future.isDone()).thenReturn(completeWritesImmediately);
+            doAnswer(handlerInvocation -> pendingWrites.add(handlerInvocation.getArgument(0)))
+                    .when(future).addCompletionHandler(any());
+            return future;
+        });
+        subscriber = new Subscriber(Topic.OFFERS, Optional.empty(), "subscriberId", webSocket);
+    }
+
+    @Test
+    void sendOneMessageAtATime() {
+        subscriber.send("a");
+        subscriber.send("b");
+        subscriber.send("c");
+        assertEquals(List.of("a"), sentMessages);
+
+        pendingWrites.poll().completed(null);
+        assertEquals(List.of("a", "b"), sentMessages);
+
+        // A failed write does not stop sending the pending messages
+        pendingWrites.poll().failed(new IOException("Write failed"));
+        assertEquals(List.of("a", "b", "c"), sentMessages);
+
+        pendingWrites.poll().completed(null);
+        assertTrue(pendingWrites.isEmpty());
+
+        subscriber.send("d");
+        assertEquals(List.of("a", "b", "c", "d"), sentMessages);
+    }
+
+    @Test
+    void sendAllMessagesIfWritesCompleteImmediately() {
+        completeWritesImmediately = true;
+
+        subscriber.send("a");
+        subscriber.send("b");
+
+        assertEquals(List.of("a", "b"), sentMessages);
+        assertTrue(pendingWrites.isEmpty());
+    }
+
+    @Test
+    void dropOldestMessageIfQueueIsFull() {
+        subscriber.send("inFlight");
+        List<String> queuedMessages = IntStream.rangeClosed(0, MAX_PENDING_MESSAGES)
+                .mapToObj(i -> "message" + i)
+                .collect(Collectors.toList());
+        queuedMessages.forEach(subscriber::send);
+        assertEquals(List.of("inFlight"), sentMessages);
+
+        while (!pendingWrites.isEmpty()) {
+            pendingWrites.poll().completed(null);
+        }
+
+        // message0 got dropped as the queue was full when message1000 got added
+        List<String> expected = Stream.concat(Stream.of("inFlight"), queuedMessages.stream().skip(1))
+                .collect(Collectors.toList());
+        assertEquals(expected, sentMessages);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.http_api.web_socket.subscription;
+
+import bisq.http_api.web_socket.WebSocketMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class WebSocketEventTest {
+    @Test
+    void toJsonWithEncodedPayload() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        String payload = "[{\"id\":\"1\",\"text\":\"quote \\\" and\\nnew line\"}]";
+        WebSocketEvent.EncodedPayload encodedPayload = WebSocketEvent.encodePayload(objectMapper, payload).orElseThrow();
+        String json = WebSocketEvent.toJson(objectMapper,
+                Topic.OFFERS,
+                "subscriberId",
+                encodedPayload,
+                ModificationType.ADDED,
+                3).orElseThrow();
+
+        WebSocketEvent expected = new WebSocketEvent(Topic.OFFERS, "subscriberId", payload, ModificationType.ADDED, 3);
+        assertEquals(expected, objectMapper.readValue(json, WebSocketMessage.class));
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(expected)), objectMapper.readTree(json));
+    }
+}
@@ -26,7 +26,7 @@ import bisq.common.network.TransportType;
 import bisq.network.p2p.node.*;
 import bisq.network.p2p.node.authorization.AuthorizationService;
 import bisq.network.p2p.node.authorization.AuthorizationTokenType;
-import bisq.network.p2p.node.network_load.NetworkLoad;
+import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
 import bisq.network.p2p.services.peer_group.BanList;
 import bisq.security.pow.equihash.EquihashProofOfWorkService;
 import bisq.security.pow.hashcash.HashCashProofOfWorkService;
@@ -64,11 +64,12 @@ public class OutboundConnectionsMultiplexerTest {
         Capability serverCapability = createCapability(serverAddress, supportedTransportTypes);
         ServerChannel serverChannel = new ServerChannel(
                 serverCapability,
-                new NetworkLoad(),
+                new NetworkLoadSnapshot(),
                 mock(BanList.class),
                 createAuthorizationService(),
                 mock(Node.class),
-                ServerSocketChannel.open()
+                ServerSocketChannel.open(),
+                10_000
         );
 
         var countDownLatch = new CountDownLatch(1);
@@ -91,10 +92,10 @@ public class OutboundConnectionsMultiplexerTest {
                 var outboundConnectionManager = new OutboundConnectionManager(
                         authorizationService,
                         mock(BanList.class),
-                        new NetworkLoad(),
+                        new NetworkLoadSnapshot(),
                         outboundCapability,
-                        mock(Node.class),
-                        selector
+                        selector,
+                        10_000
                 );
                 var connectionMultiplexer = new OutboundConnectionMultiplexer(outboundConnectionManager);
                 connectionMultiplexer.start();
@@ -38,6 +38,7 @@ import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.message.NetworkEnvelope;
 import bisq.network.p2p.node.Connection;
 import bisq.network.p2p.node.Node;
+import bisq.network.p2p.node.network_load.MessagePipelineMetrics;
 import bisq.network.p2p.node.network_load.NetworkLoadService;
 import bisq.network.p2p.services.confidential.ConfidentialMessageService;
 import bisq.network.p2p.services.confidential.ack.AckRequestingMessage;
@@ -93,6 +94,10 @@ import static java.util.concurrent.CompletableFuture.supplyAsync;
 public class NetworkService implements PersistenceClient<NetworkServiceStore>, Service {
     public static final ExecutorService NETWORK_IO_POOL = ExecutorFactory.newCachedThreadPool("Network.IO", 5, 3000, 5);
     public static final ExecutorService DISPATCHER = ExecutorFactory.newSingleThreadExecutor("Network.dispatcher");
+    // Used for the authorization (PoW verification) of received messages. Messages of one connection are processed in
+    // order (see Connection), messages of different connections in parallel. Listeners are notified on the DISPATCHER.
+    public static final ExecutorService AUTHORIZATION_POOL = ExecutorFactory.newFixedThreadPool("Network.authorization");
+    public static final MessagePipelineMetrics MESSAGE_PIPELINE_METRICS = new MessagePipelineMetrics();
 
     @Getter
     private final NetworkServiceStore persistableStore = new NetworkServiceStore();
@@ -383,6 +388,28 @@ public class NetworkService implements PersistenceClient<NetworkServiceStore>, S
         }
     }
 
+    /**
+     * Publishes all authorizedDistributedData in BatchDataRequests instead of one message per item.
+     */
+    public CompletableFuture<BroadcastResult> publishAuthorizedDataBatch(List<? extends AuthorizedDistributedData> authorizedDistributedDataList,
+                                                                         KeyPair keyPair,
+                                                                         PrivateKey authorizedPrivateKey,
+                                                                         PublicKey authorizedPublicKey) {
+        checkArgument(dataService.isPresent(), "DataService must be supported when addData is called.");
+        log.info("Publish batch of {} authorizedData", authorizedDistributedDataList.size());
+        try {
+            List<AuthorizedData> authorizedDataList = new ArrayList<>();
+            for (AuthorizedDistributedData authorizedDistributedData : authorizedDistributedDataList) {
+                byte[] signature = SignatureUtil.sign(authorizedDistributedData.serializeForHash(), authorizedPrivateKey);
+                authorizedDataList.add(new AuthorizedData(authorizedDistributedData, Optional.of(signature), authorizedPublicKey));
+            }
+            return dataService.get().addAuthorizedDataBatch(authorizedDataList, keyPair);
+        } catch (GeneralSecurityException e) {
+            e.printStackTrace();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     public CompletableFuture<BroadcastResult> removeAuthorizedData(AuthorizedDistributedData authorizedDistributedData,
                                                                    KeyPair keyPair) {
         return removeAuthorizedData(authorizedDistributedData, keyPair, keyPair.getPublic());
@@ -23,6 +23,7 @@ import bisq.network.p2p.node.CloseConnectionMessage;
 import bisq.network.p2p.node.handshake.ConnectionHandshake;
 import bisq.network.p2p.services.confidential.ConfidentialMessage;
 import bisq.network.p2p.services.confidential.ack.AckMessage;
+import bisq.network.p2p.services.data.BatchDataRequest;
 import bisq.network.p2p.services.data.DataRequest;
 import bisq.network.p2p.services.data.inventory.InventoryRequest;
 import bisq.network.p2p.services.data.inventory.InventoryResponse;
@@ -94,6 +95,7 @@ public interface EnvelopePayloadMessage extends NetworkProto {
                     ExternalNetworkMessage.fromProto(proto.getExternalNetworkMessage());
             case REPORTREQUEST -> ReportRequest.fromProto(proto.getReportRequest());
             case REPORTRESPONSE -> ReportResponse.fromProto(proto.getReportResponse());
+            case BATCHDATAREQUEST -> BatchDataRequest.fromProto(proto.getBatchDataRequest());
             case MESSAGE_NOT_SET -> throw new UnresolvableProtobufMessageException("MESSAGE_NOT_SET", proto);
         };
     }
@@ -17,7 +17,9 @@
 
 package bisq.network.p2p.message;
 
+import bisq.common.proto.MemoizedProto;
 import bisq.common.proto.NetworkProto;
+import bisq.common.proto.ProtoMemo;
 import bisq.network.p2p.node.ConnectionException;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
 import lombok.EqualsAndHashCode;
@@ -35,7 +37,7 @@ import static bisq.network.p2p.node.ConnectionException.Reason.INVALID_NETWORK_V
 @EqualsAndHashCode
 @Getter
 @Slf4j
-public final class NetworkEnvelope implements NetworkProto {
+public final class NetworkEnvelope implements NetworkProto, MemoizedProto {
     // For live network we use networkVersion=1
     // For dev testing networkVersion=0
     @Setter
@@ -44,6 +46,9 @@ public final class NetworkEnvelope implements NetworkProto {
     private final int version;
     private final AuthorizationToken authorizationToken;
     private final EnvelopePayloadMessage envelopePayloadMessage;
+    // transient fields are excluded by default for EqualsAndHashCode
+    @ToString.Exclude
+    private transient final ProtoMemo protoMemo = new ProtoMemo();
 
     public NetworkEnvelope(AuthorizationToken authorizationToken, EnvelopePayloadMessage envelopePayloadMessage) {
         this(networkVersion, authorizationToken, envelopePayloadMessage);
@@ -80,9 +85,12 @@ public final class NetworkEnvelope implements NetworkProto {
     }
 
     public static NetworkEnvelope fromProto(bisq.network.protobuf.NetworkEnvelope proto) {
-        return new NetworkEnvelope(proto.getVersion(),
+        NetworkEnvelope networkEnvelope = new NetworkEnvelope(proto.getVersion(),
                 AuthorizationToken.fromProto(proto.getAuthorizationToken()),
                 EnvelopePayloadMessage.fromProto(proto.getNetworkMessage()));
+        // We know the size from the received proto, thus we avoid to serialize it again for the metrics
+        networkEnvelope.getProtoMemo().setSerializedSize(proto.getSerializedSize());
+        return networkEnvelope;
     }
 
     public void verifyVersion() throws ConnectionException {
@@ -17,6 +17,7 @@
 
 package bisq.network.p2p.node;
 
+import bisq.common.threading.SequentialExecutor;
 import bisq.common.threading.ThreadName;
 import bisq.common.util.ExceptionUtil;
 import bisq.common.util.StringUtils;
@@ -28,8 +29,11 @@ import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.message.NetworkEnvelope;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
 import bisq.network.p2p.node.envelope.NetworkEnvelopeSocket;
+import bisq.network.p2p.node.envelope.parser.nio.ProtoBufMessageLengthWriter;
 import bisq.network.p2p.node.network_load.ConnectionMetrics;
+import bisq.network.p2p.node.network_load.MessagePipelineMetrics;
 import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -37,11 +41,16 @@ import javax.annotation.Nullable;
 import java.io.EOFException;
 import java.io.IOException;
 import java.net.Socket;
+import java.util.ArrayDeque;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 
@@ -53,6 +62,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Send messages to the peer.
  * Notifies messageListeners on new received messages.
  * Notifies errorHandler on exceptions from the inputHandlerService executor.
+ * The IO is either done with a blocking socket and a dedicated read thread, or with a ConnectionChannel served by a
+ * selector thread shared by all connections.
  */
 @Slf4j
 public abstract class Connection {
@@ -89,10 +100,19 @@ public abstract class Connection {
     @Getter
     private final RequestResponseManager requestResponseManager;
 
+    @Nullable
     private NetworkEnvelopeSocket networkEnvelopeSocket;
+    @Nullable
+    private final ConnectionChannel connectionChannel;
+    @Getter(AccessLevel.PACKAGE)
     private final ConnectionThrottle connectionThrottle;
     private final Handler handler;
+    private final BiConsumer<Connection, Exception> errorHandler;
+    // Received messages at selector based connections which are not processed yet because of throttling
+    private final Queue<bisq.network.protobuf.NetworkEnvelope> pendingReceivedProtos = new ArrayDeque<>();
+    private boolean isReceivePaused;
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
+    private final SequentialExecutor authorizationExecutor = new SequentialExecutor(NetworkService.AUTHORIZATION_POOL);
     @Nullable
     private Future<?> inputHandlerFuture;
     private final AtomicInteger sentMessageCounter = new AtomicInteger(0);
@@ -111,8 +131,10 @@ public abstract class Connection {
         this.peersNetworkLoadSnapshot = peersNetworkLoadSnapshot;
         this.connectionThrottle = connectionThrottle;
         this.handler = handler;
+        this.errorHandler = errorHandler;
         this.connectionMetrics = connectionMetrics;
         requestResponseManager = new RequestResponseManager(connectionMetrics);
+        connectionChannel = null;
 
         try {
             PeerSocket peerSocket = new DefaultPeerSocket(socket);
@@ -135,40 +157,50 @@ public abstract class Connection {
                     }
                     checkNotNull(proto, "Proto from NetworkEnvelope.parseDelimitedFrom(inputStream) must not be null");
 
-                    connectionThrottle.throttleReceiveMessage();
+                    NetworkEnvelope networkEnvelope = readNetworkEnvelope(proto);
+                    connectionThrottle.throttleReceiveMessage(networkEnvelope.getEnvelopePayloadMessage());
                     // ThrottleReceiveMessage can cause a delay by Thread.sleep
                     if (!isInputStreamActive()) {
                         return;
                     }
-                    long ts = System.currentTimeMillis();
-                    NetworkEnvelope networkEnvelope = NetworkEnvelope.fromProto(proto);
-                    long deserializeTime = System.currentTimeMillis() - ts;
-                    networkEnvelope.verifyVersion();
-                    connectionMetrics.onReceived(networkEnvelope, deserializeTime);
-
-                    EnvelopePayloadMessage envelopePayloadMessage = networkEnvelope.getEnvelopePayloadMessage();
-                    log.debug("Received message: {} at: {}",
-                            StringUtils.truncate(envelopePayloadMessage.toString(), 200), this);
-                    requestResponseManager.onReceived(envelopePayloadMessage);
-                    NetworkService.DISPATCHER.submit(() -> {
-                        if (isInputStreamActive()) {
-                            handler.handleNetworkMessage(envelopePayloadMessage,
-                                    networkEnvelope.getAuthorizationToken(),
-                                    this);
-                        }
-                    });
+                    handleReceivedNetworkEnvelope(networkEnvelope);
                 }
             } catch (Exception exception) {
                 //todo (deferred) StreamCorruptedException from i2p at shutdown. prob it send some text data at shut down
-                if (!shutdownStarted) {
-                    log.debug("Exception at input handler on {}", this, exception);
-                    shutdown(CloseReason.EXCEPTION.exception(exception));
+                handleReceiveException(exception);
+            }
+        });
+    }
+
+    protected Connection(ConnectionChannel connectionChannel,
+                         ConnectionThrottle connectionThrottle,
+                         Handler handler,
+                         BiConsumer<Connection, Exception> errorHandler) {
+        this.connectionChannel = connectionChannel;
+        this.peersCapability = connectionChannel.getPeersCapability();
+        this.peersNetworkLoadSnapshot = connectionChannel.getPeersNetworkLoadSnapshot();
+        this.connectionMetrics = connectionChannel.getConnectionMetrics();
+        this.connectionThrottle = connectionThrottle;
+        this.handler = handler;
+        this.errorHandler = errorHandler;
+        requestResponseManager = new RequestResponseManager(connectionMetrics);
 
-                    // EOFException expected if connection got closed (Socket closed message)
-                    if (!(exception instanceof EOFException)) {
-                        errorHandler.accept(this, exception);
+        // Reading from the channel starts once the handler is set
+        connectionChannel.setHandler(new ConnectionChannel.Handler() {
+            @Override
+            public void onNetworkEnvelopesReceived(List<bisq.network.protobuf.NetworkEnvelope> protos) {
+                synchronized (pendingReceivedProtos) {
+                    pendingReceivedProtos.addAll(protos);
+                    if (isReceivePaused) {
+                        return;
                     }
                 }
+                processPendingReceivedProtos();
+            }
+
+            @Override
+            public void onChannelClosed(Exception exception) {
+                handleReceiveException(exception);
             }
         });
     }
@@ -222,6 +254,16 @@ public abstract class Connection {
     /* --------------------------------------------------------------------- */
 
     Connection send(EnvelopePayloadMessage envelopePayloadMessage, AuthorizationToken authorizationToken) {
+        return send(envelopePayloadMessage, authorizationToken, true);
+    }
+
+    /**
+     * @param applySendThrottle If false the caller has already reserved the send budget at the connectionThrottle
+     *                          (e.g. the OutboundMessageQueue which defers the send instead of blocking a thread).
+     */
+    Connection send(EnvelopePayloadMessage envelopePayloadMessage,
+                    AuthorizationToken authorizationToken,
+                    boolean applySendThrottle) {
         if (isStopped()) {
             log.warn("Message not sent as connection has been shut down already. Message={}, Connection={}",
                     StringUtils.truncate(envelopePayloadMessage.toString(), 200), this);
@@ -229,17 +271,24 @@ public abstract class Connection {
             return this;
         }
 
-        connectionThrottle.throttleSendMessage();
+        if (applySendThrottle) {
+            connectionThrottle.throttleSendMessage(envelopePayloadMessage);
+        }
 
         requestResponseManager.onSent(envelopePayloadMessage);
 
         try {
             NetworkEnvelope networkEnvelope = new NetworkEnvelope(authorizationToken, envelopePayloadMessage);
             boolean success = false;
+            int numBytes = 0;
             long ts = System.currentTimeMillis();
             synchronized (writeLock) {
                 try {
-                    networkEnvelopeSocket.send(networkEnvelope);
+                    if (connectionChannel != null) {
+                        numBytes = connectionChannel.send(networkEnvelope);
+                    } else {
+                        numBytes = checkNotNull(networkEnvelopeSocket).send(networkEnvelope);
+                    }
                     success = true;
                 } catch (Exception exception) {
                     if (isRunning()) {
@@ -250,7 +299,7 @@ public abstract class Connection {
                 }
             }
             if (success) {
-                connectionMetrics.onSent(networkEnvelope, System.currentTimeMillis() - ts);
+                connectionMetrics.onSent(networkEnvelope, numBytes, System.currentTimeMillis() - ts);
                 if (envelopePayloadMessage instanceof CloseConnectionMessage) {
                     log.info("Sent {} from {}",
                             StringUtils.truncate(envelopePayloadMessage.toString(), 300), this);
@@ -286,9 +335,13 @@ public abstract class Connection {
         if (inputHandlerFuture != null) {
             inputHandlerFuture.cancel(true);
         }
-        try {
-            networkEnvelopeSocket.close();
-        } catch (IOException ignore) {
+        if (connectionChannel != null) {
+            connectionChannel.close();
+        } else if (networkEnvelopeSocket != null) {
+            try {
+                networkEnvelopeSocket.close();
+            } catch (IOException ignore) {
+            }
         }
         NetworkService.DISPATCHER.submit(() -> {
             handler.handleConnectionClosed(this, closeReason);
@@ -313,12 +366,16 @@ public abstract class Connection {
         });
     }
 
+    boolean usesConnectionChannel(ConnectionChannel connectionChannel) {
+        return this.connectionChannel == connectionChannel;
+    }
+
     AtomicInteger getSentMessageCounter() {
         return sentMessageCounter;
     }
 
     boolean isStopped() {
-        return shutdownStarted || networkEnvelopeSocket.isClosed() || Thread.currentThread().isInterrupted();
+        return shutdownStarted || isTransportClosed() || Thread.currentThread().isInterrupted();
     }
 
 
@@ -333,4 +390,115 @@ public abstract class Connection {
     private boolean isInputStreamActive() {
         return !listeningStopped && isRunning();
     }
+
+    private boolean isTransportClosed() {
+        if (connectionChannel != null) {
+            return connectionChannel.isStopped();
+        }
+        return networkEnvelopeSocket == null || networkEnvelopeSocket.isClosed();
+    }
+
+    private NetworkEnvelope readNetworkEnvelope(bisq.network.protobuf.NetworkEnvelope proto) {
+        long ts = System.currentTimeMillis();
+        NetworkEnvelope networkEnvelope = NetworkEnvelope.fromProto(proto);
+        long deserializeTime = System.currentTimeMillis() - ts;
+        networkEnvelope.verifyVersion();
+        connectionMetrics.onReceived(networkEnvelope, ProtoBufMessageLengthWriter.getSizeWithLengthPrefix(proto.getSerializedSize()), deserializeTime);
+        return networkEnvelope;
+    }
+
+    private void handleReceivedNetworkEnvelope(NetworkEnvelope networkEnvelope) {
+        EnvelopePayloadMessage envelopePayloadMessage = networkEnvelope.getEnvelopePayloadMessage();
+        log.debug("Received message: {} at: {}",
+                StringUtils.truncate(envelopePayloadMessage.toString(), 200), this);
+        requestResponseManager.onReceived(envelopePayloadMessage);
+
+        // The handler verifies the authorization token, which can be expensive, thus we do not use the single
+        // threaded DISPATCHER but the AUTHORIZATION_POOL. Messages of that connection are still processed in order.
+        MessagePipelineMetrics metrics = NetworkService.MESSAGE_PIPELINE_METRICS;
+        long queuedTs = System.currentTimeMillis();
+        metrics.onQueued(MessagePipelineMetrics.Stage.AUTHORIZATION);
+        authorizationExecutor.execute(() -> {
+            long startTs = System.currentTimeMillis();
+            metrics.onStarted(MessagePipelineMetrics.Stage.AUTHORIZATION, startTs - queuedTs);
+            try {
+                if (isInputStreamActive()) {
+                    handler.handleNetworkMessage(envelopePayloadMessage,
+                            networkEnvelope.getAuthorizationToken(),
+                            this);
+                }
+            } finally {
+                metrics.onCompleted(MessagePipelineMetrics.Stage.AUTHORIZATION, System.currentTimeMillis() - startTs);
+            }
+        });
+    }
+
+    private void handleReceiveException(Exception exception) {
+        if (!shutdownStarted) {
+            log.debug("Exception at input handler on {}", this, exception);
+            shutdown(CloseReason.EXCEPTION.exception(exception));
+
+            // EOFException expected if connection got closed (Socket closed message)
+            if (!(exception instanceof EOFException)) {
+                errorHandler.accept(this, exception);
+            }
+        }
+    }
+
+    /**
+     * Processes the received messages at selector based connections. Instead of blocking the selector thread for
+     * throttling, we stop reading from the channel and process the remaining messages after the pause at the
+     * NETWORK_IO_POOL.
+     * Only one thread is processing the messages at a time, either the selector thread or the delayed task.
+     */
+    private void processPendingReceivedProtos() {
+        try {
+            while (isInputStreamActive()) {
+                bisq.network.protobuf.NetworkEnvelope proto;
+                synchronized (pendingReceivedProtos) {
+                    proto = pendingReceivedProtos.poll();
+                    if (proto == null) {
+                        isReceivePaused = false;
+                        return;
+                    }
+                }
+
+                NetworkEnvelope networkEnvelope = readNetworkEnvelope(proto);
+                long pause = connectionThrottle.reserveReceiveMessage(networkEnvelope.getEnvelopePayloadMessage());
+                if (pause > 0) {
+                    synchronized (pendingReceivedProtos) {
+                        isReceivePaused = true;
+                    }
+                    checkNotNull(connectionChannel).suspendReading();
+                    CompletableFuture.delayedExecutor(pause, TimeUnit.MILLISECONDS, NetworkService.NETWORK_IO_POOL)
+                            .execute(() -> resumeAfterPause(networkEnvelope));
+                    return;
+                }
+
+                handleReceivedNetworkEnvelope(networkEnvelope);
+            }
+        } catch (Exception exception) {
+            handleReceiveException(exception);
+        }
+    }
+
+    private void resumeAfterPause(NetworkEnvelope networkEnvelope) {
+        if (!isInputStreamActive()) {
+            return;
+        }
+        try {
+            handleReceivedNetworkEnvelope(networkEnvelope);
+        } catch (Exception exception) {
+            handleReceiveException(exception);
+            return;
+        }
+        processPendingReceivedProtos();
+        boolean isPausedAgain;
+        synchronized (pendingReceivedProtos) {
+            isPausedAgain = isReceivePaused;
+        }
+        if (!isPausedAgain && connectionChannel != null) {
+            connectionChannel.resumeReading();
+        }
+    }
 }
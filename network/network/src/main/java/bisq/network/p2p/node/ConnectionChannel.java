@@ -17,42 +17,40 @@
 
 package bisq.network.p2p.node;
 
-import bisq.common.util.StringUtils;
-import bisq.network.NetworkService;
 import bisq.common.network.Address;
-import bisq.network.p2p.message.EnvelopePayloadMessage;
+import bisq.common.util.StringUtils;
 import bisq.network.p2p.message.NetworkEnvelope;
-import bisq.network.p2p.node.authorization.AuthorizationToken;
 import bisq.network.p2p.node.envelope.NetworkEnvelopeSocketChannel;
 import bisq.network.p2p.node.network_load.ConnectionMetrics;
 import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+import java.io.EOFException;
 import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Represents an inbound or outbound connection to a peer node.
- * Listens for messages from the peer.
- * Send messages to the peer.
- * Notifies listeners on new received messages.
- * Notifies errorHandler on exceptions from the inputHandlerService executor.
+ * Non-blocking IO endpoint of a connection to a peer node, served by a selector thread (ServerChannel for inbound
+ * and OutboundConnectionMultiplexer for outbound connections).
+ * After the handshake has completed we do not read from the channel until a handler is set. The handler is the
+ * Connection wrapping that channel, which applies throttling, metrics and dispatching the same way as at socket based
+ * connections.
  */
 @Slf4j
 public abstract class ConnectionChannel {
     interface Handler {
-        void handleNetworkMessage(EnvelopePayloadMessage envelopePayloadMessage, AuthorizationToken authorizationToken, ConnectionChannel connectionChannel);
-
-        void handleConnectionClosed(ConnectionChannel connectionChannel, CloseReason closeReason);
-    }
+        // Called on the selector thread, or at setHandler if messages have been received together with the handshake
+        void onNetworkEnvelopesReceived(List<bisq.network.protobuf.NetworkEnvelope> protos);
 
-    public interface Listener {
-        void onNetworkMessage(EnvelopePayloadMessage envelopePayloadMessage);
-
-        void onConnectionClosed(CloseReason closeReason);
+        void onChannelClosed(Exception exception);
     }
 
     @Getter
@@ -65,127 +63,123 @@ public abstract class ConnectionChannel {
     private final NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel;
     @Getter
     private final ConnectionMetrics connectionMetrics;
-
-    private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
-
+    private final Selector selector;
+    private final Set<Runnable> closeHandlers = new CopyOnWriteArraySet<>();
+    private final List<bisq.network.protobuf.NetworkEnvelope> earlyReceivedProtos = new ArrayList<>();
+    @Nullable
+    private volatile Handler handler;
     @Getter
     private volatile boolean isStopped;
-    private volatile boolean listeningStopped;
-    @Getter
-    private final AtomicInteger sentMessageCounter = new AtomicInteger(0);
-    private final Object writeLock = new Object();
 
     protected ConnectionChannel(Capability peersCapability,
                                 NetworkLoadSnapshot peersNetworkLoadSnapshot,
                                 NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel,
-                                ConnectionMetrics connectionMetrics) {
+                                ConnectionMetrics connectionMetrics,
+                                Selector selector) {
         this.peersCapability = peersCapability;
         this.peersNetworkLoadSnapshot = peersNetworkLoadSnapshot;
         this.networkEnvelopeSocketChannel = networkEnvelopeSocketChannel;
         this.connectionMetrics = connectionMetrics;
+        this.selector = selector;
+        networkEnvelopeSocketChannel.setPendingWritesHandler(() -> addInterest(SelectionKey.OP_WRITE));
+    }
+
+    void addEarlyReceivedProtos(List<bisq.network.protobuf.NetworkEnvelope> protos) {
+        synchronized (earlyReceivedProtos) {
+            earlyReceivedProtos.addAll(protos);
+        }
+    }
+
+    void setHandler(Handler handler) {
+        this.handler = handler;
+        List<bisq.network.protobuf.NetworkEnvelope> protos;
+        synchronized (earlyReceivedProtos) {
+            protos = new ArrayList<>(earlyReceivedProtos);
+            earlyReceivedProtos.clear();
+        }
+        if (!protos.isEmpty()) {
+            handler.onNetworkEnvelopesReceived(protos);
+        }
+        resumeReading();
     }
 
-    ConnectionChannel send(EnvelopePayloadMessage envelopePayloadMessage, AuthorizationToken authorizationToken) {
+    int send(NetworkEnvelope networkEnvelope) throws IOException {
         if (isStopped) {
-            log.warn("Message not sent as connection has been shut down already. Message={}, ConnectionChannel={}",
-                    StringUtils.truncate(envelopePayloadMessage.toString(), 200), this);
             throw new ConnectionClosedException(this);
         }
+        return networkEnvelopeSocketChannel.send(networkEnvelope);
+    }
+
+    // Called on the selector thread
+    void onReadable() {
+        Handler handler = this.handler;
+        if (handler == null) {
+            // Should not happen as we only register for OP_READ once the handler is set.
+            suspendReading();
+            return;
+        }
         try {
-            NetworkEnvelope networkEnvelope = new NetworkEnvelope(authorizationToken, envelopePayloadMessage);
-            boolean sent = false;
-            long ts = System.currentTimeMillis();
-            synchronized (writeLock) {
-                try {
-                    networkEnvelopeSocketChannel.send(networkEnvelope);
-                    sent = true;
-                } catch (Throwable throwable) {
-                    if (!isStopped) {
-                        throw throwable;
-                    }
-                }
+            List<bisq.network.protobuf.NetworkEnvelope> protos = networkEnvelopeSocketChannel.receiveNetworkEnvelopeProtos();
+            if (!protos.isEmpty()) {
+                handler.onNetworkEnvelopesReceived(protos);
             }
-            if (sent) {
-                connectionMetrics.onSent(networkEnvelope, System.currentTimeMillis() - ts);
-                if (envelopePayloadMessage instanceof CloseConnectionMessage) {
-                    log.info("Sent {} from {}",
-                            StringUtils.truncate(envelopePayloadMessage.toString(), 300), this);
-                } else {
-                    log.debug("Sent {} from {}",
-                            StringUtils.truncate(envelopePayloadMessage.toString(), 300), this);
-                }
+            if (networkEnvelopeSocketChannel.isClosed()) {
+                closeOnException(new EOFException("Channel closed by peer"));
             }
-            return this;
-        } catch (IOException exception) {
-            if (!isStopped) {
-                log.error("Call shutdown from send {} due exception={}", this, exception.toString());
-                close(CloseReason.EXCEPTION.exception(exception));
+        } catch (Exception exception) {
+            closeOnException(exception);
+        }
+    }
+
+    // Called on the selector thread
+    void onWritable() {
+        try {
+            if (networkEnvelopeSocketChannel.flushPendingWrites()) {
+                removeInterest(SelectionKey.OP_WRITE);
             }
-            // We wrap any exception (also expected EOFException in case of connection close), to inform the caller 
-            // that the "send proto" intent failed.
-            throw new ConnectionException(exception);
+        } catch (IOException exception) {
+            closeOnException(exception);
         }
     }
 
-    void stopListening() {
-        listeningStopped = true;
+    void suspendReading() {
+        removeInterest(SelectionKey.OP_READ);
+    }
+
+    void resumeReading() {
+        addInterest(SelectionKey.OP_READ);
     }
 
-    void close(CloseReason closeReason) {
+    void addCloseHandler(Runnable closeHandler) {
+        closeHandlers.add(closeHandler);
+    }
+
+    /**
+     * Closes the channel without notifying the handler. Used if the owning Connection initiated the close.
+     */
+    void close() {
         if (isStopped) {
             log.debug("Shut down already in progress {}", this);
             return;
         }
-        log.info("Close {}", this);
+        log.debug("Close {}", this);
         isStopped = true;
+        SelectionKey selectionKey = findSelectionKey();
+        if (selectionKey != null) {
+            selectionKey.cancel();
+        }
         try {
             networkEnvelopeSocketChannel.close();
         } catch (IOException ignore) {
         }
-        NetworkService.DISPATCHER.submit(() -> {
-            listeners.forEach(listener -> {
-                try {
-                    listener.onConnectionClosed(closeReason);
-                } catch (Exception e) {
-                    log.error("Calling onConnectionClosed at listener {} failed", listener, e);
-                }
-            });
-            listeners.clear();
-        });
-    }
-
-    void notifyListeners(EnvelopePayloadMessage envelopePayloadMessage) {
-        listeners.forEach(listener -> {
-            try {
-                listener.onNetworkMessage(envelopePayloadMessage);
-            } catch (Exception e) {
-                log.error("Calling onNetworkMessage at listener {} failed", listener, e);
-            }
-        });
-    }
-
-    public void addListener(Listener listener) {
-        listeners.add(listener);
-    }
-
-    public void removeListener(Listener listener) {
-        listeners.remove(listener);
+        closeHandlers.forEach(Runnable::run);
+        closeHandlers.clear();
     }
 
     public Address getPeerAddress() {
         return peersCapability.getAddress();
     }
 
-    // Only at outbound connections we can be sure that the peer address is correct.
-    // The announced peer address in capability is not guaranteed to be valid.
-    // For most cases that is sufficient as the peer would not gain anything if lying about their address
-    // as it would make them unreachable for receiving messages from newly established connections. But there are
-    // cases where we need to be sure that it is the real address, like if we might use the peer address for banning a
-    // not correctly behaving peer.
-    public boolean getPeerAddressVerified() {
-        return isOutboundConnection();
-    }
-
     public boolean isOutboundConnection() {
         return this instanceof OutboundConnectionChannel;
     }
@@ -194,20 +188,54 @@ public abstract class ConnectionChannel {
         return !isStopped();
     }
 
+    // Only at outbound connections we can be sure that the peer address is correct.
+    // The announced peer address in capability is not guaranteed to be valid.
+    public abstract boolean isPeerAddressVerified();
+
     @Override
     public String toString() {
-        return "'" + getClass().getSimpleName() + " [peerAddress=" + getPeersCapability().getAddress() +
-                ", socket=" + networkEnvelopeSocketChannel +
+        return "'" + getClass().getSimpleName() + " [peerAddress=" + getPeerAddress() +
+                ", socket=" + networkEnvelopeSocketChannel.getSocketChannel() +
                 ", keyId=" + getId() + "]'";
     }
 
-    private String getThreadNameId() {
-        return StringUtils.truncate(getPeersCapability().getAddress().toString() + "-" + id.substring(0, 8));
+    private void closeOnException(Exception exception) {
+        if (isStopped) {
+            return;
+        }
+        close();
+        Handler handler = this.handler;
+        if (handler != null) {
+            handler.onChannelClosed(exception);
+        }
     }
 
-    private boolean isInputStreamActive() {
-        return !listeningStopped && !isStopped && !Thread.currentThread().isInterrupted();
+    @Nullable
+    private SelectionKey findSelectionKey() {
+        return networkEnvelopeSocketChannel.getSocketChannel().keyFor(selector);
     }
 
-    public abstract boolean isPeerAddressVerified();
+    private void addInterest(int operation) {
+        SelectionKey selectionKey = findSelectionKey();
+        if (selectionKey == null || !selectionKey.isValid()) {
+            return;
+        }
+        try {
+            selectionKey.interestOpsOr(operation);
+            // If called from outside the selector thread we need to wake up the selector to apply the new interest set
+            selector.wakeup();
+        } catch (CancelledKeyException ignore) {
+        }
+    }
+
+    private void removeInterest(int operation) {
+        SelectionKey selectionKey = findSelectionKey();
+        if (selectionKey == null || !selectionKey.isValid()) {
+            return;
+        }
+        try {
+            selectionKey.interestOpsAnd(~operation);
+        } catch (CancelledKeyException ignore) {
+        }
+    }
 }
@@ -18,6 +18,7 @@
 package bisq.network.p2p.node;
 
 import bisq.common.util.MathUtils;
+import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
 import lombok.extern.slf4j.Slf4j;
 
@@ -28,85 +29,150 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Checks if time between last send/receive is larger than the throttle time adjusted with the network load.
- * If so we pause the remaining time to ensure only 1 message is sent in that time slot.
- * This should avoid that a node gets flooded (at receive using the peers network load to adjust the throttle time) or
- * flooding their peers (at send using my network load to adjust the throttle time).
- * As larger value in the config for sendMessageTimestamp and receiveMessageTimestamp means it is more likely that
- * message send/receive get paused.
- * Messages are not dropped by we only pause the executing thread. We use lower and upper bounds for the pause, so
- * even with extreme values from the config the throttling should not have severe impacts on the
- * connection (e.g. lead to timeouts).
+ * Token bucket based throttle for sending and receiving messages.
+ * Tokens are refilled at a rate of 1 token per throttle time, adjusted with the network load (at receive using my
+ * network load, at send the peers network load). The bucket holds up to BURST_SIZE tokens, so short bursts of messages
+ * are not delayed. Each message costs between MIN_MESSAGE_COST and 1 token depending on its cost factor.
+ * If not enough tokens are available the caller gets the delay it has to apply before processing the message. The
+ * tokens of deferred messages are still reserved, so the bucket goes into debt and each reservation's delay reflects
+ * the messages reserved before it. We do
+ * not sleep for that delay but the caller schedules the processing (outbound queue, selector based connections).
+ * Only the blocking API (send from the caller thread, read thread of socket based connections) pauses the thread.
+ * This should avoid that a node gets flooded or is flooding their peers.
+ * Messages are not dropped. We use lower and upper bounds for the delay, so even with extreme values from the config
+ * the throttling should not have severe impacts on the connection (e.g. lead to timeouts).
  */
 @Slf4j
 public class ConnectionThrottle {
     private static final long MIN_THROTTLE_TIME = 20;
     private static final long MAX_THROTTLE_TIME = 1000;
     private static final long MAX_LOG_FREQUENCY = TimeUnit.SECONDS.toMillis(30);
+    static final int BURST_SIZE = 10;
+    static final double MIN_MESSAGE_COST = 0.5;
 
-    // We apply the log throttle globally, so we use static fields
+    // We apply the log throttle and counters globally, so we use static fields
     private static final AtomicLong lastLoggedTs = new AtomicLong();
     private static final List<String> LAST_LOGS = new CopyOnWriteArrayList<>();
+    private static final AtomicLong NUM_IMMEDIATE_MESSAGES = new AtomicLong();
+    private static final AtomicLong NUM_DEFERRED_MESSAGES = new AtomicLong();
 
-    private final NetworkLoadSnapshot peersNetworkLoadSnapshot;
-    private final NetworkLoadSnapshot myNetworkLoadSnapshot;
-    private final long sendMessageThrottleTime;
-    private final long receiveMessageThrottleTime;
-    private final AtomicLong sendMessageTimestamp = new AtomicLong();
-    private final AtomicLong receiveMessageTimestamp = new AtomicLong();
+    private final TokenBucket sendTokenBucket;
+    private final TokenBucket receiveTokenBucket;
 
     public ConnectionThrottle(NetworkLoadSnapshot peersNetworkLoadSnapshot,
                               NetworkLoadSnapshot myNetworkLoadSnapshot,
                               Node.Config config) {
-        this.peersNetworkLoadSnapshot = peersNetworkLoadSnapshot;
-        this.myNetworkLoadSnapshot = myNetworkLoadSnapshot;
-        sendMessageThrottleTime = config.getSendMessageThrottleTime(); // default 200
-        receiveMessageThrottleTime = config.getReceiveMessageThrottleTime(); // default 200
+        sendTokenBucket = new TokenBucket(peersNetworkLoadSnapshot, config.getSendMessageThrottleTime(), "send"); // default 200
+        receiveTokenBucket = new TokenBucket(myNetworkLoadSnapshot, config.getReceiveMessageThrottleTime(), "receive"); // default 200
     }
 
-    void throttleSendMessage() {
-        throttle(sendMessageTimestamp, peersNetworkLoadSnapshot, sendMessageThrottleTime, "send");
+    /**
+     * Reserves the tokens for sending the message.
+     * @return The delay in ms the caller has to apply before sending the message. 0 if it can be sent immediately.
+     */
+    long reserveSendMessage(EnvelopePayloadMessage envelopePayloadMessage) {
+        return reserveSendMessage(envelopePayloadMessage, System.currentTimeMillis());
     }
 
-    void throttleReceiveMessage() {
-        throttle(receiveMessageTimestamp, myNetworkLoadSnapshot, receiveMessageThrottleTime, "receive");
+    long reserveSendMessage(EnvelopePayloadMessage envelopePayloadMessage, long now) {
+        return sendTokenBucket.reserve(getCost(envelopePayloadMessage), now);
     }
 
-    private void throttle(AtomicLong timestamp, NetworkLoadSnapshot networkLoadSnapshot, long throttleTime, String direction) {
-        long now = System.currentTimeMillis();
-        long passed = now - timestamp.get();
-        double load = networkLoadSnapshot.getCurrentNetworkLoad().getLoad();
-        throttleTime = MIN_THROTTLE_TIME + Math.round(throttleTime * load);
-        throttleTime = MathUtils.bounded(MIN_THROTTLE_TIME, MAX_THROTTLE_TIME, throttleTime);
-        if (passed < throttleTime) {
+    /**
+     * Reserves the tokens for processing the received message.
+     * @return The delay in ms the caller has to apply before processing the message. 0 if it can be processed immediately.
+     */
+    long reserveReceiveMessage(EnvelopePayloadMessage envelopePayloadMessage) {
+        return receiveTokenBucket.reserve(getCost(envelopePayloadMessage), System.currentTimeMillis());
+    }
+
+    // Blocking variant for sending from the caller thread
+    void throttleSendMessage(EnvelopePayloadMessage envelopePayloadMessage) {
+        pause(reserveSendMessage(envelopePayloadMessage));
+    }
+
+    // Blocking variant for the read thread of socket based connections. Pausing that thread is what stops reading from
+    // the socket, so no other work is delayed by that.
+    void throttleReceiveMessage(EnvelopePayloadMessage envelopePayloadMessage) {
+        pause(reserveReceiveMessage(envelopePayloadMessage));
+    }
+
+    private static double getCost(EnvelopePayloadMessage envelopePayloadMessage) {
+        double costFactor = MathUtils.bounded(0, 1, envelopePayloadMessage.getCostFactor());
+        return MIN_MESSAGE_COST + (1 - MIN_MESSAGE_COST) * costFactor;
+    }
+
+    private static void pause(long delay) {
+        if (delay > 0) {
             try {
-                long pause = throttleTime - passed;
-                pause = MathUtils.bounded(1, MAX_THROTTLE_TIME, pause);
-                String logMessage = String.format("Pause '%s' message for %d ms. Network=%f", direction, pause, load);
-                long passedSinceLastLog = now - lastLoggedTs.get();
-                if (passedSinceLastLog < MAX_LOG_FREQUENCY) {
-                    LAST_LOGS.add(logMessage);
-                    if (lastLoggedTs.get() == 0) {
-                        lastLoggedTs.set(now);
-                    }
-                } else {
-                    if (LAST_LOGS.isEmpty()) {
-                        log.info(logMessage);
-                    } else {
-                        LAST_LOGS.add(logMessage);
-                        List<String> temp = new ArrayList<>(LAST_LOGS);
-                        int size = temp.size();
-                        List<String> subList = temp.subList(0, Math.min(5, size));
-                        log.info("{} accumulated log messages in the past {} sec. Log message (max 5 displayed): {}",
-                                size, passedSinceLastLog / 1000, subList);
-                        LAST_LOGS.clear();
-                    }
-                    lastLoggedTs.set(now);
-                }
-                Thread.sleep(pause);
+                Thread.sleep(delay);
             } catch (InterruptedException ignore) {
             }
         }
-        timestamp.set(now);
+    }
+
+    private static final class TokenBucket {
+        private final NetworkLoadSnapshot networkLoadSnapshot;
+        private final long throttleTime;
+        private final String direction;
+        private double tokens = BURST_SIZE;
+        private long lastRefillTs = System.currentTimeMillis();
+
+        private TokenBucket(NetworkLoadSnapshot networkLoadSnapshot, long throttleTime, String direction) {
+            this.networkLoadSnapshot = networkLoadSnapshot;
+            this.throttleTime = throttleTime;
+            this.direction = direction;
+        }
+
+        private long reserve(double cost, long now) {
+            double load = networkLoadSnapshot.getCurrentNetworkLoad().getLoad();
+            long refillInterval = MIN_THROTTLE_TIME + Math.round(throttleTime * load);
+            refillInterval = MathUtils.bounded(MIN_THROTTLE_TIME, MAX_THROTTLE_TIME, refillInterval);
+            long delay;
+            synchronized (this) {
+                // A concurrent caller might have taken its timestamp before us but entered the lock after us
+                if (now > lastRefillTs) {
+                    tokens = Math.min(BURST_SIZE, tokens + (now - lastRefillTs) / (double) refillInterval);
+                    lastRefillTs = now;
+                }
+                // We do not limit the debt, otherwise concurrent reservations would get the same delay. Only the
+                // delay returned to the caller is bounded.
+                tokens -= cost;
+                if (tokens >= 0) {
+                    NUM_IMMEDIATE_MESSAGES.incrementAndGet();
+                    return 0;
+                }
+                delay = Math.round(Math.ceil(-tokens * refillInterval));
+            }
+            delay = MathUtils.bounded(1, MAX_THROTTLE_TIME, delay);
+            NUM_DEFERRED_MESSAGES.incrementAndGet();
+            maybeLog(String.format("Delay '%s' message for %d ms. Network=%f", direction, delay, load), now);
+            return delay;
+        }
+    }
+
+    private static void maybeLog(String logMessage, long now) {
+        long passedSinceLastLog = now - lastLoggedTs.get();
+        if (passedSinceLastLog < MAX_LOG_FREQUENCY) {
+            LAST_LOGS.add(logMessage);
+            if (lastLoggedTs.get() == 0) {
+                lastLoggedTs.set(now);
+            }
+        } else {
+            if (LAST_LOGS.isEmpty()) {
+                log.info(logMessage);
+            } else {
+                LAST_LOGS.add(logMessage);
+                List<String> temp = new ArrayList<>(LAST_LOGS);
+                int size = temp.size();
+                List<String> subList = temp.subList(0, Math.min(5, size));
+                log.info("{} accumulated log messages in the past {} sec. Log message (max 5 displayed): {}. " +
+                                "Total immediate messages: {}; total deferred messages: {}",
+                        size, passedSinceLastLog / 1000, subList,
+                        NUM_IMMEDIATE_MESSAGES.get(), NUM_DEFERRED_MESSAGES.get());
+                LAST_LOGS.clear();
+            }
+            lastLoggedTs.set(now);
+        }
     }
 }
@@ -23,12 +23,15 @@ import bisq.network.p2p.node.transport.ServerSocketResult;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.net.Socket;
 import java.util.function.BiConsumer;
 
 @Slf4j
 public class InboundConnection extends Connection {
+    // Null at selector based connections
     @Getter
+    @Nullable
     private final ServerSocketResult serverSocketResult;
 
     InboundConnection(Socket socket,
@@ -49,4 +52,16 @@ public class InboundConnection extends Connection {
         this.serverSocketResult = serverSocketResult;
         log.debug("Create inboundConnection from server: {}", serverSocketResult);
     }
+
+    InboundConnection(InboundConnectionChannel inboundConnectionChannel,
+                      ConnectionThrottle connectionThrottle,
+                      Handler handler,
+                      BiConsumer<Connection, Exception> errorHandler) {
+        super(inboundConnectionChannel,
+                connectionThrottle,
+                handler,
+                errorHandler);
+        this.serverSocketResult = null;
+        log.debug("Create inboundConnection from channel: {}", inboundConnectionChannel);
+    }
 }
@@ -19,13 +19,16 @@ package bisq.network.p2p.node;
 
 import bisq.common.data.Pair;
 import bisq.common.network.Address;
+import bisq.common.threading.ThreadName;
+import bisq.common.timer.Scheduler;
+import bisq.network.NetworkService;
 import bisq.network.p2p.message.NetworkEnvelope;
 import bisq.network.p2p.node.authorization.AuthorizationService;
 import bisq.network.p2p.node.envelope.NetworkEnvelopeSocketChannel;
+import bisq.network.p2p.node.envelope.parser.nio.ProtoBufMessageLengthWriter;
 import bisq.network.p2p.node.handshake.ConnectionHandshake;
 import bisq.network.p2p.node.handshake.ConnectionHandshakeResponder;
 import bisq.network.p2p.node.network_load.ConnectionMetrics;
-import bisq.network.p2p.node.network_load.NetworkLoad;
 import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
 import bisq.network.p2p.services.peer_group.BanList;
 import lombok.extern.slf4j.Slf4j;
@@ -37,39 +40,45 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * Handles inbound connections at the selector thread of the ServerChannel.
+ * The handshake request is read at the selector thread, but verification and the response (which requires creating
+ * an AuthorizationToken) are done at the NETWORK_IO_POOL to not block the selector thread.
+ */
 @Slf4j
 public class InboundConnectionsManager {
+    public static final int READ_BUFFER_SIZE = 8 * 1024;
 
     private final BanList banList;
     private final Capability myCapability;
-    private final NetworkLoad myNetworkLoad;
+    private final NetworkLoadSnapshot myNetworkLoadSnapshot;
     private final AuthorizationService authorizationService;
+    private final int handshakeTimeout;
 
     private final ServerSocketChannel serverSocketChannel;
     private final Selector selector;
     private final Node node;
-    private final List<SocketChannel> inboundHandshakeChannels = new CopyOnWriteArrayList<>();
-    private final List<SocketChannel> verifiedConnections = new CopyOnWriteArrayList<>();
+    private final Map<SocketChannel, NetworkEnvelopeSocketChannel> handshakeChannelBySocketChannel = new ConcurrentHashMap<>();
     private final Map<SocketChannel, InboundConnectionChannel> connectionByChannel = new ConcurrentHashMap<>();
     private final Map<Address, InboundConnectionChannel> connectionByAddress = new ConcurrentHashMap<>();
-    private final Map<SocketChannel, NetworkEnvelopeSocketChannel> networkEnvelopeChannelBySocketChannel = new ConcurrentHashMap<>();
 
     public InboundConnectionsManager(BanList banList,
                                      Capability myCapability,
-                                     NetworkLoad myNetworkLoad,
+                                     NetworkLoadSnapshot myNetworkLoadSnapshot,
                                      AuthorizationService authorizationService,
                                      ServerSocketChannel serverSocketChannel,
                                      Selector selector,
-                                     Node node) {
+                                     Node node,
+                                     int handshakeTimeout) {
         this.banList = banList;
         this.myCapability = myCapability;
-        this.myNetworkLoad = myNetworkLoad;
+        this.myNetworkLoadSnapshot = myNetworkLoadSnapshot;
         this.authorizationService = authorizationService;
         this.serverSocketChannel = serverSocketChannel;
         this.selector = selector;
         this.node = node;
+        this.handshakeTimeout = handshakeTimeout;
     }
 
     public void registerOpAccept() {
@@ -85,80 +94,59 @@ public class InboundConnectionsManager {
 
     public void acceptNewConnection(SelectionKey selectionKey) {
         SocketChannel newConnectionSocketChannel = null;
-        try (ServerSocketChannel nextReadySocketChannel = (ServerSocketChannel) selectionKey.channel()) {
+        try {
+            ServerSocketChannel nextReadySocketChannel = (ServerSocketChannel) selectionKey.channel();
             newConnectionSocketChannel = nextReadySocketChannel.accept();
+            if (newConnectionSocketChannel == null) {
+                return;
+            }
             log.info("Accepted new inbound connection with peer: {}", newConnectionSocketChannel.getRemoteAddress());
 
             newConnectionSocketChannel.configureBlocking(false);
+            handshakeChannelBySocketChannel.put(newConnectionSocketChannel,
+                    new NetworkEnvelopeSocketChannel(newConnectionSocketChannel, READ_BUFFER_SIZE));
             newConnectionSocketChannel.register(selector, SelectionKey.OP_READ);
 
-            inboundHandshakeChannels.add(newConnectionSocketChannel);
+            SocketChannel socketChannel = newConnectionSocketChannel;
+            Scheduler.run(() -> closeIfHandshakeNotCompleted(socketChannel))
+                    .host(this)
+                    .runnableName("handshakeTimeout")
+                    .after(handshakeTimeout);
         } catch (IOException e) {
             log.warn("Cannot accept new connection", e);
-            try {
-                if (newConnectionSocketChannel != null) {
+            if (newConnectionSocketChannel != null) {
+                handshakeChannelBySocketChannel.remove(newConnectionSocketChannel);
+                try {
                     newConnectionSocketChannel.close();
+                } catch (IOException exception) {
+                    // ignored
                 }
-            } catch (IOException exception) {
-                // ignored
             }
         }
     }
 
     public void handleInboundConnection(SocketChannel socketChannel) {
-        if (inboundHandshakeChannels.contains(socketChannel)) {
-            NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel = new NetworkEnvelopeSocketChannel(socketChannel);
-            networkEnvelopeChannelBySocketChannel.put(socketChannel, networkEnvelopeSocketChannel);
-
-            log.debug("Inbound handshake request at: {}", myCapability.getAddress());
-            Optional<InboundConnectionChannel> inboundConnectionOptional = performHandshake(networkEnvelopeSocketChannel);
-
-            if (inboundConnectionOptional.isPresent()) {
-                InboundConnectionChannel inboundConnection = inboundConnectionOptional.get();
-                Address peerAddress = inboundConnection.getPeerAddress();
-                log.debug("Inbound handshake completed: Initiated by {} to {}",
-                        peerAddress, myCapability.getAddress());
-
-                if (isAlreadyConnectedToPeer(peerAddress)) {
-                    log.warn("{} have already an InboundConnection from {}. This can happen when a " + "handshake was in progress while we received a new connection from that address. " + "We will close the socket of that new connection and use the existing instead.", this, peerAddress);
-                    closeChannel(networkEnvelopeSocketChannel);
-                } else {
-                    connectionByChannel.put(socketChannel, inboundConnection);
-                    connectionByAddress.put(peerAddress, inboundConnection);
-                    verifiedConnections.add(socketChannel);
-
-                    log.info("Calling node.onNewIncomingConnection for peer {}", peerAddress.getFullAddress());
-                    node.onNewIncomingConnection(inboundConnection);
-                }
-
-            } else {
-                closeChannel(networkEnvelopeSocketChannel);
-            }
-
-            inboundHandshakeChannels.remove(socketChannel);
-
-        } else if (verifiedConnections.contains(socketChannel)) {
-            InboundConnectionChannel inboundConnection = connectionByChannel.get(socketChannel);
-            Address peerAddress = inboundConnection.getPeerAddress();
+        NetworkEnvelopeSocketChannel handshakeChannel = handshakeChannelBySocketChannel.get(socketChannel);
+        if (handshakeChannel != null) {
+            readHandshakeRequest(socketChannel, handshakeChannel);
+            return;
+        }
 
-            NetworkEnvelopeSocketChannel networkEnvelopeChannel = networkEnvelopeChannelBySocketChannel.get(socketChannel);
-            try {
-                List<NetworkEnvelope> networkEnvelopes = networkEnvelopeChannel.receiveNetworkEnvelopes();
-                log.debug("Received {} messages from peer {}.", networkEnvelopes.size(), peerAddress.getFullAddress());
+        InboundConnectionChannel inboundConnection = connectionByChannel.get(socketChannel);
+        if (inboundConnection != null) {
+            inboundConnection.onReadable();
+        }
+    }
 
-                networkEnvelopes.forEach(networkEnvelope -> node.handleNetworkMessage(
-                        networkEnvelope.getEnvelopePayloadMessage(),
-                        networkEnvelope.getAuthorizationToken(),
-                        inboundConnection
-                ));
-            } catch (IOException e) {
-                log.error("Couldn't receive messages from socketChannel", e);
-            }
+    public void handleWritableChannel(SocketChannel socketChannel) {
+        InboundConnectionChannel inboundConnection = connectionByChannel.get(socketChannel);
+        if (inboundConnection != null) {
+            inboundConnection.onWritable();
         }
     }
 
     public boolean isInboundConnection(SocketChannel socketChannel) {
-        return inboundHandshakeChannels.contains(socketChannel) || verifiedConnections.contains(socketChannel);
+        return handshakeChannelBySocketChannel.containsKey(socketChannel) || connectionByChannel.containsKey(socketChannel);
     }
 
     public Optional<InboundConnectionChannel> getConnectionByAddress(Address address) {
@@ -170,51 +158,117 @@ public class InboundConnectionsManager {
         return connectionByAddress.values();
     }
 
-    private Optional<InboundConnectionChannel> performHandshake(NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel) {
+    public void shutdown() {
+        handshakeChannelBySocketChannel.values().forEach(this::closeChannel);
+        handshakeChannelBySocketChannel.clear();
+        connectionByChannel.values().forEach(ConnectionChannel::close);
+    }
+
+    private void readHandshakeRequest(SocketChannel socketChannel, NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel) {
+        List<NetworkEnvelope> requestEnvelopes;
+        long ts = System.currentTimeMillis();
+        try {
+            requestEnvelopes = networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
+        } catch (Exception e) {
+            log.warn("Reading handshake request failed.", e);
+            handshakeChannelBySocketChannel.remove(socketChannel);
+            closeChannel(networkEnvelopeSocketChannel);
+            return;
+        }
+        long deserializeTime = System.currentTimeMillis() - ts;
+
+        if (networkEnvelopeSocketChannel.isClosed()) {
+            handshakeChannelBySocketChannel.remove(socketChannel);
+            return;
+        }
+        if (requestEnvelopes.isEmpty()) {
+            // Request not completely received yet
+            return;
+        }
+
+        // We stop reading until the handshake is completed and the connection is wrapped by a Connection.
+        handshakeChannelBySocketChannel.remove(socketChannel);
+        SelectionKey selectionKey = socketChannel.keyFor(selector);
+        if (selectionKey != null && selectionKey.isValid()) {
+            selectionKey.interestOps(0);
+        }
+
+        NetworkService.NETWORK_IO_POOL.submit(() -> {
+            ThreadName.set(this, "handshake");
+            performHandshake(socketChannel, networkEnvelopeSocketChannel, requestEnvelopes, deserializeTime, ts);
+        });
+    }
+
+    private void performHandshake(SocketChannel socketChannel,
+                                  NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel,
+                                  List<NetworkEnvelope> requestEnvelopes,
+                                  long deserializeTime,
+                                  long ts) {
+        log.debug("Inbound handshake request at: {}", myCapability.getAddress());
         try {
             var handshakeResponder = new ConnectionHandshakeResponder(
                     banList,
                     myCapability,
-                    myNetworkLoad,
+                    myNetworkLoadSnapshot.getCurrentNetworkLoad(),
                     authorizationService,
                     networkEnvelopeSocketChannel
             );
-            Pair<ConnectionHandshake.Request, NetworkEnvelope>
-                    requestAndResponseNetworkEnvelopes = handshakeResponder.verifyAndBuildRespond();
+            Pair<ConnectionHandshake.Request, NetworkEnvelope> requestAndResponseNetworkEnvelopes =
+                    handshakeResponder.verifyAndBuildRespond(requestEnvelopes);
 
             ConnectionHandshake.Request handshakeRequest = requestAndResponseNetworkEnvelopes.getFirst();
             Address peerAddress = handshakeRequest.getCapability().getAddress();
-
-            log.debug("Sending PoW response to peer {}", peerAddress.getFullAddress());
-            bisq.network.p2p.message.NetworkEnvelope responseEnvelope = requestAndResponseNetworkEnvelopes.getSecond();
-            try {
-                networkEnvelopeSocketChannel.send(responseEnvelope);
-            } catch (IOException e) {
-                log.warn("Couldn't send PoW response to peer {}", peerAddress.getFullAddress(), e);
-                throw e;
+            if (connectionByAddress.containsKey(peerAddress)) {
+                log.warn("{} have already an InboundConnection from {}. This can happen when a " +
+                        "handshake was in progress while we received a new connection from that address. " +
+                        "We will close the socket of that new connection and use the existing instead.", this, peerAddress);
+                closeChannel(networkEnvelopeSocketChannel);
+                return;
             }
 
+            ConnectionMetrics connectionMetrics = new ConnectionMetrics();
+            NetworkEnvelope requestEnvelope = requestEnvelopes.get(0);
+            connectionMetrics.onReceived(requestEnvelope, ProtoBufMessageLengthWriter.getSizeWithLengthPrefix(requestEnvelope.getSerializedSize()), deserializeTime);
             // We got the peers network load passed in the request message.
             NetworkLoadSnapshot peersNetworkLoadSnapshot = new NetworkLoadSnapshot(handshakeRequest.getNetworkLoad());
-            return Optional.of(
-                    new InboundConnectionChannel(
-                            handshakeRequest.getCapability(),
-                            peersNetworkLoadSnapshot,
-                            networkEnvelopeSocketChannel,
-                            new ConnectionMetrics()
-                    )
-            );
+            // We create the channel before sending so that a partial write gets completed by the selector thread.
+            InboundConnectionChannel inboundConnection = new InboundConnectionChannel(handshakeRequest.getCapability(),
+                    peersNetworkLoadSnapshot,
+                    networkEnvelopeSocketChannel,
+                    connectionMetrics,
+                    selector);
+
+            log.debug("Sending PoW response to peer {}", peerAddress.getFullAddress());
+            NetworkEnvelope responseEnvelope = requestAndResponseNetworkEnvelopes.getSecond();
+            long startSendTs = System.currentTimeMillis();
+            int numBytes = inboundConnection.send(responseEnvelope);
+            connectionMetrics.onSent(responseEnvelope, numBytes, System.currentTimeMillis() - startSendTs);
+            connectionMetrics.addRtt(System.currentTimeMillis() - ts);
+
+            connectionByChannel.put(socketChannel, inboundConnection);
+            connectionByAddress.put(peerAddress, inboundConnection);
+            inboundConnection.addCloseHandler(() -> {
+                connectionByChannel.remove(socketChannel);
+                connectionByAddress.remove(peerAddress, inboundConnection);
+            });
+
+            log.debug("Inbound handshake completed: Initiated by {} to {}", peerAddress, myCapability.getAddress());
+            node.onNewIncomingConnection(inboundConnection);
         } catch (ConnectionException e) {
             log.warn("Peer failed PoW challenge.", e);
-        } catch (IOException e) {
+            closeChannel(networkEnvelopeSocketChannel);
+        } catch (Exception e) {
             log.warn("Handshake failed with peer: ", e);
+            closeChannel(networkEnvelopeSocketChannel);
         }
-
-        return Optional.empty();
     }
 
-    private boolean isAlreadyConnectedToPeer(Address peerAddress) {
-        return connectionByAddress.containsKey(peerAddress);
+    private void closeIfHandshakeNotCompleted(SocketChannel socketChannel) {
+        NetworkEnvelopeSocketChannel handshakeChannel = handshakeChannelBySocketChannel.remove(socketChannel);
+        if (handshakeChannel != null) {
+            log.info("Inbound handshake has not been completed after {} ms. We close the channel.", handshakeTimeout);
+            closeChannel(handshakeChannel);
+        }
     }
 
     private void closeChannel(NetworkEnvelopeSocketChannel networkEnvelopeSocket) {
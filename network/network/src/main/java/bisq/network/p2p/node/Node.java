@@ -33,7 +33,9 @@ import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.node.authorization.AuthorizationService;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
 import bisq.network.p2p.node.handshake.ConnectionHandshake;
+import bisq.network.p2p.node.network_load.MessagePipelineMetrics;
 import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
+import bisq.network.p2p.node.transport.ClearNetTransportService;
 import bisq.network.p2p.node.transport.ServerSocketResult;
 import bisq.network.p2p.node.transport.TransportService;
 import bisq.network.p2p.services.peer_group.BanList;
@@ -48,14 +50,19 @@ import lombok.extern.slf4j.Slf4j;
 import java.io.EOFException;
 import java.io.IOException;
 import java.net.*;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.spi.SelectorProvider;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
+import static bisq.common.facades.FacadeProvider.getLocalhostFacade;
 import static bisq.network.NetworkService.DISPATCHER;
 import static bisq.network.p2p.node.ConnectionException.Reason.*;
 import static bisq.network.p2p.node.Node.State.*;
@@ -68,6 +75,8 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * - Creates Transport based on TransportType
  * - Creates 1 Server associated with that server
  * - Creates inbound and outbound connections.
+ * - For clearnet the inbound and outbound connections can use selector based non-blocking IO (useSelectorIo in the
+ *   transport config) instead of one blocking read thread per connection.
  * - Checks if a connection has been created when sending a proto and creates one otherwise.
  * - Performs initial connection handshake for exchanging capability and performing authorization
  * - Performs authorization protocol at sending and receiving messages
@@ -158,7 +167,10 @@ public class Node implements Connection.Handler {
     private final Map<Address, InboundConnection> inboundConnectionsByAddress = new ConcurrentHashMap<>();
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
     private final Map<String, ConnectionHandshake> connectionHandshakes = new ConcurrentHashMap<>();
+    private final Map<String, OutboundMessageQueue> outboundMessageQueueByConnectionId = new ConcurrentHashMap<>();
     private Optional<Server> server = Optional.empty();
+    private Optional<ServerChannel> serverChannel = Optional.empty();
+    private Optional<OutboundConnectionMultiplexer> outboundConnectionMultiplexer = Optional.empty();
     private Optional<Capability> myCapability = Optional.empty();
     @Getter
     public final AtomicReference<State> state = new AtomicReference<>(State.NEW);
@@ -242,6 +254,10 @@ public class Node implements Connection.Handler {
     }
 
     private void createServerAndListen() {
+        if (useSelectorIo()) {
+            createServerChannelAndListen();
+            return;
+        }
         ServerSocketResult serverSocketResult = transportService.getServerSocket(networkId, keyBundle);
         myCapability = Optional.of(Capability.myCapability(serverSocketResult.getAddress(), new ArrayList<>(supportedTransportTypes), new ArrayList<>(features)));
         server = Optional.of(new Server(serverSocketResult,
@@ -311,17 +327,67 @@ public class Node implements Connection.Handler {
         }
     }
 
-    public void onNewIncomingConnection(InboundConnectionChannel inboundConnectionChannel) {
-        //noinspection EmptyTryBlock
+    private void createServerChannelAndListen() {
+        int port = networkId.getAddressByTransportTypeMap().get(TransportType.CLEAR).getPort();
+        Address myAddress = getLocalhostFacade().toMyLocalhost(port);
+        Capability capability = Capability.myCapability(myAddress, new ArrayList<>(supportedTransportTypes), new ArrayList<>(features));
+        myCapability = Optional.of(capability);
+        log.info("Create server channel at port {}", port);
         try {
-            // inboundConnectionsByAddress.put(inboundConnectionChannel.getPeerAddress(), inboundConnectionChannel);
-            // DISPATCHER.submit(() -> listeners.forEach(listener -> listener.onConnection(inboundConnectionChannel)));
-        } catch (Throwable throwable) {
-            try {
-                inboundConnectionChannel.getNetworkEnvelopeSocketChannel().close();
-            } catch (IOException ignore) {
+            ServerChannel serverChannel = new ServerChannel(capability,
+                    networkLoadSnapshot,
+                    banList,
+                    authorizationService,
+                    this,
+                    ServerSocketChannel.open(),
+                    socketTimeout);
+            serverChannel.start();
+            this.serverChannel = Optional.of(serverChannel);
+
+            Selector selector = SelectorProvider.provider().openSelector();
+            OutboundConnectionManager outboundConnectionManager = new OutboundConnectionManager(authorizationService,
+                    banList,
+                    networkLoadSnapshot,
+                    capability,
+                    selector,
+                    socketTimeout);
+            OutboundConnectionMultiplexer outboundConnectionMultiplexer = new OutboundConnectionMultiplexer(outboundConnectionManager);
+            outboundConnectionMultiplexer.start();
+            this.outboundConnectionMultiplexer = Optional.of(outboundConnectionMultiplexer);
+        } catch (IOException e) {
+            log.error("{}. Server port {}", e, port);
+            serverChannel.ifPresent(ServerChannel::shutdown);
+            throw new CompletionException(e);
+        }
+    }
+
+    // Called from the NETWORK_IO_POOL after the handshake of an inbound selector based connection has been completed
+    void onNewIncomingConnection(InboundConnectionChannel inboundConnectionChannel) {
+        try {
+            Address address = inboundConnectionChannel.getPeerAddress();
+            if (inboundConnectionsByAddress.containsKey(address)) {
+                log.warn("Have already an InboundConnection from {}. This can happen when a " +
+                        "handshake was in progress while we received a new connection from that address. " +
+                        "We will close the channel of that new connection and use the existing instead.", address);
+                inboundConnectionChannel.close();
+                return;
             }
 
+            ConnectionThrottle connectionThrottle = new ConnectionThrottle(inboundConnectionChannel.getPeersNetworkLoadSnapshot(), networkLoadSnapshot, config);
+            InboundConnection connection = new InboundConnection(inboundConnectionChannel,
+                    connectionThrottle,
+                    this,
+                    this::handleException);
+            inboundConnectionsByAddress.put(address, connection);
+            DISPATCHER.submit(() -> listeners.forEach(listener -> {
+                try {
+                    listener.onConnection(connection);
+                } catch (Exception e) {
+                    log.error("Calling onConnection at listener {} failed", listener, e);
+                }
+            }));
+        } catch (Throwable throwable) {
+            inboundConnectionChannel.close();
             handleException(throwable);
         }
     }
@@ -337,6 +403,12 @@ public class Node implements Connection.Handler {
     }
 
     public Connection send(EnvelopePayloadMessage envelopePayloadMessage, Connection connection) {
+        return send(envelopePayloadMessage, connection, true);
+    }
+
+    private Connection send(EnvelopePayloadMessage envelopePayloadMessage,
+                            Connection connection,
+                            boolean applySendThrottle) {
         if (connection.isStopped()) {
             log.debug("Send message failed as connection is already stopped {}", this);
             throw new ConnectionClosedException(connection);
@@ -348,7 +420,7 @@ public class Node implements Connection.Handler {
                     connection.getSentMessageCounter().incrementAndGet(),
                     connection.getPeersCapability().getFeatures());
             maybeSimulateDelay();
-            return connection.send(envelopePayloadMessage, token);
+            return connection.send(envelopePayloadMessage, token, applySendThrottle);
         } catch (Exception exception) {
             if (connection.isRunning() && !(exception.getCause() instanceof SocketException)) {
                 handleException(connection, exception);
@@ -360,6 +432,39 @@ public class Node implements Connection.Handler {
     }
 
 
+    /**
+     * Queues the message at the outbound queue of that connection. Messages to one connection are sent in order,
+     * messages to different connections concurrently. Throttling is applied by the queue without blocking a thread.
+     *
+     * @param dropPolicy Defines which message gets dropped if the queue of that connection is full.
+     * @return Future completing after the message has been sent, or exceptionally if sending failed or the message
+     * got dropped (RejectedExecutionException).
+     */
+    public CompletableFuture<Connection> sendAsync(EnvelopePayloadMessage envelopePayloadMessage,
+                                                   Connection connection,
+                                                   OutboundMessageQueue.DropPolicy dropPolicy) {
+        // The connection might get closed concurrently. As handleConnectionClosed removes the queue after the
+        // connection is stopped, we must not create a new queue once the connection is stopped, as it would never
+        // get removed.
+        OutboundMessageQueue outboundMessageQueue = outboundMessageQueueByConnectionId.compute(connection.getId(),
+                (key, existing) -> {
+                    if (existing != null) {
+                        return existing;
+                    }
+                    if (connection.isStopped()) {
+                        return null;
+                    }
+                    return new OutboundMessageQueue(connection,
+                            message -> send(message, connection, false),
+                            OutboundMessageQueue.DEFAULT_CAPACITY);
+                });
+        if (outboundMessageQueue == null) {
+            return CompletableFuture.failedFuture(new ConnectionClosedException(connection));
+        }
+        return outboundMessageQueue.enqueue(envelopePayloadMessage, dropPolicy);
+    }
+
+
     /* --------------------------------------------------------------------- */
     // Connection
     /* --------------------------------------------------------------------- */
@@ -429,6 +534,9 @@ public class Node implements Connection.Handler {
         if (banList.isBanned(address)) {
             throw new ConnectionException(ADDRESS_BANNED, "PeerAddress is banned. address=" + address);
         }
+        if (outboundConnectionMultiplexer.isPresent()) {
+            return doCreateOutboundConnectionChannel(outboundConnectionMultiplexer.get(), address, myCapability);
+        }
         Socket socket;
         try {
             socket = transportService.getSocket(address); // Blocking call
@@ -513,6 +621,63 @@ public class Node implements Connection.Handler {
         }
     }
 
+    private Connection doCreateOutboundConnectionChannel(OutboundConnectionMultiplexer outboundConnectionMultiplexer,
+                                                         Address address,
+                                                         Capability myCapability) {
+        log.debug("Outbound handshake started: Initiated by {} to {}", myCapability.getAddress(), address);
+        OutboundConnectionChannel outboundConnectionChannel;
+        try {
+            outboundConnectionChannel = outboundConnectionMultiplexer.getConnection(address, myCapability)
+                    .get(socketTimeout, TimeUnit.MILLISECONDS); // Blocking call
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            handleException(cause);
+            throw cause instanceof ConnectionException connectionException ?
+                    connectionException :
+                    new ConnectionException(cause);
+        } catch (TimeoutException e) {
+            handleException(e);
+            throw new ConnectionException(HANDSHAKE_FAILED, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectionException(e);
+        }
+        log.debug("Outbound handshake completed: Initiated by {} to {}", myCapability.getAddress(), address);
+
+        if (!isDefaultNode) {
+            log.info("We create an outbound connection to {} from a user node. node={}", address, getNodeInfo());
+        }
+
+        // The channel might be already used by an existing connection, or a connection from another handshake got
+        // added in the meantime.
+        AtomicBoolean isNewConnection = new AtomicBoolean();
+        OutboundConnection connection = outboundConnectionsByAddress.computeIfAbsent(address, key -> {
+            isNewConnection.set(true);
+            ConnectionThrottle connectionThrottle = new ConnectionThrottle(outboundConnectionChannel.getPeersNetworkLoadSnapshot(), networkLoadSnapshot, config);
+            return new OutboundConnection(outboundConnectionChannel,
+                    connectionThrottle,
+                    this,
+                    this::handleException);
+        });
+        if (!isNewConnection.get()) {
+            if (!connection.usesConnectionChannel(outboundConnectionChannel)) {
+                log.info("Has already an OutboundConnection to {}. " +
+                        "We will close the channel of that new connection and use the existing instead.", address);
+                outboundConnectionChannel.close();
+            }
+            return connection;
+        }
+
+        DISPATCHER.submit(() -> listeners.forEach(listener -> {
+            try {
+                listener.onConnection(connection);
+            } catch (Exception e) {
+                log.error("Calling onConnection at listener {} failed", listener, e);
+            }
+        }));
+        return connection;
+    }
+
     public Stream<Connection> getAllConnections() {
         return Stream.concat(outboundConnectionsByAddress.values().stream(), inboundConnectionsByAddress.values().stream());
     }
@@ -542,6 +707,8 @@ public class Node implements Connection.Handler {
     // Connection.Handler
     /* --------------------------------------------------------------------- */
 
+    // Called from the AUTHORIZATION_POOL. Messages of one connection are delivered in order, thus after authorization
+    // we notify the listeners on the DISPATCHER thread to keep the listener calls single threaded and ordered.
     @Override
     public void handleNetworkMessage(EnvelopePayloadMessage envelopePayloadMessage,
                                      AuthorizationToken authorizationToken,
@@ -571,61 +738,38 @@ public class Node implements Connection.Handler {
                 networkLoadSnapshot.getPreviousNetworkLoad(),
                 connection.getId(),
                 myAddress);
-        if (isAuthorized) {
-            if (envelopePayloadMessage instanceof CloseConnectionMessage closeConnectionMessage) {
-                log.debug("Received CloseConnectionMessage from {} with reason: {}",
-                        connection.getPeerAddress(), closeConnectionMessage.getCloseReason());
-                closeConnection(connection, CloseReason.CLOSE_MSG_RECEIVED.details(closeConnectionMessage.getCloseReason().name()));
-            } else {
-                // We got called from Connection on the dispatcher thread, so no mapping needed here.
-                connection.notifyListeners(envelopePayloadMessage);
-                listeners.forEach(listener -> {
-                    try {
-                        listener.onMessage(envelopePayloadMessage, connection, networkId);
-                    } catch (Exception e) {
-                        log.error("Calling onMessage at listener {} failed", listener, e);
-                    }
-                });
-            }
-        } else {
-            // TODO should we shutdown the connection?
-            //todo (Critical) should we add the connection to the ban list in that case or close the connection?
-            log.warn("Message authorization failed. authorizedMessage={}", StringUtils.truncate(envelopePayloadMessage.toString()));
-        }
-    }
-
-    public void handleNetworkMessage(EnvelopePayloadMessage envelopePayloadMessage,
-                                     AuthorizationToken authorizationToken,
-                                     ConnectionChannel connection) {
-        if (isShutdown()) {
-            return;
+        if (connection.isStopped()) {
+            // The replay protection window might have been created again after handleConnectionClosed removed it.
+            // If the connection got closed after our check, handleConnectionClosed removes it.
+            authorizationService.removeReplayProtection(connection.getId());
         }
-        String myAddress = findMyAddress().orElseThrow().getFullAddress();
-        boolean isAuthorized = authorizationService.isAuthorized(envelopePayloadMessage,
-                authorizationToken,
-                networkLoadSnapshot.getCurrentNetworkLoad(),
-                networkLoadSnapshot.getPreviousNetworkLoad(),
-                connection.getId(),
-                myAddress);
         if (isAuthorized) {
-            if (envelopePayloadMessage instanceof CloseConnectionMessage closeConnectionMessage) {
-                log.debug("Received CloseConnectionMessage from {} with reason: {}", connection.getPeerAddress(), closeConnectionMessage.getCloseReason());
-                // closeConnection(connection, CloseReason.CLOSE_MSG_RECEIVED.details(closeConnectionMessage.getCloseReason().name()));
-            } else {
-                // We got called from Connection on the dispatcher thread, so no mapping needed here.
-                connection.notifyListeners(envelopePayloadMessage);
-            }
+            MessagePipelineMetrics metrics = NetworkService.MESSAGE_PIPELINE_METRICS;
+            long queuedTs = System.currentTimeMillis();
+            metrics.onQueued(MessagePipelineMetrics.Stage.DISPATCH);
+            DISPATCHER.submit(() -> {
+                long startTs = System.currentTimeMillis();
+                metrics.onStarted(MessagePipelineMetrics.Stage.DISPATCH, startTs - queuedTs);
+                try {
+                    dispatchNetworkMessage(envelopePayloadMessage, connection);
+                } finally {
+                    metrics.onCompleted(MessagePipelineMetrics.Stage.DISPATCH, System.currentTimeMillis() - startTs);
+                }
+            });
         } else {
+            // TODO should we shutdown the connection?
             //todo (Critical) should we add the connection to the ban list in that case or close the connection?
             log.warn("Message authorization failed. authorizedMessage={}", StringUtils.truncate(envelopePayloadMessage.toString()));
         }
     }
 
-
     @Override
     public void handleConnectionClosed(Connection connection, CloseReason closeReason) {
         Address peerAddress = connection.getPeerAddress();
         log.debug("Got called onConnectionClosed. connection={}, peerAddress={}", connection, peerAddress);
+        Optional.ofNullable(outboundMessageQueueByConnectionId.remove(connection.getId()))
+                .ifPresent(OutboundMessageQueue::close);
+        authorizationService.removeReplayProtection(connection.getId());
         boolean wasRemoved = false;
         if (connection instanceof InboundConnection) {
             wasRemoved = inboundConnectionsByAddress.remove(peerAddress) != null;
@@ -700,6 +844,11 @@ public class Node implements Connection.Handler {
                     }
                     outboundConnectionsByAddress.clear();
                     inboundConnectionsByAddress.clear();
+                    outboundMessageQueueByConnectionId.values().forEach(OutboundMessageQueue::close);
+                    outboundMessageQueueByConnectionId.clear();
+                    // Closes remaining channels as well, so we do that after the connections got closed gracefully
+                    serverChannel.ifPresent(ServerChannel::shutdown);
+                    outboundConnectionMultiplexer.ifPresent(OutboundConnectionMultiplexer::shutdown);
                     listeners.forEach(listener -> {
                         try {
                             listener.onShutdown(this);
@@ -726,7 +875,8 @@ public class Node implements Connection.Handler {
     }
 
     public Optional<Address> findMyAddress() {
-        return server.map(Server::getAddress);
+        return server.map(Server::getAddress)
+                .or(() -> serverChannel.map(ServerChannel::getAddress));
     }
 
     public boolean notMyself(Address address) {
@@ -752,6 +902,35 @@ public class Node implements Connection.Handler {
     // Private
     /* --------------------------------------------------------------------- */
 
+    private void dispatchNetworkMessage(EnvelopePayloadMessage envelopePayloadMessage, Connection connection) {
+        if (isShutdown()) {
+            return;
+        }
+        // The connection might have been closed while the message was waiting for authorization or at the
+        // dispatcher. As handleConnectionClosed is dispatched after shutdownStarted got set, we do not deliver any
+        // message after handleConnectionClosed.
+        if (connection.isStopped()) {
+            log.debug("Connection got closed before message was dispatched. We ignore the message {}",
+                    StringUtils.truncate(envelopePayloadMessage.toString(), 200));
+            return;
+        }
+        if (envelopePayloadMessage instanceof CloseConnectionMessage closeConnectionMessage) {
+            log.debug("Received CloseConnectionMessage from {} with reason: {}",
+                    connection.getPeerAddress(), closeConnectionMessage.getCloseReason());
+            closeConnection(connection, CloseReason.CLOSE_MSG_RECEIVED.details(closeConnectionMessage.getCloseReason().name()));
+        } else {
+            // We are on the dispatcher thread, so no mapping needed here.
+            connection.notifyListeners(envelopePayloadMessage);
+            listeners.forEach(listener -> {
+                try {
+                    listener.onMessage(envelopePayloadMessage, connection, networkId);
+                } catch (Exception e) {
+                    log.error("Calling onMessage at listener {} failed", listener, e);
+                }
+            });
+        }
+    }
+
     private void handleException(Connection connection, Throwable exception) {
         log.debug("Got called handleException. connection={}, exception={}", connection, exception.getMessage());
         if (isShutdown()) {
@@ -811,6 +990,12 @@ public class Node implements Connection.Handler {
         }
     }
 
+    private boolean useSelectorIo() {
+        return transportType == TransportType.CLEAR &&
+                config.getTransportConfig() instanceof ClearNetTransportService.Config clearNetConfig &&
+                clearNetConfig.isUseSelectorIo();
+    }
+
     private void setState(State newState) {
         log.info("Set new state {} for networkId {}; transportType {}", newState, networkId, transportType);
         checkArgument(newState.ordinal() > state.get().ordinal(),
@@ -24,19 +24,23 @@ import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.nio.channels.Selector;
+
 @Slf4j
 public class OutboundConnectionChannel extends ConnectionChannel {
 
     @Getter
     private final Address address;
 
-    public OutboundConnectionChannel(Capability peersCapability,
+    public OutboundConnectionChannel(Address address,
+                                     Capability peersCapability,
                                      NetworkLoadSnapshot peersNetworkLoadSnapshot,
                                      NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel,
-                                     ConnectionMetrics connectionMetrics) {
-        super(peersCapability, peersNetworkLoadSnapshot, networkEnvelopeSocketChannel, connectionMetrics);
+                                     ConnectionMetrics connectionMetrics,
+                                     Selector selector) {
+        super(peersCapability, peersNetworkLoadSnapshot, networkEnvelopeSocketChannel, connectionMetrics, selector);
 
-        this.address = peersCapability.getAddress();
+        this.address = address;
         log.debug("Create outboundConnection to {}", this.address);
     }
 
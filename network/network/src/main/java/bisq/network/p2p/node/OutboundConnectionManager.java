@@ -18,6 +18,9 @@
 package bisq.network.p2p.node;
 
 import bisq.common.network.Address;
+import bisq.common.threading.ThreadName;
+import bisq.common.timer.Scheduler;
+import bisq.network.NetworkService;
 import bisq.network.p2p.message.NetworkEnvelope;
 import bisq.network.p2p.node.authorization.AuthorizationService;
 import bisq.network.p2p.node.envelope.NetworkEnvelopeSocketChannel;
@@ -25,18 +28,15 @@ import bisq.network.p2p.node.envelope.parser.nio.ProtoBufMessageLengthWriter;
 import bisq.network.p2p.node.handshake.ConnectionHandshake;
 import bisq.network.p2p.node.handshake.ConnectionHandshakeInitiator;
 import bisq.network.p2p.node.network_load.ConnectionMetrics;
-import bisq.network.p2p.node.network_load.NetworkLoad;
 import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
 import bisq.network.p2p.services.peer_group.BanList;
 import bisq.network.tor.TorAddressOwnershipProofGenerator;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.EOFException;
 import java.io.IOException;
-import java.net.ConnectException;
 import java.net.InetSocketAddress;
-import java.nio.ByteBuffer;
-import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
@@ -47,133 +47,286 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
 
+import static bisq.common.facades.FacadeProvider.getLocalhostFacade;
+
+/**
+ * Creates outbound connections using non-blocking socket channels served by the selector thread of the
+ * OutboundConnectionMultiplexer.
+ * Creating the AuthorizationToken for the handshake request and verifying the response is done at the
+ * NETWORK_IO_POOL to not block the selector thread.
+ */
 @Slf4j
 public class OutboundConnectionManager {
     public interface Listener {
         void onNewConnection(OutboundConnectionChannel outboundConnectionChannel);
     }
 
+    private static final class PendingHandshake {
+        private final Address address;
+        private final Capability myCapability;
+        private final NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel;
+        private final CompletableFuture<OutboundConnectionChannel> completableFuture;
+        private final ConnectionMetrics connectionMetrics = new ConnectionMetrics();
+        private volatile ConnectionHandshakeInitiator handshakeInitiator;
+        private volatile long requestSentTs;
+
+        private PendingHandshake(Address address,
+                                 Capability myCapability,
+                                 NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel,
+                                 CompletableFuture<OutboundConnectionChannel> completableFuture) {
+            this.address = address;
+            this.myCapability = myCapability;
+            this.networkEnvelopeSocketChannel = networkEnvelopeSocketChannel;
+            this.completableFuture = completableFuture;
+        }
+    }
+
     private final AuthorizationService authorizationService;
     private final BanList banList;
-    private final NetworkLoad myNetworkLoad;
+    private final NetworkLoadSnapshot myNetworkLoadSnapshot;
     private final Capability myCapability;
-    private final Node node;
+    private final int handshakeTimeout;
     @Getter
     private final Selector selector;
 
-    private final Map<SocketChannel, Address> addressByChannel = new ConcurrentHashMap<>();
-    private final Map<Address, SocketChannel> channelByAddress = new ConcurrentHashMap<>();
-    private final Map<SocketChannel, ConnectionHandshakeInitiator> handshakeInitiatorByChannel = new ConcurrentHashMap<>();
-
-    private final List<SocketChannel> outboundHandshakeChannels = new CopyOnWriteArrayList<>();
-    private final List<SocketChannel> verifiedConnections = new CopyOnWriteArrayList<>();
-
+    private final Map<SocketChannel, PendingHandshake> pendingHandshakeByChannel = new ConcurrentHashMap<>();
     private final Map<SocketChannel, OutboundConnectionChannel> connectionByChannel = new ConcurrentHashMap<>();
+    private final Map<Address, OutboundConnectionChannel> connectionByAddress = new ConcurrentHashMap<>();
     private final Map<Address, CompletableFuture<OutboundConnectionChannel>> completableFutureByPeerAddress = new ConcurrentHashMap<>();
     private final List<Listener> listeners = new CopyOnWriteArrayList<>();
 
     public OutboundConnectionManager(AuthorizationService authorizationService,
                                      BanList banList,
-                                     NetworkLoad myNetworkLoad,
+                                     NetworkLoadSnapshot myNetworkLoadSnapshot,
                                      Capability myCapability,
-                                     Node node,
-                                     Selector selector) {
+                                     Selector selector,
+                                     int handshakeTimeout) {
         this.authorizationService = authorizationService;
         this.banList = banList;
-        this.myNetworkLoad = myNetworkLoad;
+        this.myNetworkLoadSnapshot = myNetworkLoadSnapshot;
         this.myCapability = myCapability;
-        this.node = node;
         this.selector = selector;
+        this.handshakeTimeout = handshakeTimeout;
     }
 
     public CompletableFuture<OutboundConnectionChannel> createNewConnection(Address address) {
-        if (completableFutureByPeerAddress.containsKey(address)) {
-            return completableFutureByPeerAddress.get(address);
-        }
+        return createNewConnection(address, myCapability);
+    }
 
+    /**
+     * @param myCapability The capability used for the handshake. Allows to retry a failed handshake with another
+     *                     capability version.
+     */
+    public CompletableFuture<OutboundConnectionChannel> createNewConnection(Address address, Capability myCapability) {
         var completableFuture = new CompletableFuture<OutboundConnectionChannel>();
-        completableFutureByPeerAddress.put(address, completableFuture);
+        CompletableFuture<OutboundConnectionChannel> pending = completableFutureByPeerAddress.putIfAbsent(address, completableFuture);
+        if (pending != null) {
+            return pending;
+        }
+        completableFuture.whenComplete((connection, throwable) -> completableFutureByPeerAddress.remove(address, completableFuture));
 
+        SocketChannel socketChannel = null;
         try {
-            SocketChannel socketChannel = SocketChannel.open();
+            socketChannel = SocketChannel.open();
             socketChannel.configureBlocking(false);
-            socketChannel.register(selector, SelectionKey.OP_CONNECT);
 
-            addressByChannel.put(socketChannel, address);
-            channelByAddress.put(address, socketChannel);
+            var networkEnvelopeSocketChannel = new NetworkEnvelopeSocketChannel(socketChannel, InboundConnectionsManager.READ_BUFFER_SIZE);
+            var pendingHandshake = new PendingHandshake(address, myCapability, networkEnvelopeSocketChannel, completableFuture);
+            pendingHandshakeByChannel.put(socketChannel, pendingHandshake);
 
-            InetSocketAddress socketAddress = new InetSocketAddress(address.getHost(), address.getPort());
+            SocketChannel channel = socketChannel;
+            networkEnvelopeSocketChannel.setPendingWritesHandler(() -> addInterest(channel, SelectionKey.OP_WRITE));
+
+            Address peersAddress = getLocalhostFacade().toPeersLocalhost(address);
+            InetSocketAddress socketAddress = new InetSocketAddress(peersAddress.getHost(), peersAddress.getPort());
             boolean isConnectedImmediately = socketChannel.connect(socketAddress);
+            socketChannel.register(selector, isConnectedImmediately ? 0 : SelectionKey.OP_CONNECT);
+            selector.wakeup();
             if (isConnectedImmediately) {
-                handleConnectedChannel(socketChannel);
+                handleConnectedChannel(socketChannel, pendingHandshake);
             }
 
+            Scheduler.run(() -> failPendingHandshake(channel,
+                            new ConnectionException(ConnectionException.Reason.HANDSHAKE_FAILED,
+                                    new TimeoutException("Outbound handshake to " + address + " has not been completed after " + handshakeTimeout + " ms"))))
+                    .host(this)
+                    .runnableName("handshakeTimeout")
+                    .after(handshakeTimeout);
         } catch (IOException e) {
             log.warn("Couldn't create connection to {}", address.getFullAddress(), e);
+            if (socketChannel != null) {
+                failPendingHandshake(socketChannel, new ConnectionException(e));
+            } else {
+                completableFuture.completeExceptionally(new ConnectionException(e));
+            }
         }
 
         return completableFuture;
     }
 
     public void handleConnectableChannel(SocketChannel socketChannel) throws IOException {
+        PendingHandshake pendingHandshake = pendingHandshakeByChannel.get(socketChannel);
+        if (pendingHandshake == null) {
+            return;
+        }
         try {
             socketChannel.finishConnect();
-            handleConnectedChannel(socketChannel);
-
-        } catch (ConnectException e) {
+            handleConnectedChannel(socketChannel, pendingHandshake);
+        } catch (IOException e) {
             // Couldn't connect to peer, nothing we can do.
-            Address address = addressByChannel.get(socketChannel);
-            //noinspection resource
-            channelByAddress.remove(address);
-
-            addressByChannel.remove(socketChannel);
+            failPendingHandshake(socketChannel, new ConnectionException(e));
         }
     }
 
     public void handleWritableChannel(SocketChannel socketChannel) throws IOException {
-        if (outboundHandshakeChannels.contains(socketChannel)) {
-            var handshakeInitiator = new ConnectionHandshakeInitiator(
-                    myCapability,
-                    authorizationService,
-                    banList,
-                    myNetworkLoad,
-                    addressByChannel.get(socketChannel),
-                    new TorAddressOwnershipProofGenerator(null));
-            handshakeInitiatorByChannel.put(socketChannel, handshakeInitiator);
-
-            NetworkEnvelope handshakeRequest = handshakeInitiator.initiate();
-            ByteBuffer byteBuffer = wrapPayloadInByteBuffer(handshakeRequest);
-
-            socketChannel.register(selector, SelectionKey.OP_READ);
-
-            log.info("Sending PoW request to peer.");
-            socketChannel.write(byteBuffer);
+        PendingHandshake pendingHandshake = pendingHandshakeByChannel.get(socketChannel);
+        if (pendingHandshake != null) {
+            try {
+                if (pendingHandshake.networkEnvelopeSocketChannel.flushPendingWrites()) {
+                    removeInterest(socketChannel, SelectionKey.OP_WRITE);
+                }
+            } catch (IOException e) {
+                failPendingHandshake(socketChannel, new ConnectionException(ConnectionException.Reason.HANDSHAKE_FAILED, e));
+            }
+            return;
+        }
+
+        OutboundConnectionChannel connectionChannel = connectionByChannel.get(socketChannel);
+        if (connectionChannel != null) {
+            connectionChannel.onWritable();
         }
     }
 
     public void handleReadableChannel(SocketChannel socketChannel) throws IOException {
-        if (outboundHandshakeChannels.contains(socketChannel)) {
-            NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel = new NetworkEnvelopeSocketChannel(socketChannel);
-            List<NetworkEnvelope> networkEnvelopeList = networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
+        PendingHandshake pendingHandshake = pendingHandshakeByChannel.get(socketChannel);
+        if (pendingHandshake != null) {
+            readHandshakeResponse(socketChannel, pendingHandshake);
+            return;
+        }
+
+        OutboundConnectionChannel connectionChannel = connectionByChannel.get(socketChannel);
+        if (connectionChannel != null) {
+            connectionChannel.onReadable();
+        }
+    }
+
+    public Optional<OutboundConnectionChannel> getConnection(Address address) {
+        return Optional.ofNullable(connectionByAddress.get(address));
+    }
 
-            ConnectionHandshakeInitiator handshakeInitiator = handshakeInitiatorByChannel.get(socketChannel);
-            ConnectionHandshake.Response handshakeResponse = handshakeInitiator.finish(networkEnvelopeList);
+    public Collection<OutboundConnectionChannel> getAllOutboundConnections() {
+        return connectionByChannel.values();
+    }
 
-            verifiedConnections.add(socketChannel);
-            outboundHandshakeChannels.remove(socketChannel);
+    public void registerListener(Listener l) {
+        listeners.add(l);
+    }
+
+    public void removeListener(Listener l) {
+        listeners.remove(l);
+    }
+
+    public void shutdown() {
+        pendingHandshakeByChannel.keySet().forEach(socketChannel ->
+                failPendingHandshake(socketChannel, new ConnectionException("Shutdown")));
+        connectionByChannel.values().forEach(ConnectionChannel::close);
+    }
 
+    private void handleConnectedChannel(SocketChannel socketChannel, PendingHandshake pendingHandshake) {
+        log.info("Created outbound connection to {}", pendingHandshake.address.getFullAddress());
+        setInterest(socketChannel, 0);
+        NetworkService.NETWORK_IO_POOL.submit(() -> {
+            ThreadName.set(this, "handshake");
+            try {
+                var handshakeInitiator = new ConnectionHandshakeInitiator(
+                        pendingHandshake.myCapability,
+                        authorizationService,
+                        banList,
+                        myNetworkLoadSnapshot.getCurrentNetworkLoad(),
+                        pendingHandshake.address,
+                        new TorAddressOwnershipProofGenerator(null));
+                pendingHandshake.handshakeInitiator = handshakeInitiator;
+
+                NetworkEnvelope handshakeRequest = handshakeInitiator.initiate();
+                log.info("Sending PoW request to peer.");
+                pendingHandshake.requestSentTs = System.currentTimeMillis();
+                int numBytes = pendingHandshake.networkEnvelopeSocketChannel.send(handshakeRequest);
+                pendingHandshake.connectionMetrics.onSent(handshakeRequest, numBytes, System.currentTimeMillis() - pendingHandshake.requestSentTs);
+                addInterest(socketChannel, SelectionKey.OP_READ);
+            } catch (Exception e) {
+                failPendingHandshake(socketChannel, new ConnectionException(ConnectionException.Reason.HANDSHAKE_FAILED, e));
+            }
+        });
+    }
+
+    private void readHandshakeResponse(SocketChannel socketChannel, PendingHandshake pendingHandshake) {
+        NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel = pendingHandshake.networkEnvelopeSocketChannel;
+        List<bisq.network.protobuf.NetworkEnvelope> protos;
+        try {
+            protos = networkEnvelopeSocketChannel.receiveNetworkEnvelopeProtos();
+        } catch (Exception e) {
+            failPendingHandshake(socketChannel, new ConnectionException(ConnectionException.Reason.HANDSHAKE_FAILED, e));
+            return;
+        }
+        if (protos.isEmpty()) {
+            if (networkEnvelopeSocketChannel.isClosed()) {
+                failPendingHandshake(socketChannel, new ConnectionException(ConnectionException.Reason.HANDSHAKE_FAILED,
+                        new EOFException("Channel closed by peer before handshake response was received")));
+            }
+            // Otherwise the response is not completely received yet
+            return;
+        }
+
+        // We stop reading until the connection is wrapped by a Connection.
+        setInterest(socketChannel, 0);
+        NetworkService.NETWORK_IO_POOL.submit(() -> {
+            ThreadName.set(this, "handshake");
+            completeHandshake(socketChannel, pendingHandshake, protos);
+        });
+    }
+
+    private void completeHandshake(SocketChannel socketChannel,
+                                   PendingHandshake pendingHandshake,
+                                   List<bisq.network.protobuf.NetworkEnvelope> protos) {
+        try {
+            long ts = System.currentTimeMillis();
+            bisq.network.protobuf.NetworkEnvelope responseProto = protos.get(0);
+            NetworkEnvelope responseEnvelope = NetworkEnvelope.fromProto(responseProto);
+            long deserializeTime = System.currentTimeMillis() - ts;
+            ConnectionHandshake.Response handshakeResponse = pendingHandshake.handshakeInitiator.finish(List.of(responseEnvelope));
+            ConnectionMetrics connectionMetrics = pendingHandshake.connectionMetrics;
+            connectionMetrics.onReceived(responseEnvelope, ProtoBufMessageLengthWriter.getSizeWithLengthPrefix(responseProto.getSerializedSize()), deserializeTime);
+            connectionMetrics.addRtt(System.currentTimeMillis() - pendingHandshake.requestSentTs);
+
+            Address address = pendingHandshake.address;
             Capability peerCapability = handshakeResponse.getCapability();
             // We got the peers network load passed in the response message.
             NetworkLoadSnapshot peersNetworkLoadSnapshot = new NetworkLoadSnapshot(handshakeResponse.getNetworkLoad());
             OutboundConnectionChannel outboundConnectionChannel = new OutboundConnectionChannel(
+                    address,
                     peerCapability,
                     peersNetworkLoadSnapshot,
-                    networkEnvelopeSocketChannel,
-                    new ConnectionMetrics()
+                    pendingHandshake.networkEnvelopeSocketChannel,
+                    connectionMetrics,
+                    selector
             );
+            // The peer might have sent messages directly after the handshake response.
+            outboundConnectionChannel.addEarlyReceivedProtos(protos.subList(1, protos.size()));
 
+            if (pendingHandshakeByChannel.remove(socketChannel) == null) {
+                // Handshake timed out in the meantime
+                outboundConnectionChannel.close();
+                return;
+            }
             connectionByChannel.put(socketChannel, outboundConnectionChannel);
+            connectionByAddress.put(address, outboundConnectionChannel);
+            outboundConnectionChannel.addCloseHandler(() -> {
+                connectionByChannel.remove(socketChannel);
+                connectionByAddress.remove(address, outboundConnectionChannel);
+            });
+
             listeners.forEach(listener -> {
                 try {
                     listener.onNewConnection(outboundConnectionChannel);
@@ -182,75 +335,47 @@ public class OutboundConnectionManager {
                 }
             });
 
-            CompletableFuture<OutboundConnectionChannel> completableFuture =
-                    completableFutureByPeerAddress.get(peerCapability.getAddress());
-            completableFuture.complete(outboundConnectionChannel);
-
-        } else if (verifiedConnections.contains(socketChannel)) {
-            OutboundConnectionChannel connectionChannel = connectionByChannel.get(socketChannel);
-
-            NetworkEnvelopeSocketChannel envelopeSocketChannel = connectionChannel.getNetworkEnvelopeSocketChannel();
-            List<NetworkEnvelope> networkEnvelopes = envelopeSocketChannel.receiveNetworkEnvelopes();
-            log.debug("Received {} messages from peer {}.",
-                    networkEnvelopes.size(), connectionChannel.getPeerAddress().getFullAddress());
-
-            networkEnvelopes.forEach(networkEnvelope -> node.handleNetworkMessage(
-                    networkEnvelope.getEnvelopePayloadMessage(),
-                    networkEnvelope.getAuthorizationToken(),
-                    connectionChannel
-            ));
+            pendingHandshake.completableFuture.complete(outboundConnectionChannel);
+        } catch (Exception e) {
+            ConnectionException connectionException = e instanceof ConnectionException ?
+                    (ConnectionException) e :
+                    new ConnectionException(ConnectionException.Reason.HANDSHAKE_FAILED, e);
+            failPendingHandshake(socketChannel, connectionException);
         }
     }
 
-    public Optional<OutboundConnectionChannel> getConnection(Address address) {
-        if (channelByAddress.containsKey(address)) {
-            SocketChannel socketChannel = channelByAddress.get(address);
-            OutboundConnectionChannel connectionChannel = connectionByChannel.get(socketChannel);
-            return Optional.ofNullable(connectionChannel);
+    private void failPendingHandshake(SocketChannel socketChannel, ConnectionException exception) {
+        PendingHandshake pendingHandshake = pendingHandshakeByChannel.remove(socketChannel);
+        if (pendingHandshake == null) {
+            return;
         }
-
-        return Optional.empty();
-    }
-
-    public Collection<OutboundConnectionChannel> getAllOutboundConnections() {
-        return connectionByChannel.values();
-    }
-
-    public void registerListener(Listener l) {
-        listeners.add(l);
+        try {
+            socketChannel.close();
+        } catch (IOException ignore) {
+        }
+        pendingHandshake.completableFuture.completeExceptionally(exception);
     }
 
-    public void removeListener(Listener l) {
-        listeners.remove(l);
+    private void setInterest(SocketChannel socketChannel, int operations) {
+        SelectionKey selectionKey = socketChannel.keyFor(selector);
+        if (selectionKey != null && selectionKey.isValid()) {
+            selectionKey.interestOps(operations);
+            selector.wakeup();
+        }
     }
 
-    private void handleConnectedChannel(SocketChannel socketChannel) {
-        try {
-            socketChannel.register(selector, SelectionKey.OP_WRITE);
-            outboundHandshakeChannels.add(socketChannel);
-
-            Address address = addressByChannel.get(socketChannel);
-            log.info("Created outbound connection to {}", address.getFullAddress());
-        } catch (ClosedChannelException e) {
-            log.error("Couldn't connect to channel.", e);
-
-            // Connection closed.
-            Address address = addressByChannel.get(socketChannel);
-            //noinspection resource
-            channelByAddress.remove(address);
-
-            addressByChannel.remove(socketChannel);
+    private void addInterest(SocketChannel socketChannel, int operation) {
+        SelectionKey selectionKey = socketChannel.keyFor(selector);
+        if (selectionKey != null && selectionKey.isValid()) {
+            selectionKey.interestOpsOr(operation);
+            selector.wakeup();
         }
     }
 
-    private ByteBuffer wrapPayloadInByteBuffer(NetworkEnvelope networkEnvelope) {
-        bisq.network.protobuf.NetworkEnvelope poWRequest = networkEnvelope.completeProto();
-        byte[] requestInBytes = poWRequest.toByteArray();
-        ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
-        ProtoBufMessageLengthWriter.writeToBuffer(requestInBytes.length, byteBuffer);
-        byteBuffer.put(requestInBytes);
-
-        byteBuffer.flip();
-        return byteBuffer;
+    private void removeInterest(SocketChannel socketChannel, int operation) {
+        SelectionKey selectionKey = socketChannel.keyFor(selector);
+        if (selectionKey != null && selectionKey.isValid()) {
+            selectionKey.interestOpsAnd(~operation);
+        }
     }
 }
@@ -21,8 +21,10 @@ import bisq.common.network.Address;
 import bisq.common.threading.ThreadName;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
@@ -32,6 +34,9 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
+/**
+ * Uses a single selector thread for connecting and serving all outbound connections.
+ */
 @Slf4j
 public class OutboundConnectionMultiplexer implements OutboundConnectionManager.Listener {
 
@@ -39,7 +44,7 @@ public class OutboundConnectionMultiplexer implements OutboundConnectionManager.
     private final OutboundConnectionManager outboundConnectionManager;
 
     private Optional<Thread> workerThread = Optional.empty();
-
+    private volatile boolean isStopped;
 
     public OutboundConnectionMultiplexer(OutboundConnectionManager outboundConnectionManager) {
         this.selector = outboundConnectionManager.getSelector();
@@ -53,17 +58,35 @@ public class OutboundConnectionMultiplexer implements OutboundConnectionManager.
             ThreadName.set(this, "workerLoop");
             workerLoop();
         });
+        thread.setDaemon(true);
         workerThread = Optional.of(thread);
         thread.start();
     }
 
     public void shutdown() {
+        if (isStopped) {
+            return;
+        }
+        isStopped = true;
         outboundConnectionManager.removeListener(this);
+        outboundConnectionManager.shutdown();
+        try {
+            selector.close();
+        } catch (IOException ignore) {
+        }
         workerThread.ifPresent(Thread::interrupt);
         workerThread = Optional.empty();
     }
 
     public CompletableFuture<OutboundConnectionChannel> getConnection(Address address) {
+        return getConnection(address, null);
+    }
+
+    /**
+     * @param myCapability The capability used for the handshake. If null, the default capability of the
+     *                     OutboundConnectionManager is used.
+     */
+    public CompletableFuture<OutboundConnectionChannel> getConnection(Address address, @Nullable Capability myCapability) {
         Optional<OutboundConnectionChannel> optionalConnectionChannel =
                 outboundConnectionManager.getConnection(address);
 
@@ -73,10 +96,9 @@ public class OutboundConnectionMultiplexer implements OutboundConnectionManager.
             );
         }
 
-        CompletableFuture<OutboundConnectionChannel> completableFuture = outboundConnectionManager.createNewConnection(address);
-        selector.wakeup();
-
-        return completableFuture;
+        return myCapability == null ?
+                outboundConnectionManager.createNewConnection(address) :
+                outboundConnectionManager.createNewConnection(address, myCapability);
     }
 
     @Override
@@ -88,41 +110,44 @@ public class OutboundConnectionMultiplexer implements OutboundConnectionManager.
     }
 
     private void workerLoop() {
-        while (true) {
-            selectorLoop();
-        }
-    }
-
-    private void selectorLoop() {
         try {
-            while (selector.select() > 0) {
+            while (!isStopped && !Thread.currentThread().isInterrupted()) {
+                selector.select();
+
                 Set<SelectionKey> readyKeys = selector.selectedKeys();
                 Iterator<SelectionKey> keyIterator = readyKeys.iterator();
 
                 while (keyIterator.hasNext()) {
                     SelectionKey selectionKey = keyIterator.next();
                     keyIterator.remove();
-
-                    SocketChannel socketChannel = (SocketChannel) selectionKey.channel();
-
-                    if (selectionKey.isConnectable()) {
-                        outboundConnectionManager.handleConnectableChannel(socketChannel);
-                    }
-
-                    if (selectionKey.isReadable()) {
-                        outboundConnectionManager.handleReadableChannel(socketChannel);
-                    }
-
-                    if (selectionKey.isWritable()) {
-                        outboundConnectionManager.handleWritableChannel(socketChannel);
+                    try {
+                        if (!selectionKey.isValid()) {
+                            continue;
+                        }
+
+                        SocketChannel socketChannel = (SocketChannel) selectionKey.channel();
+
+                        if (selectionKey.isConnectable()) {
+                            outboundConnectionManager.handleConnectableChannel(socketChannel);
+                        }
+
+                        if (selectionKey.isValid() && selectionKey.isReadable()) {
+                            outboundConnectionManager.handleReadableChannel(socketChannel);
+                        }
+
+                        if (selectionKey.isValid() && selectionKey.isWritable()) {
+                            outboundConnectionManager.handleWritableChannel(socketChannel);
+                        }
+                    } catch (CancelledKeyException ignore) {
+                        // Connection got closed or connection attempt failed. Nothing we can do here.
                     }
-
                 }
             }
-        } catch (IOException e) {
-            log.warn("IOException in OutboundConnectionMultiplexer selector.", e);
-        } catch (CancelledKeyException e) {
-            // Connection attempt failed. Nothing we can do here.
+        } catch (IOException | ClosedSelectorException e) {
+            if (!isStopped) {
+                log.error("Unhandled exception in OutboundConnectionMultiplexer selector.", e);
+                shutdown();
+            }
         }
     }
 }
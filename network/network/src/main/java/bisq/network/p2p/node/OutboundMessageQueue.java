@@ -0,0 +1,150 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node;
+
+import bisq.common.threading.ThreadName;
+import bisq.network.NetworkService;
+import bisq.network.p2p.message.EnvelopePayloadMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Queue of messages to be sent to one connection. The messages are sent in order by a writer task running on the
+ * NETWORK_IO_POOL while messages are queued, so sending to a slow peer (PoW minting, throttling) does not delay sending
+ * to other peers.
+ * The queue is bounded. If it is full the DropPolicy decides if the new or the oldest queued message gets dropped.
+ * The future of a dropped message completes exceptionally with a RejectedExecutionException.
+ * If the ConnectionThrottle requires a delay, the writer task is rescheduled after the delay instead of sleeping.
+ */
+@Slf4j
+public class OutboundMessageQueue {
+    public static final int DEFAULT_CAPACITY = 100;
+
+    public enum DropPolicy {
+        DROP_NEWEST,
+        DROP_OLDEST
+    }
+
+    private static final class PendingMessage {
+        private final EnvelopePayloadMessage envelopePayloadMessage;
+        private final CompletableFuture<Connection> future;
+
+        private PendingMessage(EnvelopePayloadMessage envelopePayloadMessage, CompletableFuture<Connection> future) {
+            this.envelopePayloadMessage = envelopePayloadMessage;
+            this.future = future;
+        }
+    }
+
+    private final Connection connection;
+    private final Function<EnvelopePayloadMessage, Connection> sender;
+    private final int capacity;
+    private final Deque<PendingMessage> pendingMessages = new ArrayDeque<>();
+    private boolean isWriting;
+    private boolean isClosed;
+
+    OutboundMessageQueue(Connection connection, Function<EnvelopePayloadMessage, Connection> sender, int capacity) {
+        this.connection = connection;
+        this.sender = sender;
+        this.capacity = capacity;
+    }
+
+    CompletableFuture<Connection> enqueue(EnvelopePayloadMessage envelopePayloadMessage, DropPolicy dropPolicy) {
+        CompletableFuture<Connection> future = new CompletableFuture<>();
+        PendingMessage dropped = null;
+        synchronized (pendingMessages) {
+            if (isClosed) {
+                future.completeExceptionally(new ConnectionClosedException(connection));
+                return future;
+            }
+            if (pendingMessages.size() >= capacity) {
+                if (dropPolicy == DropPolicy.DROP_NEWEST) {
+                    future.completeExceptionally(new RejectedExecutionException("Outbound queue of " + connection + " is full"));
+                    return future;
+                }
+                dropped = pendingMessages.pollFirst();
+            }
+            pendingMessages.addLast(new PendingMessage(envelopePayloadMessage, future));
+            if (!isWriting) {
+                isWriting = true;
+                NetworkService.NETWORK_IO_POOL.submit(this::write);
+            }
+        }
+        if (dropped != null) {
+            log.info("Outbound queue of {} is full. We drop the oldest message {}",
+                    connection, dropped.envelopePayloadMessage.getClass().getSimpleName());
+            dropped.future.completeExceptionally(new RejectedExecutionException("Outbound queue of " + connection + " is full"));
+        }
+        return future;
+    }
+
+    int size() {
+        synchronized (pendingMessages) {
+            return pendingMessages.size();
+        }
+    }
+
+    void close() {
+        Deque<PendingMessage> remaining;
+        synchronized (pendingMessages) {
+            isClosed = true;
+            remaining = new ArrayDeque<>(pendingMessages);
+            pendingMessages.clear();
+        }
+        remaining.forEach(pendingMessage ->
+                pendingMessage.future.completeExceptionally(new ConnectionClosedException(connection)));
+    }
+
+    private void write() {
+        ThreadName.set(this, "write");
+        while (true) {
+            PendingMessage pendingMessage;
+            synchronized (pendingMessages) {
+                pendingMessage = pendingMessages.pollFirst();
+                if (pendingMessage == null) {
+                    isWriting = false;
+                    return;
+                }
+            }
+            long delay = connection.getConnectionThrottle().reserveSendMessage(pendingMessage.envelopePayloadMessage);
+            if (delay > 0) {
+                // We do not block the thread but continue after the delay. isWriting stays true in the meantime.
+                CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, NetworkService.NETWORK_IO_POOL)
+                        .execute(() -> {
+                            send(pendingMessage);
+                            write();
+                        });
+                return;
+            }
+            send(pendingMessage);
+        }
+    }
+
+    private void send(PendingMessage pendingMessage) {
+        try {
+            pendingMessage.future.complete(sender.apply(pendingMessage.envelopePayloadMessage));
+        } catch (Throwable throwable) {
+            pendingMessage.future.completeExceptionally(throwable);
+        }
+    }
+}
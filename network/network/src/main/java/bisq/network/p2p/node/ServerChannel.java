@@ -17,17 +17,18 @@
 
 package bisq.network.p2p.node;
 
-import bisq.common.threading.ThreadName;
 import bisq.common.network.Address;
+import bisq.common.threading.ThreadName;
 import bisq.network.p2p.node.authorization.AuthorizationService;
-import bisq.network.p2p.node.network_load.NetworkLoad;
+import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
 import bisq.network.p2p.services.peer_group.BanList;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
-import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
@@ -35,6 +36,9 @@ import java.nio.channels.SocketChannel;
 import java.nio.channels.spi.SelectorProvider;
 import java.util.*;
 
+/**
+ * Server using a single selector thread for accepting and serving all inbound connections.
+ */
 @Slf4j
 public class ServerChannel {
 
@@ -43,63 +47,71 @@ public class ServerChannel {
     }
 
     private final Capability myCapability;
-    private final NetworkLoad myNetworkLoad;
+    private final NetworkLoadSnapshot myNetworkLoadSnapshot;
     private final BanList banList;
     private final AuthorizationService authorizationService;
     private final Node node;
+    private final int handshakeTimeout;
 
     private final ServerSocketChannel serverSocketChannel;
 
     private Thread serverThread;
+    private volatile boolean isStopped;
+    private Optional<Selector> selector = Optional.empty();
     private Optional<InboundConnectionsManager> inboundConnectionsManager = Optional.empty();
 
     @Setter
     private Optional<Handler> onServerReadyListener = Optional.empty();
 
     public ServerChannel(Capability myCapability,
-                         NetworkLoad myNetworkLoad,
+                         NetworkLoadSnapshot myNetworkLoadSnapshot,
                          BanList banList,
                          AuthorizationService authorizationService,
                          Node node,
-                         ServerSocketChannel serverSocketChannel) {
+                         ServerSocketChannel serverSocketChannel,
+                         int handshakeTimeout) {
         this.myCapability = myCapability;
-        this.myNetworkLoad = myNetworkLoad;
+        this.myNetworkLoadSnapshot = myNetworkLoadSnapshot;
         this.banList = banList;
         this.authorizationService = authorizationService;
         this.node = node;
         this.serverSocketChannel = serverSocketChannel;
+        this.handshakeTimeout = handshakeTimeout;
     }
 
-    public void start() {
+    /**
+     * Binds the server socket channel and starts the selector thread.
+     * @throws IOException If binding or opening the selector failed.
+     */
+    public void start() throws IOException {
         Address myAddress = myCapability.getAddress();
         log.debug("Create server: {}", myAddress);
 
+        // We bind to all interfaces as it is done at the ServerSocket used by the ClearNetTransportService
+        serverSocketChannel.socket().bind(new InetSocketAddress(myAddress.getPort()));
+
+        Selector selector = SelectorProvider.provider().openSelector();
+        this.selector = Optional.of(selector);
+        InboundConnectionsManager inboundConnectionsManager =
+                new InboundConnectionsManager(
+                        banList,
+                        myCapability,
+                        myNetworkLoadSnapshot,
+                        authorizationService,
+                        serverSocketChannel,
+                        selector,
+                        node,
+                        handshakeTimeout
+                );
+        this.inboundConnectionsManager = Optional.of(inboundConnectionsManager);
+        inboundConnectionsManager.registerOpAccept();
+
         serverThread = new Thread(() -> {
             ThreadName.set(this, "start");
+            onServerReadyListener.ifPresent(Handler::onServerReady);
             try {
-                InetSocketAddress socketAddress = new InetSocketAddress(
-                        InetAddress.getLocalHost(),
-                        myAddress.getPort()
-                );
-                serverSocketChannel.socket().bind(socketAddress);
-
-                Selector selector = SelectorProvider.provider().openSelector();
-                InboundConnectionsManager inboundConnectionsManager =
-                        new InboundConnectionsManager(
-                                banList,
-                                myCapability,
-                                myNetworkLoad,
-                                authorizationService,
-                                serverSocketChannel,
-                                selector,
-                                node
-                        );
-                this.inboundConnectionsManager = Optional.of(inboundConnectionsManager);
-
-                inboundConnectionsManager.registerOpAccept();
-                onServerReadyListener.ifPresent(Handler::onServerReady);
-
-                while (selector.select() > 0) {
+                while (!isServerStopped()) {
+                    selector.select();
                     if (isServerStopped()) {
                         return;
                     }
@@ -110,23 +122,30 @@ public class ServerChannel {
                     while (keyIterator.hasNext()) {
                         SelectionKey selectionKey = keyIterator.next();
                         keyIterator.remove();
+                        try {
+                            if (!selectionKey.isValid()) {
+                                continue;
+                            }
 
-                        if (selectionKey.isAcceptable()) {
-                            inboundConnectionsManager.acceptNewConnection(selectionKey);
-                        }
+                            if (selectionKey.isAcceptable()) {
+                                inboundConnectionsManager.acceptNewConnection(selectionKey);
+                                continue;
+                            }
 
-                        if (selectionKey.isReadable()) {
                             SocketChannel socketChannel = (SocketChannel) selectionKey.channel();
-                            log.info("Received message from {}", socketChannel.getRemoteAddress());
-
-                            if (inboundConnectionsManager.isInboundConnection(socketChannel)) {
+                            if (selectionKey.isReadable()) {
                                 inboundConnectionsManager.handleInboundConnection(socketChannel);
                             }
+
+                            if (selectionKey.isValid() && selectionKey.isWritable()) {
+                                inboundConnectionsManager.handleWritableChannel(socketChannel);
+                            }
+                        } catch (CancelledKeyException ignore) {
+                            // Connection got closed while we processed the key
                         }
                     }
                 }
-
-            } catch (IOException e) {
+            } catch (IOException | ClosedSelectorException e) {
                 if (!isServerStopped()) {
                     log.error("Unhandled exception in ServerChannel: ", e);
                     shutdown();
@@ -135,25 +154,31 @@ public class ServerChannel {
 
         }, "Server.listen-" + myAddress);
 
+        serverThread.setDaemon(true);
         serverThread.start();
     }
 
     public void shutdown() {
+        if (isStopped) {
+            return;
+        }
+        isStopped = true;
+        Address myAddress = myCapability.getAddress();
+        log.info("shutdown {}", myAddress);
+        inboundConnectionsManager.ifPresent(InboundConnectionsManager::shutdown);
         try {
-            Address myAddress = myCapability.getAddress();
-            log.info("shutdown {}", myAddress);
-
-            if (!isServerStopped()) {
-                serverThread.interrupt();
-                serverSocketChannel.close();
-            }
-
+            serverSocketChannel.close();
         } catch (IOException ignore) {
         }
-    }
-
-    private boolean isServerStopped() {
-        return serverThread.isInterrupted();
+        selector.ifPresent(selector -> {
+            try {
+                selector.close();
+            } catch (IOException ignore) {
+            }
+        });
+        if (serverThread != null) {
+            serverThread.interrupt();
+        }
     }
 
     public Address getAddress() {
@@ -173,4 +198,8 @@ public class ServerChannel {
         }
         return Collections.emptyList();
     }
+
+    private boolean isServerStopped() {
+        return isStopped || Thread.currentThread().isInterrupted();
+    }
 }
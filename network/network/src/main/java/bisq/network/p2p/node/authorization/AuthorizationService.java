@@ -17,6 +17,7 @@
 
 package bisq.network.p2p.node.authorization;
 
+import bisq.common.util.StringUtils;
 import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.node.Feature;
 import bisq.network.p2p.node.authorization.token.equi_hash.EquiHashTokenService;
@@ -52,6 +53,8 @@ public class AuthorizationService {
     private final List<AuthorizationTokenType> myPreferredAuthorizationTokenTypes; // Lower list index means higher preference
     @Getter
     private final Map<AuthorizationTokenType, AuthorizationTokenService<? extends AuthorizationToken>> supportedServices = new HashMap<>();
+    // Shared by the hash cash token services as the message counter is per connection and not per token type
+    private final ReplayProtection replayProtection = new ReplayProtection();
 
     public AuthorizationService(Config config,
                                 HashCashProofOfWorkService hashCashProofOfWorkService,
@@ -64,13 +67,13 @@ public class AuthorizationService {
                 .forEach(supportedFilterType -> {
                     switch (supportedFilterType) {
                         case HASH_CASH:
-                            supportedServices.put(supportedFilterType, new HashCashTokenService(hashCashProofOfWorkService));
+                            supportedServices.put(supportedFilterType, new HashCashTokenService(hashCashProofOfWorkService, replayProtection));
                             break;
                         case EQUI_HASH:
                             supportedServices.put(supportedFilterType, new EquiHashTokenService(equihashProofOfWorkService));
                             break;
                         case HASH_CASH_V2:
-                            supportedServices.put(supportedFilterType, new HashCashV2TokenService(hashCashProofOfWorkService));
+                            supportedServices.put(supportedFilterType, new HashCashV2TokenService(hashCashProofOfWorkService, replayProtection));
                             break;
                         default:
                             throw new IllegalArgumentException("Undefined filterType " + supportedFilterType);
@@ -122,6 +125,33 @@ public class AuthorizationService {
                 myAddress);
     }
 
+    /**
+     * Handshake messages are sent before the connection exists, so we check them with a one-time connection id and
+     * remove its replay protection window afterwards.
+     */
+    public boolean isAuthorizedHandshake(EnvelopePayloadMessage message,
+                                         AuthorizationToken authorizationToken,
+                                         NetworkLoad currentNetworkLoad,
+                                         String myAddress) {
+        String handshakeId = StringUtils.createUid();
+        try {
+            return isAuthorized(message,
+                    authorizationToken,
+                    currentNetworkLoad,
+                    handshakeId,
+                    myAddress);
+        } finally {
+            removeReplayProtection(handshakeId);
+        }
+    }
+
+    /**
+     * Needs to be called when the connection got closed, to not keep its replay protection window.
+     */
+    public void removeReplayProtection(String connectionId) {
+        replayProtection.remove(connectionId);
+    }
+
     // Get first match with peers feature based on order of myPreferredFilterTypes
     private AuthorizationTokenType selectAuthorizationTokenType(Collection<Feature> peersFeatures) {
         return selectAuthorizationTokenType(myPreferredAuthorizationTokenTypes, peersFeatures);
@@ -0,0 +1,93 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.authorization;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Protects against the reuse of authorization tokens by tracking the received message counters per connection in a
+ * sliding window bitmap (as used for anti-replay in IPsec and DTLS). We keep the highest received message counter
+ * and a bit for each of the WINDOW_SIZE counters below it. Counters older than the window are rejected.
+ * The window of a connection is removed when the connection gets closed, thus the memory per connection is constant.
+ */
+public class ReplayProtection {
+    // Messages can be received out of order as tokens are created concurrently for parallel sends.
+    public static final int WINDOW_SIZE = 1024;
+
+    private static final class Window {
+        private final long[] bitmap = new long[WINDOW_SIZE / Long.SIZE];
+        private long highestMessageCounter = -1;
+
+        private synchronized boolean tryAccept(int messageCounter) {
+            if (messageCounter > highestMessageCounter) {
+                long shift = messageCounter - highestMessageCounter;
+                if (shift >= WINDOW_SIZE) {
+                    Arrays.fill(bitmap, 0);
+                } else {
+                    for (long counter = highestMessageCounter + 1; counter < messageCounter; counter++) {
+                        clear(counter);
+                    }
+                }
+                highestMessageCounter = messageCounter;
+                set(messageCounter);
+                return true;
+            }
+
+            if (highestMessageCounter - messageCounter >= WINDOW_SIZE || isSet(messageCounter)) {
+                return false;
+            }
+            set(messageCounter);
+            return true;
+        }
+
+        private boolean isSet(long counter) {
+            int index = Math.floorMod(counter, WINDOW_SIZE);
+            return (bitmap[index >>> 6] & (1L << index)) != 0;
+        }
+
+        private void set(long counter) {
+            int index = Math.floorMod(counter, WINDOW_SIZE);
+            bitmap[index >>> 6] |= 1L << index;
+        }
+
+        private void clear(long counter) {
+            int index = Math.floorMod(counter, WINDOW_SIZE);
+            bitmap[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    private final Map<String, Window> windowByConnectionId = new ConcurrentHashMap<>();
+
+    /**
+     * @return true if the message counter has not been received before at that connection and is not older than
+     * the window. The message counter is recorded as received.
+     */
+    public boolean tryAccept(String connectionId, int messageCounter) {
+        return windowByConnectionId.computeIfAbsent(connectionId, key -> new Window()).tryAccept(messageCounter);
+    }
+
+    public void remove(String connectionId) {
+        windowByConnectionId.remove(connectionId);
+    }
+
+    public int getNumConnections() {
+        return windowByConnectionId.size();
+    }
+}
@@ -8,6 +8,7 @@ import bisq.common.util.StringUtils;
 import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
 import bisq.network.p2p.node.authorization.AuthorizationTokenService;
+import bisq.network.p2p.node.authorization.ReplayProtection;
 import bisq.network.p2p.node.network_load.NetworkLoad;
 import bisq.security.DigestUtil;
 import bisq.security.pow.ProofOfWork;
@@ -18,7 +19,6 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.math.BigInteger;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 @Slf4j
@@ -33,12 +33,13 @@ public class HashCashTokenService extends AuthorizationTokenService<HashCashToke
 
     private final HashCashProofOfWorkService proofOfWorkService;
     // Keep track of message counter per connection to avoid reuse of pow
-    private final Map<String, Set<Integer>> receivedMessageCountersByConnectionId = new ConcurrentHashMap<>();
+    private final ReplayProtection replayProtection;
     @Getter
     private final Metrics metrics = new Metrics();
 
-    public HashCashTokenService(HashCashProofOfWorkService proofOfWorkService) {
+    public HashCashTokenService(HashCashProofOfWorkService proofOfWorkService, ReplayProtection replayProtection) {
         this.proofOfWorkService = proofOfWorkService;
+        this.replayProtection = replayProtection;
     }
 
     @Override
@@ -81,18 +82,10 @@ public class HashCashTokenService extends AuthorizationTokenService<HashCashToke
         int messageCounter = hashCashToken.getMessageCounter();
 
         // Verify that pow is not reused
-        Set<Integer> receivedMessageCounters;
-        if (receivedMessageCountersByConnectionId.containsKey(connectionId)) {
-            receivedMessageCounters = receivedMessageCountersByConnectionId.get(connectionId);
-            if (receivedMessageCounters.contains(messageCounter)) {
-                log.warn("Invalid receivedMessageCounters. We received the proofOfWork for that message already.");
-                return false;
-            }
-        } else {
-            receivedMessageCounters = new HashSet<>();
-            receivedMessageCountersByConnectionId.put(connectionId, receivedMessageCounters);
+        if (!replayProtection.tryAccept(connectionId, messageCounter)) {
+            log.warn("Invalid messageCounter. We received the proofOfWork for that message already or it is outside of the replay protection window.");
+            return false;
         }
-        receivedMessageCounters.add(messageCounter);
 
         // Verify payload
         byte[] payload = getPayload(message);
@@ -19,6 +19,7 @@ package bisq.network.p2p.node.envelope;
 
 import bisq.common.network.PeerSocket;
 import bisq.network.p2p.message.NetworkEnvelope;
+import bisq.network.p2p.node.envelope.parser.nio.ProtoBufMessageLengthWriter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.Closeable;
@@ -38,9 +39,14 @@ public class NetworkEnvelopeSocket implements Closeable {
         this.outputStream = socket.getOutputStream();
     }
 
-    public void send(NetworkEnvelope networkEnvelope) throws IOException {
+    /**
+     * @return The number of bytes written, including the length prefix.
+     */
+    public int send(NetworkEnvelope networkEnvelope) throws IOException {
         networkEnvelope.writeDelimitedTo(outputStream);
         outputStream.flush();
+        // The serialized size is memoized by writeDelimitedTo
+        return ProtoBufMessageLengthWriter.getSizeWithLengthPrefix(networkEnvelope.getSerializedSize());
     }
 
     public bisq.network.protobuf.NetworkEnvelope receiveNextEnvelope() throws IOException {
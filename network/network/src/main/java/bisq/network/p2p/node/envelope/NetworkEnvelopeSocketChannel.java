@@ -21,18 +21,30 @@ import bisq.network.p2p.message.NetworkEnvelope;
 import bisq.network.p2p.node.envelope.parser.nio.NetworkEnvelopeDeserializer;
 import bisq.network.p2p.node.envelope.parser.nio.ProtoBufMessageLengthWriter;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.List;
-
+import java.util.Queue;
+
+/**
+ * Writes and reads length delimited NetworkEnvelopes to/from a SocketChannel.
+ * In non-blocking mode a write might not complete if the socket send buffer is full. In that case the remaining
+ * bytes are queued and the pendingWritesHandler is called, so that the owner can register for OP_WRITE and call
+ * flushPendingWrites once the channel is writable again.
+ * The queued bytes are limited to MAX_PENDING_WRITE_BYTES. If a peer does not read our data, we close the channel
+ * instead of buffering an unlimited amount of data.
+ */
 @Slf4j
 public class NetworkEnvelopeSocketChannel implements Closeable {
     public static final int BYTE_BUFFER_SIZE = 1024;
+    public static final int MAX_PENDING_WRITE_BYTES = 2 * NetworkEnvelopeDeserializer.MAX_MESSAGE_SIZE;
 
     private static final int END_OF_STREAM = -1;
 
@@ -40,6 +52,12 @@ public class NetworkEnvelopeSocketChannel implements Closeable {
     private final SocketChannel socketChannel;
     private final ByteBuffer byteBuffer;
     private final NetworkEnvelopeDeserializer networkEnvelopeDeserializer;
+    private final Queue<ByteBuffer> pendingWrites = new ArrayDeque<>();
+    // Guarded by pendingWrites
+    private long pendingWriteBytes;
+    @Setter
+    private Runnable pendingWritesHandler = () -> {
+    };
 
 
     public NetworkEnvelopeSocketChannel(SocketChannel socketChannel) {
@@ -52,32 +70,62 @@ public class NetworkEnvelopeSocketChannel implements Closeable {
         this.networkEnvelopeDeserializer = new NetworkEnvelopeDeserializer(byteBuffer);
     }
 
-    public void send(NetworkEnvelope networkEnvelope) throws IOException {
-        bisq.network.protobuf.NetworkEnvelope proto = networkEnvelope.completeProto();
-        byte[] protoInBytes = proto.toByteArray();
+    /**
+     * @return The number of bytes written or queued for writing, including the length prefix.
+     */
+    public int send(NetworkEnvelope networkEnvelope) throws IOException {
+        byte[] protoInBytes = networkEnvelope.serialize();
         int messageLength = protoInBytes.length;
 
-        ByteBuffer byteBuffer1 = ByteBuffer.allocate(messageLength + 10);
+        ByteBuffer byteBuffer1 = ByteBuffer.allocate(ProtoBufMessageLengthWriter.getSizeWithLengthPrefix(messageLength));
         ProtoBufMessageLengthWriter.writeToBuffer(messageLength, byteBuffer1);
 
         byteBuffer1.put(protoInBytes);
         byteBuffer1.flip();
+        int numBytes = byteBuffer1.limit();
+
+        synchronized (pendingWrites) {
+            // We must not write before already queued data, otherwise we would corrupt the stream.
+            if (pendingWrites.isEmpty()) {
+                socketChannel.write(byteBuffer1);
+                if (!byteBuffer1.hasRemaining()) {
+                    return numBytes;
+                }
+            }
+            if (pendingWriteBytes + byteBuffer1.remaining() > MAX_PENDING_WRITE_BYTES) {
+                close();
+                throw new IOException("Pending writes exceed max. size of " + MAX_PENDING_WRITE_BYTES +
+                        " bytes. We closed the channel. pendingWriteBytes=" + pendingWriteBytes);
+            }
+            pendingWrites.add(byteBuffer1);
+            pendingWriteBytes += byteBuffer1.remaining();
+        }
+        pendingWritesHandler.run();
+        return numBytes;
+    }
 
-        socketChannel.write(byteBuffer1);
+    /**
+     * @return True if all pending writes have been written to the channel.
+     */
+    public boolean flushPendingWrites() throws IOException {
+        synchronized (pendingWrites) {
+            while (!pendingWrites.isEmpty()) {
+                ByteBuffer pending = pendingWrites.peek();
+                pendingWriteBytes -= socketChannel.write(pending);
+                if (pending.hasRemaining()) {
+                    return false;
+                }
+                pendingWrites.poll();
+            }
+            return true;
+        }
     }
 
     public List<NetworkEnvelope> receiveNetworkEnvelopes() throws IOException {
-        byteBuffer.clear();
-
-        int numberOfReadBytes = socketChannel.read(byteBuffer);
-        if (numberOfReadBytes == END_OF_STREAM) {
-            socketChannel.close();
+        if (readIntoDeserializer()) {
             return Collections.emptyList();
         }
 
-        byteBuffer.flip();
-        networkEnvelopeDeserializer.readFromByteBuffer();
-
         List<NetworkEnvelope>
                 allNetworkEnvelopes = networkEnvelopeDeserializer.getAllNetworkEnvelopes();
         allNetworkEnvelopes.forEach(NetworkEnvelope::verifyVersion);
@@ -85,8 +133,44 @@ public class NetworkEnvelopeSocketChannel implements Closeable {
         return allNetworkEnvelopes;
     }
 
+    /**
+     * Reads the available bytes and returns the completely received envelopes as protobuf objects. The conversion to
+     * the domain model is left to the caller.
+     */
+    public List<bisq.network.protobuf.NetworkEnvelope> receiveNetworkEnvelopeProtos() throws IOException {
+        if (readIntoDeserializer()) {
+            return Collections.emptyList();
+        }
+        return networkEnvelopeDeserializer.getAllNetworkEnvelopeProtos();
+    }
+
+    public boolean isClosed() {
+        return !socketChannel.isOpen();
+    }
+
     @Override
     public void close() throws IOException {
         socketChannel.close();
     }
+
+    // Returns true if end of stream was reached
+    private boolean readIntoDeserializer() throws IOException {
+        byteBuffer.clear();
+
+        int numberOfReadBytes = socketChannel.read(byteBuffer);
+        if (numberOfReadBytes == END_OF_STREAM) {
+            socketChannel.close();
+            return true;
+        }
+
+        byteBuffer.flip();
+        try {
+            networkEnvelopeDeserializer.readFromByteBuffer();
+        } catch (IOException e) {
+            // The stream is corrupted, so we cannot continue reading from that channel
+            socketChannel.close();
+            throw e;
+        }
+        return false;
+    }
 }
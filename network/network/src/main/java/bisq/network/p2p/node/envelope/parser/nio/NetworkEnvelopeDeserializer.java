@@ -17,16 +17,20 @@
 
 package bisq.network.p2p.node.envelope.parser.nio;
 
+import bisq.common.data.ByteUnit;
 import bisq.network.p2p.node.envelope.parser.ProtoBufMessageLengthParser;
 import bisq.network.protobuf.NetworkEnvelope;
-import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.*;
 
 @Slf4j
 public class NetworkEnvelopeDeserializer {
+    // We allocate the buffer for the message after we have parsed the length, thus we must not trust the length sent
+    // by the peer. The inventory response is limited to 2 MB, so 10 MB leaves enough headroom.
+    public static final int MAX_MESSAGE_SIZE = (int) ByteUnit.MB.toBytes(10);
 
     private final ByteBuffer byteBuffer;
     private final ProtoBufMessageLengthParser messageLengthParser;
@@ -35,7 +39,7 @@ public class NetworkEnvelopeDeserializer {
     private int parsedMessageLength = 0;
     private byte[] currentProtobufMessage;
 
-    private final Queue<bisq.network.p2p.message.NetworkEnvelope> parsedNetworkEnvelopes = new LinkedList<>();
+    private final Queue<NetworkEnvelope> parsedNetworkEnvelopeProtos = new LinkedList<>();
 
     public NetworkEnvelopeDeserializer(ByteBuffer byteBuffer) {
         this.byteBuffer = byteBuffer;
@@ -43,7 +47,11 @@ public class NetworkEnvelopeDeserializer {
         this.messageLengthParser = new ProtoBufMessageLengthParser(protoBufInputStream);
     }
 
-    public void readFromByteBuffer() {
+    /**
+     * @throws IOException If the message length exceeds MAX_MESSAGE_SIZE or the message cannot be parsed. The stream
+     *                     is corrupted in that case, so the caller has to close the channel.
+     */
+    public void readFromByteBuffer() throws IOException {
         while (byteBuffer.hasRemaining()) {
             if (!parsingMessage) {
                 parseMessageLength();
@@ -63,9 +71,14 @@ public class NetworkEnvelopeDeserializer {
         }
     }
 
-    private void parseMessageLength() {
+    private void parseMessageLength() throws IOException {
         long messageLength = messageLengthParser.parseMessageLength();
         if (isMessageLengthParsed(messageLength)) {
+            if (messageLength < 0 || messageLength > MAX_MESSAGE_SIZE) {
+                resetState();
+                throw new IOException("Message length " + messageLength + " exceeds max. message size of " +
+                        MAX_MESSAGE_SIZE + " bytes");
+            }
             currentMessageLength = messageLength;
             parsedMessageLength = 0;
             parsingMessage = true;
@@ -91,22 +104,17 @@ public class NetworkEnvelopeDeserializer {
         return parsedMessageLength == currentMessageLength;
     }
 
-    private void tryToParseProtoBufMessage() {
+    // An InvalidProtocolBufferException is propagated, as with parseDelimitedFrom at the socket based connections.
+    private void tryToParseProtoBufMessage() throws IOException {
         try {
             NetworkEnvelope message = NetworkEnvelope.parseFrom(currentProtobufMessage);
-            bisq.network.p2p.message.NetworkEnvelope
-                    networkEnvelope = bisq.network.p2p.message.NetworkEnvelope.fromProto(message);
-            networkEnvelope.verifyVersion();
-            parsedNetworkEnvelopes.add(networkEnvelope);
-
-        } catch (InvalidProtocolBufferException e) {
-            log.error("Couldn't parse protocol buffer message.", e);
+            parsedNetworkEnvelopeProtos.add(message);
         } finally {
             resetState();
         }
     }
 
-    private void parseNewIncomingMessage() {
+    private void parseNewIncomingMessage() throws IOException {
         currentProtobufMessage = new byte[(int) currentMessageLength];
         parsedMessageLength = 0;
 
@@ -137,16 +145,32 @@ public class NetworkEnvelopeDeserializer {
     }
 
     public List<bisq.network.p2p.message.NetworkEnvelope> getAllNetworkEnvelopes() {
-        if (parsedNetworkEnvelopes.isEmpty()) {
+        List<NetworkEnvelope> protos = getAllNetworkEnvelopeProtos();
+        if (protos.isEmpty()) {
             return Collections.emptyList();
         }
 
-        List<bisq.network.p2p.message.NetworkEnvelope> networkEnvelopes = new ArrayList<>(parsedNetworkEnvelopes.size());
-        networkEnvelopes.addAll(parsedNetworkEnvelopes);
+        List<bisq.network.p2p.message.NetworkEnvelope> networkEnvelopes = new ArrayList<>(protos.size());
+        for (NetworkEnvelope proto : protos) {
+            bisq.network.p2p.message.NetworkEnvelope networkEnvelope = bisq.network.p2p.message.NetworkEnvelope.fromProto(proto);
+            networkEnvelope.verifyVersion();
+            networkEnvelopes.add(networkEnvelope);
+        }
+        return networkEnvelopes;
+    }
 
-        parsedNetworkEnvelopes.clear();
+    /**
+     * Returns the parsed protobuf envelopes without converting them to the domain model, so that the caller can
+     * measure the deserialization time and apply it on the thread of its choice.
+     */
+    public List<NetworkEnvelope> getAllNetworkEnvelopeProtos() {
+        if (parsedNetworkEnvelopeProtos.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-        return networkEnvelopes;
+        List<NetworkEnvelope> protos = new ArrayList<>(parsedNetworkEnvelopeProtos);
+        parsedNetworkEnvelopeProtos.clear();
+        return protos;
     }
 
     private boolean isMessageLengthParsed(long messageLength) {
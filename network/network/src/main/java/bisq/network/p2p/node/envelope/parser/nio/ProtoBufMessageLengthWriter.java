@@ -17,11 +17,14 @@
 
 package bisq.network.p2p.node.envelope.parser.nio;
 
+import com.google.protobuf.CodedOutputStream;
+
 import java.nio.ByteBuffer;
 
 public class ProtoBufMessageLengthWriter {
     public static void writeToBuffer(int messageLength, ByteBuffer byteBuffer) {
-        while (messageLength > 0) {
+        // An empty message has a length prefix of one byte as well
+        do {
             int thisByte = 0;
 
             int lowestSevenBits = messageLength & 0x7f;
@@ -33,7 +36,14 @@ public class ProtoBufMessageLengthWriter {
             }
 
             byteBuffer.put((byte) thisByte);
-        }
+        } while (messageLength > 0);
+    }
+
+    /**
+     * @return The number of bytes of a message with the given length on the wire, including the length prefix.
+     */
+    public static int getSizeWithLengthPrefix(int messageLength) {
+        return CodedOutputStream.computeUInt32SizeNoTag(messageLength) + messageLength;
     }
 
     private static int setContinuationBit(int thisByte) {
@@ -30,6 +30,7 @@ import bisq.network.p2p.node.Feature;
 import bisq.network.p2p.node.authorization.AuthorizationService;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
 import bisq.network.p2p.node.envelope.NetworkEnvelopeSocket;
+import bisq.network.p2p.node.envelope.parser.nio.ProtoBufMessageLengthWriter;
 import bisq.network.p2p.node.network_load.ConnectionMetrics;
 import bisq.network.p2p.node.network_load.NetworkLoad;
 import bisq.network.p2p.services.peer_group.BanList;
@@ -234,8 +235,8 @@ public final class ConnectionHandshake {
                     peersFeatures);
             NetworkEnvelope requestNetworkEnvelope = new NetworkEnvelope(token, request);
             long ts = System.currentTimeMillis();
-            networkEnvelopeSocket.send(requestNetworkEnvelope);
-            connectionMetrics.onSent(requestNetworkEnvelope, System.currentTimeMillis() - ts);
+            int numSentBytes = networkEnvelopeSocket.send(requestNetworkEnvelope);
+            connectionMetrics.onSent(requestNetworkEnvelope, numSentBytes, System.currentTimeMillis() - ts);
 
             bisq.network.protobuf.NetworkEnvelope responseProto = networkEnvelopeSocket.receiveNextEnvelope();
             if (responseProto == null) {
@@ -257,17 +258,16 @@ public final class ConnectionHandshake {
                 throw new ConnectionException(ADDRESS_BANNED, "PeerAddress is banned. address=" + address);
             }
 
-            boolean isAuthorized = authorizationService.isAuthorized(response,
+            boolean isAuthorized = authorizationService.isAuthorizedHandshake(response,
                     responseNetworkEnvelope.getAuthorizationToken(),
                     myNetworkLoad,
-                    StringUtils.createUid(),
                     myAddress.getFullAddress());
 
             if (!isAuthorized) {
                 throw new ConnectionException(AUTHORIZATION_FAILED, "ConnectionHandshake.Response authorization failed at outbound connection attempt. AuthorizationToken=" + responseNetworkEnvelope.getAuthorizationToken());
             }
 
-            connectionMetrics.onReceived(responseNetworkEnvelope, deserializeTime);
+            connectionMetrics.onReceived(responseNetworkEnvelope, ProtoBufMessageLengthWriter.getSizeWithLengthPrefix(responseProto.getSerializedSize()), deserializeTime);
 
             long rrt = System.currentTimeMillis() - ts;
             connectionMetrics.addRtt(rrt);
@@ -315,10 +315,9 @@ public final class ConnectionHandshake {
             Address myAddress = capability.getAddress();
             // As the request did not know our load at the initial request, they used the NetworkLoad.INITIAL_LOAD for the
             // AuthorizationToken.
-            boolean isAuthorized = authorizationService.isAuthorized(request,
+            boolean isAuthorized = authorizationService.isAuthorizedHandshake(request,
                     requestNetworkEnvelope.getAuthorizationToken(),
                     NetworkLoad.INITIAL_NETWORK_LOAD,
-                    StringUtils.createUid(),
                     myAddress.getFullAddress());
             if (!isAuthorized) {
                 throw new ConnectionException(AUTHORIZATION_FAILED, "Authorization of inbound connection request failed. AuthorizationToken=" + requestNetworkEnvelope.getAuthorizationToken());
@@ -330,7 +329,7 @@ public final class ConnectionHandshake {
             }
 
             log.debug("Clients capability {}, load={}", requestersCapability, request.getNetworkLoad());
-            connectionMetrics.onReceived(requestNetworkEnvelope, deserializeTime);
+            connectionMetrics.onReceived(requestNetworkEnvelope, ProtoBufMessageLengthWriter.getSizeWithLengthPrefix(requestProto.getSerializedSize()), deserializeTime);
 
             // We reply with the same version as the peer has to avoid pow hash check failures
             Capability responseCapability = Capability.withVersion(capability, requestersCapability.getVersion());
@@ -342,8 +341,8 @@ public final class ConnectionHandshake {
                     requestersCapability.getFeatures());
             NetworkEnvelope responseNetworkEnvelope = new NetworkEnvelope(token, response);
             long startSendTs = System.currentTimeMillis();
-            networkEnvelopeSocket.send(responseNetworkEnvelope);
-            connectionMetrics.onSent(responseNetworkEnvelope, System.currentTimeMillis() - startSendTs);
+            int numSentBytes = networkEnvelopeSocket.send(responseNetworkEnvelope);
+            connectionMetrics.onSent(responseNetworkEnvelope, numSentBytes, System.currentTimeMillis() - startSendTs);
             connectionMetrics.addRtt(System.currentTimeMillis() - ts);
             return new Result(requestersCapability, request.getNetworkLoad(), connectionMetrics);
         } catch (Exception e) {
@@ -20,7 +20,6 @@ package bisq.network.p2p.node.handshake;
 import bisq.common.network.Address;
 import bisq.common.network.AddressOwnershipProof;
 import bisq.common.network.AddressOwnershipProofGenerator;
-import bisq.common.util.StringUtils;
 import bisq.network.p2p.message.NetworkEnvelope;
 import bisq.network.p2p.node.Capability;
 import bisq.network.p2p.node.ConnectionException;
@@ -101,10 +100,9 @@ public class ConnectionHandshakeInitiator {
             throw new ConnectionException(ADDRESS_BANNED, "PeerAddress is banned. address=" + address);
         }
 
-        boolean isAuthorized = authorizationService.isAuthorized(response,
+        boolean isAuthorized = authorizationService.isAuthorizedHandshake(response,
                 responseNetworkEnvelope.getAuthorizationToken(),
                 myNetworkLoad,
-                StringUtils.createUid(),
                 myCapability.getAddress().getFullAddress());
 
         if (!isAuthorized) {
@@ -19,7 +19,6 @@ package bisq.network.p2p.node.handshake;
 
 import bisq.common.data.Pair;
 import bisq.common.encoding.Hex;
-import bisq.common.util.StringUtils;
 import bisq.common.network.Address;
 import bisq.network.p2p.message.NetworkEnvelope;
 import bisq.network.p2p.node.Capability;
@@ -58,7 +57,13 @@ public class ConnectionHandshakeResponder {
     }
 
     public Pair<ConnectionHandshake.Request, NetworkEnvelope> verifyAndBuildRespond() throws IOException {
-        List<NetworkEnvelope> requestEnvelopes = networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
+        return verifyAndBuildRespond(networkEnvelopeSocketChannel.receiveNetworkEnvelopes());
+    }
+
+    /**
+     * Used if the request envelopes have been already read from the channel by the selector thread.
+     */
+    public Pair<ConnectionHandshake.Request, NetworkEnvelope> verifyAndBuildRespond(List<NetworkEnvelope> requestEnvelopes) {
         validateRequestEnvelopes(requestEnvelopes);
 
         NetworkEnvelope requestProto = requestEnvelopes.get(0);
@@ -76,7 +81,10 @@ public class ConnectionHandshakeResponder {
                     ", Proof: " + Hex.encode(request.getAddressOwnershipProof().orElseThrow()));
         }
 
-        NetworkEnvelope responseEnvelope = createResponseEnvelope(myNetworkLoad,
+        // We reply with the same version as the peer has to avoid pow hash check failures
+        Capability responseCapability = Capability.withVersion(myCapability, requestersCapability.getVersion());
+        NetworkEnvelope responseEnvelope = createResponseEnvelope(responseCapability,
+                myNetworkLoad,
                 request.getNetworkLoad(),
                 peerAddress,
                 requestersCapability.getFeatures());
@@ -99,11 +107,10 @@ public class ConnectionHandshakeResponder {
         String myAddress = myCapability.getAddress().getFullAddress();
         // As the request did not know our load at the initial request, they used the NetworkLoad.INITIAL_LOAD for the
         // AuthorizationToken.
-        boolean isAuthorized = authorizationService.isAuthorized(
+        boolean isAuthorized = authorizationService.isAuthorizedHandshake(
                 request,
                 requestNetworkEnvelope.getAuthorizationToken(),
                 NetworkLoad.INITIAL_NETWORK_LOAD,
-                StringUtils.createUid(),
                 myAddress
         );
 
@@ -128,11 +135,12 @@ public class ConnectionHandshakeResponder {
         }
     }
 
-    private NetworkEnvelope createResponseEnvelope(NetworkLoad myNetworkLoad,
+    private NetworkEnvelope createResponseEnvelope(Capability responseCapability,
+                                                   NetworkLoad myNetworkLoad,
                                                    NetworkLoad peerNetworkLoad,
                                                    Address peerAddress,
                                                    List<Feature> requestersFeatures) {
-        ConnectionHandshake.Response response = new ConnectionHandshake.Response(myCapability, myNetworkLoad);
+        ConnectionHandshake.Response response = new ConnectionHandshake.Response(responseCapability, myNetworkLoad);
         AuthorizationToken token = authorizationService.createToken(response,
                 peerNetworkLoad,
                 peerAddress.getFullAddress(),
@@ -25,29 +25,36 @@ import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Traffic metrics of a connection. The per-minute values are kept in ring buffers of the last hour and latencies in
+ * fixed size histograms, so the memory footprint does not grow with the lifetime of the connection. All methods are
+ * thread safe and lock-free, as the reader thread and the sending threads update the metrics concurrently.
+ */
 @Slf4j
 @Getter
 @ToString
 public class ConnectionMetrics {
+    private static final int ONE_HOUR_IN_MINUTES = 60;
+
     private final long created;
     private final AtomicLong lastUpdate = new AtomicLong();
-    private final TreeMap<Integer, AtomicLong> numMessagesSentPerMinute = new TreeMap<>();
-    private final TreeMap<Integer, AtomicLong> sentBytesPerMinute = new TreeMap<>();
-    private final TreeMap<Integer, AtomicLong> spentSendMessageTimePerMinute = new TreeMap<>();
-    private final TreeMap<Integer, AtomicLong> deserializeTimePerMinute = new TreeMap<>();
-    private final TreeMap<Integer, AtomicLong> numMessagesReceivedPerMinute = new TreeMap<>();
-    private final TreeMap<Integer, AtomicLong> receivedBytesPerMinute = new TreeMap<>();
-    private final Map<String, AtomicLong> numSentMessagesByClassName = new HashMap<>();
-    private final Map<String, AtomicLong> numReceivedMessagesByClassName = new HashMap<>();
-    private final Map<String, AtomicLong> numSentDistributedDataByClassName = new HashMap<>();
-    private final Map<String, AtomicLong> numReceivedDistributedDataByClassName = new HashMap<>();
-
-    private final AtomicLong numMessagesReceived = new AtomicLong();
-    private final List<Long> rrtList = new CopyOnWriteArrayList<>();
+    private final RollingMinuteCounter numMessagesSentPerMinute = new RollingMinuteCounter();
+    private final RollingMinuteCounter sentBytesPerMinute = new RollingMinuteCounter();
+    private final RollingMinuteCounter spentSendMessageTimePerMinute = new RollingMinuteCounter();
+    private final RollingMinuteCounter deserializeTimePerMinute = new RollingMinuteCounter();
+    private final RollingMinuteCounter numMessagesReceivedPerMinute = new RollingMinuteCounter();
+    private final RollingMinuteCounter receivedBytesPerMinute = new RollingMinuteCounter();
+    private final Map<String, AtomicLong> numSentMessagesByClassName = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> numReceivedMessagesByClassName = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> numSentDistributedDataByClassName = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> numReceivedDistributedDataByClassName = new ConcurrentHashMap<>();
+    private final LatencyHistogram rttHistogram = new LatencyHistogram();
+    private final LatencyHistogram sendTimeHistogram = new LatencyHistogram();
 
     public ConnectionMetrics() {
         created = System.currentTimeMillis();
@@ -61,19 +68,18 @@ public class ConnectionMetrics {
         return System.currentTimeMillis() - created;
     }
 
-    public void onSent(NetworkEnvelope networkEnvelope, long spentTime) {
+    /**
+     * @param numBytes  The number of bytes written to the wire, including the length prefix
+     * @param spentTime The time spent for sending in milliseconds
+     */
+    public void onSent(NetworkEnvelope networkEnvelope, int numBytes, long spentTime) {
         long now = System.currentTimeMillis();
         lastUpdate.set(now);
 
-        int ageInMinutes = getAgeInMinutes(now);
-        sentBytesPerMinute.computeIfAbsent(ageInMinutes, key -> new AtomicLong())
-                .addAndGet(networkEnvelope.getSerializedSize());
-
-        numMessagesSentPerMinute.computeIfAbsent(ageInMinutes, key -> new AtomicLong())
-                .incrementAndGet();
-
-        spentSendMessageTimePerMinute.computeIfAbsent(ageInMinutes, key -> new AtomicLong())
-                .addAndGet(spentTime);
+        sentBytesPerMinute.add(now, numBytes);
+        numMessagesSentPerMinute.increment(now);
+        spentSendMessageTimePerMinute.add(now, spentTime);
+        sendTimeHistogram.record(spentTime);
 
         EnvelopePayloadMessage envelopePayloadMessage = networkEnvelope.getEnvelopePayloadMessage();
         String name = ClassUtils.getClassName(envelopePayloadMessage.getClass());
@@ -87,19 +93,17 @@ public class ConnectionMetrics {
         }
     }
 
-    public void onReceived(NetworkEnvelope networkEnvelope, long deserializeTime) {
+    /**
+     * @param numBytes        The number of bytes read from the wire, including the length prefix
+     * @param deserializeTime The time spent for deserializing in milliseconds
+     */
+    public void onReceived(NetworkEnvelope networkEnvelope, int numBytes, long deserializeTime) {
         long now = System.currentTimeMillis();
         lastUpdate.set(now);
 
-        int ageInMinutes = getAgeInMinutes(now);
-        receivedBytesPerMinute.computeIfAbsent(ageInMinutes, key -> new AtomicLong())
-                .addAndGet(networkEnvelope.getSerializedSize());
-
-        numMessagesReceivedPerMinute.computeIfAbsent(ageInMinutes, key -> new AtomicLong())
-                .incrementAndGet();
-
-        deserializeTimePerMinute.computeIfAbsent(ageInMinutes, key -> new AtomicLong())
-                .addAndGet(deserializeTime);
+        receivedBytesPerMinute.add(now, numBytes);
+        numMessagesReceivedPerMinute.increment(now);
+        deserializeTimePerMinute.add(now, deserializeTime);
 
         EnvelopePayloadMessage envelopePayloadMessage = networkEnvelope.getEnvelopePayloadMessage();
         String name = ClassUtils.getClassName(envelopePayloadMessage.getClass());
@@ -114,83 +118,100 @@ public class ConnectionMetrics {
     }
 
     public void addRtt(long value) {
-        this.rrtList.add(value);
+        rttHistogram.record(value);
     }
 
     public double getAverageRtt() {
-        return rrtList.stream().mapToLong(e -> e).average().orElse(0d);
+        return rttHistogram.getMean();
+    }
+
+    public long getRttAtPercentile(double percentile) {
+        return rttHistogram.getValueAtPercentile(percentile);
     }
 
     public long getSentBytes() {
-        return sumOf(sentBytesPerMinute);
+        return sentBytesPerMinute.getTotal();
     }
 
     public long getNumMessagesSent() {
-        return sumOf(numMessagesSentPerMinute);
+        return numMessagesSentPerMinute.getTotal();
     }
 
     public long getSpentSendMessageTimePerMinute() {
-        return sumOf(spentSendMessageTimePerMinute);
+        return spentSendMessageTimePerMinute.getTotal();
     }
 
     public long getReceivedBytes() {
-        return sumOf(receivedBytesPerMinute);
+        return receivedBytesPerMinute.getTotal();
     }
 
     public long getNumMessagesReceived() {
-        return sumOf(numMessagesReceivedPerMinute);
+        return numMessagesReceivedPerMinute.getTotal();
     }
 
     public long getDeserializeTimePerMinute() {
-        return sumOf(deserializeTimePerMinute);
+        return deserializeTimePerMinute.getTotal();
     }
 
     public long getNumMessagesSentOfLastHour() {
-        return getNumMessagesSentOfLastMinutes(60);
+        return getNumMessagesSentOfLastMinutes(ONE_HOUR_IN_MINUTES);
     }
 
     public long getSentBytesOfLastHour() {
-        return getSentBytesOfLastMinutes(60);
+        return getSentBytesOfLastMinutes(ONE_HOUR_IN_MINUTES);
     }
 
     public long getSpentSendMessageTimeOfLastHour() {
-        return getSpentSendMessageTimeOfLastMinutes(60);
+        return getSpentSendMessageTimeOfLastMinutes(ONE_HOUR_IN_MINUTES);
     }
 
     public long getReceivedBytesOfLastHour() {
-        return getReceivedBytesOfLastMinutes(60);
+        return getReceivedBytesOfLastMinutes(ONE_HOUR_IN_MINUTES);
     }
 
     public long getDeserializeTimeOfLastHour() {
-        return getDeserializeTimeOfLastMinutes(60);
+        return getDeserializeTimeOfLastMinutes(ONE_HOUR_IN_MINUTES);
     }
 
     public long getNumMessagesReceivedOfLastHour() {
-        return getNumMessagesReceivedOfLastMinutes(60);
+        return getNumMessagesReceivedOfLastMinutes(ONE_HOUR_IN_MINUTES);
     }
 
     public long getNumMessagesSentOfLastMinutes(int lastMinutes) {
-        return sumOfLastMinute(numMessagesSentPerMinute, lastMinutes);
+        return numMessagesSentPerMinute.getSumOfLastMinutes(System.currentTimeMillis(), lastMinutes);
     }
 
     public long getSentBytesOfLastMinutes(int lastMinutes) {
-        return sumOfLastMinute(sentBytesPerMinute, lastMinutes);
+        return sentBytesPerMinute.getSumOfLastMinutes(System.currentTimeMillis(), lastMinutes);
     }
 
     public long getSpentSendMessageTimeOfLastMinutes(int lastMinutes) {
-        return sumOfLastMinute(spentSendMessageTimePerMinute, lastMinutes);
+        return spentSendMessageTimePerMinute.getSumOfLastMinutes(System.currentTimeMillis(), lastMinutes);
     }
 
     public long getNumMessagesReceivedOfLastMinutes(int lastMinutes) {
-        return sumOfLastMinute(numMessagesReceivedPerMinute, lastMinutes);
+        return numMessagesReceivedPerMinute.getSumOfLastMinutes(System.currentTimeMillis(), lastMinutes);
     }
 
     public long getReceivedBytesOfLastMinutes(int lastMinutes) {
-        return sumOfLastMinute(receivedBytesPerMinute, lastMinutes);
+        return receivedBytesPerMinute.getSumOfLastMinutes(System.currentTimeMillis(), lastMinutes);
     }
 
     public long getDeserializeTimeOfLastMinutes(int lastMinutes) {
-        return sumOfLastMinute(deserializeTimePerMinute, lastMinutes);
+        return deserializeTimePerMinute.getSumOfLastMinutes(System.currentTimeMillis(), lastMinutes);
+    }
+
+    /**
+     * Adds the values of the last hour to the given snapshot. Used by the NetworkLoadService for aggregating the
+     * metrics of all connections without creating intermediate collections.
+     */
+    void addLastHourTo(Snapshot snapshot, long now) {
+        snapshot.sentBytes += sentBytesPerMinute.getSumOfLastMinutes(now, ONE_HOUR_IN_MINUTES);
+        snapshot.spentSendMessageTime += spentSendMessageTimePerMinute.getSumOfLastMinutes(now, ONE_HOUR_IN_MINUTES);
+        snapshot.numMessagesSent += numMessagesSentPerMinute.getSumOfLastMinutes(now, ONE_HOUR_IN_MINUTES);
+        snapshot.receivedBytes += receivedBytesPerMinute.getSumOfLastMinutes(now, ONE_HOUR_IN_MINUTES);
+        snapshot.deserializeTime += deserializeTimePerMinute.getSumOfLastMinutes(now, ONE_HOUR_IN_MINUTES);
+        snapshot.numMessagesReceived += numMessagesReceivedPerMinute.getSumOfLastMinutes(now, ONE_HOUR_IN_MINUTES);
     }
 
     public void clear() {
@@ -204,21 +225,15 @@ public class ConnectionMetrics {
         numReceivedMessagesByClassName.clear();
         numSentDistributedDataByClassName.clear();
         numReceivedDistributedDataByClassName.clear();
-        rrtList.clear();
-    }
-
-    private long sumOf(TreeMap<Integer, AtomicLong> treeMap) {
-        return treeMap.values().stream().mapToLong(AtomicLong::get).sum();
-    }
-
-    private long sumOfLastMinute(TreeMap<Integer, AtomicLong> treeMap, int lastMinutes) {
-        // The Treemap returns the values in ascending order of the corresponding keys.
-        int from = Math.max(0, treeMap.size() - lastMinutes);
-        List<AtomicLong> list = new ArrayList<>(treeMap.values()).subList(from, treeMap.size());
-        return list.stream().mapToLong(AtomicLong::get).sum();
+        rttHistogram.clear();
+        sendTimeHistogram.clear();
     }
 
-    private int getAgeInMinutes(long now) {
-        return (int) (now - created) / 60000;
+    /**
+     * Mutable accumulator for the values of the last hour of multiple connections.
+     */
+    static final class Snapshot {
+        long sentBytes, spentSendMessageTime, numMessagesSent,
+                receivedBytes, deserializeTime, numMessagesReceived;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.network_load;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram with a fixed memory footprint, following the bucket layout of HdrHistogram: Values are grouped
+ * by their highest bit and each group is split linearly into {@link #NUM_SUB_BUCKETS} sub-buckets. Values below
+ * {@link #NUM_SUB_BUCKETS} are recorded exactly, larger values with a relative error of at most 1/{@link #NUM_SUB_BUCKETS}.
+ * Values are expected in milliseconds. Values beyond 2^{@link #MAX_HIGHEST_BIT} are recorded in the last bucket.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    static final int NUM_SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_HIGHEST_BIT = 40;
+    private static final int NUM_BUCKETS = NUM_SUB_BUCKETS * (MAX_HIGHEST_BIT - SUB_BUCKET_BITS + 2);
+
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        value = Math.max(0, value);
+        counts.incrementAndGet(getBucketIndex(value));
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long numValues = getCount();
+        return numValues == 0 ? 0 : getSum() / (double) numValues;
+    }
+
+    /**
+     * @param percentile Percentile in the range of 0 to 100
+     * @return The highest value equivalent to the bucket containing the given percentile, or 0 if no value was
+     * recorded. The result is never larger than the max. recorded value.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long numValues = getCount();
+        if (numValues == 0) {
+            return 0;
+        }
+        double boundedPercentile = Math.min(100, Math.max(0, percentile));
+        long countAtPercentile = Math.max(1, (long) Math.ceil(boundedPercentile / 100 * numValues));
+        long accumulated = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            accumulated += counts.get(i);
+            if (accumulated >= countAtPercentile) {
+                return Math.min(getHighestValueOfBucket(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    public void clear() {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    static int getBucketIndex(long value) {
+        if (value < NUM_SUB_BUCKETS) {
+            return (int) value;
+        }
+        int highestBit = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_HIGHEST_BIT);
+        if (highestBit == MAX_HIGHEST_BIT && value >= (1L << (MAX_HIGHEST_BIT + 1))) {
+            return NUM_BUCKETS - 1;
+        }
+        int shift = highestBit - SUB_BUCKET_BITS;
+        int subBucket = (int) ((value >> shift) & (NUM_SUB_BUCKETS - 1));
+        return NUM_SUB_BUCKETS * (shift + 1) + subBucket;
+    }
+
+    static long getHighestValueOfBucket(int index) {
+        if (index < NUM_SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / NUM_SUB_BUCKETS - 1;
+        long subBucket = index % NUM_SUB_BUCKETS;
+        long lowestValue = (NUM_SUB_BUCKETS + subBucket) << shift;
+        return lowestValue + (1L << shift) - 1;
+    }
+}
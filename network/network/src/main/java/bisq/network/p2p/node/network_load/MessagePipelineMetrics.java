@@ -0,0 +1,103 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.network_load;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics for the stages of processing inbound messages: authorization (PoW verification) on the authorization pool
+ * and dispatching to the listeners on the dispatcher thread.
+ * For each stage we track the current and max. queue depth, the time the messages waited in the queue and the
+ * processing time. Except the current queue depth, the values are accumulated since the last call of
+ * getInfoAndReset.
+ */
+@Slf4j
+public class MessagePipelineMetrics {
+    public enum Stage {
+        AUTHORIZATION,
+        DISPATCH
+    }
+
+    @Getter
+    private static final class StageMetrics {
+        private final AtomicInteger queueDepth = new AtomicInteger();
+        private final AtomicInteger maxQueueDepth = new AtomicInteger();
+        private final AtomicLong numProcessed = new AtomicLong();
+        private final AtomicLong queueTime = new AtomicLong();
+        private final AtomicLong maxQueueTime = new AtomicLong();
+        private final AtomicLong processingTime = new AtomicLong();
+        private final AtomicLong maxProcessingTime = new AtomicLong();
+    }
+
+    private final Map<Stage, StageMetrics> metricsByStage = new EnumMap<>(Stage.class);
+
+    public MessagePipelineMetrics() {
+        for (Stage stage : Stage.values()) {
+            metricsByStage.put(stage, new StageMetrics());
+        }
+    }
+
+    public void onQueued(Stage stage) {
+        StageMetrics stageMetrics = metricsByStage.get(stage);
+        int queueDepth = stageMetrics.queueDepth.incrementAndGet();
+        stageMetrics.maxQueueDepth.accumulateAndGet(queueDepth, Math::max);
+    }
+
+    public void onStarted(Stage stage, long queueTime) {
+        StageMetrics stageMetrics = metricsByStage.get(stage);
+        stageMetrics.queueDepth.decrementAndGet();
+        stageMetrics.queueTime.addAndGet(queueTime);
+        stageMetrics.maxQueueTime.accumulateAndGet(queueTime, Math::max);
+    }
+
+    public void onCompleted(Stage stage, long processingTime) {
+        StageMetrics stageMetrics = metricsByStage.get(stage);
+        stageMetrics.numProcessed.incrementAndGet();
+        stageMetrics.processingTime.addAndGet(processingTime);
+        stageMetrics.maxProcessingTime.accumulateAndGet(processingTime, Math::max);
+    }
+
+    public int getQueueDepth(Stage stage) {
+        return metricsByStage.get(stage).queueDepth.get();
+    }
+
+    public String getInfoAndReset() {
+        StringBuilder sb = new StringBuilder();
+        metricsByStage.forEach((stage, stageMetrics) -> {
+            long numProcessed = stageMetrics.numProcessed.getAndSet(0);
+            long queueTime = stageMetrics.queueTime.getAndSet(0);
+            long processingTime = stageMetrics.processingTime.getAndSet(0);
+            int queueDepth = stageMetrics.queueDepth.get();
+            sb.append("\n").append(stage.name()).append(":")
+                    .append(" queueDepth=").append(queueDepth)
+                    .append("; maxQueueDepth=").append(stageMetrics.maxQueueDepth.getAndSet(queueDepth))
+                    .append("; numProcessed=").append(numProcessed)
+                    .append("; avgQueueTime=").append(numProcessed > 0 ? queueTime / numProcessed : 0).append(" ms")
+                    .append("; maxQueueTime=").append(stageMetrics.maxQueueTime.getAndSet(0)).append(" ms")
+                    .append("; avgProcessingTime=").append(numProcessed > 0 ? processingTime / numProcessed : 0).append(" ms")
+                    .append("; maxProcessingTime=").append(stageMetrics.maxProcessingTime.getAndSet(0)).append(" ms");
+        });
+        return sb.toString();
+    }
+}
@@ -20,6 +20,7 @@ package bisq.network.p2p.node.network_load;
 import bisq.common.data.ByteUnit;
 import bisq.common.timer.Scheduler;
 import bisq.common.util.MathUtils;
+import bisq.network.NetworkService;
 import bisq.network.p2p.ServiceNode;
 import bisq.network.p2p.node.Connection;
 import bisq.network.p2p.node.Node;
@@ -110,80 +111,31 @@ public class NetworkLoadService {
 
     private double calculateLoad(Set<ConnectionMetrics> allConnectionMetrics) {
         // For metrics of last hour we use metrics from the accumulated connections (closed of past hour).
-        sentBytesOfLastHour = allConnectionMetrics.stream()
-                .mapToLong(ConnectionMetrics::getSentBytesOfLastHour)
-                .sum();
-        spentSendMessageTimeOfLastHour = allConnectionMetrics.stream()
-                .mapToLong(ConnectionMetrics::getSpentSendMessageTimeOfLastHour)
-                .sum();
-        numMessagesSentOfLastHour = allConnectionMetrics.stream()
-                .mapToLong(ConnectionMetrics::getNumMessagesSentOfLastHour)
-                .sum();
-        receivedBytesOfLastHour = allConnectionMetrics.stream()
-                .mapToLong(ConnectionMetrics::getReceivedBytesOfLastHour)
-                .sum();
-        deserializeTimeOfLastHour = allConnectionMetrics.stream()
-                .mapToLong(ConnectionMetrics::getDeserializeTimeOfLastHour)
-                .sum();
-        numMessagesReceivedOfLastHour = allConnectionMetrics.stream()
-                .mapToLong(ConnectionMetrics::getNumMessagesReceivedOfLastHour)
-                .sum();
-
-        numSentMessagesByClassName = new TreeMap<>();
-        allConnectionMetrics.stream()
-                .map(ConnectionMetrics::getNumSentMessagesByClassName)
-                .forEach(map -> map.forEach((name, value) ->
-                        numSentMessagesByClassName.computeIfAbsent(name, key -> new AtomicLong())
-                                .addAndGet(value.get())));
-        StringBuilder numSentMessagesByClassNameBuilder = new StringBuilder();
-        numSentMessagesByClassName.forEach((key, value) -> {
-            numSentMessagesByClassNameBuilder.append("\n    - ");
-            numSentMessagesByClassNameBuilder.append(key);
-            numSentMessagesByClassNameBuilder.append(": ");
-            numSentMessagesByClassNameBuilder.append(value.get());
-        });
-
-        numReceivedMessagesByClassName = new TreeMap<>();
-        allConnectionMetrics.stream()
-                .map(ConnectionMetrics::getNumReceivedMessagesByClassName)
-                .forEach(map -> map.forEach((name, value) ->
-                        numReceivedMessagesByClassName.computeIfAbsent(name, key -> new AtomicLong())
-                                .addAndGet(value.get())));
-        StringBuilder numReceivedMessagesByClassNameBuilder = new StringBuilder();
-        numReceivedMessagesByClassName.forEach((key, value) -> {
-            numReceivedMessagesByClassNameBuilder.append("\n    - ");
-            numReceivedMessagesByClassNameBuilder.append(key);
-            numReceivedMessagesByClassNameBuilder.append(": ");
-            numReceivedMessagesByClassNameBuilder.append(value.get());
-        });
-
-        numSentDistributedDataByClassName = new TreeMap<>();
-        allConnectionMetrics.stream()
-                .map(ConnectionMetrics::getNumSentDistributedDataByClassName)
-                .forEach(map -> map.forEach((name, value) ->
-                        numSentDistributedDataByClassName.computeIfAbsent(name, key -> new AtomicLong())
-                                .addAndGet(value.get())));
-        StringBuilder numSentDistributedDataByClassNameBuilder = new StringBuilder();
-        numSentDistributedDataByClassName.forEach((key, value) -> {
-            numSentDistributedDataByClassNameBuilder.append("\n    - ");
-            numSentDistributedDataByClassNameBuilder.append(key);
-            numSentDistributedDataByClassNameBuilder.append(": ");
-            numSentDistributedDataByClassNameBuilder.append(value.get());
-        });
-
-        numReceivedDistributedDataByClassName = new TreeMap<>();
-        allConnectionMetrics.stream()
-                .map(ConnectionMetrics::getNumReceivedDistributedDataByClassName)
-                .forEach(map -> map.forEach((name, value) ->
-                        numReceivedDistributedDataByClassName.computeIfAbsent(name, key -> new AtomicLong())
-                                .addAndGet(value.get())));
-        StringBuilder numReceivedDistributedDataByClassNameBuilder = new StringBuilder();
-        numReceivedDistributedDataByClassName.forEach((key, value) -> {
-            numReceivedDistributedDataByClassNameBuilder.append("\n    - ");
-            numReceivedDistributedDataByClassNameBuilder.append(key);
-            numReceivedDistributedDataByClassNameBuilder.append(": ");
-            numReceivedDistributedDataByClassNameBuilder.append(value.get());
-        });
+        // We aggregate all values in a single pass over the connections.
+        long now = System.currentTimeMillis();
+        ConnectionMetrics.Snapshot lastHourSnapshot = new ConnectionMetrics.Snapshot();
+        TreeMap<String, AtomicLong> numSentMessagesByClassName = new TreeMap<>();
+        TreeMap<String, AtomicLong> numReceivedMessagesByClassName = new TreeMap<>();
+        TreeMap<String, AtomicLong> numSentDistributedDataByClassName = new TreeMap<>();
+        TreeMap<String, AtomicLong> numReceivedDistributedDataByClassName = new TreeMap<>();
+        for (ConnectionMetrics connectionMetrics : allConnectionMetrics) {
+            connectionMetrics.addLastHourTo(lastHourSnapshot, now);
+            addCounts(connectionMetrics.getNumSentMessagesByClassName(), numSentMessagesByClassName);
+            addCounts(connectionMetrics.getNumReceivedMessagesByClassName(), numReceivedMessagesByClassName);
+            addCounts(connectionMetrics.getNumSentDistributedDataByClassName(), numSentDistributedDataByClassName);
+            addCounts(connectionMetrics.getNumReceivedDistributedDataByClassName(), numReceivedDistributedDataByClassName);
+        }
+        sentBytesOfLastHour = lastHourSnapshot.sentBytes;
+        spentSendMessageTimeOfLastHour = lastHourSnapshot.spentSendMessageTime;
+        numMessagesSentOfLastHour = lastHourSnapshot.numMessagesSent;
+        receivedBytesOfLastHour = lastHourSnapshot.receivedBytes;
+        deserializeTimeOfLastHour = lastHourSnapshot.deserializeTime;
+        numMessagesReceivedOfLastHour = lastHourSnapshot.numMessagesReceived;
+        // The maps are exposed to the UI, so we publish new instances instead of mutating the previous ones.
+        this.numSentMessagesByClassName = numSentMessagesByClassName;
+        this.numReceivedMessagesByClassName = numReceivedMessagesByClassName;
+        this.numSentDistributedDataByClassName = numSentDistributedDataByClassName;
+        this.numReceivedDistributedDataByClassName = numReceivedDistributedDataByClassName;
 
         long numConnections = getAllCurrentConnections().count();
         long networkDatabaseSize = storageService.getNetworkDatabaseSize(); // takes about 50 ms
@@ -197,15 +149,20 @@ public class NetworkLoadService {
                 .append("\nData sent in last hour: ").append(ByteUnit.BYTE.toMB(sentBytesOfLastHour)).append(" MB")
                 .append("\nTime for message sending in last hour: ").append(spentSendMessageTimeOfLastHour / 1000d).append(" sec.")
                 .append("\nNumber of messages sent in last hour: ").append(numMessagesSentOfLastHour)
-                .append("\nNumber of messages sent by class name:").append(numSentMessagesByClassNameBuilder)
-                .append("\nNumber of distributed data sent by class name:").append(numSentDistributedDataByClassNameBuilder)
+                .append("\nNumber of messages sent by class name:").append(toDetails(numSentMessagesByClassName))
+                .append("\nNumber of distributed data sent by class name:").append(toDetails(numSentDistributedDataByClassName))
 
                 .append("\nReceived messages:")
                 .append("\nData received in last hour: ").append(ByteUnit.BYTE.toMB(receivedBytesOfLastHour)).append(" MB")
                 .append("\nTime for message deserializing in last hour: ").append(deserializeTimeOfLastHour / 1000d).append(" sec.")
                 .append("\nNumber of messages received in last hour: ").append(numMessagesReceivedOfLastHour)
-                .append("\nNumber of messages received by class name:").append(numReceivedMessagesByClassNameBuilder)
-                .append("\nNumber of distributed data received by class name:").append(numReceivedDistributedDataByClassNameBuilder)
+                .append("\nNumber of messages received by class name:").append(toDetails(numReceivedMessagesByClassName))
+                .append("\nNumber of distributed data received by class name:").append(toDetails(numReceivedDistributedDataByClassName))
+
+                .append("\nInbound message pipeline (since last report):")
+                .append(NetworkService.MESSAGE_PIPELINE_METRICS.getInfoAndReset())
+
+                .append("\nScheduler timer: ").append(Scheduler.getTimerMetrics())
 
                 .append("\n/* --------------------------------------------------------------------- */");
 
@@ -275,6 +232,20 @@ public class NetworkLoadService {
         return MathUtils.bounded(0, 1, load);
     }
 
+    private static void addCounts(Map<String, AtomicLong> source, TreeMap<String, AtomicLong> target) {
+        source.forEach((name, value) -> target.computeIfAbsent(name, key -> new AtomicLong())
+                .addAndGet(value.get()));
+    }
+
+    private static String toDetails(TreeMap<String, AtomicLong> numMessagesByClassName) {
+        StringBuilder sb = new StringBuilder();
+        numMessagesByClassName.forEach((key, value) -> sb.append("\n    - ")
+                .append(key)
+                .append(": ")
+                .append(value.get()));
+        return sb.toString();
+    }
+
     private Set<? extends DataRequest> getAllDataRequests() {
         return storageService.getAllDataRequestMapEntries()
                 .map(Map.Entry::getValue)
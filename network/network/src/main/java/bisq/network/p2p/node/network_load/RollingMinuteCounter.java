@@ -0,0 +1,96 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.network_load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counter which keeps the sums of the last {@link #NUM_SLOTS} minutes in a ring buffer, so that the memory
+ * footprint is independent of the lifetime of a connection.
+ * Each slot holds the sum of one minute as {@link LongAdder}, which stripes concurrent updates from the reader and
+ * the sender threads. A slot which still holds a minute older than the ring size is replaced on the next update,
+ * thus we only allocate at most one slot object per minute.
+ * Besides the ring buffer we keep the total since creation.
+ */
+public class RollingMinuteCounter {
+    public static final int NUM_SLOTS = 60;
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private static final class Slot {
+        private final long minute;
+        private final LongAdder sum = new LongAdder();
+
+        private Slot(long minute) {
+            this.minute = minute;
+        }
+    }
+
+    private final AtomicReferenceArray<Slot> slots = new AtomicReferenceArray<>(NUM_SLOTS);
+    private final LongAdder total = new LongAdder();
+
+    public void add(long now, long value) {
+        long minute = now / MINUTE;
+        int index = (int) (minute % NUM_SLOTS);
+        Slot slot = slots.get(index);
+        while (slot == null || slot.minute < minute) {
+            Slot candidate = new Slot(minute);
+            if (slots.compareAndSet(index, slot, candidate)) {
+                slot = candidate;
+            } else {
+                slot = slots.get(index);
+            }
+        }
+        // If the clock went backwards we might hit a slot of a later minute. We add it there as it is the best match.
+        slot.sum.add(value);
+        total.add(value);
+    }
+
+    public void increment(long now) {
+        add(now, 1);
+    }
+
+    /**
+     * @return The sum of the last given minutes including the current minute. The number of minutes is capped at
+     * {@link #NUM_SLOTS}.
+     */
+    public long getSumOfLastMinutes(long now, int numMinutes) {
+        long currentMinute = now / MINUTE;
+        long oldestMinute = currentMinute - Math.min(numMinutes, NUM_SLOTS) + 1;
+        long sum = 0;
+        for (int i = 0; i < NUM_SLOTS; i++) {
+            Slot slot = slots.get(i);
+            if (slot != null && slot.minute >= oldestMinute && slot.minute <= currentMinute) {
+                sum += slot.sum.sum();
+            }
+        }
+        return sum;
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public void clear() {
+        for (int i = 0; i < NUM_SLOTS; i++) {
+            slots.set(i, null);
+        }
+        total.reset();
+    }
+}
@@ -40,7 +40,8 @@ public class ClearNetTransportService implements TransportService {
                     config.getInt("devModeDelayInMs"),
                     config.getInt("sendMessageThrottleTime"),
                     config.getInt("receiveMessageThrottleTime"),
-                    config.getInt("connectTimeoutMs")
+                    config.getInt("connectTimeoutMs"),
+                    config.hasPath("useSelectorIo") && config.getBoolean("useSelectorIo")
             );
         }
 
@@ -52,6 +53,8 @@ public class ClearNetTransportService implements TransportService {
         private final int sendMessageThrottleTime;
         private final int receiveMessageThrottleTime;
         private final int connectTimeoutMs;
+        // If true, connections use non-blocking socket channels served by selector threads instead of one thread per connection
+        private final boolean useSelectorIo;
 
         public Config(Path dataDir,
                       int defaultNodePort,
@@ -60,7 +63,8 @@ public class ClearNetTransportService implements TransportService {
                       int devModeDelayInMs,
                       int sendMessageThrottleTime,
                       int receiveMessageThrottleTime,
-                      int connectTimeoutMs) {
+                      int connectTimeoutMs,
+                      boolean useSelectorIo) {
             this.dataDir = dataDir;
             this.defaultNodePort = defaultNodePort;
             this.defaultNodeSocketTimeout = defaultNodeSocketTimeout;
@@ -69,6 +73,7 @@ public class ClearNetTransportService implements TransportService {
             this.sendMessageThrottleTime = sendMessageThrottleTime;
             this.receiveMessageThrottleTime = receiveMessageThrottleTime;
             this.connectTimeoutMs = connectTimeoutMs;
+            this.useSelectorIo = useSelectorIo;
         }
     }
 
@@ -38,8 +38,8 @@ import bisq.network.p2p.services.data.storage.mailbox.MailboxData;
 import bisq.network.p2p.services.data.storage.mailbox.MailboxMessage;
 import bisq.security.ConfidentialData;
 import bisq.security.HybridEncryption;
+import bisq.security.SharedSecretCache;
 import bisq.security.keys.KeyBundleService;
-import bisq.security.keys.KeyGeneration;
 import bisq.security.keys.PubKey;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -429,7 +429,7 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
                         // thus we filter here out the duplicated message.
                         boolean wasNotPresent = processedEnvelopePayloadMessages.add(decryptedEnvelopePayloadMessage);
                         if (wasNotPresent) {
-                            PublicKey senderPublicKey = KeyGeneration.generatePublic(confidentialData.getSenderPublicKey());
+                            PublicKey senderPublicKey = SharedSecretCache.getPublicKey(confidentialData.getSenderPublicKey());
                             log.info("Decrypted confidentialMessage. decryptedEnvelopePayloadMessage={}", decryptedEnvelopePayloadMessage.getClass().getSimpleName());
                             runAsync(() -> listeners.forEach(listener -> {
                                 try {
@@ -0,0 +1,93 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data;
+
+import bisq.network.p2p.services.data.broadcast.BroadcastMessage;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Carries multiple DataRequests in one envelope, so that publishing many data items (e.g. the republish of the oracle
+ * node) requires only one message and one authorization token per peer.
+ * Only sent to peers which support Feature.BATCH_DATA_REQUEST. For other peers the Broadcaster sends the contained
+ * requests as individual messages.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class BatchDataRequest implements BroadcastMessage {
+    public static final int MAX_NUM_DATA_REQUESTS = 100;
+    // Each contained request adds a small cost on top of the most expensive one, so that batching is still much
+    // cheaper than sending the requests individually but not free.
+    private static final double COST_FACTOR_PER_DATA_REQUEST = 0.002;
+
+    private final List<DataRequest> dataRequests;
+
+    public BatchDataRequest(List<? extends DataRequest> dataRequests) {
+        this.dataRequests = new ArrayList<>(dataRequests);
+
+        verify();
+    }
+
+    @Override
+    public void verify() {
+        checkArgument(!dataRequests.isEmpty(), "dataRequests must not be empty");
+        checkArgument(dataRequests.size() <= MAX_NUM_DATA_REQUESTS,
+                "dataRequests must not contain more than " + MAX_NUM_DATA_REQUESTS + " items");
+    }
+
+    @Override
+    public bisq.network.protobuf.EnvelopePayloadMessage.Builder getBuilder(boolean serializeForHash) {
+        return newEnvelopePayloadMessageBuilder().setBatchDataRequest(toValueProto(serializeForHash));
+    }
+
+    @Override
+    public bisq.network.protobuf.BatchDataRequest toValueProto(boolean serializeForHash) {
+        return resolveValueProto(serializeForHash);
+    }
+
+    @Override
+    public bisq.network.protobuf.BatchDataRequest.Builder getValueBuilder(boolean serializeForHash) {
+        return bisq.network.protobuf.BatchDataRequest.newBuilder()
+                .addAllDataRequests(dataRequests.stream()
+                        .map(dataRequest -> dataRequest.toDataRequestProto(serializeForHash))
+                        .collect(Collectors.toList()));
+    }
+
+    public static BatchDataRequest fromProto(bisq.network.protobuf.BatchDataRequest proto) {
+        return new BatchDataRequest(proto.getDataRequestsList().stream()
+                .map(DataRequest::fromProto)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public double getCostFactor() {
+        double maxCostFactor = dataRequests.stream()
+                .mapToDouble(DataRequest::getCostFactor)
+                .max()
+                .orElse(0);
+        return Math.min(1, maxCostFactor + dataRequests.size() * COST_FACTOR_PER_DATA_REQUEST);
+    }
+}
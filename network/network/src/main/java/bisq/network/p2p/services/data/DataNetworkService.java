@@ -59,6 +59,8 @@ public class DataNetworkService implements Node.Listener {
             dataService.processAddDataRequest((AddDataRequest) envelopePayloadMessage, true);
         } else if (envelopePayloadMessage instanceof RemoveDataRequest) {
             dataService.processRemoveDataRequest((RemoveDataRequest) envelopePayloadMessage, true);
+        } else if (envelopePayloadMessage instanceof BatchDataRequest) {
+            dataService.processBatchDataRequest((BatchDataRequest) envelopePayloadMessage, true);
         }
     }
 
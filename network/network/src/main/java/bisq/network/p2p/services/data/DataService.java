@@ -17,6 +17,7 @@
 
 package bisq.network.p2p.services.data;
 
+import bisq.common.util.CompletableFutureUtils;
 import bisq.network.p2p.services.data.broadcast.Broadcaster;
 import bisq.network.p2p.services.data.storage.DataStorageResult;
 import bisq.network.p2p.services.data.storage.StorageData;
@@ -32,16 +33,21 @@ import bisq.network.p2p.services.data.storage.mailbox.AddMailboxRequest;
 import bisq.network.p2p.services.data.storage.mailbox.MailboxData;
 import bisq.network.p2p.services.data.storage.mailbox.RemoveMailboxRequest;
 import bisq.persistence.PersistenceService;
+import com.google.common.collect.Lists;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.security.GeneralSecurityException;
 import java.security.KeyPair;
 import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -242,6 +248,46 @@ public class DataService implements StorageService.Listener {
         return addAuthenticatedData(authorizedData, keyPair);
     }
 
+    /**
+     * Adds all data to the local stores and broadcasts the added ones in BatchDataRequests of at most
+     * BatchDataRequest.MAX_NUM_DATA_REQUESTS items. Compared to adding each data on its own, this requires only one
+     * message and one authorization token per peer for each batch.
+     */
+    public CompletableFuture<BroadcastResult> addAuthenticatedDataBatch(List<? extends AuthenticatedData> authenticatedDataList,
+                                                                        KeyPair keyPair) {
+        return CompletableFutureUtils.allOf(authenticatedDataList.stream()
+                        .map(authenticatedData -> storageService.getOrCreateAuthenticatedDataStore(authenticatedData.getClassName())
+                                .thenApply(store -> {
+                                    try {
+                                        AddAuthenticatedDataRequest request = AddAuthenticatedDataRequest.from(store, authenticatedData, keyPair);
+                                        DataStorageResult dataStorageResult = store.add(request);
+                                        if (dataStorageResult.isSuccess()) {
+                                            return Optional.of(request);
+                                        } else {
+                                            if (dataStorageResult.isSevereFailure()) {
+                                                log.warn("addAuthenticatedDataBatch failed with severe error. Result={}", dataStorageResult);
+                                            }
+                                            return Optional.<AddAuthenticatedDataRequest>empty();
+                                        }
+                                    } catch (GeneralSecurityException e) {
+                                        throw new CompletionException(e);
+                                    }
+                                })))
+                .thenApply(results -> {
+                    List<AddAuthenticatedDataRequest> addedRequests = results.stream()
+                            .flatMap(Optional::stream)
+                            .collect(Collectors.toList());
+                    return new BroadcastResult(Lists.partition(addedRequests, BatchDataRequest.MAX_NUM_DATA_REQUESTS).stream()
+                            .map(BatchDataRequest::new)
+                            .flatMap(batchDataRequest -> broadcasters.stream()
+                                    .map(broadcaster -> broadcaster.broadcast(batchDataRequest))));
+                });
+    }
+
+    public CompletableFuture<BroadcastResult> addAuthorizedDataBatch(List<AuthorizedData> authorizedDataList, KeyPair keyPair) {
+        return addAuthenticatedDataBatch(authorizedDataList, keyPair);
+    }
+
     public CompletableFuture<BroadcastResult> addAppendOnlyData(AppendOnlyData appendOnlyData) {
         return storageService.getOrCreateAppendOnlyDataStore(appendOnlyData.getMetaData().getClassName())
                 .thenApply(store -> {
@@ -383,6 +429,61 @@ public class DataService implements StorageService.Listener {
                 }));
     }
 
+    /**
+     * Processes the AddDataRequests of an inventory response. The AddAuthenticatedDataRequests are added as batch, so
+     * that their signatures get verified in parallel. The data is not re-broadcast.
+     */
+    public void processInventoryAddDataRequests(List<AddDataRequest> addDataRequests) {
+        List<AddAuthenticatedDataRequest> addAuthenticatedDataRequests = new ArrayList<>();
+        addDataRequests.forEach(addDataRequest -> {
+            if (addDataRequest instanceof AddAuthenticatedDataRequest addAuthenticatedDataRequest) {
+                addAuthenticatedDataRequests.add(addAuthenticatedDataRequest);
+            } else {
+                processAddDataRequest(addDataRequest, false);
+            }
+        });
+        if (!addAuthenticatedDataRequests.isEmpty()) {
+            storageService.onAddAuthenticatedDataRequests(addAuthenticatedDataRequests);
+        }
+    }
+
+    /**
+     * Processes the contained requests in one pass. The AddAuthenticatedDataRequests are added as batch, so that their
+     * signatures get verified in parallel. The accepted requests are re-broadcast as one BatchDataRequest.
+     * As with individual messages, RefreshAuthenticatedDataRequests are not processed.
+     */
+    public void processBatchDataRequest(BatchDataRequest batchDataRequest, boolean allowReBroadcast) {
+        List<AddAuthenticatedDataRequest> addAuthenticatedDataRequests = new ArrayList<>();
+        List<CompletableFuture<Optional<DataRequest>>> futures = new ArrayList<>();
+        batchDataRequest.getDataRequests().forEach(dataRequest -> {
+            if (dataRequest instanceof AddAuthenticatedDataRequest addAuthenticatedDataRequest) {
+                addAuthenticatedDataRequests.add(addAuthenticatedDataRequest);
+            } else if (dataRequest instanceof AddDataRequest addDataRequest) {
+                futures.add(storageService.onAddDataRequest(addDataRequest)
+                        .thenApply(optionalData -> optionalData.<DataRequest>map(storageData -> addDataRequest)));
+            } else if (dataRequest instanceof RemoveDataRequest removeDataRequest) {
+                futures.add(storageService.onRemoveDataRequest(removeDataRequest)
+                        .thenApply(optionalData -> optionalData.<DataRequest>map(storageData -> removeDataRequest)));
+            }
+        });
+        CompletableFuture<List<AddAuthenticatedDataRequest>> addedFuture = addAuthenticatedDataRequests.isEmpty()
+                ? CompletableFuture.completedFuture(List.of())
+                : storageService.addAuthenticatedDataRequests(addAuthenticatedDataRequests);
+        addedFuture.thenCombine(CompletableFutureUtils.allOf(futures), (addedRequests, results) -> {
+                    List<DataRequest> acceptedRequests = new ArrayList<>(addedRequests);
+                    results.forEach(result -> result.ifPresent(acceptedRequests::add));
+                    return acceptedRequests;
+                })
+                .whenComplete((acceptedRequests, throwable) -> {
+                    if (throwable != null) {
+                        log.warn("Processing BatchDataRequest failed", throwable);
+                    } else if (allowReBroadcast && !acceptedRequests.isEmpty()) {
+                        BatchDataRequest reBroadcastRequest = new BatchDataRequest(acceptedRequests);
+                        broadcasters.forEach(e -> e.reBroadcast(reBroadcastRequest));
+                    }
+                });
+    }
+
     public void processRemoveDataRequest(RemoveDataRequest removeDataRequest, boolean allowReBroadcast) {
         storageService.onRemoveDataRequest(removeDataRequest)
                 .whenComplete((optionalData, throwable) -> optionalData.ifPresent(storageData -> {
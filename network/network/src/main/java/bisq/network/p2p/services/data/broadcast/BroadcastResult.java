@@ -17,21 +17,47 @@
 
 package bisq.network.p2p.services.data.broadcast;
 
+import bisq.common.network.Address;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
+import java.util.Map;
+import java.util.OptionalDouble;
+
 @Getter
 @ToString
 @EqualsAndHashCode
 public final class BroadcastResult {
     private final int numSuccess;
     private final int numFaults;
+    // Messages not sent as the outbound queue of the connection was full. Dropped messages are not counted as faults.
+    private final int numDropped;
     private final long duration;
+    // Time from queuing the message until it was sent, for the peers the message has been sent successfully to.
+    private final Map<Address, Long> latencyByPeer;
 
     public BroadcastResult(int numSuccess, int numFaults, long duration) {
+        this(numSuccess, numFaults, 0, duration, Map.of());
+    }
+
+    public BroadcastResult(int numSuccess,
+                           int numFaults,
+                           int numDropped,
+                           long duration,
+                           Map<Address, Long> latencyByPeer) {
         this.numSuccess = numSuccess;
         this.numFaults = numFaults;
+        this.numDropped = numDropped;
         this.duration = duration;
+        this.latencyByPeer = Map.copyOf(latencyByPeer);
+    }
+
+    public OptionalDouble getAverageLatency() {
+        return latencyByPeer.values().stream().mapToLong(Long::longValue).average();
+    }
+
+    public long getMaxLatency() {
+        return latencyByPeer.values().stream().mapToLong(Long::longValue).max().orElse(0);
     }
 }
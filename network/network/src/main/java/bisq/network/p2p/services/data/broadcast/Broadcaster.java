@@ -17,20 +17,29 @@
 
 package bisq.network.p2p.services.data.broadcast;
 
-import bisq.common.threading.ThreadName;
+import bisq.common.network.Address;
 import bisq.common.util.CollectionUtil;
-import bisq.network.NetworkService;
+import bisq.common.util.CompletableFutureUtils;
+import bisq.common.util.ExceptionUtil;
 import bisq.network.p2p.node.Connection;
+import bisq.network.p2p.node.Feature;
 import bisq.network.p2p.node.Node;
+import bisq.network.p2p.node.OutboundMessageQueue;
+import bisq.network.p2p.services.data.BatchDataRequest;
+import bisq.network.p2p.services.data.DataRequest;
 import dev.failsafe.Failsafe;
 import dev.failsafe.RetryPolicy;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 @Slf4j
 public class Broadcaster {
@@ -75,34 +84,59 @@ public class Broadcaster {
         }
 
         long ts = System.currentTimeMillis();
-        CompletableFuture<BroadcastResult> future = new CompletableFuture<BroadcastResult>()
-                .orTimeout(BROADCAST_TIMEOUT, TimeUnit.SECONDS);
         AtomicInteger numSuccess = new AtomicInteger(0);
         AtomicInteger numFaults = new AtomicInteger(0);
+        AtomicInteger numDropped = new AtomicInteger(0);
+        Map<Address, Long> latencyByPeer = new ConcurrentHashMap<>();
         long numConnections = node.getAllActiveConnections().count();
         long numBroadcasts = Math.min(numConnections, Math.round(numConnections * distributionFactor));
         log.debug("Broadcast {} to {} out of {} peers. distributionFactor={}",
                 broadcastMessage.getClass().getSimpleName(), numBroadcasts, numConnections, distributionFactor);
         List<Connection> allConnections = CollectionUtil.toShuffledList(node.getAllActiveConnections());
-        NetworkService.NETWORK_IO_POOL.submit(() -> {
-            ThreadName.set(this, "broadcast");
-            allConnections.stream()
-                    .limit(numBroadcasts)
-                    .forEach(connection -> {
-                        log.debug("{} broadcast {} to {}", node, broadcastMessage.getClass().getSimpleName(), connection.getPeerAddress());
-                        try {
-                            node.send(broadcastMessage, connection);
-                            numSuccess.incrementAndGet();
-                        } catch (Exception exception) {
-                            numFaults.incrementAndGet();
-                        }
-                        if (numSuccess.get() + numFaults.get() == numBroadcasts) {
-                            future.complete(new BroadcastResult(numSuccess.get(),
-                                    numFaults.get(),
-                                    System.currentTimeMillis() - ts));
-                        }
-                    });
-        });
-        return future;
+
+        // Each connection has its own outbound queue, so we send to all peers concurrently and a slow peer does not
+        // delay the others. If the queue of a peer is full we drop the message for that peer.
+        Stream<CompletableFuture<Boolean>> futures = allConnections.stream()
+                .limit(numBroadcasts)
+                .map(connection -> {
+                    log.debug("{} broadcast {} to {}", node, broadcastMessage.getClass().getSimpleName(), connection.getPeerAddress());
+                    long sendTs = System.currentTimeMillis();
+                    return send(broadcastMessage, connection)
+                            .handle((result, throwable) -> {
+                                if (throwable == null) {
+                                    numSuccess.incrementAndGet();
+                                    latencyByPeer.put(connection.getPeerAddress(), System.currentTimeMillis() - sendTs);
+                                } else if (ExceptionUtil.getRootCause(throwable) instanceof RejectedExecutionException) {
+                                    numDropped.incrementAndGet();
+                                } else {
+                                    numFaults.incrementAndGet();
+                                }
+                                return throwable == null;
+                            });
+                });
+        return CompletableFutureUtils.allOf(futures)
+                .thenApply(list -> new BroadcastResult(numSuccess.get(),
+                        numFaults.get(),
+                        numDropped.get(),
+                        System.currentTimeMillis() - ts,
+                        latencyByPeer))
+                .orTimeout(BROADCAST_TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    private CompletableFuture<?> send(BroadcastMessage broadcastMessage, Connection connection) {
+        if (broadcastMessage instanceof BatchDataRequest batchDataRequest &&
+                !connection.getPeersCapability().getFeatures().contains(Feature.BATCH_DATA_REQUEST)) {
+            // Peer does not support batches, thus we send the contained requests individually. A batch can have as
+            // many requests as the outbound queue has capacity, so we queue the next request only after the previous
+            // one has been sent. Otherwise, the tail of the batch would get dropped. If a request fails, we do not
+            // send the remaining ones.
+            CompletableFuture<?> future = CompletableFuture.completedFuture(null);
+            for (DataRequest dataRequest : batchDataRequest.getDataRequests()) {
+                future = future.thenCompose(previous ->
+                        node.sendAsync(dataRequest, connection, OutboundMessageQueue.DropPolicy.DROP_NEWEST));
+            }
+            return future;
+        }
+        return node.sendAsync(broadcastMessage, connection, OutboundMessageQueue.DropPolicy.DROP_NEWEST);
     }
 }
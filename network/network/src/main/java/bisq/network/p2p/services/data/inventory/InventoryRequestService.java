@@ -54,6 +54,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 @Slf4j
 public class InventoryRequestService implements Node.Listener {
     private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(180);
+    // If the peer cannot decode our filter and does not support the HASH_SET filter as fallback, repeated requests
+    // would fail as well. We stop requesting from that peer after that many failures.
+    private static final int MAX_FILTER_DECODING_FAILURES = 3;
 
     private final Node node;
     private final PeerGroupService peerGroupService;
@@ -65,6 +68,7 @@ public class InventoryRequestService implements Node.Listener {
     @Getter
     private final Observable<Boolean> allDataReceived = new Observable<>(false);
     private final Map<String, InventoryHandler> requestHandlerMap = new ConcurrentHashMap<>();
+    private final Map<String, Integer> numFilterDecodingFailuresByPeer = new ConcurrentHashMap<>();
     private Optional<Scheduler> periodicRequestScheduler = Optional.empty();
     private volatile boolean shutdownInProgress;
 
@@ -90,6 +94,7 @@ public class InventoryRequestService implements Node.Listener {
         node.removeListener(this);
         requestHandlerMap.values().forEach(InventoryHandler::dispose);
         requestHandlerMap.clear();
+        numFilterDecodingFailuresByPeer.clear();
         periodicRequestScheduler.ifPresent(Scheduler::stop);
         periodicRequestScheduler = Optional.empty();
     }
@@ -152,6 +157,7 @@ public class InventoryRequestService implements Node.Listener {
             requestHandlerMap.remove(key);
             numPendingRequests.set(requestHandlerMap.size());
         }
+        numFilterDecodingFailuresByPeer.remove(key);
     }
 
 
@@ -160,13 +166,38 @@ public class InventoryRequestService implements Node.Listener {
     /* --------------------------------------------------------------------- */
 
     private CompletableFuture<Inventory> requestInventory(Connection connection) {
-        return requestFromPeer(connection)
+        List<Feature> peersFeatures = connection.getPeersCapability().getFeatures();
+        InventoryFilterType inventoryFilterType = getPreferredFilterType(peersFeatures).orElseThrow(); // we filtered before for presence
+        return requestFromPeer(connection, inventoryFilterType)
+                .thenCompose(inventory -> {
+                    if (inventory.isFilterDecodingFailed() &&
+                            inventoryFilterType != InventoryFilterType.HASH_SET &&
+                            supportedFilterServices.containsKey(InventoryFilterType.HASH_SET) &&
+                            toFilterTypes(peersFeatures).contains(InventoryFilterType.HASH_SET)) {
+                        log.info("Peer {} could not decode our {} filter. We repeat the request with the HASH_SET filter.",
+                                connection.getPeerAddress().getFullAddress(), inventoryFilterType);
+                        return requestFromPeer(connection, InventoryFilterType.HASH_SET);
+                    }
+                    return CompletableFuture.completedFuture(inventory);
+                })
                 .thenApply(inventory -> {
                     checkNotNull(inventory);
+                    String key = getKey(connection);
+                    if (inventory.isFilterDecodingFailed()) {
+                        int numFailures = numFilterDecodingFailuresByPeer.merge(key, 1, Integer::sum);
+                        log.info("Peer {} could not decode our {} filter and we have no fallback. Number of failures: {}",
+                                connection.getPeerAddress().getFullAddress(), inventoryFilterType, numFailures);
+                    } else {
+                        numFilterDecodingFailuresByPeer.remove(key);
+                    }
+
+                    List<AddDataRequest> addDataRequests = inventory.getEntries().stream()
+                            .filter(dataRequest -> dataRequest instanceof AddDataRequest)
+                            .map(dataRequest -> (AddDataRequest) dataRequest)
+                            .collect(Collectors.toList());
+                    dataService.processInventoryAddDataRequests(addDataRequests);
                     inventory.getEntries().forEach(dataRequest -> {
-                        if (dataRequest instanceof AddDataRequest) {
-                            dataService.processAddDataRequest((AddDataRequest) dataRequest, false);
-                        } else if (dataRequest instanceof RemoveDataRequest) {
+                        if (dataRequest instanceof RemoveDataRequest) {
                             dataService.processRemoveDataRequest((RemoveDataRequest) dataRequest, false);
                         }
                     });
@@ -174,13 +205,11 @@ public class InventoryRequestService implements Node.Listener {
                 });
     }
 
-    private CompletableFuture<Inventory> requestFromPeer(Connection connection) {
+    private CompletableFuture<Inventory> requestFromPeer(Connection connection, InventoryFilterType inventoryFilterType) {
         String key = getKey(connection);
         InventoryHandler handler = new InventoryHandler(node, connection);
         requestHandlerMap.put(key, handler);
         numPendingRequests.set(requestHandlerMap.size());
-        List<Feature> peersFeatures = connection.getPeersCapability().getFeatures();
-        InventoryFilterType inventoryFilterType = getPreferredFilterType(peersFeatures).orElseThrow(); // we filtered before for presence
         var filterService = supportedFilterServices.get(inventoryFilterType);
         return handler.request(filterService.getFilter())
                 .orTimeout(TIMEOUT, TimeUnit.MILLISECONDS)
@@ -204,6 +233,11 @@ public class InventoryRequestService implements Node.Listener {
     private void periodicRequest() {
         List<Connection> candidatesForPeriodicRequests = getCandidatesForPeriodicRequests();
         int numCandidates = candidatesForPeriodicRequests.size();
+        if (numCandidates == 0) {
+            // No request would complete and reschedule, thus we try again at the next interval
+            startPeriodicRequests(config.getRepeatRequestInterval());
+            return;
+        }
         AtomicBoolean allDataReceived = new AtomicBoolean();
         AtomicInteger numCompleted = new AtomicInteger();
         candidatesForPeriodicRequests.forEach(connection -> requestInventory(connection)
@@ -257,7 +291,9 @@ public class InventoryRequestService implements Node.Listener {
     }
 
     private boolean canUseCandidate(Connection connection) {
-        return !requestHandlerMap.containsKey(getKey(connection)) &&
+        String key = getKey(connection);
+        return !requestHandlerMap.containsKey(key) &&
+                numFilterDecodingFailuresByPeer.getOrDefault(key, 0) < MAX_FILTER_DECODING_FAILURES &&
                 getPreferredFilterType(connection.getPeersCapability().getFeatures()).isPresent();
     }
 
@@ -26,6 +26,7 @@ import bisq.network.p2p.services.data.storage.StorageService;
 import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
 import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
 import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.RefreshAuthenticatedDataRequest;
 import bisq.network.p2p.services.data.storage.auth.RemoveAuthenticatedDataRequest;
 import bisq.network.p2p.services.data.storage.mailbox.AddMailboxRequest;
 import bisq.network.p2p.services.data.storage.mailbox.MailboxRequest;
@@ -80,6 +81,22 @@ public abstract class FilterService<T extends InventoryFilter> {
 
     abstract protected T safeCast(InventoryFilter inventoryFilter);
 
+    protected static int getSequenceNumber(DataRequest dataRequest) {
+        if (dataRequest instanceof AddAuthenticatedDataRequest) {
+            return ((AddAuthenticatedDataRequest) dataRequest).getAuthenticatedSequentialData().getSequenceNumber();
+        } else if (dataRequest instanceof RemoveAuthenticatedDataRequest) {
+            return ((RemoveAuthenticatedDataRequest) dataRequest).getSequenceNumber();
+        } else if (dataRequest instanceof RefreshAuthenticatedDataRequest) {
+            return ((RefreshAuthenticatedDataRequest) dataRequest).getSequenceNumber();
+        } else if (dataRequest instanceof AddMailboxRequest) {
+            return ((AddMailboxRequest) dataRequest).getSequenceNumber();
+        } else if (dataRequest instanceof RemoveMailboxRequest) {
+            return ((RemoveMailboxRequest) dataRequest).getSequenceNumber();
+        }
+        // AddAppendOnlyDataRequest does not use a seq nr.
+        return 0;
+    }
+
     private List<DataRequest> getAuthenticatedDataRequests(T filter,
                                                            AtomicInteger accumulatedSize,
                                                            AtomicBoolean maxSizeReached,
@@ -0,0 +1,93 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
+
+/**
+ * Arithmetic in GF(2^64) with the reduction polynomial x^64 + x^4 + x^3 + x + 1.
+ * Addition is XOR, so only multiplication and inversion are provided.
+ */
+final class GaloisField64 {
+    private static final long REDUCTION = 0x1BL;
+
+    private GaloisField64() {
+    }
+
+    static long multiply(long a, long b) {
+        long result = 0;
+        while (b != 0) {
+            result ^= a & -(b & 1);
+            a = multiplyByX(a);
+            b >>>= 1;
+        }
+        return result;
+    }
+
+    static long square(long a) {
+        return multiply(a, a);
+    }
+
+    /**
+     * @return a^(2^64 - 2) which is the multiplicative inverse of a. The inverse of 0 is 0.
+     */
+    static long inverse(long a) {
+        // We build a^(2^k - 1) for k=63 and square it.
+        long result = a;
+        for (int i = 1; i < 63; i++) {
+            result = multiply(square(result), a);
+        }
+        return square(result);
+    }
+
+    private static long multiplyByX(long a) {
+        return (a << 1) ^ ((a >> 63) & REDUCTION);
+    }
+
+    /**
+     * Multiplies with a fixed factor by looking up precomputed products of all 4 bit windows. Pays off if the same
+     * factor is used for many multiplications (about 20 and more).
+     */
+    static final class Multiplier {
+        private final long[] table = new long[256];
+
+        Multiplier(long factor) {
+            long base = factor;
+            for (int window = 0; window < 16; window++) {
+                int offset = window << 4;
+                long base1 = multiplyByX(base);
+                long base2 = multiplyByX(base1);
+                long base3 = multiplyByX(base2);
+                for (int value = 1; value < 16; value++) {
+                    table[offset + value] = (base & -(value & 1)) ^
+                            (base1 & -((value >> 1) & 1)) ^
+                            (base2 & -((value >> 2) & 1)) ^
+                            (base3 & -((value >> 3) & 1));
+                }
+                base = multiplyByX(base3);
+            }
+        }
+
+        long multiply(long value) {
+            long result = 0;
+            for (int window = 0; window < 16; window++) {
+                result ^= table[(window << 4) | (int) ((value >>> (window << 2)) & 15)];
+            }
+            return result;
+        }
+    }
+}
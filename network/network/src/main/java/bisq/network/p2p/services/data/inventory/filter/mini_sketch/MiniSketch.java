@@ -0,0 +1,213 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * PinSketch over GF(2^64) as used by <a href="https://github.com/sipa/minisketch">https://github.com/sipa/minisketch</a>.
+ * The sketch of a set consists of the odd power sums (syndromes) x^1, x^3, ... x^(2*capacity-1) of its elements.
+ * Merging the sketches of 2 sets by XOR results in the sketch of their symmetric difference, which can be decoded
+ * if it does not contain more than capacity elements.
+ * <p>
+ * Decoding is done with the Berlekamp-Massey algorithm. Instead of finding the roots of the resulting polynomial,
+ * we only verify that it has as many distinct roots in the field as its degree and test our own elements against it.
+ * The elements only the peer has are not needed for the inventory.
+ */
+final class MiniSketch {
+    private final long[] syndromes;
+
+    MiniSketch(int capacity) {
+        this(new long[capacity]);
+    }
+
+    MiniSketch(long[] syndromes) {
+        checkArgument(syndromes.length > 0, "Capacity must be at least 1");
+        this.syndromes = syndromes;
+    }
+
+    /**
+     * Maps a data request to a non-zero field element. The sequence number is included, so a data request with a
+     * new sequence number is treated as a different element.
+     */
+    static long toElement(byte[] hash, int sequenceNumber) {
+        long value = ByteBuffer.wrap(hash).getLong() ^ (sequenceNumber * 0x9E3779B97F4A7C15L);
+        // Mixing function from SplitMix64
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        value = value ^ (value >>> 31);
+        return value == 0 ? 1 : value;
+    }
+
+    int getCapacity() {
+        return syndromes.length;
+    }
+
+    long[] getSyndromes() {
+        return syndromes.clone();
+    }
+
+    void add(long element) {
+        checkArgument(element != 0, "Element must not be 0");
+        GaloisField64.Multiplier multiplyBySquare = new GaloisField64.Multiplier(GaloisField64.square(element));
+        long power = element;
+        for (int i = 0; i < syndromes.length; i++) {
+            syndromes[i] ^= power;
+            power = multiplyBySquare.multiply(power);
+        }
+    }
+
+    MiniSketch merge(MiniSketch other) {
+        checkArgument(other.getCapacity() == getCapacity(), "Sketches must have the same capacity");
+        long[] merged = new long[syndromes.length];
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] = syndromes[i] ^ other.syndromes[i];
+        }
+        return new MiniSketch(merged);
+    }
+
+    /**
+     * @return The difference if the sketch could be decoded, otherwise empty (e.g. if the difference is larger than
+     * the capacity).
+     */
+    Optional<Difference> decode() {
+        int numSyndromes = 2 * syndromes.length;
+        // allSyndromes[i] is the power sum of x^(i+1). The even ones are the squares of the ones at half the exponent.
+        long[] allSyndromes = new long[numSyndromes];
+        for (int i = 0; i < numSyndromes; i++) {
+            int exponent = i + 1;
+            allSyndromes[i] = exponent % 2 == 1
+                    ? syndromes[i / 2]
+                    : GaloisField64.square(allSyndromes[exponent / 2 - 1]);
+        }
+
+        // Berlekamp-Massey: find the shortest connection polynomial c generating the syndromes
+        long[] c = new long[numSyndromes + 1];
+        long[] b = new long[numSyndromes + 1];
+        c[0] = 1;
+        b[0] = 1;
+        int length = 0;
+        int shift = 1;
+        long previousDiscrepancyInverse = 1;
+        for (int n = 0; n < numSyndromes; n++) {
+            long discrepancy = allSyndromes[n];
+            for (int i = 1; i <= length; i++) {
+                discrepancy ^= GaloisField64.multiply(c[i], allSyndromes[n - i]);
+            }
+            if (discrepancy == 0) {
+                shift++;
+                continue;
+            }
+
+            long coefficient = GaloisField64.multiply(discrepancy, previousDiscrepancyInverse);
+            long[] previous = 2 * length <= n ? c.clone() : null;
+            for (int i = 0; i + shift <= numSyndromes; i++) {
+                if (b[i] != 0) {
+                    c[i + shift] ^= GaloisField64.multiply(coefficient, b[i]);
+                }
+            }
+            if (previous != null) {
+                length = n + 1 - length;
+                b = previous;
+                previousDiscrepancyInverse = GaloisField64.inverse(discrepancy);
+                shift = 1;
+            } else {
+                shift++;
+            }
+        }
+
+        if (length > syndromes.length || c[length] == 0) {
+            return Optional.empty();
+        }
+
+        // c has the inverses of the elements as roots. The reversed polynomial has the elements as roots.
+        long[] polynomial = new long[length + 1];
+        for (int i = 0; i <= length; i++) {
+            polynomial[i] = c[length - i];
+        }
+        if (!hasDistinctRootsInField(polynomial)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Difference(polynomial));
+    }
+
+    // A polynomial divides x^(2^64) - x (the product of (x - a) for all field elements) only if all its roots are
+    // distinct and in the field.
+    private static boolean hasDistinctRootsInField(long[] polynomial) {
+        int degree = polynomial.length - 1;
+        if (degree <= 1) {
+            return true;
+        }
+        GaloisField64.Multiplier[] multipliers = new GaloisField64.Multiplier[degree];
+        for (int i = 0; i < degree; i++) {
+            multipliers[i] = new GaloisField64.Multiplier(polynomial[i]);
+        }
+
+        long[] x = new long[degree];
+        x[1] = 1;
+        long[] result = x.clone();
+        for (int i = 0; i < 64; i++) {
+            long[] square = new long[2 * degree - 1];
+            for (int j = 0; j < degree; j++) {
+                square[2 * j] = GaloisField64.square(result[j]);
+            }
+            // Reduce modulo the monic polynomial
+            for (int j = square.length - 1; j >= degree; j--) {
+                long leading = square[j];
+                if (leading != 0) {
+                    int offset = j - degree;
+                    for (int k = 0; k < degree; k++) {
+                        square[offset + k] ^= multipliers[k].multiply(leading);
+                    }
+                }
+            }
+            result = Arrays.copyOf(square, degree);
+        }
+        return Arrays.equals(result, x);
+    }
+
+    static final class Difference {
+        // Monic polynomial with the elements of the difference as roots. Index is the exponent.
+        private final long[] polynomial;
+
+        private Difference(long[] polynomial) {
+            this.polynomial = polynomial;
+        }
+
+        int size() {
+            return polynomial.length - 1;
+        }
+
+        boolean contains(long element) {
+            if (size() == 0) {
+                return false;
+            }
+            GaloisField64.Multiplier multiplyByElement = new GaloisField64.Multiplier(element);
+            long value = 1;
+            for (int i = polynomial.length - 2; i >= 0; i--) {
+                value = multiplyByElement.multiply(value) ^ polynomial[i];
+            }
+            return value == 0;
+        }
+    }
+}
@@ -15,40 +15,63 @@
  * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
  */
 
+
 package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
 
 
+import bisq.common.data.ByteUnit;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilter;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilterType;
+import com.google.common.primitives.Longs;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
- * Skeleton for planned MiniSketch implementation based on <a href="https://github.com/sipa/minisketch">https://github.com/sipa/minisketch</a>
+ * Inventory filter based on <a href="https://github.com/sipa/minisketch">https://github.com/sipa/minisketch</a>.
+ * Contains the sketch of all our data requests. The size only depends on the capacity (8 bytes per element of the
+ * difference we can decode) and not on the number of data requests.
  */
 @Slf4j
 @Getter
 @ToString
 @EqualsAndHashCode(callSuper = true)
 public final class MiniSketchFilter extends InventoryFilter {
+    public final static int MAX_CAPACITY = 4096;
+
+    private final List<Long> syndromes;
+    private final int numEntries;
 
-    public MiniSketchFilter() {
-        this(InventoryFilterType.MINI_SKETCH);
+    // Set by the MiniSketchFilterService at the responder after decoding. Contains the elements of the responder which
+    // are missing at the requester.
+    @ToString.Exclude
+    private transient Optional<Set<Long>> missingElements = Optional.empty();
+
+    public MiniSketchFilter(List<Long> syndromes, int numEntries) {
+        this(InventoryFilterType.MINI_SKETCH, syndromes, numEntries);
     }
 
-    private MiniSketchFilter(InventoryFilterType inventoryFilterType) {
+    private MiniSketchFilter(InventoryFilterType inventoryFilterType, List<Long> syndromes, int numEntries) {
         super(inventoryFilterType);
 
+        this.syndromes = syndromes;
+        this.numEntries = numEntries;
+
         verify();
     }
 
     @Override
     public void verify() {
         checkArgument(inventoryFilterType == InventoryFilterType.MINI_SKETCH);
+        checkArgument(!syndromes.isEmpty() && syndromes.size() <= MAX_CAPACITY);
+        checkArgument(numEntries >= 0);
     }
 
     @Override
@@ -59,15 +82,29 @@ public final class MiniSketchFilter extends InventoryFilter {
     @Override
     public bisq.network.protobuf.InventoryFilter.Builder getBuilder(boolean serializeForHash) {
         return getInventoryFilterBuilder().setMiniSketchFilter(
-                bisq.network.protobuf.MiniSketchFilter.newBuilder());
+                bisq.network.protobuf.MiniSketchFilter.newBuilder()
+                        .addAllSyndromes(syndromes)
+                        .setNumEntries(numEntries));
     }
 
     public static MiniSketchFilter fromProto(bisq.network.protobuf.InventoryFilter proto) {
-        return new MiniSketchFilter(InventoryFilterType.fromProto(proto.getInventoryFilterType()));
+        bisq.network.protobuf.MiniSketchFilter miniSketchFilter = proto.getMiniSketchFilter();
+        return new MiniSketchFilter(InventoryFilterType.fromProto(proto.getInventoryFilterType()),
+                miniSketchFilter.getSyndromesList(),
+                miniSketchFilter.getNumEntries());
     }
 
     @Override
     public String getDetails() {
-        return "MiniSketchFilter";
+        return "MiniSketchFilter with capacity " + syndromes.size() + " for " + numEntries + " entries and size of " +
+                ByteUnit.BYTE.toKB(getSerializedSize()) + " KB";
+    }
+
+    MiniSketch getMiniSketch() {
+        return new MiniSketch(Longs.toArray(syndromes));
+    }
+
+    void setMissingElements(Set<Long> missingElements) {
+        this.missingElements = Optional.of(missingElements);
     }
-}
\ No newline at end of file
+}
@@ -15,9 +15,12 @@
  * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
  */
 
+
 package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
 
 import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.network.p2p.services.data.inventory.Inventory;
 import bisq.network.p2p.services.data.inventory.filter.FilterService;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilter;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilterType;
@@ -25,36 +28,104 @@ import bisq.network.p2p.services.data.storage.StorageService;
 import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
 import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataRequest;
 import bisq.network.p2p.services.data.storage.mailbox.MailboxRequest;
+import com.google.common.primitives.Longs;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 /**
- * Skeleton for planned MiniSketch implementation based on <a href="https://github.com/sipa/minisketch">https://github.com/sipa/minisketch</a>
+ * Set reconciliation based on <a href="https://github.com/sipa/minisketch">https://github.com/sipa/minisketch</a>.
+ * The requester sends the sketch of its data requests. The responder merges it with the sketch of its own data
+ * requests and decodes the difference. If the difference exceeds the capacity of the sketch, the decoding fails and
+ * we respond with an inventory flagged with filterDecodingFailed, so that the requester can fall back to the
+ * HashSetFilter.
  */
 @Slf4j
 public class MiniSketchFilterService extends FilterService<MiniSketchFilter> {
+    // 8 bytes per element, thus the filter has about 2 KB. Sufficient for the changes between periodic requests.
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final int capacity;
+    // Creating the sketch is the most expensive part, and we would do that at each request even if our data has not
+    // changed, thus we cache it.
+    private final Object sketchCacheLock = new Object();
+    private Optional<CachedSketch> cachedSketch = Optional.empty();
+
     public MiniSketchFilterService(StorageService storageService, int maxSize) {
+        this(storageService, maxSize, DEFAULT_CAPACITY);
+    }
+
+    public MiniSketchFilterService(StorageService storageService, int maxSize, int capacity) {
         super(storageService, maxSize);
+        this.capacity = capacity;
     }
 
     public MiniSketchFilter getFilter() {
-        return new MiniSketchFilter();
+        long[] myElements = getMyElements();
+        return new MiniSketchFilter(Longs.asList(getSketch(myElements, capacity).getSyndromes()), myElements.length);
+    }
+
+    @Override
+    public Inventory createInventory(InventoryFilter inventoryFilter, Predicate<Integer> predicate) {
+        MiniSketchFilter filter = safeCast(inventoryFilter);
+        // The cost of creating and decoding the sketch grows with the capacity, which is set by the peer. We do not
+        // accept a larger capacity than we use ourselves.
+        int peersCapacity = filter.getSyndromes().size();
+        if (peersCapacity > getMaxAcceptedCapacity()) {
+            log.warn("The capacity {} of the MiniSketchFilter exceeds the max. accepted capacity of {}.",
+                    peersCapacity, getMaxAcceptedCapacity());
+            return Inventory.forFailedFilterDecoding();
+        }
+
+        long ts = System.currentTimeMillis();
+        long[] myElements = getMyElements();
+        MiniSketch mySketch = getSketch(myElements, peersCapacity);
+        Optional<MiniSketch.Difference> difference = filter.getMiniSketch().merge(mySketch).decode();
+        if (difference.isEmpty()) {
+            log.info("Decoding the MiniSketchFilter failed. The difference is likely larger than the capacity of {}. Took {} ms",
+                    filter.getSyndromes().size(), System.currentTimeMillis() - ts);
+            return Inventory.forFailedFilterDecoding();
+        }
+
+        Set<Long> missingElements = new HashSet<>();
+        for (long element : myElements) {
+            if (difference.get().contains(element)) {
+                missingElements.add(element);
+            }
+        }
+        // The difference contains the elements only we have and the elements only the peer has. As we only can detect
+        // our own elements, we verify that the number of the peer's elements is consistent with the numEntries of the
+        // filter. A wrongly decoded difference (e.g. by an exceeded capacity) would not pass that check.
+        int numPeersElements = difference.get().size() - missingElements.size();
+        if (numPeersElements - missingElements.size() != filter.getNumEntries() - myElements.length) {
+            log.info("The decoded MiniSketchFilter difference is inconsistent with the number of entries. Took {} ms",
+                    System.currentTimeMillis() - ts);
+            return Inventory.forFailedFilterDecoding();
+        }
+        log.info("Decoded MiniSketchFilter with difference of {} entries. {} entries are missing at the peer. Took {} ms",
+                difference.get().size(), missingElements.size(), System.currentTimeMillis() - ts);
+
+        filter.setMissingElements(missingElements);
+        return super.createInventory(filter, predicate);
     }
 
     @Override
     protected boolean isAuthenticatedDataRequestMissing(MiniSketchFilter filter, Map.Entry<ByteArray, AuthenticatedDataRequest> mapEntry) {
-        return true;
+        return isMissing(filter, mapEntry);
     }
 
     @Override
     protected boolean isMailboxRequestMissing(MiniSketchFilter filter, Map.Entry<ByteArray, MailboxRequest> mapEntry) {
-        return true;
+        return isMissing(filter, mapEntry);
     }
 
     @Override
     protected boolean isAddAppendOnlyDataRequestMissing(MiniSketchFilter filter, Map.Entry<ByteArray, AddAppendOnlyDataRequest> mapEntry) {
-        return true;
+        return isMissing(filter, mapEntry);
     }
 
     @Override
@@ -65,4 +136,68 @@ public class MiniSketchFilterService extends FilterService<MiniSketchFilter> {
         }
         throw new IllegalArgumentException("InventoryFilter not of expected type. inventoryFilter=" + inventoryFilter);
     }
+
+    private int getMaxAcceptedCapacity() {
+        return Math.max(capacity, DEFAULT_CAPACITY);
+    }
+
+    private boolean isMissing(MiniSketchFilter filter, Map.Entry<ByteArray, ? extends DataRequest> mapEntry) {
+        return filter.getMissingElements()
+                .map(missingElements -> missingElements.contains(toElement(mapEntry)))
+                .orElse(true);
+    }
+
+    private long[] getMyElements() {
+        return storageService.getAllDataRequestMapEntries()
+                .mapToLong(MiniSketchFilterService::toElement)
+                .toArray();
+    }
+
+    private MiniSketch getSketch(long[] elements, int capacity) {
+        // The XOR and the sum of the elements serve as fingerprint of our data for the cache
+        long xor = 0;
+        long sum = 0;
+        for (long element : elements) {
+            xor ^= element;
+            sum += element;
+        }
+        synchronized (sketchCacheLock) {
+            if (cachedSketch.isPresent() && cachedSketch.get().matches(capacity, elements.length, xor, sum)) {
+                return cachedSketch.get().miniSketch;
+            }
+        }
+
+        MiniSketch miniSketch = new MiniSketch(capacity);
+        for (long element : elements) {
+            miniSketch.add(element);
+        }
+        synchronized (sketchCacheLock) {
+            cachedSketch = Optional.of(new CachedSketch(miniSketch, capacity, elements.length, xor, sum));
+        }
+        return miniSketch;
+    }
+
+    private static long toElement(Map.Entry<ByteArray, ? extends DataRequest> mapEntry) {
+        return MiniSketch.toElement(mapEntry.getKey().getBytes(), getSequenceNumber(mapEntry.getValue()));
+    }
+
+    private static final class CachedSketch {
+        private final MiniSketch miniSketch;
+        private final int capacity;
+        private final int numElements;
+        private final long xor;
+        private final long sum;
+
+        private CachedSketch(MiniSketch miniSketch, int capacity, int numElements, long xor, long sum) {
+            this.miniSketch = miniSketch;
+            this.capacity = capacity;
+            this.numElements = numElements;
+            this.xor = xor;
+            this.sum = sum;
+        }
+
+        private boolean matches(int capacity, int numElements, long xor, long sum) {
+            return this.capacity == capacity && this.numElements == numElements && this.xor == xor && this.sum == sum;
+        }
+    }
 }
@@ -27,6 +27,7 @@ import bisq.network.p2p.services.data.storage.auth.RemoveAuthenticatedDataReques
 import bisq.network.p2p.services.data.storage.mailbox.AddMailboxRequest;
 import bisq.network.p2p.services.data.storage.mailbox.RemoveMailboxRequest;
 import bisq.persistence.DbSubDirectory;
+import bisq.persistence.JournaledPersistence;
 import bisq.persistence.Persistence;
 import bisq.persistence.PersistenceService;
 import bisq.persistence.RateLimitedPersistenceClient;
@@ -37,14 +38,22 @@ import lombok.extern.slf4j.Slf4j;
 import java.io.File;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+/**
+ * Persists the changes of the store to a journal instead of writing the whole store at each change
+ * (see {@link JournaledPersistence}). Journal writes are rate limited like snapshot writes, dropped changes stay
+ * tracked in the store and are written with the next write or at shutdown.
+ */
 @Slf4j
 public abstract class DataStorageService<T extends DataRequest> extends RateLimitedPersistenceClient<DataStore<T>> {
     public static final String STORE_POST_FIX = "Store";
+    private static final int MIN_JOURNAL_RECORDS_FOR_COMPACTION = 1000;
 
     @Getter
     protected final Persistence<DataStore<T>> persistence;
+    private final JournaledPersistence<DataStore<T>, bisq.network.protobuf.DataStore.MapEntry> journaledPersistence;
     @Getter
     protected final DataStore<T> persistableStore = new DataStore<>();
     @Getter
@@ -67,6 +76,9 @@ public abstract class DataStorageService<T extends DataRequest> extends RateLimi
                 storageFileName,
                 persistableStore,
                 MaxBackupSize.from(dbSubDirectory));
+        journaledPersistence = new JournaledPersistence<>(persistence,
+                bisq.network.protobuf.DataStore.MapEntry.parser(),
+                MIN_JOURNAL_RECORDS_FOR_COMPACTION);
     }
 
     public void shutdown() {
@@ -74,6 +86,44 @@ public abstract class DataStorageService<T extends DataRequest> extends RateLimi
         maxMapSize = Optional.empty();
     }
 
+    @Override
+    public boolean isDeferrableAtStartup() {
+        // The network data are only used after the network service got initialized
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Optional<DataStore<T>>> readPersisted() {
+        return journaledPersistence.readAsync(DataStore::new)
+                .thenApply(optionalPersisted -> {
+                    optionalPersisted.ifPresent(persisted -> {
+                        persisted = prunePersisted(persisted);
+                        persistableStore.applyPersisted(persisted);
+                        onPersistedApplied(persisted);
+                        if (journaledPersistence.hasJournalRecords()) {
+                            // We do not want to replay the journal again at the next startup
+                            journaledPersistence.compact(persistableStore);
+                        }
+                    });
+                    return optionalPersisted;
+                });
+    }
+
+    @Override
+    protected CompletableFuture<Boolean> write() {
+        return journaledPersistence.persistChanges(persistableStore);
+    }
+
+    @Override
+    protected void writeOnShutdown() {
+        journaledPersistence.persistChanges(persistableStore).join();
+    }
+
+    @Override
+    protected boolean requiresWriteOnShutdown() {
+        return super.requiresWriteOnShutdown() || journaledPersistence.isCompactionRequired();
+    }
+
     @Override
     public DataStore<T> prunePersisted(DataStore<T> persisted) {
         Map<ByteArray, T> map = persisted.getMap();
@@ -21,6 +21,7 @@ import bisq.common.data.ByteArray;
 import bisq.common.proto.ProtoResolver;
 import bisq.common.proto.UnresolvableProtobufMessageException;
 import bisq.network.p2p.services.data.DataRequest;
+import bisq.persistence.JournaledStore;
 import bisq.persistence.PersistableStore;
 import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.AccessLevel;
@@ -29,18 +30,24 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @NoArgsConstructor(access = AccessLevel.PACKAGE)
 @Slf4j
 @ToString
-public final class DataStore<T extends DataRequest> implements PersistableStore<DataStore<T>> {
+public final class DataStore<T extends DataRequest> implements PersistableStore<DataStore<T>>,
+        JournaledStore<bisq.network.protobuf.DataStore.MapEntry> {
     @Getter(AccessLevel.PUBLIC)
-    private final Map<ByteArray, T> map = new ConcurrentHashMap<>();
+    private final Map<ByteArray, T> map = new ChangeTrackingMap<>();
 
     DataStore(Map<ByteArray, T> map) {
         this.map.putAll(map);
@@ -83,6 +90,171 @@ public final class DataStore<T extends DataRequest> implements PersistableStore<
     public void applyPersisted(DataStore<T> persisted) {
         map.clear();
         map.putAll(persisted.getMap());
+        getChangedKeys().clear();
+    }
+
+    /**
+     * @return The journal records of the entries which have been changed since the last call. Removed entries are
+     * represented by a record without value.
+     */
+    @Override
+    public List<bisq.network.protobuf.DataStore.MapEntry> drainJournalRecords() {
+        List<bisq.network.protobuf.DataStore.MapEntry> records = new ArrayList<>();
+        Iterator<ByteArray> iterator = getChangedKeys().iterator();
+        while (iterator.hasNext()) {
+            ByteArray key = iterator.next();
+            iterator.remove();
+            // We read the value after removing the key, so a concurrent change is either included or tracked again
+            T value = map.get(key);
+            var builder = bisq.network.protobuf.DataStore.MapEntry.newBuilder().setKey(key.toProto(false));
+            if (value != null) {
+                builder.setValue(value.toProto(false).getDataRequest());
+            }
+            records.add(builder.build());
+        }
+        return records;
+    }
+
+    @Override
+    public void applyJournalRecords(List<bisq.network.protobuf.DataStore.MapEntry> records) {
+        records.forEach(record -> {
+            ByteArray key = ByteArray.fromProto(record.getKey());
+            if (record.hasValue()) {
+                //noinspection unchecked
+                map.put(key, (T) DataRequest.fromProto(record.getValue()));
+            } else {
+                map.remove(key);
+            }
+        });
+    }
+
+    @Override
+    public int getNumEntries() {
+        return map.size();
+    }
+
+    private Set<ByteArray> getChangedKeys() {
+        return ((ChangeTrackingMap<ByteArray, T>) map).changedKeys;
+    }
+
+    // Tracks the keys of changed entries for the journal. All mutating methods of the map are overridden. Removal
+    // via the views (keySet, values, entrySet) is not tracked and must not be used.
+    private static final class ChangeTrackingMap<K, V> extends ConcurrentHashMap<K, V> {
+        private final Set<K> changedKeys = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public V put(K key, V value) {
+            V previous = super.put(key, value);
+            changedKeys.add(key);
+            return previous;
+        }
+
+        @Override
+        public V putIfAbsent(K key, V value) {
+            V previous = super.putIfAbsent(key, value);
+            if (previous == null) {
+                changedKeys.add(key);
+            }
+            return previous;
+        }
+
+        @Override
+        public void putAll(Map<? extends K, ? extends V> map) {
+            super.putAll(map);
+            changedKeys.addAll(map.keySet());
+        }
+
+        @Override
+        public V remove(Object key) {
+            V previous = super.remove(key);
+            if (previous != null) {
+                //noinspection unchecked
+                changedKeys.add((K) key);
+            }
+            return previous;
+        }
+
+        @Override
+        public boolean remove(Object key, Object value) {
+            boolean removed = super.remove(key, value);
+            if (removed) {
+                //noinspection unchecked
+                changedKeys.add((K) key);
+            }
+            return removed;
+        }
+
+        @Override
+        public V replace(K key, V value) {
+            V previous = super.replace(key, value);
+            if (previous != null) {
+                changedKeys.add(key);
+            }
+            return previous;
+        }
+
+        @Override
+        public boolean replace(K key, V oldValue, V newValue) {
+            boolean replaced = super.replace(key, oldValue, newValue);
+            if (replaced) {
+                changedKeys.add(key);
+            }
+            return replaced;
+        }
+
+        @Override
+        public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+            super.replaceAll(function);
+            changedKeys.addAll(keySet());
+        }
+
+        @Override
+        public void clear() {
+            changedKeys.addAll(keySet());
+            super.clear();
+        }
+
+        @Override
+        public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+            // We only track if the value got computed, not if it was present already
+            boolean[] computed = new boolean[1];
+            V value = super.computeIfAbsent(key, k -> {
+                V newValue = mappingFunction.apply(k);
+                computed[0] = newValue != null;
+                return newValue;
+            });
+            if (computed[0]) {
+                changedKeys.add(key);
+            }
+            return value;
+        }
+
+        @Override
+        public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+            boolean[] computed = new boolean[1];
+            V value = super.computeIfPresent(key, (k, v) -> {
+                computed[0] = true;
+                return remappingFunction.apply(k, v);
+            });
+            if (computed[0]) {
+                changedKeys.add(key);
+            }
+            return value;
+        }
+
+        @Override
+        public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+            V value = super.compute(key, remappingFunction);
+            changedKeys.add(key);
+            return value;
+        }
+
+        @Override
+        public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+            V merged = super.merge(key, value, remappingFunction);
+            changedKeys.add(key);
+            return merged;
+        }
     }
 
     @Override
@@ -20,6 +20,7 @@ package bisq.network.p2p.services.data.storage;
 
 import bisq.common.data.ByteArray;
 import bisq.common.proto.NetworkStorageWhiteList;
+import bisq.common.util.CompletableFutureUtils;
 import bisq.common.util.StringUtils;
 import bisq.network.NetworkService;
 import bisq.network.p2p.services.data.AddDataRequest;
@@ -274,6 +275,46 @@ public class StorageService {
         }
     }
 
+    /**
+     * Adds a batch of AddAuthenticatedDataRequests (e.g. from an inventory response) grouped by their stores, so
+     * that the signatures can be verified in parallel and each store gets persisted only once.
+     *
+     * @return The data which got added.
+     */
+    public CompletableFuture<List<StorageData>> onAddAuthenticatedDataRequests(List<AddAuthenticatedDataRequest> requests) {
+        return addAuthenticatedDataRequests(requests)
+                .thenApply(addedRequests -> addedRequests.stream()
+                        .map(request -> (StorageData) request.getAuthenticatedSequentialData().getAuthenticatedData())
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Same as onAddAuthenticatedDataRequests but returns the requests which got added, e.g. for re-broadcasting them.
+     */
+    public CompletableFuture<List<AddAuthenticatedDataRequest>> addAuthenticatedDataRequests(List<AddAuthenticatedDataRequest> requests) {
+        Map<String, List<AddAuthenticatedDataRequest>> requestsByClassName = requests.stream()
+                .collect(Collectors.groupingBy(request -> request.getAuthenticatedSequentialData().getAuthenticatedData().getClassName()));
+        return CompletableFutureUtils.allOf(requestsByClassName.entrySet().stream()
+                        .map(entry -> getOrCreateAuthenticatedDataStore(entry.getKey())
+                                .thenApply(store -> {
+                                    List<AddAuthenticatedDataRequest> storeRequests = entry.getValue();
+                                    List<DataStorageResult> results = store.addAll(storeRequests);
+                                    List<AddAuthenticatedDataRequest> addedRequests = new ArrayList<>();
+                                    for (int i = 0; i < results.size(); i++) {
+                                        DataStorageResult dataStorageResult = results.get(i);
+                                        if (dataStorageResult.isSuccess()) {
+                                            addedRequests.add(storeRequests.get(i));
+                                        } else if (dataStorageResult.isSevereFailure()) {
+                                            log.warn("AddAuthenticatedDataRequest was not added to store. Result={}", dataStorageResult);
+                                        }
+                                    }
+                                    return addedRequests;
+                                })))
+                .thenApply(lists -> lists.stream()
+                        .flatMap(List::stream)
+                        .collect(Collectors.toList()));
+    }
+
     private CompletableFuture<Optional<StorageData>> onAddMailboxRequest(AddMailboxRequest request) {
         MailboxData mailboxData = request.getMailboxSequentialData().getMailboxData();
         return getOrCreateMailboxDataStore(mailboxData.getClassName())
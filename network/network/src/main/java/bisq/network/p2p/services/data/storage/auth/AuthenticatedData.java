@@ -17,6 +17,8 @@
 
 package bisq.network.p2p.services.data.storage.auth;
 
+import bisq.common.proto.MemoizedProto;
+import bisq.common.proto.ProtoMemo;
 import bisq.common.proto.UnresolvableProtobufMessageException;
 import bisq.network.p2p.services.data.storage.DistributedData;
 import bisq.network.p2p.services.data.storage.MetaData;
@@ -32,9 +34,12 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @EqualsAndHashCode
-public abstract class AuthenticatedData implements StorageData {
+public abstract class AuthenticatedData implements StorageData, MemoizedProto {
     @Getter
     protected final DistributedData distributedData;
+    // transient fields are excluded by default for EqualsAndHashCode
+    @Getter
+    private transient final ProtoMemo protoMemo = new ProtoMemo();
 
     public AuthenticatedData(DistributedData distributedData) {
         this.distributedData = distributedData;
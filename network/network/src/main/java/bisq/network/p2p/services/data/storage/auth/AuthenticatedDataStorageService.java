@@ -34,12 +34,15 @@ import bisq.security.DigestUtil;
 import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -82,81 +85,61 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
 
     public DataStorageResult add(AddAuthenticatedDataRequest request) {
         maybeLogMapState("add", persistableStore);
-        AuthenticatedSequentialData authenticatedSequentialData = request.getAuthenticatedSequentialData();
-        AuthenticatedData authenticatedData = authenticatedSequentialData.getAuthenticatedData();
-        DistributedData distributedData = authenticatedData.distributedData;
-        byte[] hash = DigestUtil.hash(authenticatedData.serializeForHash());
-        ByteArray byteArray = new ByteArray(hash);
-        AuthenticatedDataRequest requestFromMap;
-        Map<ByteArray, AuthenticatedDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
-            if (isExceedingMapSize()) {
-                return new DataStorageResult(false).maxMapSizeReached();
-            }
-
-            requestFromMap = map.get(byteArray);
-            if (request.equals(requestFromMap)) {
-                return new DataStorageResult(false).requestAlreadyReceived();
-            }
-
-            if (requestFromMap != null && authenticatedSequentialData.isSequenceNrInvalid(requestFromMap.getSequenceNumber())) {
-                return new DataStorageResult(false).sequenceNrInvalid();
-            }
-
-            if (authenticatedSequentialData.isExpired()) {
-                log.info("AddAuthenticatedDataRequest with {} is expired on {}",
-                        distributedData.getClass().getSimpleName(),
-                        new Date(authenticatedSequentialData.getCreated() + distributedData.getMetaData().getTtl())
-                );
-                log.debug("Data is expired at add. request={}", request);
-                return new DataStorageResult(false).expired();
-            }
-
-            if (authenticatedData.isDataInvalid(authenticatedSequentialData.getPubKeyHash())) {
-                log.warn("AuthenticatedData is invalid at add. request={}", request);
-                return new DataStorageResult(false).dataInvalid();
-            }
-
-            if (authenticatedData instanceof AuthorizedData authorizedData) {
-                if (authorizedData.isNotAuthorized()) {
-                    log.warn("AuthorizedData is not authorized. request={}", StringUtils.truncate(request.toString(), 500));
-                    return new DataStorageResult(false).isNotAuthorized();
-                }
-            }
-
-            if (request.isPublicKeyInvalid()) {
-                log.warn("PublicKey is invalid at add. request={}", request);
-                return new DataStorageResult(false).publicKeyHashInvalid();
-            }
-
-            if (request.isSignatureInvalid()) {
-                log.warn("Signature is invalid at add. request={}", request);
-                return new DataStorageResult(false).signatureInvalid();
-            }
-
-            if (distributedData instanceof PublishDateAware publishDateAware) {
-                publishDateAware.setPublishDate(authenticatedSequentialData.getCreated());
-            }
-
-            map.put(byteArray, request);
+        ByteArray byteArray = getHash(request);
+        // We check first against our map, so we do not verify the signature of requests we have already received.
+        // The validation is done without holding the lock, and we apply the request only if it is still valid
+        // against our map (e.g. we might have received a request with a higher sequence number in the meantime).
+        Optional<DataStorageResult> failure = checkAddAgainstMap(request, byteArray)
+                .or(() -> validateAdd(request));
+        if (failure.isPresent()) {
+            return failure.get();
+        }
 
-            // In case we only updated the seq number we still want to broadcast and update the listeners.
-            // It is a valid use case that we have both an add and remove data request, and we get repeated sequences
-            // of add/remove events. In that case only the sequence number changes, but we still want to notify our
-            // listeners.
+        DataStorageResult result = commitAdd(request, byteArray);
+        if (!result.isSuccess()) {
+            return result;
         }
 
         persist();
+        notifyAdded(request.getAuthenticatedSequentialData().getAuthenticatedData());
+        maybeLogMapState("add success", persistableStore);
+        return result;
+    }
 
-        listeners.forEach(listener -> {
-            try {
-                listener.onAdded(authenticatedData);
-            } catch (Exception e) {
-                log.error("Calling onAdded at listener {} failed", listener, e);
+    /**
+     * Adds a batch of requests, e.g. from an inventory response. The signatures are verified in parallel, the
+     * requests are applied in the order of the list and the store gets persisted once.
+     *
+     * @return The results in the same order as the requests.
+     */
+    public List<DataStorageResult> addAll(List<AddAuthenticatedDataRequest> requests) {
+        maybeLogMapState("addAll", persistableStore);
+        List<ByteArray> hashes = requests.parallelStream()
+                .map(this::getHash)
+                .toList();
+        List<Optional<DataStorageResult>> failures = IntStream.range(0, requests.size()).parallel()
+                .mapToObj(index -> checkAddAgainstMap(requests.get(index), hashes.get(index))
+                        .or(() -> validateAdd(requests.get(index))))
+                .toList();
+
+        List<DataStorageResult> results = new ArrayList<>(requests.size());
+        List<AuthenticatedData> addedData = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            AddAuthenticatedDataRequest request = requests.get(i);
+            ByteArray byteArray = hashes.get(i);
+            DataStorageResult result = failures.get(i).orElseGet(() -> commitAdd(request, byteArray));
+            if (result.isSuccess()) {
+                addedData.add(request.getAuthenticatedSequentialData().getAuthenticatedData());
             }
-        });
-        maybeLogMapState("add success", persistableStore);
-        return new DataStorageResult(true);
+            results.add(result);
+        }
+
+        if (!addedData.isEmpty()) {
+            persist();
+            addedData.forEach(this::notifyAdded);
+            maybeLogMapState("addAll success", persistableStore);
+        }
+        return results;
     }
 
     public DataStorageResult remove(RemoveAuthenticatedDataRequest request) {
@@ -164,79 +147,90 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
         ByteArray byteArray = new ByteArray(request.getHash());
         AuthenticatedData authenticatedDataFromMap;
         Map<ByteArray, AuthenticatedDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
-            AuthenticatedDataRequest requestFromMap = map.get(byteArray);
-            if (requestFromMap == null) {
-                log.debug("No entry at remove. hash={}", byteArray);
-                // We don't have any entry, but it might be that we would receive later an add request, so we need to keep
-                // track of the sequence number
-                map.put(byteArray, request);
-                persist();
-                return new DataStorageResult(true).noEntry();
-            }
-
-            if (requestFromMap instanceof RemoveAuthenticatedDataRequest) {
-                // log.debug("Already removed. request={}, map={}", request, map);
-                // We have had the entry already removed.
-                if (!request.isSequenceNrInvalid(requestFromMap.getSequenceNumber())) {
-                    // We update the map with the new request with the fresh sequence number.
+        boolean isSignatureVerified = false;
+        while (true) {
+            synchronized (mapAccessLock) {
+                AuthenticatedDataRequest requestFromMap = map.get(byteArray);
+                if (requestFromMap == null) {
+                    log.debug("No entry at remove. hash={}", byteArray);
+                    // We don't have any entry, but it might be that we would receive later an add request, so we need to keep
+                    // track of the sequence number
                     map.put(byteArray, request);
                     persist();
+                    return new DataStorageResult(true).noEntry();
                 }
-                return new DataStorageResult(true).alreadyRemoved();
-            }
 
-            // At that point we know requestFromMap is an AddProtectedDataRequest
-            checkArgument(requestFromMap instanceof AddAuthenticatedDataRequest,
-                    "requestFromMap expected be type of AddProtectedDataRequest");
-            AddAuthenticatedDataRequest addRequestFromMap = (AddAuthenticatedDataRequest) requestFromMap;
+                if (requestFromMap instanceof RemoveAuthenticatedDataRequest) {
+                    // log.debug("Already removed. request={}, map={}", request, map);
+                    // We have had the entry already removed.
+                    if (!request.isSequenceNrInvalid(requestFromMap.getSequenceNumber())) {
+                        // We update the map with the new request with the fresh sequence number.
+                        map.put(byteArray, request);
+                        persist();
+                    }
+                    return new DataStorageResult(true).alreadyRemoved();
+                }
 
-            // We have an entry, lets validate if we can remove it
-            AuthenticatedSequentialData dataFromMap = addRequestFromMap.getAuthenticatedSequentialData();
-            authenticatedDataFromMap = dataFromMap.getAuthenticatedData();
-            if (request.isSequenceNrInvalid(dataFromMap.getSequenceNumber())) {
-                log.warn("SequenceNr has not increased at remove. request={}", request);
-                return new DataStorageResult(false).sequenceNrInvalid();
-            }
+                // At that point we know requestFromMap is an AddProtectedDataRequest
+                checkArgument(requestFromMap instanceof AddAuthenticatedDataRequest,
+                        "requestFromMap expected be type of AddProtectedDataRequest");
+                AddAuthenticatedDataRequest addRequestFromMap = (AddAuthenticatedDataRequest) requestFromMap;
 
-            if (request.isPublicKeyHashInvalid(dataFromMap)) {
-                log.warn("PublicKey hash is invalid at remove. request={}", request);
-                return new DataStorageResult(false).publicKeyHashInvalid();
+                // We have an entry, lets validate if we can remove it
+                AuthenticatedSequentialData dataFromMap = addRequestFromMap.getAuthenticatedSequentialData();
+                if (request.isSequenceNrInvalid(dataFromMap.getSequenceNumber())) {
+                    log.warn("SequenceNr has not increased at remove. request={}", request);
+                    return new DataStorageResult(false).sequenceNrInvalid();
+                }
+
+                if (request.isPublicKeyHashInvalid(dataFromMap)) {
+                    log.warn("PublicKey hash is invalid at remove. request={}", request);
+                    return new DataStorageResult(false).publicKeyHashInvalid();
+                }
+
+                if (isSignatureVerified) {
+                    authenticatedDataFromMap = dataFromMap.getAuthenticatedData();
+
+                    // As metaData from distributedData is taken from the users current code base but the one from RemoveAuthenticatedDataRequest
+                    // is from the senders version (taken from senders distributedData) it could be different if both users had
+                    // different versions and metaData has changed between those versions.
+                    // If we detect such a difference we use our metaData version. This also protects against malicious manipulation.
+                    MetaData metaDataFromDistributedData = authenticatedDataFromMap.getMetaData();
+                    if (!request.getFallbackMetaData().equals(metaDataFromDistributedData)) {
+                        request.setMetaDataFromDistributedData(Optional.of(metaDataFromDistributedData));
+                        log.warn("MetaData of remove request not matching the one from the addRequest from the map. We override " +
+                                        "metadata with the one we have from the associated distributed data." +
+                                        "{} vs. {}",
+                                request.getFallbackMetaData(),
+                                metaDataFromDistributedData);
+                    }
+
+                    map.put(byteArray, request);
+                    break;
+                }
             }
 
+            // The signature verification is expensive, so we do it without holding the lock. After that we repeat
+            // the checks against the map as it might have changed in the meantime.
             if (request.isSignatureInvalid()) {
                 log.warn("Signature is invalid at remove. request={}", request);
                 return new DataStorageResult(false).signatureInvalid();
             }
-
-            // As metaData from distributedData is taken from the users current code base but the one from RemoveAuthenticatedDataRequest
-            // is from the senders version (taken from senders distributedData) it could be different if both users had
-            // different versions and metaData has changed between those versions.
-            // If we detect such a difference we use our metaData version. This also protects against malicious manipulation.
-            MetaData metaDataFromDistributedData = addRequestFromMap.getAuthenticatedSequentialData().getAuthenticatedData().getMetaData();
-            if (!request.getFallbackMetaData().equals(metaDataFromDistributedData)) {
-                request.setMetaDataFromDistributedData(Optional.of(metaDataFromDistributedData));
-                log.warn("MetaData of remove request not matching the one from the addRequest from the map. We override " +
-                                "metadata with the one we have from the associated distributed data." +
-                                "{} vs. {}",
-                        request.getFallbackMetaData(),
-                        metaDataFromDistributedData);
-            }
-
-            map.put(byteArray, request);
+            isSignatureVerified = true;
         }
 
         persist();
 
+        AuthenticatedData removedData = authenticatedDataFromMap;
         listeners.forEach(listener -> {
             try {
-                listener.onRemoved(authenticatedDataFromMap);
+                listener.onRemoved(removedData);
             } catch (Exception e) {
                 log.error("Calling onRemoved at listener {} failed", listener, e);
             }
         });
         maybeLogMapState("remove success", persistableStore);
-        return new DataStorageResult(true).removedData(authenticatedDataFromMap);
+        return new DataStorageResult(true).removedData(removedData);
     }
 
     public DataStorageResult refresh(RefreshAuthenticatedDataRequest request) {
@@ -323,6 +317,103 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
         return sequenceNumber;
     }
 
+    private ByteArray getHash(AddAuthenticatedDataRequest request) {
+        AuthenticatedData authenticatedData = request.getAuthenticatedSequentialData().getAuthenticatedData();
+        return new ByteArray(authenticatedData.getHash(DigestUtil::hash));
+    }
+
+    private Optional<DataStorageResult> checkAddAgainstMap(AddAuthenticatedDataRequest request, ByteArray byteArray) {
+        Map<ByteArray, AuthenticatedDataRequest> map = persistableStore.getMap();
+        synchronized (mapAccessLock) {
+            if (isExceedingMapSize()) {
+                return Optional.of(new DataStorageResult(false).maxMapSizeReached());
+            }
+
+            AuthenticatedDataRequest requestFromMap = map.get(byteArray);
+            if (request.equals(requestFromMap)) {
+                return Optional.of(new DataStorageResult(false).requestAlreadyReceived());
+            }
+
+            AuthenticatedSequentialData authenticatedSequentialData = request.getAuthenticatedSequentialData();
+            if (requestFromMap != null && authenticatedSequentialData.isSequenceNrInvalid(requestFromMap.getSequenceNumber())) {
+                return Optional.of(new DataStorageResult(false).sequenceNrInvalid());
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Stateless checks, thus they do not require the mapAccessLock
+    private Optional<DataStorageResult> validateAdd(AddAuthenticatedDataRequest request) {
+        AuthenticatedSequentialData authenticatedSequentialData = request.getAuthenticatedSequentialData();
+        AuthenticatedData authenticatedData = authenticatedSequentialData.getAuthenticatedData();
+        DistributedData distributedData = authenticatedData.getDistributedData();
+        if (authenticatedSequentialData.isExpired()) {
+            log.info("AddAuthenticatedDataRequest with {} is expired on {}",
+                    distributedData.getClass().getSimpleName(),
+                    new Date(authenticatedSequentialData.getCreated() + distributedData.getMetaData().getTtl())
+            );
+            log.debug("Data is expired at add. request={}", request);
+            return Optional.of(new DataStorageResult(false).expired());
+        }
+
+        if (authenticatedData.isDataInvalid(authenticatedSequentialData.getPubKeyHash())) {
+            log.warn("AuthenticatedData is invalid at add. request={}", request);
+            return Optional.of(new DataStorageResult(false).dataInvalid());
+        }
+
+        if (authenticatedData instanceof AuthorizedData authorizedData) {
+            if (authorizedData.isNotAuthorized()) {
+                log.warn("AuthorizedData is not authorized. request={}", StringUtils.truncate(request.toString(), 500));
+                return Optional.of(new DataStorageResult(false).isNotAuthorized());
+            }
+        }
+
+        if (request.isPublicKeyInvalid()) {
+            log.warn("PublicKey is invalid at add. request={}", request);
+            return Optional.of(new DataStorageResult(false).publicKeyHashInvalid());
+        }
+
+        if (request.isSignatureInvalid()) {
+            log.warn("Signature is invalid at add. request={}", request);
+            return Optional.of(new DataStorageResult(false).signatureInvalid());
+        }
+        return Optional.empty();
+    }
+
+    // Expects a validated request. We repeat the checks against the map as it might have changed since we checked it
+    // before the validation.
+    private DataStorageResult commitAdd(AddAuthenticatedDataRequest request, ByteArray byteArray) {
+        synchronized (mapAccessLock) {
+            Optional<DataStorageResult> failure = checkAddAgainstMap(request, byteArray);
+            if (failure.isPresent()) {
+                return failure.get();
+            }
+
+            AuthenticatedSequentialData authenticatedSequentialData = request.getAuthenticatedSequentialData();
+            if (authenticatedSequentialData.getAuthenticatedData().getDistributedData() instanceof PublishDateAware publishDateAware) {
+                publishDateAware.setPublishDate(authenticatedSequentialData.getCreated());
+            }
+
+            persistableStore.getMap().put(byteArray, request);
+
+            // In case we only updated the seq number we still want to broadcast and update the listeners.
+            // It is a valid use case that we have both an add and remove data request, and we get repeated sequences
+            // of add/remove events. In that case only the sequence number changes, but we still want to notify our
+            // listeners.
+        }
+        return new DataStorageResult(true);
+    }
+
+    private void notifyAdded(AuthenticatedData authenticatedData) {
+        listeners.forEach(listener -> {
+            try {
+                listener.onAdded(authenticatedData);
+            } catch (Exception e) {
+                log.error("Calling onAdded at listener {} failed", listener, e);
+            }
+        });
+    }
+
     private void pruneExpired() {
         Set<Map.Entry<ByteArray, AuthenticatedDataRequest>> expiredEntries = persistableStore.getMap().entrySet().stream()
                 .filter(entry -> {
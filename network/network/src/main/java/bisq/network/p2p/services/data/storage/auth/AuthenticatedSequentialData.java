@@ -18,7 +18,9 @@
 package bisq.network.p2p.services.data.storage.auth;
 
 import bisq.common.encoding.Hex;
+import bisq.common.proto.MemoizedProto;
 import bisq.common.proto.NetworkProto;
+import bisq.common.proto.ProtoMemo;
 import bisq.common.validation.NetworkDataValidation;
 import bisq.network.p2p.services.data.storage.DistributedData;
 import com.google.protobuf.ByteString;
@@ -35,7 +37,7 @@ import java.util.Objects;
  */
 @Slf4j
 @Getter
-public final class AuthenticatedSequentialData implements NetworkProto {
+public final class AuthenticatedSequentialData implements NetworkProto, MemoizedProto {
     public static AuthenticatedSequentialData from(AuthenticatedSequentialData data, int sequenceNumber) {
         return from(data, sequenceNumber, data.getCreated());
     }
@@ -48,6 +50,7 @@ public final class AuthenticatedSequentialData implements NetworkProto {
     private final int sequenceNumber;
     private final long created;
     private final byte[] pubKeyHash;
+    private transient final ProtoMemo protoMemo = new ProtoMemo();
 
     public AuthenticatedSequentialData(AuthenticatedData authenticatedData,
                                        int sequenceNumber,
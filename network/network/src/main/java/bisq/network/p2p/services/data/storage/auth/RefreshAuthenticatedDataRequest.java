@@ -45,7 +45,7 @@ public final class RefreshAuthenticatedDataRequest implements AuthenticatedDataR
                                                        AuthenticatedData authenticatedData,
                                                        KeyPair keyPair)
             throws GeneralSecurityException {
-        byte[] hash = DigestUtil.hash(authenticatedData.serializeForHash());
+        byte[] hash = authenticatedData.getHash(DigestUtil::hash);
         byte[] signature = SignatureUtil.sign(hash, keyPair.getPrivate());
         int newSequenceNumber = store.getSequenceNumber(hash) + 1;
         PublicKey publicKey = keyPair.getPublic();
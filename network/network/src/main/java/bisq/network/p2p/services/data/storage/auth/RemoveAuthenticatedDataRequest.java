@@ -50,7 +50,7 @@ public final class RemoveAuthenticatedDataRequest implements AuthenticatedDataRe
                                                       AuthenticatedData authenticatedData,
                                                       KeyPair keyPair)
             throws GeneralSecurityException {
-        byte[] hash = DigestUtil.hash(authenticatedData.serializeForHash());
+        byte[] hash = authenticatedData.getHash(DigestUtil::hash);
         byte[] signature = SignatureUtil.sign(hash, keyPair.getPrivate());
         int newSequenceNumber = store.getSequenceNumber(hash) + 1;
         PublicKey publicKey = keyPair.getPublic();
@@ -35,6 +35,7 @@ import bisq.network.p2p.node.envelope.NetworkEnvelopeSocketChannel;
 import bisq.network.p2p.node.envelope.parser.nio.ProtoBufMessageLengthWriter;
 import bisq.network.p2p.node.handshake.ConnectionHandshake;
 import bisq.network.p2p.node.network_load.NetworkLoad;
+import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
 import bisq.network.p2p.services.peer_group.BanList;
 import bisq.security.pow.equihash.EquihashProofOfWorkService;
 import bisq.security.pow.hashcash.HashCashProofOfWorkService;
@@ -84,11 +85,12 @@ public class InboundConnectionsManagerTests {
         InboundConnectionsManager inboundConnectionsManager = new InboundConnectionsManager(
                 mock(BanList.class),
                 myCapability,
-                new NetworkLoad(),
+                new NetworkLoadSnapshot(),
                 authorizationService,
                 serverSocketChannel,
                 selector,
-                mock(Node.class)
+                mock(Node.class),
+                10_000
         );
 
         inboundConnectionsManager.registerOpAccept();
@@ -173,11 +175,12 @@ public class InboundConnectionsManagerTests {
         InboundConnectionsManager inboundConnectionsManager = new InboundConnectionsManager(
                 mock(BanList.class),
                 myCapability,
-                new NetworkLoad(),
+                new NetworkLoadSnapshot(),
                 authorizationService,
                 serverSocketChannel,
                 selector,
-                mock(Node.class)
+                mock(Node.class),
+                10_000
         );
 
         inboundConnectionsManager.registerOpAccept();
@@ -0,0 +1,203 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p;
+
+import bisq.common.network.Address;
+import bisq.common.network.AddressByTransportTypeMap;
+import bisq.common.network.DefaultLocalhostFacade;
+import bisq.common.network.TransportType;
+import bisq.common.util.NetworkUtils;
+import bisq.network.identity.NetworkId;
+import bisq.network.p2p.message.EnvelopePayloadMessage;
+import bisq.network.p2p.node.CloseReason;
+import bisq.network.p2p.node.Connection;
+import bisq.network.p2p.node.Feature;
+import bisq.network.p2p.node.InboundConnection;
+import bisq.network.p2p.node.Node;
+import bisq.network.p2p.node.OutboundConnection;
+import bisq.network.p2p.node.authorization.AuthorizationService;
+import bisq.network.p2p.node.authorization.AuthorizationTokenType;
+import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
+import bisq.network.p2p.node.transport.ClearNetTransportService;
+import bisq.network.p2p.node.transport.TransportService;
+import bisq.network.p2p.services.data.storage.TestAppendOnlyData;
+import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
+import bisq.network.p2p.services.peer_group.BanList;
+import bisq.security.keys.KeyBundleService;
+import bisq.security.keys.KeyGeneration;
+import bisq.security.keys.PubKey;
+import bisq.security.pow.equihash.EquihashProofOfWorkService;
+import bisq.security.pow.hashcash.HashCashProofOfWorkService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests nodes using selector based non-blocking IO with real socket channels on localhost.
+ */
+public class SelectorNodeTests {
+    private static final int HANDSHAKE_TIMEOUT = 1000;
+
+    @TempDir
+    private Path tmpDir;
+    private final List<Node> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        CompletableFuture.allOf(nodes.stream().map(Node::shutdown).toArray(CompletableFuture[]::new))
+                .orTimeout(15, TimeUnit.SECONDS)
+                .join();
+    }
+
+    @Test
+    void connectAndPerformHandshake() throws Exception {
+        Node nodeA = createNode();
+        Node nodeB = createNode();
+        Address addressA = getAddress(nodeA);
+        Address addressB = getAddress(nodeB);
+
+        Connection connection = nodeA.getConnection(addressB);
+
+        assertThat(connection).isInstanceOf(OutboundConnection.class);
+        assertThat(connection.getPeerAddress()).isEqualTo(addressB);
+        assertThat(connection.isRunning()).isTrue();
+        assertThat(nodeA.getOutboundConnectionsByAddress()).containsKey(addressB);
+        waitUntil(() -> nodeB.getInboundConnectionsByAddress().containsKey(addressA));
+        InboundConnection inboundConnection = nodeB.getInboundConnectionsByAddress().get(addressA);
+        assertThat(inboundConnection.getPeerAddress()).isEqualTo(addressA);
+
+        // Requesting the connection again must not create another connection
+        assertThat(nodeA.getConnection(addressB)).isSameAs(connection);
+    }
+
+    @Test
+    void closeInboundChannelIfHandshakeIsNotCompletedInTime() throws Exception {
+        Node node = createNode();
+        Address address = getAddress(node);
+
+        try (Socket socket = new Socket(address.getHost(), address.getPort())) {
+            socket.setSoTimeout(10 * HANDSHAKE_TIMEOUT);
+            long ts = System.currentTimeMillis();
+            // We do not send a handshake request, so the node has to close the channel after the handshake timeout
+            InputStream inputStream = socket.getInputStream();
+
+            assertThat(inputStream.read()).isEqualTo(-1);
+            assertThat(System.currentTimeMillis() - ts).isGreaterThanOrEqualTo(HANDSHAKE_TIMEOUT / 2);
+        }
+        assertThat(node.getInboundConnectionsByAddress()).isEmpty();
+    }
+
+    @Test
+    void sendMessageLargerThanSocketBuffers() throws Exception {
+        TestAppendOnlyData.registerResolver();
+        Node nodeA = createNode();
+        Node nodeB = createNode();
+        List<EnvelopePayloadMessage> receivedMessages = new CopyOnWriteArrayList<>();
+        CompletableFuture<EnvelopePayloadMessage> receivedMessage = new CompletableFuture<>();
+        nodeB.addListener(new Node.Listener() {
+            @Override
+            public void onMessage(EnvelopePayloadMessage envelopePayloadMessage, Connection connection, NetworkId networkId) {
+                receivedMessages.add(envelopePayloadMessage);
+                receivedMessage.complete(envelopePayloadMessage);
+            }
+
+            @Override
+            public void onConnection(Connection connection) {
+            }
+
+            @Override
+            public void onDisconnect(Connection connection, CloseReason closeReason) {
+            }
+        });
+
+        // The message exceeds the socket send and receive buffers, so the sender cannot write it at once. The
+        // remaining bytes are queued and flushed when the channel gets writable again.
+        AddAppendOnlyDataRequest message = new AddAppendOnlyDataRequest(new TestAppendOnlyData("x".repeat(8_000_000)));
+        nodeA.send(message, getAddress(nodeB));
+
+        assertThat(receivedMessage.get(30, TimeUnit.SECONDS)).isEqualTo(message);
+        assertThat(receivedMessages).hasSize(1);
+    }
+
+    private Node createNode() throws Exception {
+        int port = NetworkUtils.findFreeSystemPort();
+        Address address = DefaultLocalhostFacade.toLocalHostAddress(port);
+        NetworkId networkId = new NetworkId(new AddressByTransportTypeMap(Map.of(TransportType.CLEAR, address)),
+                new PubKey(KeyGeneration.generateKeyPair().getPublic(), "default"));
+        ClearNetTransportService.Config transportConfig = new ClearNetTransportService.Config(tmpDir,
+                port,
+                HANDSHAKE_TIMEOUT,
+                HANDSHAKE_TIMEOUT,
+                0,
+                0,
+                0,
+                HANDSHAKE_TIMEOUT,
+                true);
+        Node.Config config = new Node.Config(TransportType.CLEAR,
+                Set.of(TransportType.CLEAR),
+                Set.of(Feature.AUTHORIZATION_HASH_CASH),
+                transportConfig,
+                HANDSHAKE_TIMEOUT,
+                HANDSHAKE_TIMEOUT,
+                0,
+                0,
+                0);
+        AuthorizationService authorizationService = new AuthorizationService(
+                new AuthorizationService.Config(List.of(AuthorizationTokenType.HASH_CASH)),
+                new HashCashProofOfWorkService(),
+                new EquihashProofOfWorkService(),
+                Set.of(Feature.AUTHORIZATION_HASH_CASH));
+        Node node = new Node(networkId,
+                false,
+                config,
+                mock(BanList.class),
+                mock(KeyBundleService.class),
+                mock(TransportService.class),
+                new NetworkLoadSnapshot(),
+                authorizationService);
+        nodes.add(node);
+        node.initialize();
+        return node;
+    }
+
+    private static Address getAddress(Node node) {
+        return node.getNetworkId().getAddressByTransportTypeMap().get(TransportType.CLEAR);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.node;
+
+import bisq.common.network.TransportType;
+import bisq.network.p2p.message.EnvelopePayloadMessage;
+import bisq.network.p2p.node.network_load.NetworkLoad;
+import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ConnectionThrottleTest {
+    // Results in a refill interval of 1000 ms (the max. throttle time) at load 1 and of 20 ms (the min. throttle
+    // time) at load 0.
+    private static final int THROTTLE_TIME = 980;
+
+    private final NetworkLoadSnapshot peersNetworkLoadSnapshot = new NetworkLoadSnapshot();
+    private final EnvelopePayloadMessage message = mock(EnvelopePayloadMessage.class);
+    private ConnectionThrottle connectionThrottle;
+
+    @BeforeEach
+    void setUp() {
+        Node.Config config = new Node.Config(TransportType.CLEAR,
+                Set.of(TransportType.CLEAR),
+                Set.of(),
+                null,
+                0,
+                0,
+                0,
+                THROTTLE_TIME,
+                THROTTLE_TIME);
+        connectionThrottle = new ConnectionThrottle(peersNetworkLoadSnapshot, new NetworkLoadSnapshot(), config);
+        // Costs 1 token
+        when(message.getCostFactor()).thenReturn(1d);
+        setPeersLoad(1);
+    }
+
+    @Test
+    void sendBurstWithoutDelay() {
+        for (int i = 0; i < ConnectionThrottle.BURST_SIZE; i++) {
+            assertThat(connectionThrottle.reserveSendMessage(message)).isZero();
+        }
+        assertThat(connectionThrottle.reserveSendMessage(message)).isPositive();
+    }
+
+    @Test
+    void cheapMessagesCostLessTokens() {
+        EnvelopePayloadMessage cheapMessage = mock(EnvelopePayloadMessage.class);
+        when(cheapMessage.getCostFactor()).thenReturn(0d);
+        int numCheapMessages = (int) (ConnectionThrottle.BURST_SIZE / ConnectionThrottle.MIN_MESSAGE_COST);
+        for (int i = 0; i < numCheapMessages; i++) {
+            assertThat(connectionThrottle.reserveSendMessage(cheapMessage)).isZero();
+        }
+        assertThat(connectionThrottle.reserveSendMessage(cheapMessage)).isPositive();
+    }
+
+    @Test
+    void refillTokens() throws InterruptedException {
+        exhaustTokens();
+        assertThat(connectionThrottle.reserveSendMessage(message)).isPositive();
+
+        setPeersLoad(0);
+        // Refills 10 tokens after 200 ms, enough for the debt of the deferred message and the next message
+        Thread.sleep(300);
+        assertThat(connectionThrottle.reserveSendMessage(message)).isZero();
+    }
+
+    @Test
+    void doNotRefillBeyondBurstSize() throws InterruptedException {
+        exhaustTokens();
+
+        setPeersLoad(0);
+        // Would refill 25 tokens without the limit
+        Thread.sleep(500);
+        setPeersLoad(1);
+        for (int i = 0; i < ConnectionThrottle.BURST_SIZE; i++) {
+            assertThat(connectionThrottle.reserveSendMessage(message)).isZero();
+        }
+        assertThat(connectionThrottle.reserveSendMessage(message)).isPositive();
+    }
+
+    @Test
+    void delayOfReservationsAtSameTimeIncreases() {
+        // Refill interval of 98 ms
+        setPeersLoad(0.08);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < ConnectionThrottle.BURST_SIZE; i++) {
+            assertThat(connectionThrottle.reserveSendMessage(message, now)).isZero();
+        }
+
+        // Each reservation has to wait for the tokens of the reservations before it
+        long previousDelay = 0;
+        for (int i = 1; i <= 5; i++) {
+            long delay = connectionThrottle.reserveSendMessage(message, now);
+            assertThat(delay).isGreaterThan(previousDelay);
+            assertThat(delay).isEqualTo(i * 98L);
+            previousDelay = delay;
+        }
+
+        // The debt is not limited, but the delay returned to the caller is
+        for (int i = 0; i < 20; i++) {
+            assertThat(connectionThrottle.reserveSendMessage(message, now)).isLessThanOrEqualTo(1000);
+        }
+    }
+
+    @Test
+    void throttleSendMessageBlocksForDelay() {
+        exhaustTokens();
+        // Refill interval of about 100 ms
+        setPeersLoad(0.08);
+
+        long ts = System.currentTimeMillis();
+        connectionThrottle.throttleSendMessage(message);
+        assertThat(System.currentTimeMillis() - ts).isGreaterThanOrEqualTo(50);
+    }
+
+    private void exhaustTokens() {
+        for (int i = 0; i < ConnectionThrottle.BURST_SIZE; i++) {
+            connectionThrottle.reserveSendMessage(message);
+        }
+    }
+
+    private void setPeersLoad(double load) {
+        peersNetworkLoadSnapshot.updateNetworkLoad(new NetworkLoad(load, NetworkLoad.DEFAULT_DIFFICULTY_ADJUSTMENT));
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.node;
+
+import bisq.common.network.Address;
+import bisq.common.network.AddressByTransportTypeMap;
+import bisq.common.network.TransportType;
+import bisq.common.threading.SequentialExecutor;
+import bisq.network.NetworkService;
+import bisq.network.identity.NetworkId;
+import bisq.network.p2p.message.EnvelopePayloadMessage;
+import bisq.network.p2p.node.authorization.AuthorizationService;
+import bisq.network.p2p.node.authorization.AuthorizationToken;
+import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
+import bisq.network.p2p.node.transport.ServerSocketResult;
+import bisq.network.p2p.node.transport.TransportService;
+import bisq.network.p2p.services.peer_group.BanList;
+import bisq.security.keys.KeyBundleService;
+import bisq.security.keys.KeyGeneration;
+import bisq.security.keys.PubKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.security.KeyPair;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NodeMessageDispatchTest {
+    private record ReceivedMessage(Connection connection, EnvelopePayloadMessage message) {
+    }
+
+    private final AuthorizationToken authorizationToken = mock(AuthorizationToken.class);
+    private final List<ReceivedMessage> receivedMessages = new CopyOnWriteArrayList<>();
+    private Node node;
+    private int nextPort = 10000;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPair keyPair = KeyGeneration.generateKeyPair();
+        ServerSocket serverSocket = new ServerSocket(0);
+        Address address = new Address("127.0.0.1", serverSocket.getLocalPort());
+        NetworkId networkId = new NetworkId(new AddressByTransportTypeMap(Map.of(TransportType.CLEAR, address)),
+                new PubKey(keyPair.getPublic(), "default"));
+        TransportService transportService = mock(TransportService.class);
+        when(transportService.getServerSocket(any(), any())).thenReturn(new ServerSocketResult(serverSocket, address));
+        AuthorizationService authorizationService = mock(AuthorizationService.class);
+        when(authorizationService.isAuthorized(any(), any(), any(), any(), any(), any())).thenReturn(true);
+        Node.Config config = new Node.Config(TransportType.CLEAR,
+                Set.of(TransportType.CLEAR),
+                Set.of(),
+                null,
+                0,
+                0,
+                0,
+                0,
+                0);
+
+        node = new Node(networkId,
+                false,
+                config,
+                mock(BanList.class),
+                mock(KeyBundleService.class),
+                transportService,
+                new NetworkLoadSnapshot(),
+                authorizationService);
+        node.initialize();
+        node.addListener(new Node.Listener() {
+            @Override
+            public void onMessage(EnvelopePayloadMessage envelopePayloadMessage, Connection connection, NetworkId networkId) {
+                receivedMessages.add(new ReceivedMessage(connection, envelopePayloadMessage));
+            }
+
+            @Override
+            public void onConnection(Connection connection) {
+            }
+
+            @Override
+            public void onDisconnect(Connection connection, CloseReason closeReason) {
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        node.shutdown().get(15, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void deliverMessageOfOpenConnection() throws Exception {
+        Connection connection = createConnection();
+        EnvelopePayloadMessage message = mock(EnvelopePayloadMessage.class);
+
+        node.handleNetworkMessage(message, authorizationToken, connection);
+        awaitDispatcher();
+
+        verify(connection).notifyListeners(message);
+        assertThat(receivedMessages).containsExactly(new ReceivedMessage(connection, message));
+    }
+
+    @Test
+    void doNotDeliverMessageOfConnectionClosedWhileMessageWasQueued() throws Exception {
+        Connection connection = createConnection();
+        EnvelopePayloadMessage message = mock(EnvelopePayloadMessage.class);
+        CountDownLatch dispatcherBlocked = new CountDownLatch(1);
+        NetworkService.DISPATCHER.submit(() -> {
+            dispatcherBlocked.await();
+            return null;
+        });
+
+        node.handleNetworkMessage(message, authorizationToken, connection);
+        // The connection gets closed after the message passed the authorization but before it got dispatched
+        when(connection.isStopped()).thenReturn(true);
+        dispatcherBlocked.countDown();
+        awaitDispatcher();
+
+        verify(connection, never()).notifyListeners(any());
+        assertThat(receivedMessages).isEmpty();
+    }
+
+    @Test
+    void keepOrderOfMessagesPerConnection() throws Exception {
+        int numMessages = 100;
+        List<Connection> connections = List.of(createConnection(), createConnection());
+        Map<Connection, List<EnvelopePayloadMessage>> sentMessagesByConnection = connections.stream()
+                .collect(Collectors.toMap(connection -> connection,
+                        connection -> IntStream.range(0, numMessages)
+                                .mapToObj(i -> mock(EnvelopePayloadMessage.class))
+                                .toList()));
+
+        // As at Connection, the messages of a connection are handed over to the node by a SequentialExecutor on a
+        // shared pool, so that messages of different connections are processed in parallel.
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            sentMessagesByConnection.forEach((connection, messages) -> {
+                SequentialExecutor executor = new SequentialExecutor(pool);
+                messages.forEach(message ->
+                        executor.execute(() -> node.handleNetworkMessage(message, authorizationToken, connection)));
+            });
+            long timeout = System.currentTimeMillis() + 5000;
+            while (receivedMessages.size() < connections.size() * numMessages && System.currentTimeMillis() < timeout) {
+                Thread.sleep(10);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        connections.forEach(connection -> assertThat(receivedMessages.stream()
+                .filter(receivedMessage -> receivedMessage.connection() == connection)
+                .map(ReceivedMessage::message))
+                .containsExactlyElementsOf(sentMessagesByConnection.get(connection)));
+    }
+
+    private Connection createConnection() {
+        Connection connection = mock(Connection.class);
+        when(connection.getId()).thenReturn("connection" + nextPort);
+        when(connection.getPeerAddress()).thenReturn(new Address("127.0.0.1", nextPort++));
+        return connection;
+    }
+
+    private static void awaitDispatcher() throws Exception {
+        // The DISPATCHER is single threaded, so all tasks submitted before have been completed
+        NetworkService.DISPATCHER.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.node;
+
+import bisq.network.p2p.message.EnvelopePayloadMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OutboundMessageQueueTest {
+    private static final int CAPACITY = 3;
+
+    private final Connection connection = mock(Connection.class);
+    private final ConnectionThrottle connectionThrottle = mock(ConnectionThrottle.class);
+    private final List<EnvelopePayloadMessage> sentMessages = new CopyOnWriteArrayList<>();
+    private final CountDownLatch sendingReleased = new CountDownLatch(1);
+    private OutboundMessageQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        when(connection.getConnectionThrottle()).thenReturn(connectionThrottle);
+        queue = new OutboundMessageQueue(connection, message -> {
+            try {
+                sendingReleased.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            sentMessages.add(message);
+            return connection;
+        }, CAPACITY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sendingReleased.countDown();
+    }
+
+    @Test
+    void sendInOrder() throws Exception {
+        sendingReleased.countDown();
+        List<EnvelopePayloadMessage> messages = createMessages(10);
+        List<CompletableFuture<Connection>> futures = new ArrayList<>();
+        messages.forEach(message -> futures.add(queue.enqueue(message, OutboundMessageQueue.DropPolicy.DROP_OLDEST)));
+
+        for (CompletableFuture<Connection> future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS)).isSameAs(connection);
+        }
+        assertThat(sentMessages).containsExactlyElementsOf(messages);
+    }
+
+    @Test
+    void dropNewestIfFull() throws Exception {
+        List<EnvelopePayloadMessage> messages = createMessages(CAPACITY + 2);
+        List<CompletableFuture<Connection>> futures = fillQueue(messages.subList(0, CAPACITY + 1));
+
+        CompletableFuture<Connection> dropped = queue.enqueue(messages.get(CAPACITY + 1),
+                OutboundMessageQueue.DropPolicy.DROP_NEWEST);
+        assertThatThrownBy(() -> dropped.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(RejectedExecutionException.class);
+
+        sendingReleased.countDown();
+        for (CompletableFuture<Connection> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(sentMessages).containsExactlyElementsOf(messages.subList(0, CAPACITY + 1));
+    }
+
+    @Test
+    void dropOldestIfFull() throws Exception {
+        List<EnvelopePayloadMessage> messages = createMessages(CAPACITY + 2);
+        List<CompletableFuture<Connection>> futures = fillQueue(messages.subList(0, CAPACITY + 1));
+
+        CompletableFuture<Connection> newest = queue.enqueue(messages.get(CAPACITY + 1),
+                OutboundMessageQueue.DropPolicy.DROP_OLDEST);
+        // The first message is already in flight, thus the second one is the oldest queued message
+        assertThatThrownBy(() -> futures.get(1).get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(RejectedExecutionException.class);
+
+        sendingReleased.countDown();
+        newest.get(5, TimeUnit.SECONDS);
+        List<EnvelopePayloadMessage> expected = new ArrayList<>(messages);
+        expected.remove(1);
+        assertThat(sentMessages).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void failQueuedAndNewMessagesAfterClose() throws Exception {
+        List<EnvelopePayloadMessage> messages = createMessages(3);
+        List<CompletableFuture<Connection>> futures = fillQueue(messages);
+
+        queue.close();
+        assertThatThrownBy(() -> futures.get(1).get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(ConnectionClosedException.class);
+        assertThatThrownBy(() -> futures.get(2).get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(ConnectionClosedException.class);
+        CompletableFuture<Connection> afterClose = queue.enqueue(createMessages(1).get(0),
+                OutboundMessageQueue.DropPolicy.DROP_OLDEST);
+        assertThatThrownBy(() -> afterClose.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(ConnectionClosedException.class);
+
+        // The message in flight is not affected
+        sendingReleased.countDown();
+        assertThat(futures.get(0).get(5, TimeUnit.SECONDS)).isSameAs(connection);
+        assertThat(sentMessages).containsExactly(messages.get(0));
+    }
+
+    @Test
+    void deferSendingByThrottleDelay() throws Exception {
+        sendingReleased.countDown();
+        List<EnvelopePayloadMessage> messages = createMessages(2);
+        when(connectionThrottle.reserveSendMessage(messages.get(0))).thenReturn(200L);
+
+        long ts = System.currentTimeMillis();
+        CompletableFuture<Connection> first = queue.enqueue(messages.get(0), OutboundMessageQueue.DropPolicy.DROP_OLDEST);
+        CompletableFuture<Connection> second = queue.enqueue(messages.get(1), OutboundMessageQueue.DropPolicy.DROP_OLDEST);
+        // The caller is not blocked by the delay
+        assertThat(System.currentTimeMillis() - ts).isLessThan(200);
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertThat(System.currentTimeMillis() - ts).isGreaterThanOrEqualTo(200);
+        assertThat(sentMessages).containsExactlyElementsOf(messages);
+    }
+
+    // Enqueues the messages while sending is blocked. The first message gets taken by the writer task.
+    private List<CompletableFuture<Connection>> fillQueue(List<EnvelopePayloadMessage> messages) throws InterruptedException {
+        List<CompletableFuture<Connection>> futures = new ArrayList<>();
+        futures.add(queue.enqueue(messages.get(0), OutboundMessageQueue.DropPolicy.DROP_OLDEST));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (queue.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(queue.size()).isZero();
+        messages.subList(1, messages.size()).forEach(message ->
+                futures.add(queue.enqueue(message, OutboundMessageQueue.DropPolicy.DROP_OLDEST)));
+        assertThat(queue.size()).isEqualTo(messages.size() - 1);
+        return futures;
+    }
+
+    private static List<EnvelopePayloadMessage> createMessages(int numMessages) {
+        List<EnvelopePayloadMessage> messages = new ArrayList<>();
+        for (int i = 0; i < numMessages; i++) {
+            messages.add(mock(EnvelopePayloadMessage.class));
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,48 @@
+package bisq.network.p2p.node.authorization;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReplayProtectionTest {
+
+    @Test
+    void testTryAccept() {
+        ReplayProtection replayProtection = new ReplayProtection();
+        assertTrue(replayProtection.tryAccept("c1", 1));
+        assertFalse(replayProtection.tryAccept("c1", 1));
+
+        // Other connection has its own window
+        assertTrue(replayProtection.tryAccept("c2", 1));
+
+        // Out of order inside the window
+        assertTrue(replayProtection.tryAccept("c1", 5));
+        assertTrue(replayProtection.tryAccept("c1", 3));
+        assertFalse(replayProtection.tryAccept("c1", 3));
+        assertTrue(replayProtection.tryAccept("c1", 2));
+        assertFalse(replayProtection.tryAccept("c1", 5));
+
+        // Moving the window clears the bits of the skipped counters
+        int highest = 5 + ReplayProtection.WINDOW_SIZE - 1;
+        assertTrue(replayProtection.tryAccept("c1", highest));
+        assertFalse(replayProtection.tryAccept("c1", 5));
+        assertTrue(replayProtection.tryAccept("c1", 6));
+        assertFalse(replayProtection.tryAccept("c1", 6));
+
+        // Older than the window
+        assertFalse(replayProtection.tryAccept("c1", 4));
+
+        // Jump by more than the window
+        highest += 3 * ReplayProtection.WINDOW_SIZE;
+        assertTrue(replayProtection.tryAccept("c1", highest));
+        assertTrue(replayProtection.tryAccept("c1", highest - 1));
+        assertFalse(replayProtection.tryAccept("c1", highest - ReplayProtection.WINDOW_SIZE));
+
+        assertEquals(2, replayProtection.getNumConnections());
+        replayProtection.remove("c1");
+        assertEquals(1, replayProtection.getNumConnections());
+        assertTrue(replayProtection.tryAccept("c1", 1));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.node.envelope;
+
+import bisq.common.network.DefaultLocalhostFacade;
+import bisq.network.p2p.message.NetworkEnvelope;
+import bisq.network.p2p.node.Feature;
+import bisq.network.p2p.node.authorization.AuthorizationService;
+import bisq.network.p2p.node.authorization.AuthorizationToken;
+import bisq.network.p2p.node.authorization.AuthorizationTokenType;
+import bisq.network.p2p.node.network_load.NetworkLoad;
+import bisq.network.p2p.services.data.storage.TestAppendOnlyData;
+import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
+import bisq.security.pow.equihash.EquihashProofOfWorkService;
+import bisq.security.pow.hashcash.HashCashProofOfWorkService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class NetworkEnvelopeSocketChannelTest {
+    private ServerSocketChannel serverSocketChannel;
+    private SocketChannel senderChannel;
+    private SocketChannel receiverChannel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        TestAppendOnlyData.registerResolver();
+        serverSocketChannel = ServerSocketChannel.open();
+        serverSocketChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        senderChannel = SocketChannel.open(serverSocketChannel.getLocalAddress());
+        senderChannel.configureBlocking(false);
+        receiverChannel = serverSocketChannel.accept();
+        receiverChannel.configureBlocking(false);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        senderChannel.close();
+        receiverChannel.close();
+        serverSocketChannel.close();
+    }
+
+    @Test
+    void queuePartialWritesAndFlushThemInOrder() throws IOException {
+        NetworkEnvelopeSocketChannel sender = new NetworkEnvelopeSocketChannel(senderChannel);
+        AtomicInteger numPendingWritesHandlerCalls = new AtomicInteger();
+        sender.setPendingWritesHandler(numPendingWritesHandlerCalls::incrementAndGet);
+        List<NetworkEnvelope> sentEnvelopes = List.of(createEnvelope("a", 3_000_000),
+                createEnvelope("b", 3_000_000),
+                createEnvelope("c", 10));
+        for (NetworkEnvelope envelope : sentEnvelopes) {
+            sender.send(envelope);
+        }
+        // The envelopes exceed the socket buffers as the receiver has not read anything yet
+        assertThat(numPendingWritesHandlerCalls.get()).isPositive();
+
+        NetworkEnvelopeSocketChannel receiver = new NetworkEnvelopeSocketChannel(receiverChannel);
+        List<NetworkEnvelope> receivedEnvelopes = new ArrayList<>();
+        long timeout = System.currentTimeMillis() + 30_000;
+        while (receivedEnvelopes.size() < sentEnvelopes.size() && System.currentTimeMillis() < timeout) {
+            sender.flushPendingWrites();
+            receivedEnvelopes.addAll(receiver.receiveNetworkEnvelopes());
+        }
+
+        assertThat(sender.flushPendingWrites()).isTrue();
+        assertThat(receivedEnvelopes).isEqualTo(sentEnvelopes);
+    }
+
+    @Test
+    void closeChannelIfPendingWritesExceedLimit() throws IOException {
+        NetworkEnvelopeSocketChannel sender = new NetworkEnvelopeSocketChannel(senderChannel);
+        NetworkEnvelope envelope = createEnvelope("a", 1_000_000);
+        int maxNumSends = NetworkEnvelopeSocketChannel.MAX_PENDING_WRITE_BYTES / 1_000_000 + 100;
+
+        // The receiver does not read, so the pending writes grow until the limit is reached
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < maxNumSends; i++) {
+                sender.send(envelope);
+            }
+        }).isInstanceOf(IOException.class)
+                .hasMessageContaining("Pending writes exceed max. size");
+        assertThat(sender.isClosed()).isTrue();
+    }
+
+    private static NetworkEnvelope createEnvelope(String character, int size) {
+        AddAppendOnlyDataRequest request = new AddAppendOnlyDataRequest(new TestAppendOnlyData(character.repeat(size)));
+        AuthorizationService authorizationService = new AuthorizationService(
+                new AuthorizationService.Config(List.of(AuthorizationTokenType.HASH_CASH)),
+                new HashCashProofOfWorkService(),
+                new EquihashProofOfWorkService(),
+                Set.of(Feature.AUTHORIZATION_HASH_CASH));
+        AuthorizationToken token = authorizationService.createToken(request,
+                new NetworkLoad(),
+                DefaultLocalhostFacade.toLocalHostAddress(1234).getFullAddress(),
+                0,
+                new ArrayList<>());
+        return new NetworkEnvelope(token, request);
+    }
+}
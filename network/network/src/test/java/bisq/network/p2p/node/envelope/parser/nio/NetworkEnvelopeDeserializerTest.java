@@ -0,0 +1,127 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.node.envelope.parser.nio;
+
+import bisq.common.network.DefaultLocalhostFacade;
+import bisq.common.network.TransportType;
+import bisq.network.p2p.message.NetworkEnvelope;
+import bisq.network.p2p.node.Capability;
+import bisq.network.p2p.node.Feature;
+import bisq.network.p2p.node.authorization.AuthorizationService;
+import bisq.network.p2p.node.authorization.AuthorizationToken;
+import bisq.network.p2p.node.authorization.AuthorizationTokenType;
+import bisq.network.p2p.node.handshake.ConnectionHandshake;
+import bisq.network.p2p.node.network_load.NetworkLoad;
+import bisq.security.pow.equihash.EquihashProofOfWorkService;
+import bisq.security.pow.hashcash.HashCashProofOfWorkService;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class NetworkEnvelopeDeserializerTest {
+    @Test
+    void parseEnvelopesSplitAcrossReads() throws IOException {
+        byte[] envelopeInBytes = createEnvelope().toByteArray();
+        ByteBuffer serialized = ByteBuffer.allocate(2 * ProtoBufMessageLengthWriter.getSizeWithLengthPrefix(envelopeInBytes.length));
+        ProtoBufMessageLengthWriter.writeToBuffer(envelopeInBytes.length, serialized);
+        serialized.put(envelopeInBytes);
+        ProtoBufMessageLengthWriter.writeToBuffer(envelopeInBytes.length, serialized);
+        serialized.put(envelopeInBytes);
+        serialized.flip();
+
+        ByteBuffer byteBuffer = ByteBuffer.allocate(100);
+        NetworkEnvelopeDeserializer deserializer = new NetworkEnvelopeDeserializer(byteBuffer);
+        List<bisq.network.protobuf.NetworkEnvelope> protos = new ArrayList<>();
+        while (serialized.hasRemaining()) {
+            byteBuffer.clear();
+            int length = Math.min(byteBuffer.capacity(), serialized.remaining());
+            byteBuffer.put(serialized.array(), serialized.position(), length);
+            serialized.position(serialized.position() + length);
+            byteBuffer.flip();
+            deserializer.readFromByteBuffer();
+            protos.addAll(deserializer.getAllNetworkEnvelopeProtos());
+        }
+
+        assertThat(protos).hasSize(2);
+        assertThat(protos.get(0).toByteArray()).isEqualTo(envelopeInBytes);
+        assertThat(protos.get(1).toByteArray()).isEqualTo(envelopeInBytes);
+    }
+
+    @Test
+    void rejectMessageLengthAboveMaxMessageSize() {
+        ByteBuffer byteBuffer = ByteBuffer.allocate(10);
+        ProtoBufMessageLengthWriter.writeToBuffer(NetworkEnvelopeDeserializer.MAX_MESSAGE_SIZE + 1, byteBuffer);
+        byteBuffer.flip();
+        NetworkEnvelopeDeserializer deserializer = new NetworkEnvelopeDeserializer(byteBuffer);
+
+        assertThatThrownBy(deserializer::readFromByteBuffer)
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("exceeds max. message size");
+    }
+
+    @Test
+    void propagateInvalidProtocolBufferException() {
+        ByteBuffer byteBuffer = ByteBuffer.allocate(10);
+        byte[] invalidProto = new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+        ProtoBufMessageLengthWriter.writeToBuffer(invalidProto.length, byteBuffer);
+        byteBuffer.put(invalidProto);
+        byteBuffer.flip();
+        NetworkEnvelopeDeserializer deserializer = new NetworkEnvelopeDeserializer(byteBuffer);
+
+        assertThatThrownBy(deserializer::readFromByteBuffer).isInstanceOf(InvalidProtocolBufferException.class);
+        assertThat(deserializer.getAllNetworkEnvelopeProtos()).isEmpty();
+    }
+
+    @Test
+    void sizeWithLengthPrefix() {
+        assertThat(ProtoBufMessageLengthWriter.getSizeWithLengthPrefix(0)).isEqualTo(1);
+        assertThat(ProtoBufMessageLengthWriter.getSizeWithLengthPrefix(127)).isEqualTo(128);
+        assertThat(ProtoBufMessageLengthWriter.getSizeWithLengthPrefix(128)).isEqualTo(130);
+        assertThat(ProtoBufMessageLengthWriter.getSizeWithLengthPrefix(1_000_000)).isEqualTo(1_000_003);
+
+        ByteBuffer byteBuffer = ByteBuffer.allocate(10);
+        ProtoBufMessageLengthWriter.writeToBuffer(0, byteBuffer);
+        assertThat(byteBuffer.position()).isEqualTo(1);
+    }
+
+    private static bisq.network.protobuf.NetworkEnvelope createEnvelope() {
+        AuthorizationService authorizationService = new AuthorizationService(
+                new AuthorizationService.Config(List.of(AuthorizationTokenType.HASH_CASH)),
+                new HashCashProofOfWorkService(),
+                new EquihashProofOfWorkService(),
+                Set.of(Feature.AUTHORIZATION_HASH_CASH));
+        Capability capability = Capability.myCapability(DefaultLocalhostFacade.toLocalHostAddress(2345),
+                new ArrayList<>(List.of(TransportType.CLEAR)),
+                new ArrayList<>());
+        ConnectionHandshake.Request request = new ConnectionHandshake.Request(capability, Optional.empty(), new NetworkLoad(), 0);
+        AuthorizationToken token = authorizationService.createToken(request,
+                new NetworkLoad(),
+                DefaultLocalhostFacade.toLocalHostAddress(1234).getFullAddress(),
+                0,
+                new ArrayList<>());
+        return new NetworkEnvelope(token, request).completeProto();
+    }
+}
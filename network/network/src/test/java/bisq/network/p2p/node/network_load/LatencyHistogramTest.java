@@ -0,0 +1,58 @@
+package bisq.network.p2p.node.network_load;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void testBucketLayout() {
+        long previousHighestValue = -1;
+        for (long value = 0; value < 100_000; value++) {
+            int index = LatencyHistogram.getBucketIndex(value);
+            long highestValue = LatencyHistogram.getHighestValueOfBucket(index);
+            assertTrue(value <= highestValue);
+            if (value < LatencyHistogram.NUM_SUB_BUCKETS) {
+                assertEquals(value, highestValue);
+            } else {
+                // Relative error is bounded by the sub-bucket resolution
+                assertTrue(highestValue - value <= value / LatencyHistogram.NUM_SUB_BUCKETS);
+            }
+            if (value > 0 && LatencyHistogram.getBucketIndex(value - 1) != index) {
+                // Buckets are contiguous
+                assertEquals(index - 1, LatencyHistogram.getBucketIndex(value - 1));
+                assertEquals(previousHighestValue, value - 1);
+            }
+            previousHighestValue = highestValue;
+        }
+        // Huge values end up in the last bucket
+        assertEquals(LatencyHistogram.getBucketIndex(1L << 41), LatencyHistogram.getBucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(0, histogram.getMean());
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.5, histogram.getMean());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(1, histogram.getValueAtPercentile(0));
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+
+        long median = histogram.getValueAtPercentile(50);
+        assertTrue(median >= 500 && median <= 500 + 500 / LatencyHistogram.NUM_SUB_BUCKETS, "median=" + median);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(p99 >= 990 && p99 <= 1000, "p99=" + p99);
+
+        histogram.clear();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.node.network_load;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MessagePipelineMetricsTest {
+    @Test
+    void trackQueueDepthPerStage() {
+        MessagePipelineMetrics metrics = new MessagePipelineMetrics();
+        metrics.onQueued(MessagePipelineMetrics.Stage.AUTHORIZATION);
+        metrics.onQueued(MessagePipelineMetrics.Stage.AUTHORIZATION);
+        metrics.onQueued(MessagePipelineMetrics.Stage.DISPATCH);
+        assertThat(metrics.getQueueDepth(MessagePipelineMetrics.Stage.AUTHORIZATION)).isEqualTo(2);
+        assertThat(metrics.getQueueDepth(MessagePipelineMetrics.Stage.DISPATCH)).isEqualTo(1);
+
+        metrics.onStarted(MessagePipelineMetrics.Stage.AUTHORIZATION, 10);
+        assertThat(metrics.getQueueDepth(MessagePipelineMetrics.Stage.AUTHORIZATION)).isEqualTo(1);
+        assertThat(metrics.getQueueDepth(MessagePipelineMetrics.Stage.DISPATCH)).isEqualTo(1);
+    }
+
+    @Test
+    void reportAveragesAndMaxValues() {
+        MessagePipelineMetrics metrics = new MessagePipelineMetrics();
+        process(metrics, MessagePipelineMetrics.Stage.AUTHORIZATION, 10, 100);
+        process(metrics, MessagePipelineMetrics.Stage.AUTHORIZATION, 30, 300);
+
+        String info = metrics.getInfoAndReset();
+
+        assertThat(info).contains("AUTHORIZATION: queueDepth=0; maxQueueDepth=1; numProcessed=2; " +
+                "avgQueueTime=20 ms; maxQueueTime=30 ms; avgProcessingTime=200 ms; maxProcessingTime=300 ms");
+        assertThat(info).contains("DISPATCH: queueDepth=0; maxQueueDepth=0; numProcessed=0; " +
+                "avgQueueTime=0 ms; maxQueueTime=0 ms; avgProcessingTime=0 ms; maxProcessingTime=0 ms");
+    }
+
+    @Test
+    void resetAccumulatedValuesButKeepCurrentQueueDepth() {
+        MessagePipelineMetrics metrics = new MessagePipelineMetrics();
+        process(metrics, MessagePipelineMetrics.Stage.DISPATCH, 50, 500);
+        metrics.onQueued(MessagePipelineMetrics.Stage.DISPATCH);
+        metrics.onQueued(MessagePipelineMetrics.Stage.DISPATCH);
+        metrics.onQueued(MessagePipelineMetrics.Stage.DISPATCH);
+        metrics.onStarted(MessagePipelineMetrics.Stage.DISPATCH, 5);
+        assertThat(metrics.getInfoAndReset()).contains("DISPATCH: queueDepth=2; maxQueueDepth=3; numProcessed=1;");
+
+        // The max. queue depth starts at the current queue depth after a reset
+        assertThat(metrics.getInfoAndReset()).contains("DISPATCH: queueDepth=2; maxQueueDepth=2; numProcessed=0; " +
+                "avgQueueTime=0 ms; maxQueueTime=0 ms; avgProcessingTime=0 ms; maxProcessingTime=0 ms");
+        assertThat(metrics.getQueueDepth(MessagePipelineMetrics.Stage.DISPATCH)).isEqualTo(2);
+    }
+
+    private static void process(MessagePipelineMetrics metrics,
+                                MessagePipelineMetrics.Stage stage,
+                                long queueTime,
+                                long processingTime) {
+        metrics.onQueued(stage);
+        metrics.onStarted(stage, queueTime);
+        metrics.onCompleted(stage, processingTime);
+    }
+}
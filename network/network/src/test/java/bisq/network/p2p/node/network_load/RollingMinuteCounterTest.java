@@ -0,0 +1,76 @@
+package bisq.network.p2p.node.network_load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RollingMinuteCounterTest {
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    @Test
+    void testSumOfLastMinutes() {
+        RollingMinuteCounter counter = new RollingMinuteCounter();
+        long start = 1_000 * MINUTE;
+        counter.add(start, 10);
+        counter.add(start + 1, 5);
+        counter.add(start + MINUTE, 7);
+        counter.add(start + 2 * MINUTE, 3);
+
+        long now = start + 2 * MINUTE;
+        assertEquals(3, counter.getSumOfLastMinutes(now, 1));
+        assertEquals(10, counter.getSumOfLastMinutes(now, 2));
+        assertEquals(25, counter.getSumOfLastMinutes(now, 3));
+        assertEquals(25, counter.getSumOfLastMinutes(now, 60));
+        assertEquals(25, counter.getTotal());
+
+        // Minutes without updates are not counted
+        now = start + 30 * MINUTE;
+        assertEquals(0, counter.getSumOfLastMinutes(now, 1));
+        assertEquals(25, counter.getSumOfLastMinutes(now, 60));
+    }
+
+    @Test
+    void testRingBufferOverwritesOldSlots() {
+        RollingMinuteCounter counter = new RollingMinuteCounter();
+        long start = 1_000 * MINUTE;
+        for (int i = 0; i < 3 * RollingMinuteCounter.NUM_SLOTS; i++) {
+            counter.increment(start + i * MINUTE);
+        }
+        long now = start + (3 * RollingMinuteCounter.NUM_SLOTS - 1) * MINUTE;
+        assertEquals(RollingMinuteCounter.NUM_SLOTS, counter.getSumOfLastMinutes(now, 60));
+        // The requested number of minutes is capped at the ring size
+        assertEquals(RollingMinuteCounter.NUM_SLOTS, counter.getSumOfLastMinutes(now, 1000));
+        assertEquals(10, counter.getSumOfLastMinutes(now, 10));
+        assertEquals(3 * RollingMinuteCounter.NUM_SLOTS, counter.getTotal());
+
+        // After one hour without updates nothing is left in the window
+        assertEquals(0, counter.getSumOfLastMinutes(now + 60 * MINUTE, 60));
+
+        counter.clear();
+        assertEquals(0, counter.getSumOfLastMinutes(now, 60));
+        assertEquals(0, counter.getTotal());
+    }
+
+    @Test
+    void testConcurrentUpdates() throws InterruptedException {
+        RollingMinuteCounter counter = new RollingMinuteCounter();
+        long now = 1_000 * MINUTE;
+        int numThreads = 4;
+        int numUpdates = 100_000;
+        Thread[] threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < numUpdates; j++) {
+                    counter.increment(now);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals((long) numThreads * numUpdates, counter.getSumOfLastMinutes(now, 1));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.services.data;
+
+import bisq.network.p2p.message.EnvelopePayloadMessage;
+import bisq.network.p2p.services.data.storage.TestAppendOnlyData;
+import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BatchDataRequestTest {
+    @BeforeAll
+    static void registerResolver() {
+        TestAppendOnlyData.registerResolver();
+    }
+
+    @Test
+    void protoRoundTrip() {
+        BatchDataRequest batchDataRequest = new BatchDataRequest(requests(3));
+
+        BatchDataRequest fromValueProto = BatchDataRequest.fromProto(batchDataRequest.toValueProto(false));
+        EnvelopePayloadMessage fromProto = EnvelopePayloadMessage.fromProto(batchDataRequest.toProto(false));
+
+        assertThat(fromValueProto).isEqualTo(batchDataRequest);
+        assertThat(fromValueProto.getDataRequests()).containsExactlyElementsOf(batchDataRequest.getDataRequests());
+        assertThat(fromProto).isEqualTo(batchDataRequest);
+    }
+
+    @Test
+    void costFactorIsMaxCostFactorPlusSurchargePerRequest() {
+        // AddAppendOnlyDataRequest has a cost factor of 0.5
+        assertThat(new BatchDataRequest(requests(1)).getCostFactor()).isCloseTo(0.502, within(1e-9));
+        assertThat(new BatchDataRequest(requests(BatchDataRequest.MAX_NUM_DATA_REQUESTS)).getCostFactor())
+                .isCloseTo(0.7, within(1e-9));
+    }
+
+    @Test
+    void costFactorIsCappedAtOne() {
+        DataRequest expensiveRequest = mock(DataRequest.class);
+        when(expensiveRequest.getCostFactor()).thenReturn(0.9);
+
+        BatchDataRequest batchDataRequest = new BatchDataRequest(Collections.nCopies(BatchDataRequest.MAX_NUM_DATA_REQUESTS, expensiveRequest));
+
+        assertThat(batchDataRequest.getCostFactor()).isEqualTo(1.0);
+    }
+
+    @Test
+    void rejectEmptyOrTooLargeBatch() {
+        assertThatThrownBy(() -> new BatchDataRequest(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BatchDataRequest(requests(BatchDataRequest.MAX_NUM_DATA_REQUESTS + 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<AddAppendOnlyDataRequest> requests(int numRequests) {
+        return IntStream.range(0, numRequests)
+                .mapToObj(i -> new AddAppendOnlyDataRequest(new TestAppendOnlyData("data" + i)))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.services.data;
+
+import bisq.network.p2p.services.data.broadcast.BroadcastMessage;
+import bisq.network.p2p.services.data.broadcast.Broadcaster;
+import bisq.network.p2p.services.data.storage.DataStore;
+import bisq.network.p2p.services.data.storage.TestAppendOnlyData;
+import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
+import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedData;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedSequentialData;
+import bisq.network.p2p.services.data.storage.auth.DefaultAuthenticatedData;
+import bisq.persistence.MaxBackupSize;
+import bisq.persistence.Persistence;
+import bisq.persistence.PersistenceService;
+import bisq.security.DigestUtil;
+import bisq.security.SignatureUtil;
+import bisq.security.keys.KeyGeneration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DataServiceTest {
+    private static KeyPair keyPair;
+    private static KeyPair otherKeyPair;
+
+    private final Broadcaster broadcaster = mock(Broadcaster.class);
+    private DataService dataService;
+
+    @BeforeAll
+    static void setUpKeys() throws GeneralSecurityException {
+        TestAppendOnlyData.registerResolver();
+        keyPair = KeyGeneration.generateKeyPair();
+        otherKeyPair = KeyGeneration.generateKeyPair();
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        Persistence<DataStore<AuthenticatedDataRequest>> persistence = mock(Persistence.class);
+        when(persistence.readAsync()).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        when(persistence.readJournalAsync(any())).thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(persistence.appendToJournalAsync(any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(persistence.compactAsync(any())).thenReturn(CompletableFuture.completedFuture(true));
+        PersistenceService persistenceService = mock(PersistenceService.class);
+        doReturn(persistence).when(persistenceService)
+                .getOrCreatePersistence(any(), anyString(), anyString(), any(), any(MaxBackupSize.class));
+
+        dataService = new DataService(persistenceService);
+        dataService.addBroadcaster(broadcaster);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataService.shutdown();
+    }
+
+    @Test
+    void processBatchDataRequestReBroadcastsOnlyAcceptedRequests() throws Exception {
+        AddAppendOnlyDataRequest alreadyStored = new AddAppendOnlyDataRequest(new TestAppendOnlyData("stored"));
+        dataService.getStorageService().onAddDataRequest(alreadyStored).get(5, TimeUnit.SECONDS);
+        AddAuthenticatedDataRequest valid = request("valid", keyPair);
+        AddAuthenticatedDataRequest invalidSignature = request("invalid", otherKeyPair);
+        AddAppendOnlyDataRequest newAppendOnly = new AddAppendOnlyDataRequest(new TestAppendOnlyData("new"));
+
+        dataService.processBatchDataRequest(new BatchDataRequest(List.of(valid, invalidSignature, alreadyStored, newAppendOnly)), true);
+
+        ArgumentCaptor<BroadcastMessage> captor = ArgumentCaptor.forClass(BroadcastMessage.class);
+        verify(broadcaster, timeout(5000)).reBroadcast(captor.capture());
+        assertThat(captor.getValue()).isInstanceOf(BatchDataRequest.class);
+        assertThat(((BatchDataRequest) captor.getValue()).getDataRequests())
+                .containsExactlyInAnyOrder(valid, newAppendOnly);
+        assertThat(dataService.getStorageService().getAuthenticatedData())
+                .containsExactly(valid.getAuthenticatedSequentialData().getAuthenticatedData());
+    }
+
+    @Test
+    void processBatchDataRequestDoesNotReBroadcastIfAllRequestsAreRejected() throws Exception {
+        AddAppendOnlyDataRequest alreadyStored = new AddAppendOnlyDataRequest(new TestAppendOnlyData("stored"));
+        dataService.getStorageService().onAddDataRequest(alreadyStored).get(5, TimeUnit.SECONDS);
+        AddAuthenticatedDataRequest invalidSignature = request("invalid", otherKeyPair);
+
+        dataService.processBatchDataRequest(new BatchDataRequest(List.of(invalidSignature, alreadyStored)), true);
+
+        verify(broadcaster, after(500).never()).reBroadcast(any());
+        assertThat(dataService.getStorageService().getAuthenticatedData()).isEmpty();
+    }
+
+    @Test
+    void processBatchDataRequestDoesNotReBroadcastIfNotAllowed() {
+        AddAuthenticatedDataRequest valid = request("valid", keyPair);
+
+        dataService.processBatchDataRequest(new BatchDataRequest(List.of(valid)), false);
+
+        verify(broadcaster, after(500).never()).reBroadcast(any());
+        assertThat(dataService.getStorageService().getAuthenticatedData())
+                .containsExactly(valid.getAuthenticatedSequentialData().getAuthenticatedData());
+    }
+
+    // The owner is always keyPair, so a request signed with another key has an invalid signature
+    private static AddAuthenticatedDataRequest request(String payload, KeyPair signingKeyPair) {
+        try {
+            AuthenticatedData authenticatedData = new DefaultAuthenticatedData(new TestAppendOnlyData(payload));
+            byte[] pubKeyHash = DigestUtil.hash(keyPair.getPublic().getEncoded());
+            AuthenticatedSequentialData data = new AuthenticatedSequentialData(authenticatedData,
+                    1,
+                    pubKeyHash,
+                    System.currentTimeMillis());
+            byte[] signature = SignatureUtil.sign(data.serializeForHash(), signingKeyPair.getPrivate());
+            return new AddAuthenticatedDataRequest(data, signature, keyPair.getPublic());
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.services.data.broadcast;
+
+import bisq.common.network.Address;
+import bisq.common.network.TransportType;
+import bisq.network.p2p.node.Capability;
+import bisq.network.p2p.node.Connection;
+import bisq.network.p2p.node.ConnectionClosedException;
+import bisq.network.p2p.node.Feature;
+import bisq.network.p2p.node.Node;
+import bisq.network.p2p.node.OutboundMessageQueue;
+import bisq.network.p2p.services.data.BatchDataRequest;
+import bisq.network.p2p.services.data.storage.TestAppendOnlyData;
+import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BroadcasterTest {
+    private final Node node = mock(Node.class);
+    private final BroadcastMessage broadcastMessage = mock(BroadcastMessage.class);
+    private final List<Connection> connections = new ArrayList<>();
+    private Broadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        when(node.isInitialized()).thenReturn(true);
+        when(node.getAllActiveConnections()).thenAnswer(invocation -> connections.stream());
+        broadcaster = new Broadcaster(node);
+    }
+
+    @Test
+    void sendToAllConnectionsAndCountResults() throws Exception {
+        Connection succeeding = addConnection(CompletableFuture.completedFuture(null));
+        addConnection(CompletableFuture.failedFuture(new RejectedExecutionException("Queue is full")));
+        addConnection(CompletableFuture.failedFuture(new ConnectionClosedException((Connection) null)));
+
+        BroadcastResult result = broadcaster.doBroadcast(broadcastMessage, 1).get(5, TimeUnit.SECONDS);
+
+        assertThat(result.getNumSuccess()).isEqualTo(1);
+        assertThat(result.getNumDropped()).isEqualTo(1);
+        assertThat(result.getNumFaults()).isEqualTo(1);
+        assertThat(result.getLatencyByPeer()).containsOnlyKeys(succeeding.getPeerAddress());
+        connections.forEach(connection -> verify(node).sendAsync(broadcastMessage,
+                connection,
+                OutboundMessageQueue.DropPolicy.DROP_NEWEST));
+    }
+
+    @Test
+    void sendToShareOfConnectionsByDistributionFactor() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            addConnection(CompletableFuture.completedFuture(null));
+        }
+
+        BroadcastResult result = broadcaster.doBroadcast(broadcastMessage, 0.5).get(5, TimeUnit.SECONDS);
+
+        assertThat(result.getNumSuccess()).isEqualTo(2);
+        verify(node, times(2)).sendAsync(eq(broadcastMessage), any(), any());
+    }
+
+    @Test
+    void slowPeerDoesNotDelaySendingToOtherPeers() throws Exception {
+        CompletableFuture<Connection> slowPeerFuture = new CompletableFuture<>();
+        addConnection(slowPeerFuture);
+        addConnection(CompletableFuture.completedFuture(null));
+        addConnection(CompletableFuture.completedFuture(null));
+
+        CompletableFuture<BroadcastResult> future = broadcaster.doBroadcast(broadcastMessage, 1);
+
+        // All messages got queued while the slow peer has not completed yet
+        verify(node, times(3)).sendAsync(eq(broadcastMessage), any(), any());
+        assertThat(future).isNotDone();
+
+        slowPeerFuture.complete(connections.get(0));
+        assertThat(future.get(5, TimeUnit.SECONDS).getNumSuccess()).isEqualTo(3);
+    }
+
+    @Test
+    void sendContainedRequestsIndividuallyToPeersWithoutBatchSupport() throws Exception {
+        AddAppendOnlyDataRequest first = new AddAppendOnlyDataRequest(new TestAppendOnlyData("first"));
+        AddAppendOnlyDataRequest second = new AddAppendOnlyDataRequest(new TestAppendOnlyData("second"));
+        BatchDataRequest batchDataRequest = new BatchDataRequest(List.of(first, second));
+        Connection supportingPeer = addConnection(List.of(Feature.BATCH_DATA_REQUEST));
+        Connection otherPeer = addConnection(List.of());
+
+        BroadcastResult result = broadcaster.doBroadcast(batchDataRequest, 1).get(5, TimeUnit.SECONDS);
+
+        assertThat(result.getNumSuccess()).isEqualTo(2);
+        verify(node).sendAsync(batchDataRequest, supportingPeer, OutboundMessageQueue.DropPolicy.DROP_NEWEST);
+        verify(node, never()).sendAsync(eq(first), eq(supportingPeer), any());
+        verify(node, never()).sendAsync(eq(batchDataRequest), eq(otherPeer), any());
+        verify(node).sendAsync(first, otherPeer, OutboundMessageQueue.DropPolicy.DROP_NEWEST);
+        verify(node).sendAsync(second, otherPeer, OutboundMessageQueue.DropPolicy.DROP_NEWEST);
+    }
+
+    @Test
+    void sendContainedRequestsSequentiallyToPeersWithoutBatchSupport() throws Exception {
+        AddAppendOnlyDataRequest first = new AddAppendOnlyDataRequest(new TestAppendOnlyData("first"));
+        AddAppendOnlyDataRequest second = new AddAppendOnlyDataRequest(new TestAppendOnlyData("second"));
+        BatchDataRequest batchDataRequest = new BatchDataRequest(List.of(first, second));
+        Connection otherPeer = addConnection(List.of());
+        CompletableFuture<Connection> firstSendFuture = new CompletableFuture<>();
+        when(node.sendAsync(first, otherPeer, OutboundMessageQueue.DropPolicy.DROP_NEWEST)).thenReturn(firstSendFuture);
+
+        CompletableFuture<BroadcastResult> resultFuture = broadcaster.doBroadcast(batchDataRequest, 1);
+
+        // The second request is queued only after the first has been sent, so a batch cannot overflow the queue
+        verify(node).sendAsync(first, otherPeer, OutboundMessageQueue.DropPolicy.DROP_NEWEST);
+        verify(node, never()).sendAsync(eq(second), any(), any());
+        assertThat(resultFuture).isNotDone();
+
+        firstSendFuture.complete(otherPeer);
+        BroadcastResult result = resultFuture.get(5, TimeUnit.SECONDS);
+        verify(node).sendAsync(second, otherPeer, OutboundMessageQueue.DropPolicy.DROP_NEWEST);
+        assertThat(result.getNumSuccess()).isEqualTo(1);
+    }
+
+    private Connection addConnection(List<Feature> peersFeatures) {
+        Connection connection = mock(Connection.class);
+        Address address = new Address("127.0.0.1", 10000 + connections.size());
+        when(connection.getPeerAddress()).thenReturn(address);
+        when(connection.getPeersCapability()).thenReturn(Capability.myCapability(address,
+                new ArrayList<>(List.of(TransportType.CLEAR)),
+                new ArrayList<>(peersFeatures)));
+        when(node.sendAsync(any(), eq(connection), eq(OutboundMessageQueue.DropPolicy.DROP_NEWEST)))
+                .thenReturn(CompletableFuture.completedFuture(connection));
+        connections.add(connection);
+        return connection;
+    }
+
+    private Connection addConnection(CompletableFuture<Connection> sendFuture) {
+        Connection connection = mock(Connection.class);
+        when(connection.getPeerAddress()).thenReturn(new Address("127.0.0.1", 10000 + connections.size()));
+        when(node.sendAsync(broadcastMessage, connection, OutboundMessageQueue.DropPolicy.DROP_NEWEST)).thenReturn(sendFuture);
+        connections.add(connection);
+        return connection;
+    }
+}
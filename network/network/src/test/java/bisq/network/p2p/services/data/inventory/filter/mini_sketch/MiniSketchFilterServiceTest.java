@@ -0,0 +1,56 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
+
+import bisq.network.p2p.services.data.inventory.Inventory;
+import bisq.network.p2p.services.data.storage.StorageService;
+import com.google.common.primitives.Longs;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class MiniSketchFilterServiceTest {
+    private static final int MAX_SIZE = 1_000_000;
+
+    private final StorageService storageService = mock(StorageService.class);
+    private final MiniSketchFilterService filterService = new MiniSketchFilterService(storageService, MAX_SIZE);
+
+    @Test
+    void decodeFilterWithDefaultCapacity() {
+        Inventory inventory = filterService.createInventory(filterService.getFilter(), version -> true);
+
+        assertThat(inventory.isFilterDecodingFailed()).isFalse();
+        assertThat(inventory.getEntries()).isEmpty();
+    }
+
+    @Test
+    void rejectFilterWithCapacityAboveDefaultCapacity() {
+        long[] syndromes = new long[MiniSketchFilterService.DEFAULT_CAPACITY + 1];
+        MiniSketchFilter filter = new MiniSketchFilter(Longs.asList(syndromes), 0);
+
+        Inventory inventory = filterService.createInventory(filter, version -> true);
+
+        assertThat(inventory.isFilterDecodingFailed()).isTrue();
+        // The rejection must happen before we create our sketch for the peer's capacity
+        verify(storageService, never()).getAllDataRequestMapEntries();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MiniSketchTest {
+    private final Random random = new Random(42);
+
+    @Test
+    void fieldArithmetic() {
+        for (int i = 0; i < 100; i++) {
+            long a = random.nextLong();
+            long b = random.nextLong();
+            assertThat(GaloisField64.multiply(a, GaloisField64.inverse(a))).isEqualTo(1);
+            assertThat(GaloisField64.multiply(a, b)).isEqualTo(GaloisField64.multiply(b, a));
+            assertThat(new GaloisField64.Multiplier(a).multiply(b)).isEqualTo(GaloisField64.multiply(a, b));
+        }
+    }
+
+    @Test
+    void equalSetsHaveEmptyDifference() {
+        MiniSketch sketch1 = new MiniSketch(16);
+        MiniSketch sketch2 = new MiniSketch(16);
+        addCommonElements(sketch1, sketch2, 100);
+
+        Optional<MiniSketch.Difference> difference = sketch1.merge(sketch2).decode();
+        assertThat(difference).isPresent();
+        assertThat(difference.get().size()).isEqualTo(0);
+    }
+
+    @Test
+    void decodeDifferenceWithinCapacity() {
+        MiniSketch mySketch = new MiniSketch(32);
+        MiniSketch peersSketch = new MiniSketch(32);
+        addCommonElements(mySketch, peersSketch, 1000);
+        List<Long> onlyMine = addElements(mySketch, 12);
+        List<Long> onlyPeers = addElements(peersSketch, 20);
+
+        Optional<MiniSketch.Difference> difference = peersSketch.merge(mySketch).decode();
+        assertThat(difference).isPresent();
+        assertThat(difference.get().size()).isEqualTo(32);
+        onlyMine.forEach(element -> assertThat(difference.get().contains(element)).isTrue());
+        onlyPeers.forEach(element -> assertThat(difference.get().contains(element)).isTrue());
+        assertThat(difference.get().contains(random.nextLong())).isFalse();
+    }
+
+    @Test
+    void decodeFailsIfDifferenceExceedsCapacity() {
+        MiniSketch mySketch = new MiniSketch(32);
+        MiniSketch peersSketch = new MiniSketch(32);
+        addCommonElements(mySketch, peersSketch, 1000);
+        addElements(mySketch, 30);
+        addElements(peersSketch, 30);
+
+        assertThat(peersSketch.merge(mySketch).decode()).isEmpty();
+    }
+
+    @Test
+    void sequenceNumberChangesElement() {
+        byte[] hash = new byte[20];
+        random.nextBytes(hash);
+        assertThat(MiniSketch.toElement(hash, 1)).isNotEqualTo(MiniSketch.toElement(hash, 2));
+        assertThat(MiniSketch.toElement(hash, 1)).isEqualTo(MiniSketch.toElement(hash, 1));
+    }
+
+    private void addCommonElements(MiniSketch sketch1, MiniSketch sketch2, int numElements) {
+        for (int i = 0; i < numElements; i++) {
+            long element = random.nextLong();
+            sketch1.add(element);
+            sketch2.add(element);
+        }
+    }
+
+    private List<Long> addElements(MiniSketch sketch, int numElements) {
+        List<Long> elements = new ArrayList<>();
+        for (int i = 0; i < numElements; i++) {
+            long element = random.nextLong();
+            sketch.add(element);
+            elements.add(element);
+        }
+        return elements;
+    }
+}
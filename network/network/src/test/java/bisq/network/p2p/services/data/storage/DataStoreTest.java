@@ -0,0 +1,155 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataStoreTest {
+    private static final ByteArray KEY_A = key("A");
+    private static final ByteArray KEY_B = key("B");
+    private static final ByteArray KEY_C = key("C");
+
+    @BeforeAll
+    static void registerResolver() {
+        TestAppendOnlyData.registerResolver();
+    }
+
+    @Test
+    void drainChangedKeys() {
+        DataStore<AddAppendOnlyDataRequest> store = new DataStore<>();
+        Map<ByteArray, AddAppendOnlyDataRequest> map = store.getMap();
+        map.put(KEY_A, request("a1"));
+        map.put(KEY_B, request("b1"));
+        assertThat(keys(store.drainJournalRecords())).containsExactlyInAnyOrder(KEY_A, KEY_B);
+        assertThat(store.drainJournalRecords()).isEmpty();
+
+        map.put(KEY_A, request("a2"));
+        map.remove(KEY_B);
+        List<bisq.network.protobuf.DataStore.MapEntry> records = store.drainJournalRecords();
+        assertThat(keys(records)).containsExactlyInAnyOrder(KEY_A, KEY_B);
+        // Removed entries are represented by a record without value
+        assertThat(records.stream().filter(record -> !record.hasValue()).map(record -> ByteArray.fromProto(record.getKey())))
+                .containsExactly(KEY_B);
+    }
+
+    @Test
+    void onlyTrackActualChanges() {
+        DataStore<AddAppendOnlyDataRequest> store = new DataStore<>();
+        Map<ByteArray, AddAppendOnlyDataRequest> map = store.getMap();
+        map.put(KEY_A, request("a1"));
+        store.drainJournalRecords();
+
+        map.putIfAbsent(KEY_A, request("a2"));
+        map.computeIfAbsent(KEY_A, key -> request("a2"));
+        map.computeIfPresent(KEY_B, (key, value) -> request("b1"));
+        map.replace(KEY_B, request("b1"));
+        map.replace(KEY_A, request("a2"), request("a3"));
+        map.remove(KEY_C);
+        map.remove(KEY_A, request("a2"));
+        assertThat(store.drainJournalRecords()).isEmpty();
+        assertThat(map.get(KEY_A)).isEqualTo(request("a1"));
+    }
+
+    @Test
+    void trackAllMutatingMethods() {
+        DataStore<AddAppendOnlyDataRequest> store = new DataStore<>();
+        Map<ByteArray, AddAppendOnlyDataRequest> map = store.getMap();
+
+        map.putIfAbsent(KEY_A, request("a1"));
+        map.computeIfAbsent(KEY_B, key -> request("b1"));
+        assertThat(keys(store.drainJournalRecords())).containsExactlyInAnyOrder(KEY_A, KEY_B);
+
+        map.computeIfPresent(KEY_A, (key, value) -> request("a2"));
+        assertThat(keys(store.drainJournalRecords())).containsExactly(KEY_A);
+
+        map.replace(KEY_A, request("a3"));
+        assertThat(keys(store.drainJournalRecords())).containsExactly(KEY_A);
+
+        map.replace(KEY_B, request("b1"), request("b2"));
+        assertThat(keys(store.drainJournalRecords())).containsExactly(KEY_B);
+
+        map.replaceAll((key, value) -> request("x"));
+        assertThat(keys(store.drainJournalRecords())).containsExactlyInAnyOrder(KEY_A, KEY_B);
+
+        map.compute(KEY_C, (key, value) -> request("c1"));
+        map.merge(KEY_C, request("c2"), (oldValue, value) -> value);
+        assertThat(keys(store.drainJournalRecords())).containsExactly(KEY_C);
+
+        map.clear();
+        assertThat(keys(store.drainJournalRecords())).containsExactlyInAnyOrder(KEY_A, KEY_B, KEY_C);
+    }
+
+    @Test
+    void replayJournalRecords() throws InvalidProtocolBufferException {
+        DataStore<AddAppendOnlyDataRequest> store = new DataStore<>();
+        Map<ByteArray, AddAppendOnlyDataRequest> map = store.getMap();
+        map.put(KEY_A, request("a1"));
+        map.put(KEY_B, request("b1"));
+        DataStore<AddAppendOnlyDataRequest> snapshot = store.getClone();
+        store.drainJournalRecords();
+
+        map.put(KEY_A, request("a2"));
+        map.remove(KEY_B);
+        map.put(KEY_C, request("c1"));
+        List<bisq.network.protobuf.DataStore.MapEntry> records = store.drainJournalRecords();
+        // Records survive the serialization as done when writing and reading the journal
+        List<bisq.network.protobuf.DataStore.MapEntry> parsedRecords = new ArrayList<>();
+        for (bisq.network.protobuf.DataStore.MapEntry record : records) {
+            parsedRecords.add(bisq.network.protobuf.DataStore.MapEntry.parseFrom(record.toByteArray()));
+        }
+
+        snapshot.applyJournalRecords(parsedRecords);
+        assertThat(snapshot.getMap()).isEqualTo(Map.of(KEY_A, request("a2"), KEY_C, request("c1")));
+    }
+
+    @Test
+    void applyPersistedClearsChanges() {
+        DataStore<AddAppendOnlyDataRequest> persisted = new DataStore<>();
+        persisted.getMap().put(KEY_A, request("a1"));
+
+        DataStore<AddAppendOnlyDataRequest> store = new DataStore<>();
+        store.applyPersisted(persisted);
+        assertThat(store.getMap()).containsOnlyKeys(KEY_A);
+        assertThat(store.drainJournalRecords()).isEmpty();
+    }
+
+    private static List<ByteArray> keys(List<bisq.network.protobuf.DataStore.MapEntry> records) {
+        return records.stream()
+                .map(record -> ByteArray.fromProto(record.getKey()))
+                .collect(Collectors.toList());
+    }
+
+    private static AddAppendOnlyDataRequest request(String payload) {
+        return new AddAppendOnlyDataRequest(new TestAppendOnlyData(payload));
+    }
+
+    private static ByteArray key(String key) {
+        return new ByteArray(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.proto.ProtoResolver;
+import bisq.common.proto.UnresolvableProtobufMessageException;
+import bisq.network.p2p.services.data.storage.append.AppendOnlyData;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * AppendOnlyData with a string payload, so that data requests can be created in tests without signatures.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class TestAppendOnlyData implements AppendOnlyData {
+    private static final String PROTO_TYPE_NAME = "common.ByteArray";
+
+    public static void registerResolver() {
+        DistributedDataResolver.addResolver(PROTO_TYPE_NAME, getResolver());
+    }
+
+    private final String payload;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final MetaData metaData = new MetaData(MetaData.TTL_10_DAYS, getClass().getSimpleName());
+
+    public TestAppendOnlyData(String payload) {
+        this.payload = payload;
+    }
+
+    @Override
+    public bisq.common.protobuf.ByteArray.Builder getBuilder(boolean serializeForHash) {
+        return bisq.common.protobuf.ByteArray.newBuilder().setBytes(ByteString.copyFrom(payload, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public bisq.common.protobuf.ByteArray toProto(boolean serializeForHash) {
+        return resolveProto(serializeForHash);
+    }
+
+    public static ProtoResolver<DistributedData> getResolver() {
+        return any -> {
+            try {
+                return new TestAppendOnlyData(any.unpack(bisq.common.protobuf.ByteArray.class).getBytes()
+                        .toString(StandardCharsets.UTF_8));
+            } catch (InvalidProtocolBufferException e) {
+                throw new UnresolvableProtobufMessageException(e);
+            }
+        };
+    }
+
+    @Override
+    public void verify() {
+    }
+
+    @Override
+    public boolean isDataInvalid(byte[] pubKeyHash) {
+        return false;
+    }
+
+    @Override
+    public double getCostFactor() {
+        return 0.5;
+    }
+}
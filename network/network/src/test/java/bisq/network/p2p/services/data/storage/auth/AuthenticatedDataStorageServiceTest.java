@@ -0,0 +1,214 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.services.data.storage.auth;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.storage.DataStorageResult;
+import bisq.network.p2p.services.data.storage.DataStore;
+import bisq.network.p2p.services.data.storage.PruneExpiredEntriesService;
+import bisq.network.p2p.services.data.storage.TestAppendOnlyData;
+import bisq.persistence.MaxBackupSize;
+import bisq.persistence.Persistence;
+import bisq.persistence.PersistenceService;
+import bisq.security.DigestUtil;
+import bisq.security.SignatureUtil;
+import bisq.security.keys.KeyGeneration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AuthenticatedDataStorageServiceTest {
+    private static final int NUM_DATA = 100;
+    private static final int NUM_THREADS = 8;
+    private static final int BATCH_SIZE = 25;
+
+    private static KeyPair keyPair;
+    private static KeyPair otherKeyPair;
+
+    private AuthenticatedDataStorageService store;
+    private final AtomicInteger numAdded = new AtomicInteger();
+
+    @BeforeAll
+    static void setUpKeys() throws GeneralSecurityException {
+        TestAppendOnlyData.registerResolver();
+        keyPair = KeyGeneration.generateKeyPair();
+        otherKeyPair = KeyGeneration.generateKeyPair();
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        Persistence<DataStore<AuthenticatedDataRequest>> persistence = mock(Persistence.class);
+        when(persistence.appendToJournalAsync(any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(persistence.compactAsync(any())).thenReturn(CompletableFuture.completedFuture(true));
+        PersistenceService persistenceService = mock(PersistenceService.class);
+        doReturn(persistence).when(persistenceService)
+                .<DataStore<AuthenticatedDataRequest>>getOrCreatePersistence(any(), anyString(), anyString(), any(), any(MaxBackupSize.class));
+
+        store = new AuthenticatedDataStorageService(persistenceService,
+                mock(PruneExpiredEntriesService.class),
+                "test",
+                "TestAuthenticatedData");
+        store.addListener(new AuthenticatedDataStorageService.Listener() {
+            @Override
+            public void onAdded(AuthenticatedData authenticatedData) {
+                numAdded.incrementAndGet();
+            }
+
+            @Override
+            public void onRemoved(AuthenticatedData authenticatedData) {
+            }
+        });
+    }
+
+    @Test
+    void addAllReturnsResultsInOrderOfRequests() throws GeneralSecurityException {
+        AddAuthenticatedDataRequest a2 = request("a", 2, keyPair);
+        AddAuthenticatedDataRequest a1 = request("a", 1, keyPair);
+        AddAuthenticatedDataRequest bWithInvalidSignature = request("b", 1, otherKeyPair, keyPair);
+        AddAuthenticatedDataRequest c1 = request("c", 1, keyPair);
+
+        List<DataStorageResult> results = store.addAll(List.of(a2, a1, bWithInvalidSignature, c1, c1));
+
+        assertThat(results).extracting(DataStorageResult::isSuccess).containsExactly(true, false, false, true, false);
+        // a1 and the second c1 passed the checks against the map before a2 and c1 got stored, so they are rejected
+        // by the repeated checks when applying them
+        assertThat(results.get(1).isSequenceNrInvalid()).isTrue();
+        assertThat(results.get(2).isSignatureInvalid()).isTrue();
+        assertThat(results.get(4).isRequestAlreadyReceived()).isTrue();
+        assertThat(store.getPersistableStore().getMap()).containsOnly(
+                Map.entry(hash(a2), a2),
+                Map.entry(hash(c1), c1));
+        assertThat(numAdded).hasValue(2);
+    }
+
+    @Test
+    void concurrentAddAndAddAllDoNotLoseOrDuplicateEntries() throws Exception {
+        List<AddAuthenticatedDataRequest> requests = new ArrayList<>();
+        for (int i = 0; i < NUM_DATA; i++) {
+            requests.add(request("data" + i, 1, keyPair));
+            requests.add(request("data" + i, 2, keyPair));
+        }
+        List<AtomicInteger> numSuccessByIndex = requests.stream()
+                .map(request -> new AtomicInteger())
+                .collect(Collectors.toList());
+
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            // Each thread adds all requests in its own order. Half of the threads use addAll with batches, the
+            // others add the requests one by one.
+            for (int thread = 0; thread < NUM_THREADS; thread++) {
+                boolean useAddAll = thread % 2 == 0;
+                List<Integer> indexes = IntStream.range(0, requests.size()).boxed().collect(Collectors.toList());
+                Collections.shuffle(indexes, new Random(thread));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    if (useAddAll) {
+                        for (int from = 0; from < indexes.size(); from += BATCH_SIZE) {
+                            List<Integer> batch = indexes.subList(from, Math.min(from + BATCH_SIZE, indexes.size()));
+                            List<DataStorageResult> results = store.addAll(batch.stream().map(requests::get).toList());
+                            for (int i = 0; i < batch.size(); i++) {
+                                if (results.get(i).isSuccess()) {
+                                    numSuccessByIndex.get(batch.get(i)).incrementAndGet();
+                                }
+                            }
+                        }
+                    } else {
+                        for (int index : indexes) {
+                            if (store.add(requests.get(index)).isSuccess()) {
+                                numSuccessByIndex.get(index).incrementAndGet();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<ByteArray, AuthenticatedDataRequest> map = store.getPersistableStore().getMap();
+        assertThat(map).hasSize(NUM_DATA);
+        for (int i = 0; i < requests.size(); i++) {
+            AddAuthenticatedDataRequest request = requests.get(i);
+            int sequenceNumber = request.getAuthenticatedSequentialData().getSequenceNumber();
+            // No request got applied twice, and the request with the highest sequence number is never lost
+            if (sequenceNumber == 2) {
+                assertThat(numSuccessByIndex.get(i)).hasValue(1);
+                assertThat(map.get(hash(request))).isSameAs(request);
+            } else {
+                assertThat(numSuccessByIndex.get(i).get()).isLessThanOrEqualTo(1);
+            }
+        }
+        int numSuccess = numSuccessByIndex.stream().mapToInt(AtomicInteger::get).sum();
+        assertThat(numAdded).hasValue(numSuccess);
+    }
+
+    private static AddAuthenticatedDataRequest request(String payload,
+                                                       int sequenceNumber,
+                                                       KeyPair keyPair) throws GeneralSecurityException {
+        return request(payload, sequenceNumber, keyPair, keyPair);
+    }
+
+    private static AddAuthenticatedDataRequest request(String payload,
+                                                       int sequenceNumber,
+                                                       KeyPair signingKeyPair,
+                                                       KeyPair ownerKeyPair) throws GeneralSecurityException {
+        AuthenticatedData authenticatedData = new DefaultAuthenticatedData(new TestAppendOnlyData(payload));
+        byte[] pubKeyHash = DigestUtil.hash(ownerKeyPair.getPublic().getEncoded());
+        AuthenticatedSequentialData data = new AuthenticatedSequentialData(authenticatedData,
+                sequenceNumber,
+                pubKeyHash,
+                System.currentTimeMillis());
+        byte[] signature = SignatureUtil.sign(data.serializeForHash(), signingKeyPair.getPrivate());
+        return new AddAuthenticatedDataRequest(data, signature, ownerKeyPair.getPublic());
+    }
+
+    private static ByteArray hash(AddAuthenticatedDataRequest request) {
+        return new ByteArray(request.getAuthenticatedSequentialData().getAuthenticatedData().getHash(DigestUtil::hash));
+    }
+}
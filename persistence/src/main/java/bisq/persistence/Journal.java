@@ -0,0 +1,179 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.persistence;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only file of length delimited protobuf records. Used for persisting the changes of a store since its last
+ * snapshot, so that the write cost depends on the size of the change and not on the size of the store.
+ * If the application got terminated while writing a record, the partially written record is discarded at read.
+ * If an append fails, the file is truncated to the end of the last complete record and the exception is thrown,
+ * so that the caller can write the records again or include them in the next snapshot.
+ */
+@Slf4j
+public class Journal {
+    public static final String EXTENSION = ".journal";
+
+    @Getter
+    private final Path journalPath;
+    private volatile int numRecords;
+    private OutputStream outputStream;
+    // End of the last complete record. -1 if not known yet (neither read nor appended).
+    private long validLength = -1;
+
+    public Journal(Path journalPath) {
+        this.journalPath = journalPath;
+    }
+
+    public synchronized void append(List<? extends MessageLite> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            if (outputStream == null) {
+                File parentDir = journalPath.getParent().toFile();
+                if (!parentDir.exists() && !parentDir.mkdirs()) {
+                    throw new CouldNotCreateParentDirs("Couldn't create " + parentDir);
+                }
+                truncateToValidLength();
+                outputStream = newOutputStream();
+            }
+            long numBytes = 0;
+            for (MessageLite record : records) {
+                record.writeDelimitedTo(outputStream);
+                int size = record.getSerializedSize();
+                numBytes += CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+            }
+            outputStream.flush();
+            validLength += numBytes;
+            numRecords += records.size();
+        } catch (IOException e) {
+            log.error("Couldn't append {} records to {}", records.size(), journalPath, e);
+            close();
+            try {
+                truncateToValidLength();
+            } catch (IOException truncateException) {
+                // We try again before the next append
+                log.error("Couldn't truncate {} to {} bytes", journalPath, validLength, truncateException);
+            }
+            throw e;
+        }
+    }
+
+    public synchronized <M extends MessageLite> List<M> read(Parser<M> parser) {
+        List<M> records = new ArrayList<>();
+        File journalFile = journalPath.toFile();
+        if (!journalFile.exists()) {
+            numRecords = 0;
+            validLength = 0;
+            return records;
+        }
+
+        close();
+        try {
+            byte[] bytes = Files.readAllBytes(journalPath);
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes);
+            int validLength = 0;
+            try {
+                M record;
+                while ((record = parser.parseDelimitedFrom(inputStream)) != null) {
+                    records.add(record);
+                    validLength = bytes.length - inputStream.available();
+                }
+            } catch (InvalidProtocolBufferException e) {
+                // Expected if the application got terminated while writing the last record
+                log.warn("{} contains an incomplete record at position {}. We discard the remaining {} bytes.",
+                        journalPath, validLength, bytes.length - validLength);
+                try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.WRITE)) {
+                    channel.truncate(validLength);
+                }
+            }
+            this.validLength = validLength;
+        } catch (IOException e) {
+            log.error("Couldn't read {}", journalPath, e);
+        }
+        numRecords = records.size();
+        return records;
+    }
+
+    public synchronized void clear() {
+        close();
+        try {
+            Files.deleteIfExists(journalPath);
+            validLength = 0;
+        } catch (IOException e) {
+            log.error("Couldn't delete {}", journalPath, e);
+        }
+        numRecords = 0;
+    }
+
+    public int getNumRecords() {
+        return numRecords;
+    }
+
+    public synchronized void close() {
+        if (outputStream != null) {
+            try {
+                outputStream.close();
+            } catch (IOException e) {
+                log.warn("Couldn't close {}", journalPath, e);
+            }
+            outputStream = null;
+        }
+    }
+
+    // Overridden in tests for simulating write failures
+    OutputStream newOutputStream() throws IOException {
+        return new BufferedOutputStream(new FileOutputStream(journalPath.toFile(), true));
+    }
+
+    private void truncateToValidLength() throws IOException {
+        if (!Files.exists(journalPath)) {
+            validLength = 0;
+            return;
+        }
+        long size = Files.size(journalPath);
+        if (validLength < 0) {
+            // Not read before, so we trust the existing content
+            validLength = size;
+        } else if (size > validLength) {
+            log.warn("We discard {} bytes of an incomplete write at the end of {}", size - validLength, journalPath);
+            try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+    }
+}
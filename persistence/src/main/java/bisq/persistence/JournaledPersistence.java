@@ -0,0 +1,120 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.persistence;
+
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Persists the changes of a {@link JournaledStore} to the journal instead of writing the whole store at each change.
+ * If the journal has more records than the store has entries (min. minJournalRecordsForCompaction), we write the
+ * snapshot of the store and clear the journal. At read, the journal is replayed on top of the snapshot.
+ * <p>
+ * If appending to the journal or writing the snapshot fails, the drained changes are not contained in any file.
+ * We then write the snapshot at the next call of {@link #persistChanges}, which contains those changes.
+ */
+@Slf4j
+public class JournaledPersistence<T extends PersistableStore<T> & JournaledStore<R>, R extends MessageLite> {
+    private final Persistence<T> persistence;
+    private final Parser<R> parser;
+    private final int minJournalRecordsForCompaction;
+    @Getter
+    private volatile boolean compactionRequired;
+
+    public JournaledPersistence(Persistence<T> persistence, Parser<R> parser, int minJournalRecordsForCompaction) {
+        this.persistence = persistence;
+        this.parser = parser;
+        this.minJournalRecordsForCompaction = minJournalRecordsForCompaction;
+    }
+
+    /**
+     * Reads the snapshot and applies the journal records on it.
+     *
+     * @param emptyStoreSupplier Used if there is no snapshot but journal records.
+     */
+    public CompletableFuture<Optional<T>> readAsync(Supplier<T> emptyStoreSupplier) {
+        return persistence.readAsync()
+                .thenCombine(persistence.readJournalAsync(parser),
+                        (optionalPersisted, journalRecords) -> {
+                            if (journalRecords.isEmpty()) {
+                                return optionalPersisted;
+                            }
+                            T persisted = optionalPersisted.orElseGet(emptyStoreSupplier);
+                            persisted.applyJournalRecords(journalRecords);
+                            log.info("Applied {} journal records to {}", journalRecords.size(), persistence.getFileName());
+                            return Optional.of(persisted);
+                        });
+    }
+
+    public boolean hasJournalRecords() {
+        return persistence.getNumJournalRecords() > 0;
+    }
+
+    /**
+     * Appends the changes of the store to the journal, or writes the snapshot if the journal got too large or if a
+     * previous write failed.
+     */
+    public CompletableFuture<Boolean> persistChanges(T persistableStore) {
+        if (compactionRequired) {
+            return compact(persistableStore);
+        }
+        List<R> journalRecords = persistableStore.drainJournalRecords();
+        if (journalRecords.isEmpty()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        int maxJournalRecords = Math.max(minJournalRecordsForCompaction, persistableStore.getNumEntries());
+        if (persistence.getNumJournalRecords() + journalRecords.size() > maxJournalRecords) {
+            return compact(persistableStore);
+        }
+        return persistence.appendToJournalAsync(journalRecords)
+                .handle((nil, throwable) -> {
+                    if (throwable != null) {
+                        log.error("Appending {} journal records to {} failed. We write the snapshot at the next persist call.",
+                                journalRecords.size(), persistence.getFileName(), throwable);
+                        compactionRequired = true;
+                        return false;
+                    }
+                    return true;
+                });
+    }
+
+    /**
+     * Writes the snapshot of the store and clears the journal.
+     */
+    public CompletableFuture<Boolean> compact(T persistableStore) {
+        compactionRequired = false;
+        // Changes done after draining are either contained in the snapshot or tracked for the next journal write
+        persistableStore.drainJournalRecords();
+        return persistence.compactAsync(persistableStore.getClone())
+                .handle((success, throwable) -> {
+                    boolean compacted = throwable == null && success;
+                    if (!compacted) {
+                        log.error("Writing the snapshot of {} failed. We try again at the next persist call.",
+                                persistence.getFileName(), throwable);
+                        compactionRequired = true;
+                    }
+                    return compacted;
+                });
+    }
+}
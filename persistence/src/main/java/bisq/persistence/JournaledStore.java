@@ -0,0 +1,40 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.persistence;
+
+import com.google.protobuf.MessageLite;
+
+import java.util.List;
+
+/**
+ * Store which tracks its changes, so that only the changes are written to the {@link Journal} instead of the whole
+ * store.
+ */
+public interface JournaledStore<R extends MessageLite> {
+    /**
+     * @return The records of the changes since the last call. Changes done concurrently to that call are either
+     * included or returned at the next call.
+     */
+    List<R> drainJournalRecords();
+
+    void applyJournalRecords(List<R> records);
+
+    /**
+     * @return The number of entries of the store. Used for deciding when the journal gets compacted.
+     */
+    int getNumEntries();
+}
@@ -21,15 +21,18 @@ import bisq.common.file.FileUtils;
 import com.google.protobuf.Any;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.Optional;
 
 @Slf4j
 public class PersistableStoreReaderWriter<T extends PersistableStore<T>> {
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
 
     private final PersistableStoreFileManager storeFileManager;
     private final Path storeFilePath;
@@ -65,7 +68,10 @@ public class PersistableStoreReaderWriter<T extends PersistableStore<T>> {
         return Optional.empty();
     }
 
-    public synchronized void write(T persistableStore) {
+    /**
+     * @return true if the store has been written successfully.
+     */
+    public synchronized boolean write(T persistableStore) {
         storeFileManager.createParentDirectoriesIfNotExisting();
         try {
             writeStoreToTempFile(persistableStore);
@@ -75,11 +81,13 @@ public class PersistableStoreReaderWriter<T extends PersistableStore<T>> {
                 FileUtils.deleteFile(storeFile);
             }
             storeFileManager.renameTempFileToCurrentFile();
+            return true;
         } catch (CouldNotSerializePersistableStore e) {
             log.error("Couldn't serialize {}", persistableStore, e);
         } catch (Exception e) {
             log.error("Couldn't write persistable store to disk.", e);
         }
+        return false;
     }
 
     public void pruneBackups() {
@@ -88,8 +96,10 @@ public class PersistableStoreReaderWriter<T extends PersistableStore<T>> {
 
     private PersistableStore<?> readStoreFromFile() throws IOException {
         File storeFile = storeFilePath.toFile();
-        try (FileInputStream fileInputStream = new FileInputStream(storeFile)) {
-            Any any = Any.parseDelimitedFrom(fileInputStream);
+        // We do not use a memory mapped file as on Windows the mapped file cannot be replaced until the buffer got
+        // garbage collected, which would break the rename of the temp file at the next write.
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(storeFile), READ_BUFFER_SIZE)) {
+            Any any = Any.parseDelimitedFrom(inputStream);
             return PersistableStore.fromAny(any);
         }
     }
@@ -20,11 +20,16 @@ package bisq.persistence;
 import bisq.common.threading.ExecutorFactory;
 import bisq.common.util.StringUtils;
 import bisq.persistence.backup.MaxBackupSize;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
@@ -33,7 +38,10 @@ import java.util.function.Consumer;
 @Slf4j
 public class Persistence<T extends PersistableStore<T>> {
     public static final String EXTENSION = ".protobuf";
+    // Writes, journal operations and compaction are executed in sequence. Reads of different stores are independent
+    // of each other and are executed in parallel to reduce the startup time.
     private static final ExecutorService executorService = ExecutorFactory.newSingleThreadExecutor("Persistence");
+    private static final ExecutorService readExecutorService = ExecutorFactory.newFixedThreadPool("Persistence.read");
 
     @Getter
     private final Path storePath;
@@ -41,6 +49,13 @@ public class Persistence<T extends PersistableStore<T>> {
     private final String fileName;
 
     private final PersistableStoreReaderWriter<T> persistableStoreReaderWriter;
+    // Only used by clients persisting their changes to the journal. The file is created at the first append.
+    private final Journal journal;
+    // Duration of reading and parsing the store file at the last read
+    @Getter
+    private volatile long readDuration;
+    @Getter
+    private volatile long readFileSize;
 
     public Persistence(String directory, String fileName, MaxBackupSize maxBackupSize) {
         this.fileName = fileName;
@@ -48,6 +63,7 @@ public class Persistence<T extends PersistableStore<T>> {
         storePath = Paths.get(directory, storageFileName + EXTENSION);
         var storeFileManager = new PersistableStoreFileManager(storePath, maxBackupSize);
         persistableStoreReaderWriter = new PersistableStoreReaderWriter<>(storeFileManager);
+        journal = new Journal(Paths.get(directory, storageFileName + Journal.EXTENSION));
     }
 
     public CompletableFuture<Optional<T>> readAsync(Consumer<T> consumer) {
@@ -55,7 +71,13 @@ public class Persistence<T extends PersistableStore<T>> {
     }
 
     public CompletableFuture<Optional<T>> readAsync() {
-        return CompletableFuture.supplyAsync(persistableStoreReaderWriter::read, executorService);
+        return CompletableFuture.supplyAsync(() -> {
+            long ts = System.currentTimeMillis();
+            Optional<T> result = persistableStoreReaderWriter.read();
+            readDuration = System.currentTimeMillis() - ts;
+            readFileSize = storePath.toFile().length();
+            return result;
+        }, readExecutorService);
     }
 
     public CompletableFuture<Void> persistAsync(T serializable) {
@@ -66,6 +88,38 @@ public class Persistence<T extends PersistableStore<T>> {
         persistableStoreReaderWriter.write(persistableStore);
     }
 
+    public CompletableFuture<Void> appendToJournalAsync(List<? extends MessageLite> records) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                journal.append(records);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executorService);
+    }
+
+    public <M extends MessageLite> CompletableFuture<List<M>> readJournalAsync(Parser<M> parser) {
+        return CompletableFuture.supplyAsync(() -> journal.read(parser), executorService);
+    }
+
+    /**
+     * Writes the snapshot of the store and clears the journal if the write was successful. As we use a single
+     * threaded executor, journal records appended after that call are not affected.
+     */
+    public CompletableFuture<Boolean> compactAsync(T persistableStore) {
+        return CompletableFuture.supplyAsync(() -> {
+            boolean success = persistableStoreReaderWriter.write(persistableStore);
+            if (success) {
+                journal.clear();
+            }
+            return success;
+        }, executorService);
+    }
+
+    public int getNumJournalRecords() {
+        return journal.getNumRecords();
+    }
+
     public CompletableFuture<Void> pruneBackups() {
         return CompletableFuture.runAsync(persistableStoreReaderWriter::pruneBackups, executorService);
     }
@@ -32,6 +32,14 @@ public interface PersistenceClient<T extends PersistableStore<T>> {
         });
     }
 
+    /**
+     * Stores which are not required for launching the application (e.g. for the first screen) can be read after the
+     * application has been launched. They are still applied before the services get initialized.
+     */
+    default boolean isDeferrableAtStartup() {
+        return false;
+    }
+
     default T prunePersisted(T persisted) {
         return persisted;
     }
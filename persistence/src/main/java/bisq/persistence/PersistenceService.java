@@ -19,6 +19,7 @@ package bisq.persistence;
 
 import bisq.common.proto.PersistableProto;
 import bisq.common.util.CompletableFutureUtils;
+import bisq.common.util.StringUtils;
 import bisq.persistence.backup.MaxBackupSize;
 import com.google.common.base.Joiner;
 import lombok.Getter;
@@ -26,17 +27,22 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 @Slf4j
 public class PersistenceService {
+    private static final int NUM_STORES_IN_STARTUP_REPORT = 10;
+
     @Getter
     private final String baseDir;
     @Getter
     protected final List<PersistenceClient<? extends PersistableProto>> clients = new CopyOnWriteArrayList<>();
     protected final List<Persistence<? extends PersistableProto>> persistenceInstances = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<Boolean> deferredReadFuture = new CompletableFuture<>();
 
     public PersistenceService(String baseDir) {
         this.baseDir = baseDir;
@@ -105,6 +111,10 @@ public class PersistenceService {
         return CompletableFutureUtils.allOf(list).thenApply(l -> null);
     }
 
+    /**
+     * Reads the stores required for launching the application. The deferrable stores are read after those have
+     * been completed. Use {@link #readAllDeferredPersisted()} to wait for them.
+     */
     public CompletableFuture<Boolean> readAllPersisted() {
         List<String> storagePaths = clients.stream()
                 .map(persistenceClient -> persistenceClient.getPersistence().getStorePath()
@@ -112,9 +122,36 @@ public class PersistenceService {
                 .sorted()
                 .collect(Collectors.toList());
         log.debug("Read persisted data from:\n{}", Joiner.on("\n").join(storagePaths));
+
+        List<PersistenceClient<? extends PersistableProto>> requiredClients = clients.stream()
+                .filter(persistenceClient -> !persistenceClient.isDeferrableAtStartup())
+                .collect(Collectors.toList());
+        List<PersistenceClient<? extends PersistableProto>> deferrableClients = clients.stream()
+                .filter(PersistenceClient::isDeferrableAtStartup)
+                .collect(Collectors.toList());
+        return readPersisted(requiredClients, "required")
+                .whenComplete((result, throwable) -> readPersisted(deferrableClients, "deferrable")
+                        .whenComplete((r, t) -> {
+                            if (t == null) {
+                                deferredReadFuture.complete(true);
+                            } else {
+                                deferredReadFuture.completeExceptionally(t);
+                            }
+                        }));
+    }
+
+    public CompletableFuture<Boolean> readAllDeferredPersisted() {
+        return deferredReadFuture;
+    }
+
+    private CompletableFuture<Boolean> readPersisted(List<PersistenceClient<? extends PersistableProto>> clients,
+                                                     String description) {
+        long ts = System.currentTimeMillis();
+        Map<PersistenceClient<? extends PersistableProto>, Long> durationByClient = new ConcurrentHashMap<>();
         return CompletableFutureUtils.allOf(clients.stream()
                         .map(persistenceClient -> persistenceClient.readPersisted()
                                 .whenComplete((optionalResult, throwable) -> {
+                                    durationByClient.put(persistenceClient, System.currentTimeMillis() - ts);
                                     String storagePath = persistenceClient.getPersistence().getStorePath()
                                             .toAbsolutePath().toString();
                                     if (throwable == null) {
@@ -127,9 +164,29 @@ public class PersistenceService {
                                         log.error("Error at read persisted data from: {}", storagePath, throwable);
                                     }
                                 })))
+                .whenComplete((list, throwable) ->
+                        logStartupReport(description, System.currentTimeMillis() - ts, durationByClient))
                 .thenApply(list -> true);
     }
 
+    private void logStartupReport(String description,
+                                  long totalDuration,
+                                  Map<PersistenceClient<? extends PersistableProto>, Long> durationByClient) {
+        String stores = durationByClient.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
+                .limit(NUM_STORES_IN_STARTUP_REPORT)
+                .map(entry -> {
+                    Persistence<?> persistence = entry.getKey().getPersistence();
+                    return persistence.getFileName() +
+                            ": completed after " + entry.getValue() + " ms" +
+                            "; read file: " + persistence.getReadDuration() + " ms" +
+                            "; size: " + StringUtils.formatBytes(persistence.getReadFileSize());
+                })
+                .collect(Collectors.joining("\n"));
+        log.info("Reading {} {} stores took {} ms. Slowest stores:\n{}",
+                durationByClient.size(), description, totalDuration, stores);
+    }
+
     public CompletableFuture<Boolean> persistAllClients() {
         return CompletableFutureUtils.allOf(clients.stream()
                         .map(persistenceClient -> persistenceClient.persist()
@@ -56,23 +56,41 @@ public abstract class RateLimitedPersistenceClient<T extends PersistableStore<T>
             lastWrite = System.currentTimeMillis();
             writeInProgress = true;
             dropped = false;
-            return getPersistence()
-                    .persistAsync(getPersistableStore().getClone())
-                    .handle((nil, throwable) -> {
+            return write()
+                    .handle((success, throwable) -> {
                         writeInProgress = false;
-                        return throwable == null;
+                        return throwable == null && success;
                     });
         }
     }
 
+    /**
+     * Writes the store. Only called if the write was not dropped by the rate limit.
+     */
+    protected CompletableFuture<Boolean> write() {
+        return getPersistence().persistAsync(getPersistableStore().getClone())
+                .thenApply(nil -> true);
+    }
+
+    /**
+     * Called at shutdown if {@link #requiresWriteOnShutdown()} returns true. Expected to write synchronously.
+     */
+    protected void writeOnShutdown() {
+        getPersistence().persist(getPersistableStore().getClone());
+    }
+
+    protected boolean requiresWriteOnShutdown() {
+        return dropped;
+    }
+
     protected long getMaxWriteRateInMs() {
         return 1000;
     }
 
     private void persistOnShutdown() {
-        if (dropped) {
+        if (requiresWriteOnShutdown()) {
             dropped = false;
-            getPersistence().persist(getPersistableStore().getClone());
+            writeOnShutdown();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.persistence;
+
+import bisq.common.protobuf.StringLongPair;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JournalTests {
+
+    @Test
+    void readNotExistingJournal(@TempDir Path tempDir) {
+        Journal journal = new Journal(tempDir.resolve("store" + Journal.EXTENSION));
+        assertThat(journal.read(StringLongPair.parser())).isEmpty();
+        assertThat(journal.getNumRecords()).isEqualTo(0);
+    }
+
+    @Test
+    void appendAndRead(@TempDir Path tempDir) throws IOException {
+        Path journalPath = tempDir.resolve("store" + Journal.EXTENSION);
+        Journal journal = new Journal(journalPath);
+        journal.append(List.of(createRecord("A", 1), createRecord("B", 2)));
+        journal.append(List.of(createRecord("C", 3)));
+        assertThat(journal.getNumRecords()).isEqualTo(3);
+        journal.close();
+
+        List<StringLongPair> records = new Journal(journalPath).read(StringLongPair.parser());
+        assertThat(records).containsExactly(createRecord("A", 1), createRecord("B", 2), createRecord("C", 3));
+    }
+
+    @Test
+    void discardIncompleteRecord(@TempDir Path tempDir) throws IOException {
+        Path journalPath = tempDir.resolve("store" + Journal.EXTENSION);
+        Journal journal = new Journal(journalPath);
+        journal.append(List.of(createRecord("A", 1), createRecord("B", 2)));
+        journal.close();
+
+        // Simulate a termination while writing the last record
+        long size = Files.size(journalPath);
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 2);
+        }
+
+        journal = new Journal(journalPath);
+        assertThat(journal.read(StringLongPair.parser())).containsExactly(createRecord("A", 1));
+
+        // New records are appended after the last complete record
+        journal.append(List.of(createRecord("C", 3)));
+        journal.close();
+        assertThat(new Journal(journalPath).read(StringLongPair.parser()))
+                .containsExactly(createRecord("A", 1), createRecord("C", 3));
+    }
+
+    @Test
+    void clear(@TempDir Path tempDir) throws IOException {
+        Path journalPath = tempDir.resolve("store" + Journal.EXTENSION);
+        Journal journal = new Journal(journalPath);
+        journal.append(List.of(createRecord("A", 1)));
+        journal.clear();
+
+        assertThat(Files.exists(journalPath)).isFalse();
+        assertThat(journal.getNumRecords()).isEqualTo(0);
+        assertThat(journal.read(StringLongPair.parser())).isEmpty();
+    }
+
+    @Test
+    void discardPartiallyWrittenRecordOfFailedAppend(@TempDir Path tempDir) throws IOException {
+        Path journalPath = tempDir.resolve("store" + Journal.EXTENSION);
+        AtomicBoolean failNextStream = new AtomicBoolean();
+        Journal journal = new Journal(journalPath) {
+            @Override
+            OutputStream newOutputStream() throws IOException {
+                OutputStream outputStream = super.newOutputStream();
+                // Fails after writing a part of the first record
+                return failNextStream.getAndSet(false) ? new FailingOutputStream(outputStream, 3) : outputStream;
+            }
+        };
+        journal.append(List.of(createRecord("A", 1)));
+        journal.close();
+        long size = Files.size(journalPath);
+
+        failNextStream.set(true);
+        assertThatThrownBy(() -> journal.append(List.of(createRecord("B", 2))))
+                .isInstanceOf(IOException.class);
+        assertThat(Files.size(journalPath)).isEqualTo(size);
+        assertThat(journal.getNumRecords()).isEqualTo(1);
+
+        // Records appended after the failure must not get discarded at read
+        journal.append(List.of(createRecord("C", 3)));
+        journal.close();
+        Journal reopenedJournal = new Journal(journalPath);
+        assertThat(reopenedJournal.read(StringLongPair.parser()))
+                .containsExactly(createRecord("A", 1), createRecord("C", 3));
+        assertThat(reopenedJournal.getNumRecords()).isEqualTo(2);
+    }
+
+    private static StringLongPair createRecord(String key, long value) {
+        return StringLongPair.newBuilder().setKey(key).setValue(value).build();
+    }
+
+    private static class FailingOutputStream extends FilterOutputStream {
+        private int remainingBytes;
+
+        FailingOutputStream(OutputStream outputStream, int remainingBytes) {
+            super(outputStream);
+            this.remainingBytes = remainingBytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (remainingBytes-- <= 0) {
+                throw new IOException("Simulated write failure");
+            }
+            out.write(b);
+            out.flush();
+        }
+    }
+}
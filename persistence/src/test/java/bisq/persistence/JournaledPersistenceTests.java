@@ -0,0 +1,133 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.persistence;
+
+import bisq.persistence.backup.MaxBackupSize;
+import com.google.protobuf.MessageLite;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JournaledPersistenceTests {
+    private static final String FILE_NAME = "TimestampStore";
+
+    @BeforeAll
+    static void registerResolver() {
+        PersistableStoreResolver.addResolver(new TimestampStore().getResolver());
+    }
+
+    @Test
+    void persistChangesAndReplayJournal(@TempDir Path tempDir) {
+        var persistence = new FailingPersistence(tempDir);
+        var journaledPersistence = createJournaledPersistence(persistence);
+        var store = new TimestampStore();
+        store.put("A", 1);
+        store.put("B", 2);
+        assertThat(journaledPersistence.persistChanges(store).join()).isTrue();
+        store.put("A", 3);
+        assertThat(journaledPersistence.persistChanges(store).join()).isTrue();
+        assertThat(persistence.getNumJournalRecords()).isEqualTo(3);
+
+        TimestampStore persisted = read(tempDir);
+        assertThat(persisted.getTimestampsByProfileId()).isEqualTo(Map.of("A", 3L, "B", 2L));
+    }
+
+    @Test
+    void writeSnapshotAfterFailedAppend(@TempDir Path tempDir) {
+        var persistence = new FailingPersistence(tempDir);
+        var journaledPersistence = createJournaledPersistence(persistence);
+        var store = new TimestampStore();
+        store.put("A", 1);
+        persistence.failAppend = true;
+        assertThat(journaledPersistence.persistChanges(store).join()).isFalse();
+        assertThat(journaledPersistence.isCompactionRequired()).isTrue();
+
+        // The drained change is not in the journal, so the next call must write the snapshot
+        persistence.failAppend = false;
+        assertThat(journaledPersistence.persistChanges(store).join()).isTrue();
+        assertThat(journaledPersistence.isCompactionRequired()).isFalse();
+        assertThat(read(tempDir).getTimestampsByProfileId()).containsEntry("A", 1L);
+    }
+
+    @Test
+    void writeSnapshotAgainAfterFailedCompaction(@TempDir Path tempDir) {
+        var persistence = new FailingPersistence(tempDir);
+        var journaledPersistence = createJournaledPersistence(persistence);
+        var store = new TimestampStore();
+        store.put("A", 1);
+        assertThat(journaledPersistence.persistChanges(store).join()).isTrue();
+        store.put("B", 2);
+        persistence.failCompaction = true;
+        assertThat(journaledPersistence.compact(store).join()).isFalse();
+        assertThat(journaledPersistence.isCompactionRequired()).isTrue();
+        assertThat(store.drainJournalRecords()).isEmpty();
+
+        persistence.failCompaction = false;
+        assertThat(journaledPersistence.persistChanges(store).join()).isTrue();
+        assertThat(persistence.getNumJournalRecords()).isEqualTo(0);
+        TimestampStore persisted = read(tempDir);
+        assertThat(persisted.getTimestampsByProfileId()).containsEntry("A", 1L).containsEntry("B", 2L);
+    }
+
+    private static JournaledPersistence<TimestampStore, bisq.common.protobuf.StringLongPair> createJournaledPersistence(
+            Persistence<TimestampStore> persistence) {
+        return new JournaledPersistence<>(persistence, bisq.common.protobuf.StringLongPair.parser(), 100);
+    }
+
+    private static TimestampStore read(Path tempDir) {
+        Optional<TimestampStore> persisted = createJournaledPersistence(new FailingPersistence(tempDir))
+                .readAsync(TimestampStore::new)
+                .join();
+        assertThat(persisted).isPresent();
+        return persisted.get();
+    }
+
+    private static class FailingPersistence extends Persistence<TimestampStore> {
+        private volatile boolean failAppend;
+        private volatile boolean failCompaction;
+
+        FailingPersistence(Path directory) {
+            super(directory.toString(), FILE_NAME, MaxBackupSize.ZERO);
+        }
+
+        @Override
+        public CompletableFuture<Void> appendToJournalAsync(List<? extends MessageLite> records) {
+            if (failAppend) {
+                return CompletableFuture.failedFuture(new UncheckedIOException(new IOException("Simulated write failure")));
+            }
+            return super.appendToJournalAsync(records);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> compactAsync(TimestampStore persistableStore) {
+            if (failCompaction) {
+                return CompletableFuture.completedFuture(false);
+            }
+            return super.compactAsync(persistableStore);
+        }
+    }
+}
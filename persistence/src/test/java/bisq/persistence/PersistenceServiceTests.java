@@ -0,0 +1,135 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.persistence;
+
+import bisq.persistence.backup.MaxBackupSize;
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PersistenceServiceTests {
+    @Test
+    void readDeferrableStoresAfterRequiredStores(@TempDir Path tempDir) {
+        var persistenceService = new PersistenceService(tempDir.toString());
+        var requiredClient = new TestClient(persistenceService, "Required", false);
+        var deferrableClient = new TestClient(persistenceService, "Deferrable", true);
+        requiredClient.persistEntry("A", 1);
+        deferrableClient.persistEntry("B", 2);
+        var requiredRead = new CompletableFuture<Void>();
+        requiredClient.readGate = requiredRead;
+
+        CompletableFuture<Boolean> readAllPersisted = persistenceService.readAllPersisted();
+        assertThat(requiredClient.getNumReads()).isEqualTo(1);
+        assertThat(deferrableClient.getNumReads()).isZero();
+        assertThat(persistenceService.readAllDeferredPersisted()).isNotDone();
+
+        requiredRead.complete(null);
+        assertThat(readAllPersisted.join()).isTrue();
+        assertThat(persistenceService.readAllDeferredPersisted().join()).isTrue();
+        assertThat(deferrableClient.getNumReads()).isEqualTo(1);
+        assertThat(requiredClient.getPersistableStore().getTimestampsByProfileId()).containsEntry("A", 1L);
+        assertThat(deferrableClient.getPersistableStore().getTimestampsByProfileId()).containsEntry("B", 2L);
+    }
+
+    @Test
+    void failingRequiredStoreDoesNotBlockOtherStores(@TempDir Path tempDir) {
+        var persistenceService = new PersistenceService(tempDir.toString());
+        var failingClient = new TestClient(persistenceService, "Failing", false);
+        var requiredClient = new TestClient(persistenceService, "Required", false);
+        var deferrableClient = new TestClient(persistenceService, "Deferrable", true);
+        failingClient.failRead = true;
+        requiredClient.persistEntry("A", 1);
+        deferrableClient.persistEntry("B", 2);
+
+        assertThat(completedExceptionally(persistenceService.readAllPersisted())).isTrue();
+        assertThat(requiredClient.getPersistableStore().getTimestampsByProfileId()).containsEntry("A", 1L);
+        assertThat(persistenceService.readAllDeferredPersisted().join()).isTrue();
+        assertThat(deferrableClient.getPersistableStore().getTimestampsByProfileId()).containsEntry("B", 2L);
+    }
+
+    @Test
+    void failingDeferrableStoreDoesNotBlockOtherDeferrableStores(@TempDir Path tempDir) {
+        var persistenceService = new PersistenceService(tempDir.toString());
+        var failingClient = new TestClient(persistenceService, "Failing", true);
+        var deferrableClient = new TestClient(persistenceService, "Deferrable", true);
+        failingClient.failRead = true;
+        deferrableClient.persistEntry("B", 2);
+
+        assertThat(persistenceService.readAllPersisted().join()).isTrue();
+        assertThat(completedExceptionally(persistenceService.readAllDeferredPersisted())).isTrue();
+        assertThat(deferrableClient.getNumReads()).isEqualTo(1);
+        assertThat(deferrableClient.getPersistableStore().getTimestampsByProfileId()).containsEntry("B", 2L);
+    }
+
+    private static boolean completedExceptionally(CompletableFuture<Boolean> future) {
+        return future.handle((result, throwable) -> throwable != null).join();
+    }
+
+    private static class TestClient implements PersistenceClient<TimestampStore> {
+        @Getter
+        private final TimestampStore persistableStore = new TimestampStore();
+        @Getter
+        private final Persistence<TimestampStore> persistence;
+        private final boolean deferrableAtStartup;
+        private final AtomicInteger numReads = new AtomicInteger();
+        private volatile CompletableFuture<Void> readGate = CompletableFuture.completedFuture(null);
+        private volatile boolean failRead;
+
+        TestClient(PersistenceService persistenceService, String fileName, boolean deferrableAtStartup) {
+            this.deferrableAtStartup = deferrableAtStartup;
+            persistence = persistenceService.getOrCreatePersistence(this,
+                    "db",
+                    fileName,
+                    persistableStore,
+                    MaxBackupSize.ZERO);
+        }
+
+        @Override
+        public CompletableFuture<Optional<TimestampStore>> readPersisted() {
+            numReads.incrementAndGet();
+            if (failRead) {
+                return CompletableFuture.failedFuture(new UncheckedIOException(new IOException("Simulated read failure")));
+            }
+            return readGate.thenCompose(nil -> PersistenceClient.super.readPersisted());
+        }
+
+        @Override
+        public boolean isDeferrableAtStartup() {
+            return deferrableAtStartup;
+        }
+
+        int getNumReads() {
+            return numReads.get();
+        }
+
+        void persistEntry(String profileId, long timestamp) {
+            var store = new TimestampStore();
+            store.put(profileId, timestamp);
+            persistence.persistAsync(store).join();
+        }
+    }
+}
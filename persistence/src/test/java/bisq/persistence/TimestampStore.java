@@ -26,16 +26,21 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @NoArgsConstructor(access = AccessLevel.PACKAGE)
 @Slf4j
-final class TimestampStore implements PersistableStore<TimestampStore> {
+final class TimestampStore implements PersistableStore<TimestampStore>, JournaledStore<bisq.common.protobuf.StringLongPair> {
     @Getter(AccessLevel.PACKAGE)
     private final Map<String, Long> timestampsByProfileId = new ConcurrentHashMap<>();
+    private final Set<String> changedProfileIds = ConcurrentHashMap.newKeySet();
 
     private TimestampStore(Map<String, Long> timestampsByProfileId) {
         this.timestampsByProfileId.putAll(timestampsByProfileId);
@@ -83,4 +88,31 @@ final class TimestampStore implements PersistableStore<TimestampStore> {
         timestampsByProfileId.clear();
         timestampsByProfileId.putAll(persisted.getTimestampsByProfileId());
     }
-}
\ No newline at end of file
+
+    void put(String profileId, long timestamp) {
+        timestampsByProfileId.put(profileId, timestamp);
+        changedProfileIds.add(profileId);
+    }
+
+    @Override
+    public List<bisq.common.protobuf.StringLongPair> drainJournalRecords() {
+        List<bisq.common.protobuf.StringLongPair> records = new ArrayList<>();
+        Iterator<String> iterator = changedProfileIds.iterator();
+        while (iterator.hasNext()) {
+            String profileId = iterator.next();
+            iterator.remove();
+            records.add(new StringLongPair(profileId, timestampsByProfileId.get(profileId)).toProto(false));
+        }
+        return records;
+    }
+
+    @Override
+    public void applyJournalRecords(List<bisq.common.protobuf.StringLongPair> records) {
+        records.forEach(record -> timestampsByProfileId.put(record.getKey(), record.getValue()));
+    }
+
+    @Override
+    public int getNumEntries() {
+        return timestampsByProfileId.size();
+    }
+}
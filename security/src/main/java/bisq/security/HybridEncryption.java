@@ -17,7 +17,6 @@
 
 package bisq.security;
 
-import bisq.security.keys.KeyGeneration;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.crypto.SecretKey;
@@ -33,6 +32,8 @@ import static com.google.common.base.Preconditions.checkArgument;
  * Follows roughly the schemes described here:
  * <a href="https://cryptobook.nakov.com/asymmetric-key-ciphers/ecies-public-key-encryption">...</a>
  * <a href="https://www.nominet.uk/how-elliptic-curve-cryptography-encryption-works/">...</a>
+ * <p>
+ * The derived shared secrets and decoded public keys are cached in {@link SharedSecretCache}.
  */
 @Slf4j
 public class HybridEncryption {
@@ -40,7 +41,7 @@ public class HybridEncryption {
     public static ConfidentialData encryptAndSign(byte[] message, PublicKey receiverPublicKey, KeyPair senderKeyPair)
             throws GeneralSecurityException {
         // Create shared secret with our private key and receivers public key
-        SecretKey sharedAesSecretKey = AesGcm.generateSharedAesSecretKey(senderKeyPair.getPrivate(), receiverPublicKey);
+        SecretKey sharedAesSecretKey = SharedSecretCache.getSharedAesSecretKey(senderKeyPair.getPrivate(), receiverPublicKey);
 
         byte[] iv = AesGcm.generateIv().getIV();
         byte[] cipherText = AesGcm.encrypt(sharedAesSecretKey, iv, message);
@@ -56,11 +57,13 @@ public class HybridEncryption {
         byte[] cipherText = confidentialData.getCipherText();
         byte[] signature = confidentialData.getSignature();
 
-        PublicKey senderPublicKey = KeyGeneration.generatePublic(encodedSenderPublicKey);
+        PublicKey senderPublicKey = SharedSecretCache.getPublicKey(encodedSenderPublicKey);
         checkArgument(SignatureUtil.verify(cipherText, signature, senderPublicKey), "Invalid signature");
 
         // Create shared secret with our private key and senders public key
-        SecretKey sharedAesSecretKey = AesGcm.generateSharedAesSecretKey(receiversKeyPair.getPrivate(), senderPublicKey);
+        SecretKey sharedAesSecretKey = SharedSecretCache.getSharedAesSecretKey(receiversKeyPair.getPrivate(),
+                senderPublicKey,
+                encodedSenderPublicKey);
         return AesGcm.decrypt(sharedAesSecretKey, iv, cipherText);
     }
 }
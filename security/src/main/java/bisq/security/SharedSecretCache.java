@@ -0,0 +1,107 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security;
+
+import bisq.common.data.ByteArray;
+import bisq.common.data.Pair;
+import bisq.security.keys.KeyGeneration;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the decoded public keys and the ECDH derived AES keys for confidential messages. Peers exchange usually many
+ * messages with the same key pairs (e.g. in a trade), and the key agreement is by far the most expensive part of the
+ * hybrid encryption.
+ * <p>
+ * The caches are bounded and entries expire if not accessed for a while, so that derived secrets do not stay longer
+ * in memory than needed. Only successful results are cached. The caches are thread safe.
+ */
+@Slf4j
+public final class SharedSecretCache {
+    private static final int MAX_SIZE = 1000;
+    private static final long EXPIRE_AFTER_ACCESS_MINUTES = 60;
+
+    private static final Cache<ByteArray, PublicKey> publicKeyByEncoded = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    // Key is the own private key and the encoded public key of the peer
+    private static final Cache<Pair<PrivateKey, ByteArray>, SecretKey> sharedAesSecretKeyByKeyPair = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    private SharedSecretCache() {
+    }
+
+    /**
+     * @return The decoded X.509 public key. Same as KeyGeneration.generatePublic but cached.
+     */
+    public static PublicKey getPublicKey(byte[] encodedPublicKey) throws GeneralSecurityException {
+        try {
+            // We copy the array as the key must not change if the caller modifies the array
+            return publicKeyByEncoded.get(new ByteArray(encodedPublicKey.clone()),
+                    () -> KeyGeneration.generatePublic(encodedPublicKey));
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * @return The AES key derived by ECDH from our private key and the peers public key. Same as
+     * AesGcm.generateSharedAesSecretKey but cached.
+     */
+    public static SecretKey getSharedAesSecretKey(PrivateKey privateKey, PublicKey publicKey) throws GeneralSecurityException {
+        return getSharedAesSecretKey(privateKey, publicKey, publicKey.getEncoded());
+    }
+
+    /**
+     * @param encodedPublicKey The encoded form of publicKey, passed if already available to avoid encoding it again.
+     */
+    public static SecretKey getSharedAesSecretKey(PrivateKey privateKey,
+                                                  PublicKey publicKey,
+                                                  byte[] encodedPublicKey) throws GeneralSecurityException {
+        try {
+            return sharedAesSecretKeyByKeyPair.get(new Pair<>(privateKey, new ByteArray(encodedPublicKey.clone())),
+                    () -> AesGcm.generateSharedAesSecretKey(privateKey, publicKey));
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    public static void clear() {
+        publicKeyByEncoded.invalidateAll();
+        sharedAesSecretKeyByKeyPair.invalidateAll();
+    }
+
+    private static GeneralSecurityException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof GeneralSecurityException generalSecurityException) {
+            return generalSecurityException;
+        }
+        return new GeneralSecurityException(e.getCause());
+    }
+}
@@ -17,11 +17,8 @@
 
 package bisq.security.pow.equihash;
 
-import bisq.common.platform.OS;
 import bisq.common.util.ByteArrayUtils;
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.ListMultimap;
-import com.google.common.collect.MultimapBuilder;
 import com.google.common.primitives.*;
 import lombok.ToString;
 import org.bouncycastle.crypto.digests.Blake2bDigest;
@@ -33,7 +30,6 @@ import java.util.*;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
-import static bisq.common.facades.FacadeProvider.getGuavaFacade;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.math.BigInteger.ONE;
 
@@ -65,6 +61,11 @@ import static java.math.BigInteger.ONE;
  * bits each and <i>n</i> bits in total. This allows working with 32-bit integers
  * throughout, for efficiency.
  * <p>
+ * The tables are stored as flat int arrays. Collisions are found by bucketing the rows by
+ * their first hash block (a counting sort), which keeps the order of the colliding pairs
+ * the same as with a sequential scan, so that hashing and each collision round can be
+ * split across threads while the found solutions stay deterministic.
+ * <p>
  * Author: <a href="https://github.com/stejbac">stejbac</a>
  */
 // Borrowed from: https://github.com/bisq-network/bisq
@@ -75,13 +76,9 @@ public class Equihash {
      * Mean solution count per nonce for Equihash puzzles with unit difficulty.
      */
     private static final double MEAN_SOLUTION_COUNT_PER_NONCE = 2.0;
-    private static final boolean IS_ANDROID = OS.isAndroid();
+    private static final int NUM_CHUNKS = 4 * Runtime.getRuntime().availableProcessors();
 
-    // Guava has different APIs for Java SE and Android.
-    // Thus, we use a facade with Android compatible APIs by default and let the Desktop app set the Java SE facade
-    // containing APIs only supported for Java SE compatible JDKs.
     private final int k, N;
-    private final int tableCapacity;
     private final int inputNum, inputBits;
     private final int[] hashUpperBound;
 
@@ -99,7 +96,6 @@ public class Equihash {
         inputNum = 1 << k;
         inputBits = n / (k + 1) + 1;
         N = 1 << inputBits;
-        tableCapacity = (int) (N * 1.1);
         hashUpperBound = hashUpperBound(difficulty);
     }
 
@@ -234,25 +230,16 @@ public class Equihash {
             this.prefixBytes = prefixBytes;
         }
 
-        private int[] hashInputs(int... inputs) {
-            var digest = new Blake2bDigest(HASH_BIT_LENGTH);
-            digest.update(prefixBytes, 0, prefixBytes.length);
-            byte[] inputBytes = ByteArrayUtils.integersToBytesBE(inputs);
-            digest.update(inputBytes, 0, inputBytes.length);
-            byte[] outputBytes = new byte[HASH_BIT_LENGTH / 8];
-            digest.doFinal(outputBytes, 0);
-            return ByteArrayUtils.bytesToIntegersBE(outputBytes);
-        }
-
         Stream<int[]> streamInputsHits() {
             var table = computeAllHashes();
             for (int i = 0; i < k; i++) {
                 table = findCollisions(table, i + 1 < k);
             }
-            return IntStream.range(0, table.numRows)
-                    .mapToObj(table::getRow)
-                    .filter(row -> getGuavaFacade().toIntStream(row).distinct().count() == inputNum)
-                    .map(row -> sortInputs(row.toArray()))
+            var finalTable = table;
+            return IntStream.range(0, finalTable.numRows)
+                    .mapToObj(finalTable::getIndexTuple)
+                    .filter(row -> Arrays.stream(row).distinct().count() == inputNum)
+                    .map(Equihash::sortInputs)
                     .filter(this::testDifficultyCondition);
         }
 
@@ -261,17 +248,25 @@ public class Equihash {
         }
 
         private XorTable computeAllHashes() {
-            var tableValues = IntStream.range(0, N).flatMap(i -> {
-                int[] hash = hashInputs(i);
-                return IntStream.range(0, k + 2).map(j -> j <= k ? hash[j] & (N / 2 - 1) : i);
+            int rowWidth = k + 2;
+            int[] values = new int[N * rowWidth];
+            forEachChunk(N, (from, to) -> {
+                var hasher = new Hasher(prefixBytes);
+                int[] hash = new int[HASH_BIT_LENGTH / 32];
+                for (int i = from; i < to; i++) {
+                    hasher.hash(i, hash);
+                    int offset = i * rowWidth;
+                    for (int j = 0; j <= k; j++) {
+                        values[offset + j] = hash[j] & (N / 2 - 1);
+                    }
+                    values[offset + k + 1] = i;
+                }
             });
-            IntStream parallelIntStream = getGuavaFacade().parallel(tableValues);
-            ImmutableIntArray immutableIntArray = getGuavaFacade().copyOf(parallelIntStream);
-            return new XorTable(k + 1, 1, immutableIntArray);
+            return new XorTable(k + 1, 1, values, N);
         }
 
         private boolean testDifficultyCondition(int[] inputs) {
-            int[] difficultyHash = hashInputs(inputs);
+            int[] difficultyHash = new Hasher(prefixBytes).hash(inputs);
             return UnsignedInts.lexicographicalComparator().compare(difficultyHash, hashUpperBound) <= 0;
         }
 
@@ -288,9 +283,11 @@ public class Equihash {
             if (!testDifficultyCondition(inputs)) {
                 return false;
             }
+            var hasher = new Hasher(prefixBytes);
+            int[] hash = new int[HASH_BIT_LENGTH / 32];
             int[] hashBlockSums = new int[k + 1];
             for (int i = 0; i < inputs.length; i++) {
-                int[] hash = hashInputs(inputs[i]);
+                hasher.hash(inputs[i], hash);
                 for (int j = 0; j <= k; j++) {
                     hashBlockSums[j] ^= hash[j] & (N / 2 - 1);
                 }
@@ -304,98 +301,150 @@ public class Equihash {
         }
     }
 
+    /**
+     * Reusable BLAKE2b state and buffers for hashing the inputs with a given prefix. Not thread safe.
+     */
+    private static class Hasher {
+        private final byte[] prefixBytes;
+        private final Blake2bDigest digest = new Blake2bDigest(HASH_BIT_LENGTH);
+        private final byte[] inputBytes = new byte[4];
+        private final byte[] outputBytes = new byte[HASH_BIT_LENGTH / 8];
+
+        Hasher(byte[] prefixBytes) {
+            this.prefixBytes = prefixBytes;
+        }
+
+        void hash(int input, int[] hash) {
+            digest.update(prefixBytes, 0, prefixBytes.length);
+            inputBytes[0] = (byte) (input >> 24);
+            inputBytes[1] = (byte) (input >> 16);
+            inputBytes[2] = (byte) (input >> 8);
+            inputBytes[3] = (byte) input;
+            digest.update(inputBytes, 0, inputBytes.length);
+            // doFinal resets the digest
+            digest.doFinal(outputBytes, 0);
+            for (int i = 0; i < hash.length; i++) {
+                hash[i] = Ints.fromBytes(outputBytes[4 * i], outputBytes[4 * i + 1], outputBytes[4 * i + 2], outputBytes[4 * i + 3]);
+            }
+        }
+
+        int[] hash(int[] inputs) {
+            digest.update(prefixBytes, 0, prefixBytes.length);
+            byte[] bytes = ByteArrayUtils.integersToBytesBE(inputs);
+            digest.update(bytes, 0, bytes.length);
+            digest.doFinal(outputBytes, 0);
+            return ByteArrayUtils.bytesToIntegersBE(outputBytes);
+        }
+    }
+
     private static class XorTable {
         private final int hashWidth, indexTupleWidth, rowWidth, numRows;
-        private final ImmutableIntArray values;
+        private final int[] values;
 
-        XorTable(int hashWidth, int indexTupleWidth, ImmutableIntArray values) {
+        XorTable(int hashWidth, int indexTupleWidth, int[] values, int numRows) {
             this.hashWidth = hashWidth;
             this.indexTupleWidth = indexTupleWidth;
             this.values = values;
+            this.numRows = numRows;
             rowWidth = hashWidth + indexTupleWidth;
-            numRows = (values.length() + rowWidth - 1) / rowWidth;
         }
 
-        ImmutableIntArray getRow(int index) {
-            return values.subArray(index * rowWidth, index * rowWidth + hashWidth + indexTupleWidth);
+        int[] getIndexTuple(int index) {
+            return Arrays.copyOfRange(values, index * rowWidth + hashWidth, (index + 1) * rowWidth);
         }
     }
 
-    private static class IntListMultimap {
-        final int[] shortLists;
-        final ListMultimap<Integer, Integer> overspillMultimap;
-
-        IntListMultimap(int keyUpperBound) {
-            shortLists = new int[keyUpperBound * 4];
-            overspillMultimap = MultimapBuilder.hashKeys().arrayListValues().build();
-        }
+    @FunctionalInterface
+    private interface RangeTask {
+        void run(int from, int to);
+    }
 
-        PrimitiveIterator.OfInt get(int key) {
-            return new PrimitiveIterator.OfInt() {
-                int i;
-                Iterator<Integer> overspillIterator;
+    private static void forEachChunk(int size, RangeTask task) {
+        int numChunks = Math.max(1, Math.min(size / 1024, NUM_CHUNKS));
+        IntStream.range(0, numChunks).parallel().forEach(chunk ->
+                task.run((int) ((long) size * chunk / numChunks), (int) ((long) size * (chunk + 1) / numChunks)));
+    }
 
-                private Iterator<Integer> overspillIterator() {
-                    if (overspillIterator == null) {
-                        overspillIterator = overspillMultimap.get(key).iterator();
-                    }
-                    return overspillIterator;
-                }
+    // Apply a single iteration of Wagner's Algorithm.
+    private XorTable findCollisions(XorTable table, boolean isPartial) {
+        int newHashWidth = isPartial ? table.hashWidth - 1 : 0;
+        int newIndexTupleWidth = table.indexTupleWidth * 2;
+        int newRowWidth = newHashWidth + newIndexTupleWidth;
+        int numRows = table.numRows;
+        int rowWidth = table.rowWidth;
+        int hashWidth = table.hashWidth;
+        int[] values = table.values;
+
+        // Counting sort of the rows by their first hash block. Within a bucket the rows keep their order, so the
+        // rows colliding with a given row are the ones before it in its bucket.
+        int[] bucketStart = new int[N / 2 + 1];
+        int[] positionInBucket = new int[numRows];
+        for (int i = 0; i < numRows; i++) {
+            positionInBucket[i] = bucketStart[values[i * rowWidth] + 1]++;
+        }
+        for (int key = 0; key < N / 2; key++) {
+            bucketStart[key + 1] += bucketStart[key];
+        }
+        int[] rowsByBucket = new int[numRows];
+        for (int i = 0; i < numRows; i++) {
+            rowsByBucket[bucketStart[values[i * rowWidth]] + positionInBucket[i]] = i;
+        }
 
-                @Override
-                public int nextInt() {
-                    if (!hasNext()) {
-                        throw new NoSuchElementException();
+        // At the final round only rows with all remaining hash blocks being equal are a full collision
+        int[] numNewRows = isPartial ? positionInBucket : new int[numRows];
+        if (!isPartial) {
+            forEachChunk(numRows, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    int start = bucketStart[values[i * rowWidth]];
+                    for (int p = 0; p < positionInBucket[i]; p++) {
+                        if (isFullCollision(values, rowsByBucket[start + p] * rowWidth, i * rowWidth, hashWidth)) {
+                            numNewRows[i]++;
+                        }
                     }
-                    return i < 4 ? ~shortLists[key * 4 + i++] : overspillIterator().next();
                 }
-
-                @Override
-                public boolean hasNext() {
-                    return i < 4 && shortLists[key * 4 + i] < 0 || i == 4 && overspillIterator().hasNext();
-                }
-            };
+            });
         }
 
-        // assumes non-negative values only:
-        void put(int key, int value) {
-            for (int i = 0; i < 4; i++) {
-                if (shortLists[key * 4 + i] == 0) {
-                    shortLists[key * 4 + i] = ~value;
-                    return;
+        int[] newRowOffset = new int[numRows];
+        long newNumRows = 0;
+        for (int i = 0; i < numRows; i++) {
+            newRowOffset[i] = (int) newNumRows;
+            newNumRows += numNewRows[i];
+        }
+        checkArgument(newNumRows * newRowWidth <= Integer.MAX_VALUE - 8, "Collision table too large");
+
+        int[] newValues = new int[(int) newNumRows * newRowWidth];
+        forEachChunk(numRows, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int rowOffset = i * rowWidth;
+                int start = bucketStart[values[rowOffset]];
+                int newOffset = newRowOffset[i] * newRowWidth;
+                for (int p = 0; p < positionInBucket[i]; p++) {
+                    int collidingRowOffset = rowsByBucket[start + p] * rowWidth;
+                    if (isPartial) {
+                        for (int j = 1; j < hashWidth; j++) {
+                            newValues[newOffset++] = values[collidingRowOffset + j] ^ values[rowOffset + j];
+                        }
+                    } else if (!isFullCollision(values, collidingRowOffset, rowOffset, hashWidth)) {
+                        continue;
+                    }
+                    System.arraycopy(values, collidingRowOffset + hashWidth, newValues, newOffset, table.indexTupleWidth);
+                    newOffset += table.indexTupleWidth;
+                    System.arraycopy(values, rowOffset + hashWidth, newValues, newOffset, table.indexTupleWidth);
+                    newOffset += table.indexTupleWidth;
                 }
             }
-            overspillMultimap.put(key, value);
-        }
+        });
+        return new XorTable(newHashWidth, newIndexTupleWidth, newValues, (int) newNumRows);
     }
 
-    // Apply a single iteration of Wagner's Algorithm.
-    private XorTable findCollisions(XorTable table, boolean isPartial) {
-        int newHashWidth = isPartial ? table.hashWidth - 1 : 0;
-        int newIndexTupleWidth = table.indexTupleWidth * 2;
-        int newRowWidth = newHashWidth + newIndexTupleWidth;
-        var newTableValues = ImmutableIntArray.builder(
-                newRowWidth * (isPartial ? tableCapacity : 10));
-
-        var indexMultimap = new IntListMultimap(N / 2);
-        for (int i = 0; i < table.numRows; i++) {
-            var row = table.getRow(i);
-            var collisionIndices = indexMultimap.get(row.get(0));
-            while (collisionIndices.hasNext()) {
-                var collidingRow = table.getRow(collisionIndices.nextInt());
-                if (isPartial) {
-                    for (int j = 1; j < table.hashWidth; j++) {
-                        newTableValues.add(collidingRow.get(j) ^ row.get(j));
-                    }
-                } else if (!collidingRow.subArray(1, table.hashWidth).equals(row.subArray(1, table.hashWidth))) {
-                    continue;
-                }
-                newTableValues.addAll(collidingRow.subArray(table.hashWidth, collidingRow.length()));
-                newTableValues.addAll(row.subArray(table.hashWidth, row.length()));
+    private static boolean isFullCollision(int[] values, int rowOffset, int otherRowOffset, int hashWidth) {
+        for (int j = 1; j < hashWidth; j++) {
+            if (values[rowOffset + j] != values[otherRowOffset + j]) {
+                return false;
             }
-            indexMultimap.put(row.get(0), i);
         }
-        return new XorTable(newHashWidth, newIndexTupleWidth, newTableValues.build());
+        return true;
     }
 
     private static int[] sortInputs(int[] inputs) {
@@ -0,0 +1,135 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.security.pow.hashcash;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Searches the counter for a HashCash proof of work. The SHA-256 state after payload and challenge is computed once
+ * and restored for each counter, so that only the 8 counter bytes are hashed per iteration and the inner loop does
+ * not allocate.
+ * <p>
+ * For high difficulties the counter space is split across the cores by interleaving the counters of the workers.
+ * Workers stop as soon as one of them has found a solution. The found counter is therefore not necessarily the
+ * smallest solution, which is not required for verification.
+ */
+@Slf4j
+final class HashCashMinter {
+    // Below that the overhead for dispatching to multiple threads is higher than the gain
+    static final int MIN_LOG2_DIFFICULTY_FOR_PARALLEL_MINT = 14;
+    private static final int CANCELLATION_CHECK_INTERVAL = 256;
+    private static final int PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final ForkJoinPool POOL = new ForkJoinPool(PARALLELISM);
+
+    private HashCashMinter() {
+    }
+
+    static long mint(byte[] payload, byte[] challenge, int log2Difficulty) {
+        SHA256Digest midState = createMidState(payload, challenge);
+        if (PARALLELISM == 1 || log2Difficulty < MIN_LOG2_DIFFICULTY_FOR_PARALLEL_MINT) {
+            return mintSequential(midState, log2Difficulty);
+        } else {
+            return mintParallel(midState, log2Difficulty, PARALLELISM);
+        }
+    }
+
+    static long mintSequential(byte[] payload, byte[] challenge, int log2Difficulty) {
+        return mintSequential(createMidState(payload, challenge), log2Difficulty);
+    }
+
+    static long mintParallel(byte[] payload, byte[] challenge, int log2Difficulty, int numWorkers) {
+        return mintParallel(createMidState(payload, challenge), log2Difficulty, numWorkers);
+    }
+
+    private static long mintSequential(SHA256Digest midState, int log2Difficulty) {
+        return search(midState, log2Difficulty, 1, 1, new AtomicLong());
+    }
+
+    private static long mintParallel(SHA256Digest midState, int log2Difficulty, int numWorkers) {
+        // 0 means not found yet, counters start at 1
+        AtomicLong solution = new AtomicLong();
+        List<Future<Long>> futures = new ArrayList<>(numWorkers);
+        for (int i = 0; i < numWorkers; i++) {
+            long startCounter = i + 1;
+            futures.add(POOL.submit(() -> search(midState, log2Difficulty, startCounter, numWorkers, solution)));
+        }
+        for (Future<Long> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                solution.compareAndSet(0, -1);
+                throw new RuntimeException("Minting HashCash proof of work failed", e);
+            }
+        }
+        return solution.get();
+    }
+
+    private static long search(SHA256Digest midState,
+                               int log2Difficulty,
+                               long startCounter,
+                               int step,
+                               AtomicLong solution) {
+        SHA256Digest digest = new SHA256Digest(midState);
+        byte[] counterBytes = new byte[8];
+        byte[] hash = new byte[digest.getDigestSize()];
+        int iterations = 0;
+        for (long counter = startCounter; ; counter += step) {
+            digest.reset(midState);
+            toByteArray(counter, counterBytes);
+            digest.update(counterBytes, 0, counterBytes.length);
+            digest.doFinal(hash, 0);
+            if (HashCashProofOfWorkService.numberOfLeadingZeros(hash) > log2Difficulty) {
+                solution.compareAndSet(0, counter);
+                return solution.get();
+            }
+            if (++iterations == CANCELLATION_CHECK_INTERVAL) {
+                iterations = 0;
+                if (solution.get() != 0) {
+                    return solution.get();
+                }
+            }
+        }
+    }
+
+    private static SHA256Digest createMidState(byte[] payload, byte[] challenge) {
+        SHA256Digest midState = new SHA256Digest();
+        if (payload != null) {
+            midState.update(payload, 0, payload.length);
+        }
+        if (challenge != null) {
+            midState.update(challenge, 0, challenge.length);
+        }
+        return midState;
+    }
+
+    // Same big-endian encoding as Longs.toByteArray
+    private static void toByteArray(long value, byte[] bytes) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[i] = (byte) (value & 0xffL);
+            value >>= 8;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security;
+
+import bisq.security.keys.KeyGeneration;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SharedSecretCacheTest {
+
+    @Test
+    void testCachedSharedSecretMatchesKeyAgreement() throws GeneralSecurityException {
+        KeyPair keyPairA = KeyGeneration.generateKeyPair();
+        KeyPair keyPairB = KeyGeneration.generateKeyPair();
+
+        SecretKey cached = SharedSecretCache.getSharedAesSecretKey(keyPairA.getPrivate(), keyPairB.getPublic());
+        SecretKey expected = AesGcm.generateSharedAesSecretKey(keyPairA.getPrivate(), keyPairB.getPublic());
+        assertArrayEquals(expected.getEncoded(), cached.getEncoded());
+        assertSame(cached, SharedSecretCache.getSharedAesSecretKey(keyPairA.getPrivate(), keyPairB.getPublic()));
+
+        // Both sides derive the same secret
+        SecretKey otherSide = SharedSecretCache.getSharedAesSecretKey(keyPairB.getPrivate(), keyPairA.getPublic());
+        assertArrayEquals(cached.getEncoded(), otherSide.getEncoded());
+
+        // A different key pair must not hit the entry of another pair
+        KeyPair keyPairC = KeyGeneration.generateKeyPair();
+        SecretKey withC = SharedSecretCache.getSharedAesSecretKey(keyPairA.getPrivate(), keyPairC.getPublic());
+        assertFalse(Arrays.equals(cached.getEncoded(), withC.getEncoded()));
+    }
+
+    @Test
+    void testPublicKey() throws GeneralSecurityException {
+        KeyPair keyPair = KeyGeneration.generateKeyPair();
+        byte[] encoded = keyPair.getPublic().getEncoded();
+        PublicKey publicKey = SharedSecretCache.getPublicKey(encoded);
+        assertEquals(keyPair.getPublic(), publicKey);
+        assertSame(publicKey, SharedSecretCache.getPublicKey(keyPair.getPublic().getEncoded()));
+
+        // Modifying the passed array must not corrupt the cache
+        encoded[encoded.length - 1] = (byte) ~encoded[encoded.length - 1];
+        assertSame(publicKey, SharedSecretCache.getPublicKey(keyPair.getPublic().getEncoded()));
+
+        // Invalid keys are reported as GeneralSecurityException and not cached
+        assertThrows(GeneralSecurityException.class, () -> SharedSecretCache.getPublicKey(new byte[]{1, 2, 3}));
+        assertThrows(GeneralSecurityException.class, () -> SharedSecretCache.getPublicKey(new byte[]{1, 2, 3}));
+    }
+}
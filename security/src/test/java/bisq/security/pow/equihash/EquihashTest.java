@@ -0,0 +1,69 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.security.pow.equihash;
+
+import bisq.common.encoding.Hex;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EquihashTest {
+    // Solution counts and first solution for Equihash(90, 5) with an all zero seed, as found by the previous
+    // multimap based solver.
+    private static final int[] EXPECTED_SOLUTION_COUNTS = {0, 1, 1, 2, 4, 3, 4, 3, 2, 0};
+    private static final String EXPECTED_SOLUTION = "0000000000000001005bdef707975e9a4064fc4d67e5b79b21a4431a7f0da1de" +
+            "3b5fee01b576fa782685303c4a2a9fb42a77305a705dda45331ab0109557e3de4a15c3694ae3a450";
+
+    @Test
+    public void testCountAllSolutionsForNonce() {
+        Equihash.Puzzle puzzle = new Equihash(90, 5, 1.0).puzzle(new byte[32]);
+        int[] counts = IntStream.range(0, EXPECTED_SOLUTION_COUNTS.length)
+                .map(puzzle::countAllSolutionsForNonce)
+                .toArray();
+        assertArrayEquals(EXPECTED_SOLUTION_COUNTS, counts);
+    }
+
+    @Test
+    public void testFindAndVerifySolution() {
+        Equihash.Puzzle puzzle = new Equihash(90, 5, 1.0).puzzle(new byte[32]);
+        Equihash.Puzzle.Solution solution = puzzle.findSolution();
+        byte[] serialized = solution.serialize();
+        assertEquals(EXPECTED_SOLUTION, Hex.encode(serialized));
+        assertTrue(solution.verify());
+        assertTrue(puzzle.deserializeSolution(serialized).verify());
+
+        byte[] tampered = serialized.clone();
+        tampered[10] ^= 1;
+        assertFalse(puzzle.deserializeSolution(tampered).verify());
+        assertFalse(new Equihash(90, 5, 1.0).puzzle(new byte[]{1}).deserializeSolution(serialized).verify());
+    }
+
+    @Test
+    public void testFindSolutionWithDifficulty() {
+        Equihash equihash = new Equihash(90, 5, Equihash.adjustDifficulty(4.0));
+        for (int i = 0; i < 3; i++) {
+            Equihash.Puzzle puzzle = equihash.puzzle(new byte[]{(byte) i});
+            Equihash.Puzzle.Solution solution = puzzle.findSolution();
+            assertTrue(solution.verify());
+            assertTrue(puzzle.deserializeSolution(solution.serialize()).verify());
+        }
+    }
+}
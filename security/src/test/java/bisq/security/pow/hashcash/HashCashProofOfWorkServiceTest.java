@@ -19,6 +19,7 @@ package bisq.security.pow.hashcash;
 
 import bisq.security.DigestUtil;
 import bisq.security.pow.ProofOfWork;
+import com.google.common.primitives.Longs;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -79,6 +80,24 @@ class HashCashProofOfWorkServiceTest {
 //        Minting 1000 tokens with > 8 leading zeros  took 0.318 ms per token and 526 iterations in average. Verification took 0.001 ms per token.
     }
 
+    @Test
+    public void testParallelMint() {
+        HashCashProofOfWorkService service = new HashCashProofOfWorkService();
+        byte[] payload = RandomStringUtils.random(50, true, true).getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 10; i++) {
+            byte[] challenge = DigestUtil.sha256(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+            int log2Difficulty = 10;
+            long counter = HashCashMinter.mintParallel(payload, challenge, log2Difficulty, 4);
+            ProofOfWork proofOfWork = new ProofOfWork(payload,
+                    counter,
+                    challenge,
+                    Math.scalb(1.0, log2Difficulty),
+                    Longs.toByteArray(counter),
+                    0);
+            assertTrue(service.verify(proofOfWork));
+        }
+    }
+
     private void run(int log2Difficulty, StringBuilder stringBuilder) {
         double difficulty = Math.scalb(1.0, log2Difficulty);
         int numTokens = 1000;
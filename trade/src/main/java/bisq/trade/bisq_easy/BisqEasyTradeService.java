@@ -42,6 +42,7 @@ import bisq.offer.payment_method.BitcoinPaymentMethodSpec;
 import bisq.offer.payment_method.FiatPaymentMethodSpec;
 import bisq.offer.price.spec.PriceSpec;
 import bisq.persistence.DbSubDirectory;
+import bisq.persistence.JournaledPersistence;
 import bisq.persistence.Persistence;
 import bisq.persistence.PersistenceClient;
 import bisq.settings.SettingsService;
@@ -86,6 +87,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 @Slf4j
 @Getter
 public class BisqEasyTradeService implements PersistenceClient<BisqEasyTradeStore>, Service, ConfidentialMessageService.Listener {
+    private static final int MIN_JOURNAL_RECORDS_FOR_COMPACTION = 100;
+
     private final ServiceProvider serviceProvider;
     private final NetworkService networkService;
     private final IdentityService identityService;
@@ -94,6 +97,7 @@ public class BisqEasyTradeService implements PersistenceClient<BisqEasyTradeStor
     private final AlertService alertService;
 
     private final Persistence<BisqEasyTradeStore> persistence;
+    private final JournaledPersistence<BisqEasyTradeStore, bisq.trade.protobuf.TradeJournalRecord> journaledPersistence;
     private final BisqEasyTradeStore persistableStore = new BisqEasyTradeStore();
 
     // We don't persist the protocol, only the model.
@@ -116,6 +120,9 @@ public class BisqEasyTradeService implements PersistenceClient<BisqEasyTradeStor
         alertService = serviceProvider.getBondedRolesService().getAlertService();
 
         persistence = serviceProvider.getPersistenceService().getOrCreatePersistence(this, DbSubDirectory.PRIVATE, persistableStore);
+        journaledPersistence = new JournaledPersistence<>(persistence,
+                bisq.trade.protobuf.TradeJournalRecord.parser(),
+                MIN_JOURNAL_RECORDS_FOR_COMPACTION);
     }
 
 
@@ -194,6 +201,48 @@ public class BisqEasyTradeService implements PersistenceClient<BisqEasyTradeStor
     }
 
 
+    /* --------------------------------------------------------------------- */
+    // Persistence
+    /* --------------------------------------------------------------------- */
+
+    @Override
+    public CompletableFuture<Optional<BisqEasyTradeStore>> readPersisted() {
+        return journaledPersistence.readAsync(BisqEasyTradeStore::new)
+                .thenApply(optionalPersisted -> {
+                    optionalPersisted.ifPresent(persisted -> {
+                        persistableStore.applyPersisted(persisted);
+                        if (journaledPersistence.hasJournalRecords()) {
+                            // We do not want to replay the journal again at the next startup
+                            journaledPersistence.compact(persistableStore);
+                        }
+                    });
+                    return optionalPersisted;
+                });
+    }
+
+    /**
+     * Writes the snapshot of all trades, as changes of a trade are only tracked if they are persisted with
+     * {@link #persist(BisqEasyTrade)}.
+     */
+    @Override
+    public CompletableFuture<Boolean> persist() {
+        return journaledPersistence.compact(persistableStore);
+    }
+
+    /**
+     * Appends the given trade and the trades which got added, changed or removed since the last call to the journal
+     * instead of writing all trades (see {@link JournaledPersistence}).
+     */
+    public CompletableFuture<Boolean> persist(BisqEasyTrade trade) {
+        persistableStore.markChanged(trade.getId());
+        return persistChanges();
+    }
+
+    private CompletableFuture<Boolean> persistChanges() {
+        return journaledPersistence.persistChanges(persistableStore);
+    }
+
+
     /* --------------------------------------------------------------------- */
     // MessageListener
     /* --------------------------------------------------------------------- */
@@ -290,7 +339,7 @@ public class BisqEasyTradeService implements PersistenceClient<BisqEasyTradeStor
 
         checkArgument(!tradeExists(bisqEasyTrade.getId()), "A trade with that ID exists already");
         persistableStore.addTrade(bisqEasyTrade);
-        persist();
+        persistChanges();
         return createAndAddTradeProtocol(bisqEasyTrade);
     }
 
@@ -378,7 +427,7 @@ public class BisqEasyTradeService implements PersistenceClient<BisqEasyTradeStor
     public void removeTrade(BisqEasyTrade trade) {
         persistableStore.removeTrade(trade);
         tradeProtocolById.remove(trade.getId());
-        persist();
+        persistChanges();
     }
 
 
@@ -397,7 +446,7 @@ public class BisqEasyTradeService implements PersistenceClient<BisqEasyTradeStor
         checkArgument(findProtocol(tradeId).isEmpty(), "We received the BisqEasyTakeOfferRequest for an already existing protocol");
         checkArgument(!tradeExists(tradeId), "A trade with that ID exists already");
         persistableStore.addTrade(bisqEasyTrade);
-        persist();
+        persistChanges();
         return createAndAddTradeProtocol(bisqEasyTrade);
     }
 
@@ -457,12 +506,13 @@ public class BisqEasyTradeService implements PersistenceClient<BisqEasyTradeStor
                             .orElse(trade.getContract().getTakeOfferDate() < redactDateForNotCompletedTrades);
                     if (doRedaction) {
                         trade.getPaymentAccountData().set(Res.get("data.redacted"));
+                        persistableStore.markChanged(trade.getId());
                     }
                     return doRedaction;
                 })
                 .count();
         if (numChanges > 0) {
-            persist();
+            persistChanges();
         }
     }
 }
@@ -20,6 +20,7 @@ package bisq.trade.bisq_easy;
 import bisq.common.observable.collection.ObservableSet;
 import bisq.common.proto.ProtoResolver;
 import bisq.common.proto.UnresolvableProtobufMessageException;
+import bisq.persistence.JournaledStore;
 import bisq.persistence.PersistableStore;
 import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.AccessLevel;
@@ -27,24 +28,36 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Getter(AccessLevel.PACKAGE)
 @NoArgsConstructor(access = AccessLevel.PACKAGE)
 @Slf4j
-final class BisqEasyTradeStore implements PersistableStore<BisqEasyTradeStore> {
+final class BisqEasyTradeStore implements PersistableStore<BisqEasyTradeStore>, JournaledStore<bisq.trade.protobuf.TradeJournalRecord> {
     private final ObservableSet<BisqEasyTrade> trades = new ObservableSet<>();
 
     // We keep track of all trades by storing the trade IDs to avoid that the same trade can be taken again.
     private final ObservableSet<String> tradeIds = new ObservableSet<>();
 
+    @Getter(AccessLevel.NONE)
+    private final Map<String, BisqEasyTrade> tradeById = new ConcurrentHashMap<>();
+    // IDs of the trades which got added, changed or removed since the last journal write
+    @Getter(AccessLevel.NONE)
+    private final Set<String> changedTradeIds = ConcurrentHashMap.newKeySet();
+
     private BisqEasyTradeStore(Set<BisqEasyTrade> trades, Set<String> tradeIds) {
         this.trades.setAll(trades);
         this.tradeIds.setAll(tradeIds);
+        trades.forEach(trade -> tradeById.put(trade.getId(), trade));
     }
 
     @Override
@@ -103,21 +116,81 @@ final class BisqEasyTradeStore implements PersistableStore<BisqEasyTradeStore> {
 
     @Override
     public void applyPersisted(BisqEasyTradeStore persisted) {
+        tradeById.clear();
+        tradeById.putAll(persisted.tradeById);
         trades.setAll(persisted.getTrades());
         tradeIds.setAll(persisted.getTradeIds());
+        changedTradeIds.clear();
     }
 
     void addTrade(BisqEasyTrade trade) {
+        tradeById.put(trade.getId(), trade);
         trades.add(trade);
         tradeIds.add(trade.getId());
+        changedTradeIds.add(trade.getId());
     }
 
     void removeTrade(BisqEasyTrade trade) {
+        tradeById.remove(trade.getId());
         trades.remove(trade);
+        changedTradeIds.add(trade.getId());
+    }
+
+    void markChanged(String tradeId) {
+        changedTradeIds.add(tradeId);
     }
 
     Optional<BisqEasyTrade> findTrade(String tradeId) {
-        return trades.stream().filter(trade -> trade.getId().equals(tradeId)).findAny();
+        return Optional.ofNullable(tradeById.get(tradeId));
+    }
+
+    /**
+     * @return The journal records of the trades which have been added, changed or removed since the last call.
+     */
+    @Override
+    public List<bisq.trade.protobuf.TradeJournalRecord> drainJournalRecords() {
+        List<bisq.trade.protobuf.TradeJournalRecord> records = new ArrayList<>();
+        Iterator<String> iterator = changedTradeIds.iterator();
+        while (iterator.hasNext()) {
+            String tradeId = iterator.next();
+            iterator.remove();
+            var builder = bisq.trade.protobuf.TradeJournalRecord.newBuilder().setTradeId(tradeId);
+            BisqEasyTrade trade = tradeById.get(tradeId);
+            if (trade != null) {
+                try {
+                    builder.setTrade(trade.toProto(false));
+                } catch (Exception e) {
+                    log.error("Could not create proto from BisqEasyTrade {}", trade, e);
+                    continue;
+                }
+            }
+            records.add(builder.build());
+        }
+        return records;
+    }
+
+    @Override
+    public void applyJournalRecords(List<bisq.trade.protobuf.TradeJournalRecord> records) {
+        records.forEach(record -> {
+            String tradeId = record.getTradeId();
+            if (record.hasTrade()) {
+                try {
+                    BisqEasyTrade trade = BisqEasyTrade.fromProto(record.getTrade());
+                    Optional.ofNullable(tradeById.put(tradeId, trade)).ifPresent(trades::remove);
+                    trades.add(trade);
+                    tradeIds.add(tradeId);
+                } catch (Exception e) {
+                    log.error("Could not create BisqEasyTrade from proto {}", record.getTrade(), e);
+                }
+            } else {
+                Optional.ofNullable(tradeById.remove(tradeId)).ifPresent(trades::remove);
+            }
+        });
+    }
+
+    @Override
+    public int getNumEntries() {
+        return trades.size();
     }
 
     boolean tradeExists(String tradeId) {
@@ -19,6 +19,7 @@ package bisq.trade.bisq_easy.protocol;
 
 import bisq.common.fsm.Event;
 import bisq.common.fsm.EventHandler;
+import bisq.common.fsm.EventHandlerFactory;
 import bisq.common.fsm.FsmException;
 import bisq.trade.ServiceProvider;
 import bisq.trade.bisq_easy.BisqEasyTrade;
@@ -28,6 +29,7 @@ import java.lang.reflect.InvocationTargetException;
 
 public abstract class BisqEasyProtocol extends TradeProtocol<BisqEasyTrade> {
     public static final String VERSION = "1.0.0";
+    private static final EventHandlerFactory EVENT_HANDLER_FACTORY = new EventHandlerFactory(ServiceProvider.class, BisqEasyTrade.class);
 
     public BisqEasyProtocol(ServiceProvider serviceProvider, BisqEasyTrade model) {
         super(VERSION, serviceProvider, model);
@@ -36,9 +38,8 @@ public abstract class BisqEasyProtocol extends TradeProtocol<BisqEasyTrade> {
     @Override
     protected <E extends Event> EventHandler<E> newEventHandlerFromClass(Class<? extends EventHandler<E>> handlerClass) {
         try {
-            return handlerClass.getDeclaredConstructor(ServiceProvider.class, BisqEasyTrade.class).newInstance(serviceProvider, model);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
-                 NoSuchMethodException e) {
+            return EVENT_HANDLER_FACTORY.newEventHandler(handlerClass, serviceProvider, model);
+        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
             throw new RuntimeException(e);
         }
     }
@@ -55,7 +56,7 @@ public abstract class BisqEasyProtocol extends TradeProtocol<BisqEasyTrade> {
 
     @Override
     protected void persist() {
-        getServiceProvider().getBisqEasyTradeService().persist();
+        getServiceProvider().getBisqEasyTradeService().persist(getTrade());
     }
 
     public BisqEasyTrade getTrade() {
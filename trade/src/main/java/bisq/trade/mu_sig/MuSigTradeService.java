@@ -41,6 +41,7 @@ import bisq.offer.mu_sig.MuSigOffer;
 import bisq.offer.payment_method.FiatPaymentMethodSpec;
 import bisq.offer.price.spec.PriceSpec;
 import bisq.persistence.DbSubDirectory;
+import bisq.persistence.JournaledPersistence;
 import bisq.persistence.Persistence;
 import bisq.persistence.PersistenceClient;
 import bisq.settings.SettingsService;
@@ -84,6 +85,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 @Slf4j
 @Getter
 public final class MuSigTradeService implements PersistenceClient<MuSigTradeStore>, Service, ConfidentialMessageService.Listener {
+    private static final int MIN_JOURNAL_RECORDS_FOR_COMPACTION = 100;
+
     @Getter
     public static class Config {
         private final String host;
@@ -113,6 +116,7 @@ public final class MuSigTradeService implements PersistenceClient<MuSigTradeStor
     private final MuSigTradeStore persistableStore = new MuSigTradeStore();
     @Getter
     private final Persistence<MuSigTradeStore> persistence;
+    private final JournaledPersistence<MuSigTradeStore, bisq.trade.protobuf.TradeJournalRecord> journaledPersistence;
     @Getter
     private final MusigGrpcClient musigGrpcClient;
 
@@ -139,6 +143,9 @@ public final class MuSigTradeService implements PersistenceClient<MuSigTradeStor
         muSigOpenTradeChannelService = serviceProvider.getChatService().getMuSigOpenTradeChannelService();
 
         persistence = serviceProvider.getPersistenceService().getOrCreatePersistence(this, DbSubDirectory.PRIVATE, persistableStore);
+        journaledPersistence = new JournaledPersistence<>(persistence,
+                bisq.trade.protobuf.TradeJournalRecord.parser(),
+                MIN_JOURNAL_RECORDS_FOR_COMPACTION);
 
         musigGrpcClient = new MusigGrpcClient(config.getHost(), config.getPort());
     }
@@ -236,6 +243,48 @@ public final class MuSigTradeService implements PersistenceClient<MuSigTradeStor
     }
 
 
+    /* --------------------------------------------------------------------- */
+    // Persistence
+    /* --------------------------------------------------------------------- */
+
+    @Override
+    public CompletableFuture<Optional<MuSigTradeStore>> readPersisted() {
+        return journaledPersistence.readAsync(MuSigTradeStore::new)
+                .thenApply(optionalPersisted -> {
+                    optionalPersisted.ifPresent(persisted -> {
+                        persistableStore.applyPersisted(persisted);
+                        if (journaledPersistence.hasJournalRecords()) {
+                            // We do not want to replay the journal again at the next startup
+                            journaledPersistence.compact(persistableStore);
+                        }
+                    });
+                    return optionalPersisted;
+                });
+    }
+
+    /**
+     * Writes the snapshot of all trades, as changes of a trade are only tracked if they are persisted with
+     * {@link #persist(MuSigTrade)}.
+     */
+    @Override
+    public CompletableFuture<Boolean> persist() {
+        return journaledPersistence.compact(persistableStore);
+    }
+
+    /**
+     * Appends the given trade and the trades which got added, changed or removed since the last call to the journal
+     * instead of writing all trades (see {@link JournaledPersistence}).
+     */
+    public CompletableFuture<Boolean> persist(MuSigTrade trade) {
+        persistableStore.markChanged(trade.getId());
+        return persistChanges();
+    }
+
+    private CompletableFuture<Boolean> persistChanges() {
+        return journaledPersistence.persistChanges(persistableStore);
+    }
+
+
     /* --------------------------------------------------------------------- */
     // MessageListener
     /* --------------------------------------------------------------------- */
@@ -326,7 +375,7 @@ public final class MuSigTradeService implements PersistenceClient<MuSigTradeStor
     public void removeTrade(MuSigTrade trade) {
         persistableStore.removeTrade(trade.getId());
         tradeProtocolById.remove(trade.getId());
-        persist();
+        persistChanges();
     }
 
     private void handleMuSigTradeEvent(MuSigTrade trade, MuSigTradeEvent event) {
@@ -374,7 +423,7 @@ public final class MuSigTradeService implements PersistenceClient<MuSigTradeStor
 
         checkArgument(!tradeExists(muSigTrade.getId()), "A trade with that ID exists already");
         persistableStore.addTrade(muSigTrade);
-        persist();
+        persistChanges();
 
         return createAndAddTradeProtocol(muSigTrade);
     }
@@ -503,7 +552,7 @@ public final class MuSigTradeService implements PersistenceClient<MuSigTradeStor
         checkArgument(findProtocol(tradeId).isEmpty(), "We received the MuSigTakeOfferRequest for an already existing protocol");
         checkArgument(!tradeExists(tradeId), "A trade with that ID exists already");
         persistableStore.addTrade(muSigTrade);
-        persist();
+        persistChanges();
 
         return createAndAddTradeProtocol(muSigTrade);
     }
@@ -20,6 +20,7 @@ package bisq.trade.mu_sig;
 import bisq.common.observable.map.ObservableHashMap;
 import bisq.common.proto.ProtoResolver;
 import bisq.common.proto.UnresolvableProtobufMessageException;
+import bisq.persistence.JournaledStore;
 import bisq.persistence.PersistableStore;
 import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.AccessLevel;
@@ -27,17 +28,24 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @NoArgsConstructor(access = AccessLevel.PACKAGE)
 @Slf4j
-final class MuSigTradeStore implements PersistableStore<MuSigTradeStore> {
+final class MuSigTradeStore implements PersistableStore<MuSigTradeStore>, JournaledStore<bisq.trade.protobuf.TradeJournalRecord> {
     @Getter(AccessLevel.PACKAGE)
     private final ObservableHashMap<String, MuSigTrade> tradeById = new ObservableHashMap<>();
+    // IDs of the trades which got added, changed or removed since the last journal write
+    private final Set<String> changedTradeIds = ConcurrentHashMap.newKeySet();
 
     private MuSigTradeStore(Map<String, MuSigTrade> tradeById) {
         this.tradeById.putAll(tradeById);
@@ -52,6 +60,7 @@ final class MuSigTradeStore implements PersistableStore<MuSigTradeStore> {
     public void applyPersisted(MuSigTradeStore persisted) {
         tradeById.clear();
         tradeById.putAll(persisted.getTradeById());
+        changedTradeIds.clear();
     }
 
     @Override
@@ -89,11 +98,17 @@ final class MuSigTradeStore implements PersistableStore<MuSigTradeStore> {
         String tradeId = trade.getId();
         if (!tradeById.containsKey(tradeId)) {
             tradeById.put(tradeId, trade);
+            changedTradeIds.add(tradeId);
         }
     }
 
     void removeTrade(String tradeId) {
         tradeById.remove(tradeId);
+        changedTradeIds.add(tradeId);
+    }
+
+    void markChanged(String tradeId) {
+        changedTradeIds.add(tradeId);
     }
 
     boolean tradeExists(String tradeId) {
@@ -107,4 +122,49 @@ final class MuSigTradeStore implements PersistableStore<MuSigTradeStore> {
     public Collection<MuSigTrade> getTrades() {
         return tradeById.values();
     }
+
+    /**
+     * @return The journal records of the trades which have been added, changed or removed since the last call.
+     */
+    @Override
+    public List<bisq.trade.protobuf.TradeJournalRecord> drainJournalRecords() {
+        List<bisq.trade.protobuf.TradeJournalRecord> records = new ArrayList<>();
+        Iterator<String> iterator = changedTradeIds.iterator();
+        while (iterator.hasNext()) {
+            String tradeId = iterator.next();
+            iterator.remove();
+            var builder = bisq.trade.protobuf.TradeJournalRecord.newBuilder().setTradeId(tradeId);
+            MuSigTrade trade = tradeById.get(tradeId);
+            if (trade != null) {
+                try {
+                    builder.setTrade(trade.toProto(false));
+                } catch (Exception e) {
+                    log.error("Could not create proto from MuSigTrade {}", trade, e);
+                    continue;
+                }
+            }
+            records.add(builder.build());
+        }
+        return records;
+    }
+
+    @Override
+    public void applyJournalRecords(List<bisq.trade.protobuf.TradeJournalRecord> records) {
+        records.forEach(record -> {
+            if (record.hasTrade()) {
+                try {
+                    tradeById.put(record.getTradeId(), MuSigTrade.fromProto(record.getTrade()));
+                } catch (Exception e) {
+                    log.error("Could not create MuSigTrade from proto {}", record.getTrade(), e);
+                }
+            } else {
+                tradeById.remove(record.getTradeId());
+            }
+        });
+    }
+
+    @Override
+    public int getNumEntries() {
+        return tradeById.size();
+    }
 }
\ No newline at end of file
@@ -19,6 +19,7 @@ package bisq.trade.mu_sig.protocol;
 
 import bisq.common.fsm.Event;
 import bisq.common.fsm.EventHandler;
+import bisq.common.fsm.EventHandlerFactory;
 import bisq.common.fsm.FsmException;
 import bisq.trade.ServiceProvider;
 import bisq.trade.mu_sig.MuSigTrade;
@@ -30,6 +31,7 @@ import java.lang.reflect.InvocationTargetException;
 @Slf4j
 public abstract class MuSigProtocol extends TradeProtocol<MuSigTrade> {
     public static final String VERSION = "1.0.0";
+    private static final EventHandlerFactory EVENT_HANDLER_FACTORY = new EventHandlerFactory(ServiceProvider.class, MuSigTrade.class);
 
     public MuSigProtocol(ServiceProvider serviceProvider, MuSigTrade model) {
         super(VERSION, serviceProvider, model);
@@ -38,9 +40,8 @@ public abstract class MuSigProtocol extends TradeProtocol<MuSigTrade> {
     @Override
     protected <E extends Event> EventHandler<E> newEventHandlerFromClass(Class<? extends EventHandler<E>> handlerClass) {
         try {
-            return handlerClass.getDeclaredConstructor(ServiceProvider.class, MuSigTrade.class).newInstance(serviceProvider, model);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
-                 NoSuchMethodException e) {
+            return EVENT_HANDLER_FACTORY.newEventHandler(handlerClass, serviceProvider, model);
+        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
             throw new MuSigProtocolException(e);
         }
     }
@@ -57,7 +58,7 @@ public abstract class MuSigProtocol extends TradeProtocol<MuSigTrade> {
 
     @Override
     protected void persist() {
-        getServiceProvider().getMuSigTradeService().persist();
+        getServiceProvider().getMuSigTradeService().persist(getTrade());
     }
 
     public MuSigTrade getTrade() {
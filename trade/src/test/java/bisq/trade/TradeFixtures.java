@@ -0,0 +1,121 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.trade;
+
+import bisq.account.payment_method.BitcoinPaymentMethod;
+import bisq.account.payment_method.BitcoinPaymentRail;
+import bisq.account.payment_method.FiatPaymentMethod;
+import bisq.account.payment_method.FiatPaymentRail;
+import bisq.common.currency.MarketRepository;
+import bisq.common.network.Address;
+import bisq.common.network.AddressByTransportTypeMap;
+import bisq.common.network.TransportType;
+import bisq.contract.bisq_easy.BisqEasyContract;
+import bisq.contract.mu_sig.MuSigContract;
+import bisq.identity.Identity;
+import bisq.network.identity.NetworkId;
+import bisq.offer.Direction;
+import bisq.offer.amount.spec.QuoteSideFixedAmountSpec;
+import bisq.offer.bisq_easy.BisqEasyOffer;
+import bisq.offer.mu_sig.MuSigOffer;
+import bisq.offer.payment_method.BitcoinPaymentMethodSpec;
+import bisq.offer.payment_method.FiatPaymentMethodSpec;
+import bisq.offer.price.spec.MarketPriceSpec;
+import bisq.security.keys.KeyBundle;
+import bisq.security.keys.KeyGeneration;
+import bisq.security.keys.PubKey;
+import bisq.security.keys.TorKeyGeneration;
+import bisq.trade.bisq_easy.BisqEasyTrade;
+import bisq.trade.mu_sig.MuSigTrade;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates trades with real keys, so that they survive the protobuf round trip as done at persistence.
+ */
+public class TradeFixtures {
+    private static final AtomicInteger PORT = new AtomicInteger(10000);
+
+    public static BisqEasyTrade createBisqEasyTrade() {
+        Identity makerIdentity = createIdentity();
+        NetworkId takerNetworkId = createIdentity().getNetworkId();
+        NetworkId makerNetworkId = makerIdentity.getNetworkId();
+        BisqEasyOffer offer = new BisqEasyOffer(makerNetworkId,
+                Direction.BUY,
+                MarketRepository.getUSDBitcoinMarket(),
+                new QuoteSideFixedAmountSpec(1_000_000),
+                new MarketPriceSpec(),
+                List.of(BitcoinPaymentMethod.fromPaymentRail(BitcoinPaymentRail.MAIN_CHAIN)),
+                List.of(FiatPaymentMethod.fromPaymentRail(FiatPaymentRail.ZELLE)),
+                "",
+                List.of("en"),
+                "1.0");
+        BisqEasyContract contract = new BisqEasyContract(System.currentTimeMillis(),
+                offer,
+                takerNetworkId,
+                10_000,
+                1_000_000,
+                new BitcoinPaymentMethodSpec(BitcoinPaymentMethod.fromPaymentRail(BitcoinPaymentRail.MAIN_CHAIN)),
+                new FiatPaymentMethodSpec(FiatPaymentMethod.fromPaymentRail(FiatPaymentRail.ZELLE)),
+                Optional.empty(),
+                new MarketPriceSpec(),
+                100_000_000);
+        return new BisqEasyTrade(contract, true, false, makerIdentity, offer, takerNetworkId, makerNetworkId);
+    }
+
+    public static MuSigTrade createMuSigTrade() {
+        Identity makerIdentity = createIdentity();
+        NetworkId takerNetworkId = createIdentity().getNetworkId();
+        NetworkId makerNetworkId = makerIdentity.getNetworkId();
+        MuSigOffer offer = new MuSigOffer(makerNetworkId,
+                Direction.BUY,
+                MarketRepository.getUSDBitcoinMarket(),
+                new QuoteSideFixedAmountSpec(1_000_000),
+                new MarketPriceSpec(),
+                List.of(FiatPaymentMethod.fromPaymentRail(FiatPaymentRail.ZELLE)),
+                List.of(),
+                "1.0");
+        MuSigContract contract = new MuSigContract(System.currentTimeMillis(),
+                offer,
+                takerNetworkId,
+                10_000,
+                1_000_000,
+                new FiatPaymentMethodSpec(FiatPaymentMethod.fromPaymentRail(FiatPaymentRail.ZELLE)),
+                Optional.empty(),
+                new MarketPriceSpec(),
+                100_000_000);
+        return new MuSigTrade(contract, true, false, makerIdentity, offer, takerNetworkId, makerNetworkId);
+    }
+
+    private static Identity createIdentity() {
+        try {
+            KeyPair keyPair = KeyGeneration.generateKeyPair();
+            String keyId = "default";
+            PubKey pubKey = new PubKey(keyPair.getPublic(), keyId);
+            Address address = new Address("127.0.0.1", PORT.incrementAndGet());
+            NetworkId networkId = new NetworkId(new AddressByTransportTypeMap(Map.of(TransportType.CLEAR, address)), pubKey);
+            return new Identity("default", networkId, new KeyBundle(keyId, keyPair, TorKeyGeneration.generateKeyPair()));
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
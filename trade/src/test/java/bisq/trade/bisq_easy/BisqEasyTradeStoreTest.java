@@ -0,0 +1,132 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.trade.bisq_easy;
+
+import bisq.persistence.JournaledPersistence;
+import bisq.persistence.PersistableStoreResolver;
+import bisq.persistence.Persistence;
+import bisq.persistence.backup.MaxBackupSize;
+import bisq.trade.TradeFixtures;
+import bisq.trade.protobuf.TradeJournalRecord;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BisqEasyTradeStoreTest {
+    @Test
+    void trackAddedChangedAndRemovedTrades() {
+        BisqEasyTradeStore store = new BisqEasyTradeStore();
+        BisqEasyTrade trade = TradeFixtures.createBisqEasyTrade();
+        store.addTrade(trade);
+        List<TradeJournalRecord> records = store.drainJournalRecords();
+        assertThat(records).hasSize(1);
+        assertThat(records.get(0).getTradeId()).isEqualTo(trade.getId());
+        assertThat(records.get(0).hasTrade()).isTrue();
+        assertThat(store.drainJournalRecords()).isEmpty();
+
+        trade.setErrorMessage("error");
+        store.markChanged(trade.getId());
+        records = store.drainJournalRecords();
+        assertThat(records).hasSize(1);
+        assertThat(records.get(0).getTrade().getErrorMessage()).isEqualTo("error");
+
+        store.removeTrade(trade);
+        records = store.drainJournalRecords();
+        assertThat(records).hasSize(1);
+        assertThat(records.get(0).getTradeId()).isEqualTo(trade.getId());
+        assertThat(records.get(0).hasTrade()).isFalse();
+    }
+
+    @Test
+    void replayJournalRecords() throws InvalidProtocolBufferException {
+        BisqEasyTradeStore store = new BisqEasyTradeStore();
+        BisqEasyTrade changedTrade = TradeFixtures.createBisqEasyTrade();
+        BisqEasyTrade removedTrade = TradeFixtures.createBisqEasyTrade();
+        store.addTrade(changedTrade);
+        store.addTrade(removedTrade);
+        BisqEasyTradeStore snapshot = store.getClone();
+        store.drainJournalRecords();
+
+        BisqEasyTrade addedTrade = TradeFixtures.createBisqEasyTrade();
+        store.addTrade(addedTrade);
+        changedTrade.setErrorMessage("error");
+        store.markChanged(changedTrade.getId());
+        store.removeTrade(removedTrade);
+
+        snapshot.applyJournalRecords(serializeAndParse(store.drainJournalRecords()));
+        assertThat(snapshot.findTrade(addedTrade.getId())).isPresent();
+        assertThat(snapshot.findTrade(changedTrade.getId()).orElseThrow().getErrorMessage()).isEqualTo("error");
+        assertThat(snapshot.findTrade(removedTrade.getId())).isEmpty();
+        assertThat(snapshot.getTrades()).hasSize(2);
+        // The trade IDs are kept for removed trades, so that a trade cannot be taken again
+        assertThat(snapshot.tradeExists(removedTrade.getId())).isTrue();
+    }
+
+    @Test
+    void applyPersistedClearsChanges() {
+        BisqEasyTradeStore persisted = new BisqEasyTradeStore();
+        persisted.addTrade(TradeFixtures.createBisqEasyTrade());
+
+        BisqEasyTradeStore store = new BisqEasyTradeStore();
+        store.addTrade(TradeFixtures.createBisqEasyTrade());
+        store.applyPersisted(persisted);
+        assertThat(store.getTrades()).hasSize(1);
+        assertThat(store.drainJournalRecords()).isEmpty();
+    }
+
+    @Test
+    void persistChangesAndReadWithJournal(@TempDir Path tempDir) {
+        BisqEasyTradeStore store = new BisqEasyTradeStore();
+        PersistableStoreResolver.addResolver(store.getResolver());
+        var journaledPersistence = createJournaledPersistence(tempDir);
+        BisqEasyTrade trade = TradeFixtures.createBisqEasyTrade();
+        store.addTrade(trade);
+        assertThat(journaledPersistence.persistChanges(store).join()).isTrue();
+        trade.setErrorMessage("error");
+        store.markChanged(trade.getId());
+        assertThat(journaledPersistence.persistChanges(store).join()).isTrue();
+
+        Optional<BisqEasyTradeStore> persisted = createJournaledPersistence(tempDir)
+                .readAsync(BisqEasyTradeStore::new)
+                .join();
+        assertThat(persisted).isPresent();
+        assertThat(persisted.get().findTrade(trade.getId()).orElseThrow().getErrorMessage()).isEqualTo("error");
+    }
+
+    private static JournaledPersistence<BisqEasyTradeStore, TradeJournalRecord> createJournaledPersistence(Path tempDir) {
+        Persistence<BisqEasyTradeStore> persistence = new Persistence<>(tempDir.toString(),
+                BisqEasyTradeStore.class.getSimpleName(),
+                MaxBackupSize.ZERO);
+        return new JournaledPersistence<>(persistence, TradeJournalRecord.parser(), 100);
+    }
+
+    private static List<TradeJournalRecord> serializeAndParse(List<TradeJournalRecord> records)
+            throws InvalidProtocolBufferException {
+        List<TradeJournalRecord> parsedRecords = new ArrayList<>();
+        for (TradeJournalRecord record : records) {
+            parsedRecords.add(TradeJournalRecord.parseFrom(record.toByteArray()));
+        }
+        return parsedRecords;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.trade.mu_sig;
+
+import bisq.persistence.JournaledPersistence;
+import bisq.persistence.PersistableStoreResolver;
+import bisq.persistence.Persistence;
+import bisq.persistence.backup.MaxBackupSize;
+import bisq.trade.TradeFixtures;
+import bisq.trade.protobuf.TradeJournalRecord;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MuSigTradeStoreTest {
+    @Test
+    void trackAddedChangedAndRemovedTrades() {
+        MuSigTradeStore store = new MuSigTradeStore();
+        MuSigTrade trade = TradeFixtures.createMuSigTrade();
+        store.addTrade(trade);
+        List<TradeJournalRecord> records = store.drainJournalRecords();
+        assertThat(records).hasSize(1);
+        assertThat(records.get(0).getTradeId()).isEqualTo(trade.getId());
+        assertThat(records.get(0).hasTrade()).isTrue();
+        assertThat(store.drainJournalRecords()).isEmpty();
+
+        trade.setErrorMessage("error");
+        store.markChanged(trade.getId());
+        records = store.drainJournalRecords();
+        assertThat(records).hasSize(1);
+        assertThat(records.get(0).getTrade().getErrorMessage()).isEqualTo("error");
+
+        store.removeTrade(trade.getId());
+        records = store.drainJournalRecords();
+        assertThat(records).hasSize(1);
+        assertThat(records.get(0).getTradeId()).isEqualTo(trade.getId());
+        assertThat(records.get(0).hasTrade()).isFalse();
+    }
+
+    @Test
+    void replayJournalRecords() throws InvalidProtocolBufferException {
+        MuSigTradeStore store = new MuSigTradeStore();
+        MuSigTrade changedTrade = TradeFixtures.createMuSigTrade();
+        MuSigTrade removedTrade = TradeFixtures.createMuSigTrade();
+        store.addTrade(changedTrade);
+        store.addTrade(removedTrade);
+        MuSigTradeStore snapshot = store.getClone();
+        store.drainJournalRecords();
+
+        MuSigTrade addedTrade = TradeFixtures.createMuSigTrade();
+        store.addTrade(addedTrade);
+        changedTrade.setErrorMessage("error");
+        store.markChanged(changedTrade.getId());
+        store.removeTrade(removedTrade.getId());
+
+        snapshot.applyJournalRecords(serializeAndParse(store.drainJournalRecords()));
+        assertThat(snapshot.findTrade(addedTrade.getId())).isPresent();
+        assertThat(snapshot.findTrade(changedTrade.getId()).orElseThrow().getErrorMessage()).isEqualTo("error");
+        assertThat(snapshot.findTrade(removedTrade.getId())).isEmpty();
+        assertThat(snapshot.getTrades()).hasSize(2);
+        assertThat(snapshot.tradeExists(removedTrade.getId())).isFalse();
+    }
+
+    @Test
+    void skipCorruptJournalRecord() throws InvalidProtocolBufferException {
+        MuSigTradeStore store = new MuSigTradeStore();
+        MuSigTrade trade = TradeFixtures.createMuSigTrade();
+        MuSigTrade corruptTrade = TradeFixtures.createMuSigTrade();
+        store.addTrade(trade);
+        store.addTrade(corruptTrade);
+        List<TradeJournalRecord> records = new ArrayList<>(store.drainJournalRecords());
+        // A trade without contract cannot be resolved
+        records.replaceAll(record -> record.getTradeId().equals(corruptTrade.getId())
+                ? record.toBuilder().setTrade(record.getTrade().toBuilder().clearContract()).build()
+                : record);
+
+        MuSigTradeStore snapshot = new MuSigTradeStore();
+        snapshot.applyJournalRecords(serializeAndParse(records));
+        assertThat(snapshot.findTrade(trade.getId())).isPresent();
+        assertThat(snapshot.findTrade(corruptTrade.getId())).isEmpty();
+        assertThat(snapshot.getTrades()).hasSize(1);
+    }
+
+    @Test
+    void applyPersistedClearsChanges() {
+        MuSigTradeStore persisted = new MuSigTradeStore();
+        persisted.addTrade(TradeFixtures.createMuSigTrade());
+
+        MuSigTradeStore store = new MuSigTradeStore();
+        store.addTrade(TradeFixtures.createMuSigTrade());
+        store.applyPersisted(persisted);
+        assertThat(store.getTrades()).hasSize(1);
+        assertThat(store.drainJournalRecords()).isEmpty();
+    }
+
+    @Test
+    void persistChangesAndReadWithJournal(@TempDir Path tempDir) {
+        MuSigTradeStore store = new MuSigTradeStore();
+        PersistableStoreResolver.addResolver(store.getResolver());
+        var journaledPersistence = createJournaledPersistence(tempDir);
+        MuSigTrade trade = TradeFixtures.createMuSigTrade();
+        store.addTrade(trade);
+        assertThat(journaledPersistence.persistChanges(store).join()).isTrue();
+        trade.setErrorMessage("error");
+        store.markChanged(trade.getId());
+        assertThat(journaledPersistence.persistChanges(store).join()).isTrue();
+
+        Optional<MuSigTradeStore> persisted = createJournaledPersistence(tempDir)
+                .readAsync(MuSigTradeStore::new)
+                .join();
+        assertThat(persisted).isPresent();
+        assertThat(persisted.get().findTrade(trade.getId()).orElseThrow().getErrorMessage()).isEqualTo("error");
+    }
+
+    private static JournaledPersistence<MuSigTradeStore, TradeJournalRecord> createJournaledPersistence(Path tempDir) {
+        Persistence<MuSigTradeStore> persistence = new Persistence<>(tempDir.toString(),
+                MuSigTradeStore.class.getSimpleName(),
+                MaxBackupSize.ZERO);
+        return new JournaledPersistence<>(persistence, TradeJournalRecord.parser(), 100);
+    }
+
+    private static List<TradeJournalRecord> serializeAndParse(List<TradeJournalRecord> records)
+            throws InvalidProtocolBufferException {
+        List<TradeJournalRecord> parsedRecords = new ArrayList<>();
+        for (TradeJournalRecord record : records) {
+            parsedRecords.add(TradeJournalRecord.parseFrom(record.toByteArray()));
+        }
+        return parsedRecords;
+    }
+}
@@ -30,6 +30,7 @@ import bisq.user.identity.UserIdentityService;
 import bisq.user.profile.UserProfile;
 import bisq.user.profile.UserProfileService;
 import com.google.common.annotations.VisibleForTesting;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -45,6 +46,8 @@ public class ReputationService implements Service {
     private final SignedWitnessService signedWitnessService;
     private final Observable<String> userProfileIdWithScoreChange = new Observable<>();
     private final ObservableHashMap<String, Long> scoreByUserProfileId = new ObservableHashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final ScoreRankIndex scoreRankIndex = new ScoreRankIndex();
     private final ProfileAgeService profileAgeService;
     private final NetworkService networkService;
 
@@ -145,8 +148,7 @@ public class ReputationService implements Service {
         }
 
         double fiveSystemScore = getFiveSystemScore(score);
-        int index = getIndex(score, scoreByUserProfileId.values());
-        int rank = scoreByUserProfileId.size() - index;
+        int rank = scoreRankIndex.getRank(score);
         return Optional.of(new ReputationScore(score, fiveSystemScore, rank));
     }
 
@@ -160,6 +162,7 @@ public class ReputationService implements Service {
                 accountAgeService.getScore(userProfileId) +
                 signedWitnessService.getScore(userProfileId) +
                 profileAgeService.getScore(userProfileId);
+        scoreRankIndex.put(userProfileId, score);
         scoreByUserProfileId.put(userProfileId, score);
         userProfileIdWithScoreChange.set(userProfileId);
     }
@@ -191,6 +194,7 @@ public class ReputationService implements Service {
         }
     }
 
+    // Reference implementation of the index lookup in the ScoreRankIndex. Only used in tests.
     @VisibleForTesting
     static int getIndex(long candidateScore, Collection<Long> scores) {
         List<Long> list = new ArrayList<>(scores);
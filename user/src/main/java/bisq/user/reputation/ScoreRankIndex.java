@@ -0,0 +1,183 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.user.reputation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Keeps the reputation scores of all user profiles in an order statistic tree (a treap with the number of scores in
+ * each subtree), so that updating a score and looking up the rank of a score are O(log n).
+ */
+class ScoreRankIndex {
+    private static final class Node {
+        private final long score;
+        private final int priority;
+        // Number of user profiles with that score
+        private int count = 1;
+        // Sum of the counts in that subtree
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long score, int priority) {
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<String, Long> scoreByUserProfileId = new HashMap<>();
+    private final Random random = new Random();
+    private Node root;
+
+    synchronized void put(String userProfileId, long score) {
+        Long previousScore = scoreByUserProfileId.put(userProfileId, score);
+        if (previousScore != null) {
+            if (previousScore == score) {
+                return;
+            }
+            root = remove(root, previousScore);
+        }
+        root = insert(root, score);
+    }
+
+    synchronized int size() {
+        return size(root);
+    }
+
+    /**
+     * @return The rank of the given score, where the highest score has rank 1. Profiles with the same score share
+     * the rank of the last of them. If no profile has that score we return size + 1.
+     */
+    synchronized int getRank(long score) {
+        int size = size(root);
+        return contains(score) ? size - countLower(score) : size + 1;
+    }
+
+    /**
+     * @return The number of profiles with a lower score than the given score.
+     */
+    synchronized int countLower(long score) {
+        int result = 0;
+        Node node = root;
+        while (node != null) {
+            if (score <= node.score) {
+                node = node.left;
+            } else {
+                result += size(node.left) + node.count;
+                node = node.right;
+            }
+        }
+        return result;
+    }
+
+    synchronized boolean contains(long score) {
+        Node node = root;
+        while (node != null) {
+            if (score == node.score) {
+                return true;
+            }
+            node = score < node.score ? node.left : node.right;
+        }
+        return false;
+    }
+
+    private Node insert(Node node, long score) {
+        if (node == null) {
+            return new Node(score, random.nextInt());
+        }
+        if (score == node.score) {
+            node.count++;
+        } else if (score < node.score) {
+            node.left = insert(node.left, score);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, score);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node remove(Node node, long score) {
+        if (node == null) {
+            return null;
+        }
+        if (score < node.score) {
+            node.left = remove(node.left, score);
+        } else if (score > node.score) {
+            node.right = remove(node.right, score);
+        } else if (node.count > 1) {
+            node.count--;
+        } else {
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    // All scores in left are lower than the scores in right
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            update(right);
+            return right;
+        }
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.size = size(node.left) + node.count + size(node.right);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.user.reputation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScoreRankIndexTest {
+
+    @Test
+    void testGetRank() {
+        ScoreRankIndex index = new ScoreRankIndex();
+        assertEquals(1, index.getRank(1));
+
+        List<Long> scores = List.of(1L, 2L, 2L, 4L, 5L);
+        for (int i = 0; i < scores.size(); i++) {
+            index.put("id" + i, scores.get(i));
+        }
+        assertEquals(5, index.size());
+        assertEquals(5, index.getRank(1));
+        assertEquals(4, index.getRank(2));
+        assertEquals(2, index.getRank(4));
+        assertEquals(1, index.getRank(5));
+        // Not existing scores get the rank after the last
+        assertEquals(6, index.getRank(3));
+        assertEquals(6, index.getRank(0));
+
+        // Score change of id1 from 2 to 6
+        index.put("id1", 6);
+        assertEquals(5, index.size());
+        assertEquals(1, index.getRank(6));
+        assertEquals(4, index.getRank(2));
+        assertTrue(index.contains(2));
+
+        // Score change of id2 from 2 to 6
+        index.put("id2", 6);
+        assertFalse(index.contains(2));
+        assertEquals(2, index.getRank(6));
+        assertEquals(4, index.countLower(6));
+    }
+
+    @Test
+    void testMatchesSortedList() {
+        Random random = new Random(42);
+        ScoreRankIndex index = new ScoreRankIndex();
+        Map<String, Long> scoreByUserProfileId = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            String userProfileId = "id" + random.nextInt(1000);
+            long score = random.nextInt(500);
+            index.put(userProfileId, score);
+            scoreByUserProfileId.put(userProfileId, score);
+
+            if (i % 100 == 0) {
+                for (long candidate = 0; candidate < 500; candidate += 7) {
+                    int expectedRank = scoreByUserProfileId.size() -
+                            ReputationService.getIndex(candidate, scoreByUserProfileId.values());
+                    assertEquals(expectedRank, index.getRank(candidate));
+                }
+            }
+        }
+        assertEquals(scoreByUserProfileId.size(), index.size());
+    }
+}